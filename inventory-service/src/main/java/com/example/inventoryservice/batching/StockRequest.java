@@ -0,0 +1,70 @@
+package com.example.inventoryservice.batching;
+
+import com.example.inventoryservice.model.InventoryItem;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One caller's reservation or release, waiting to be applied with others in one transaction. The
+ * outcome is recorded while the batch is applied and handed to the caller once it has committed.
+ */
+public final class StockRequest {
+    
+    private final Long productId;
+    private final int quantity;
+    private final boolean release;
+    private final CompletableFuture<InventoryItem> result = new CompletableFuture<>();
+    
+    private InventoryItem item;
+    private RuntimeException failure;
+    
+    public StockRequest(Long productId, int quantity, boolean release) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.release = release;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public boolean isRelease() {
+        return release;
+    }
+    
+    public CompletableFuture<InventoryItem> getResult() {
+        return result;
+    }
+    
+    /**
+     * Records the item as it was right after this request was applied.
+     */
+    public void succeeded(InventoryItem item) {
+        this.item = item;
+        this.failure = null;
+    }
+    
+    public void failed(RuntimeException failure) {
+        this.item = null;
+        this.failure = failure;
+    }
+    
+    public boolean isFailed() {
+        return failure != null;
+    }
+    
+    /**
+     * Hands the recorded outcome to the caller.
+     */
+    void complete() {
+        if (failure != null) {
+            result.completeExceptionally(failure);
+        } else {
+            result.complete(item);
+        }
+    }
+}
\ No newline at end of file
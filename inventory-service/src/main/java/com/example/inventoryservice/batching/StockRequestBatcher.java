@@ -0,0 +1,283 @@
+package com.example.inventoryservice.batching;
+
+import com.example.inventoryservice.dto.BatchingStats;
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.service.InventoryService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Group commit for single-product reservations and releases. With {@code inventory.batching.enabled},
+ * callers queue their requests and wait; a committer thread takes every request queued, waits up to
+ * {@code window-us} for more until it has {@code max-batch-size}, and applies them all in one
+ * transaction with {@link InventoryService#applyStockRequests}. Many concurrent callers then share one
+ * commit instead of each paying for their own.
+ *
+ * <p>Each caller gets its own outcome. A request that is short of stock fails alone and the rest of its
+ * batch commits. Only if the transaction itself fails are the batch's requests retried one by one. When
+ * the queue is full, callers apply their own request directly rather than wait. A caller waits at most
+ * {@code await-timeout-ms} for its outcome.
+ */
+@Component
+public class StockRequestBatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockRequestBatcher.class);
+    
+    /**
+     * How long an idle committer waits for a request before checking whether it should stop.
+     */
+    private static final long IDLE_POLL_MILLIS = 100;
+    
+    private final InventoryService inventoryService;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final int committerThreads;
+    private final long awaitTimeoutMillis;
+    private final BlockingQueue<StockRequest> queue;
+    private final List<Thread> committers = new ArrayList<>();
+    // Held shared to queue a request and exclusively to stop, so nothing is queued once stop() drains
+    private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder retriedBatches = new LongAdder();
+    private final LongAdder directRequests = new LongAdder();
+    private final LongAccumulator largestBatch = new LongAccumulator(Math::max, 0);
+    
+    @Autowired
+    public StockRequestBatcher(InventoryService inventoryService,
+                               @Value("${inventory.batching.enabled}") boolean enabled,
+                               @Value("${inventory.batching.window-us}") long windowMicros,
+                               @Value("${inventory.batching.max-batch-size}") int maxBatchSize,
+                               @Value("${inventory.batching.queue-capacity}") int queueCapacity,
+                               @Value("${inventory.batching.committer-threads}") int committerThreads,
+                               @Value("${inventory.batching.await-timeout-ms}") long awaitTimeoutMillis) {
+        this.inventoryService = inventoryService;
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+        this.committerThreads = committerThreads;
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= committerThreads; i++) {
+            Thread committer = new Thread(this::commitLoop, "stock-request-batcher-" + i);
+            committer.setDaemon(true);
+            committer.start();
+            committers.add(committer);
+        }
+        log.info("Batching reservations and releases: window {} us, up to {} per batch, {} committer threads",
+            TimeUnit.NANOSECONDS.toMicros(windowNanos), maxBatchSize, committerThreads);
+    }
+    
+    /**
+     * Stops queueing requests, lets the committers finish the batches they hold, then applies whatever is
+     * still queued. Committers are never interrupted, so no batch is abandoned halfway.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        lifecycle.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lifecycle.writeLock().unlock();
+        }
+        for (Thread committer : committers) {
+            committer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        applyQueued();
+    }
+    
+    /**
+     * Reserves stock as {@link InventoryService#reserveStock(Long, Integer)} does, as part of the next
+     * batch, and waits for the outcome.
+     */
+    public InventoryItem reserveStock(Long productId, Integer quantity) {
+        if (!enabled) {
+            return inventoryService.reserveStock(productId, quantity);
+        }
+        return await(new StockRequest(productId, quantity, false));
+    }
+    
+    /**
+     * Releases reserved stock as {@link InventoryService#releaseStock(Long, Integer)} does, as part of
+     * the next batch, and waits for the outcome.
+     */
+    public InventoryItem releaseStock(Long productId, Integer quantity) {
+        if (!enabled) {
+            return inventoryService.releaseStock(productId, quantity);
+        }
+        return await(new StockRequest(productId, quantity, true));
+    }
+    
+    /**
+     * Queues the request for the next batch, or applies it now if batching is stopped or the queue is
+     * full, and returns its outcome once its transaction has committed.
+     */
+    public CompletableFuture<InventoryItem> submit(StockRequest request) {
+        requests.increment();
+        boolean queued;
+        lifecycle.readLock().lock();
+        try {
+            queued = running && queue.offer(request);
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+        if (!queued) {
+            directRequests.increment();
+            inventoryService.applyStockRequest(request);
+            finish(request);
+        }
+        return request.getResult();
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public BatchingStats getStats() {
+        BatchingStats stats = new BatchingStats();
+        stats.setEnabled(enabled);
+        stats.setRequests(requests.sum());
+        stats.setBatches(batches.sum());
+        stats.setLargestBatch((int) largestBatch.get());
+        stats.setFailedRequests(failedRequests.sum());
+        stats.setRetriedBatches(retriedBatches.sum());
+        stats.setDirectRequests(directRequests.sum());
+        stats.setQueuedRequests(queue.size());
+        return stats;
+    }
+    
+    private void commitLoop() {
+        List<StockRequest> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                StockRequest first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    collect(batch);
+                    apply(batch);
+                }
+            } catch (Throwable ex) {
+                // No caller may be left waiting on a batch this committer gave up on
+                log.error("Failed to apply a batch of {} stock requests", batch.size(), ex);
+                for (StockRequest request : batch) {
+                    if (!request.getResult().isDone()) {
+                        failedRequests.increment();
+                        request.getResult().completeExceptionally(ex);
+                    }
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    /**
+     * Adds whatever is already queued, then waits out the window for more, up to the batch size.
+     */
+    private void collect(List<StockRequest> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            StockRequest next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+    
+    private void apply(List<StockRequest> batch) {
+        try {
+            inventoryService.applyStockRequests(batch);
+        } catch (RuntimeException ex) {
+            // Nothing in the batch was committed; apply each request in its own transaction instead, so
+            // whatever broke the batch fails only its own request
+            retriedBatches.increment();
+            log.warn("Batch of {} stock requests failed, retrying them one by one", batch.size(), ex);
+            batch.forEach(inventoryService::applyStockRequest);
+        }
+        batches.increment();
+        largestBatch.accumulate(batch.size());
+        batch.forEach(this::finish);
+    }
+    
+    private void applyQueued() {
+        List<StockRequest> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, maxBatchSize) > 0) {
+            apply(remaining);
+            remaining.clear();
+        }
+    }
+    
+    private void finish(StockRequest request) {
+        if (request.isFailed()) {
+            failedRequests.increment();
+        }
+        request.complete();
+    }
+    
+    /**
+     * Submits the request and waits up to {@code await-timeout-ms} for its outcome. A request that timed
+     * out still in the queue is withdrawn; one already taken into a batch may yet be applied.
+     */
+    private InventoryItem await(StockRequest request) {
+        try {
+            return submit(request).get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            if (queue.remove(request)) {
+                failedRequests.increment();
+                request.getResult().cancel(false);
+                throw new IllegalStateException("Stock request for product id " + request.getProductId() +
+                    " was not applied within " + awaitTimeoutMillis + " ms", ex);
+            }
+            throw new IllegalStateException("Timed out after " + awaitTimeoutMillis + " ms waiting for stock " +
+                "request for product id " + request.getProductId() + "; it may still be applied", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Stock request failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for stock request", ex);
+        }
+    }
+}
\ No newline at end of file
@@ -1,25 +1,60 @@
 package com.example.inventoryservice.controller;
 
+import com.example.inventoryservice.batching.StockRequestBatcher;
+import com.example.inventoryservice.dto.AvailabilityRequest;
+import com.example.inventoryservice.dto.AvailabilityResponse;
+import com.example.inventoryservice.dto.BatchReservationRequest;
+import com.example.inventoryservice.dto.BatchingStats;
+import com.example.inventoryservice.dto.DurabilityStats;
+import com.example.inventoryservice.dto.HoldRequest;
+import com.example.inventoryservice.dto.InventoryPage;
+import com.example.inventoryservice.dto.LedgerStats;
+import com.example.inventoryservice.dto.ReservationStats;
 import com.example.inventoryservice.dto.StockReservationRequest;
+import com.example.inventoryservice.dto.StockStreamStats;
+import com.example.inventoryservice.durability.DurableInventoryStore;
+import com.example.inventoryservice.ledger.StockLedger;
 import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.model.Reservation;
 import com.example.inventoryservice.service.InventoryService;
+import com.example.inventoryservice.service.ReservationService;
+import com.example.inventoryservice.stream.StockChangeBroadcaster;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.BitSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/inventory")
 public class InventoryController {
     
     private final InventoryService inventoryService;
+    private final ReservationService reservationService;
+    private final StockLedger stockLedger;
+    private final StockChangeBroadcaster stockChangeBroadcaster;
+    private final DurableInventoryStore durableInventoryStore;
+    private final StockRequestBatcher stockRequestBatcher;
     
     @Autowired
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(InventoryService inventoryService,
+                               ReservationService reservationService,
+                               StockLedger stockLedger,
+                               StockChangeBroadcaster stockChangeBroadcaster,
+                               DurableInventoryStore durableInventoryStore,
+                               StockRequestBatcher stockRequestBatcher) {
         this.inventoryService = inventoryService;
+        this.reservationService = reservationService;
+        this.stockLedger = stockLedger;
+        this.stockChangeBroadcaster = stockChangeBroadcaster;
+        this.durableInventoryStore = durableInventoryStore;
+        this.stockRequestBatcher = stockRequestBatcher;
     }
     
     @GetMapping
@@ -55,33 +90,108 @@ public class InventoryController {
     @PostMapping("/{productId}/reserve")
     public ResponseEntity<InventoryItem> reserveStock(@PathVariable Long productId, 
                                                      @Valid @RequestBody StockReservationRequest request) {
-        InventoryItem updatedItem = inventoryService.reserveStock(productId, request.getQuantity());
+        InventoryItem updatedItem = stockRequestBatcher.reserveStock(productId, request.getQuantity());
         return ResponseEntity.ok(updatedItem);
     }
     
     @PostMapping("/{productId}/release")
     public ResponseEntity<InventoryItem> releaseStock(@PathVariable Long productId, 
                                                      @Valid @RequestBody StockReservationRequest request) {
-        InventoryItem updatedItem = inventoryService.releaseStock(productId, request.getQuantity());
+        InventoryItem updatedItem = stockRequestBatcher.releaseStock(productId, request.getQuantity());
         return ResponseEntity.ok(updatedItem);
     }
     
+    @PostMapping("/reservations")
+    public ResponseEntity<List<InventoryItem>> reserveStock(@Valid @RequestBody BatchReservationRequest request) {
+        List<InventoryItem> updatedItems = inventoryService.reserveStock(request.getItems());
+        return ResponseEntity.ok(updatedItems);
+    }
+    
+    @PostMapping("/reservations/release")
+    public ResponseEntity<List<InventoryItem>> releaseStock(@Valid @RequestBody BatchReservationRequest request) {
+        List<InventoryItem> updatedItems = inventoryService.releaseStock(request.getItems());
+        return ResponseEntity.ok(updatedItems);
+    }
+    
+    @PostMapping("/reservations/holds")
+    public ResponseEntity<Reservation> createHold(@Valid @RequestBody HoldRequest request) {
+        Reservation reservation = reservationService.reserve(request.getItems(), request.getTtlSeconds());
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+    }
+    
+    @GetMapping("/reservations/holds/stats")
+    public ResponseEntity<ReservationStats> getHoldStats() {
+        return ResponseEntity.ok(reservationService.getStats());
+    }
+    
+    @GetMapping("/reservations/holds/{reservationId}")
+    public ResponseEntity<Reservation> getHold(@PathVariable String reservationId) {
+        return ResponseEntity.ok(reservationService.getReservation(reservationId));
+    }
+    
+    @PostMapping("/reservations/holds/{reservationId}/confirm")
+    public ResponseEntity<Reservation> confirmHold(@PathVariable String reservationId) {
+        return ResponseEntity.ok(reservationService.confirm(reservationId));
+    }
+    
+    @DeleteMapping("/reservations/holds/{reservationId}")
+    public ResponseEntity<Void> cancelHold(@PathVariable String reservationId) {
+        reservationService.cancel(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+    
     @GetMapping("/{productId}/available")
     public ResponseEntity<Boolean> checkStockAvailability(@PathVariable Long productId, @RequestParam Integer quantity) {
         boolean available = inventoryService.isStockAvailable(productId, quantity);
         return ResponseEntity.ok(available);
     }
     
+    @PostMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@Valid @RequestBody AvailabilityRequest request) {
+        BitSet available = inventoryService.checkAvailability(request.getItems());
+        return ResponseEntity.ok(new AvailabilityResponse(request.getItems().size(), available));
+    }
+    
     @GetMapping("/available")
-    public ResponseEntity<List<InventoryItem>> getItemsWithAvailableStock() {
-        List<InventoryItem> items = inventoryService.getItemsWithAvailableStock();
-        return ResponseEntity.ok(items);
+    public ResponseEntity<InventoryPage> getItemsWithAvailableStock(@RequestParam(required = false) Integer afterStock,
+                                                                    @RequestParam(required = false) Long afterProductId,
+                                                                    @RequestParam(defaultValue = "100") Integer limit) {
+        InventoryPage page = inventoryService.getItemsWithAvailableStock(afterStock, afterProductId, limit);
+        return ResponseEntity.ok(page);
     }
     
     @GetMapping("/low-stock")
-    public ResponseEntity<List<InventoryItem>> getLowStockItems(@RequestParam(defaultValue = "10") Integer threshold) {
-        List<InventoryItem> items = inventoryService.getLowStockItems(threshold);
-        return ResponseEntity.ok(items);
+    public ResponseEntity<InventoryPage> getLowStockItems(@RequestParam(defaultValue = "10") Integer threshold,
+                                                          @RequestParam(required = false) Integer afterStock,
+                                                          @RequestParam(required = false) Long afterProductId,
+                                                          @RequestParam(defaultValue = "100") Integer limit) {
+        InventoryPage page = inventoryService.getLowStockItems(threshold, afterStock, afterProductId, limit);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockChanges(@RequestParam Set<Long> productIds) {
+        return stockChangeBroadcaster.subscribe(productIds);
+    }
+    
+    @GetMapping("/stream/stats")
+    public ResponseEntity<StockStreamStats> getStreamStats() {
+        return ResponseEntity.ok(stockChangeBroadcaster.getStats());
+    }
+    
+    @GetMapping("/durability/stats")
+    public ResponseEntity<DurabilityStats> getDurabilityStats() {
+        return ResponseEntity.ok(durableInventoryStore.getStats());
+    }
+    
+    @GetMapping("/batching/stats")
+    public ResponseEntity<BatchingStats> getBatchingStats() {
+        return ResponseEntity.ok(stockRequestBatcher.getStats());
+    }
+    
+    @GetMapping("/ledger/stats")
+    public ResponseEntity<LedgerStats> getLedgerStats() {
+        return ResponseEntity.ok(stockLedger.getStats());
     }
     
     @GetMapping("/health")
@@ -0,0 +1,28 @@
+package com.example.inventoryservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class AvailabilityRequest {
+    
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 10000, message = "At most 10000 items can be checked at once")
+    private List<@Valid ReservationLine> items;
+    
+    public AvailabilityRequest() {}
+    
+    public AvailabilityRequest(List<ReservationLine> items) {
+        this.items = items;
+    }
+    
+    public List<ReservationLine> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<ReservationLine> items) {
+        this.items = items;
+    }
+}
\ No newline at end of file
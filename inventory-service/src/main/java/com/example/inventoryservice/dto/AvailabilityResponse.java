@@ -0,0 +1,49 @@
+package com.example.inventoryservice.dto;
+
+import java.util.Base64;
+import java.util.BitSet;
+
+/**
+ * Availability of each requested line as a bitmap aligned to the request: bit {@code i} is set if line
+ * {@code i} can be reserved. {@code bitmap} is Base64 of the bitmap's bytes, lowest bit first, so line
+ * {@code i} is {@code (bytes[i / 8] >> (i % 8)) & 1}. Trailing zero bytes are left out.
+ */
+public class AvailabilityResponse {
+    
+    private int count;
+    private int availableCount;
+    private String bitmap;
+    
+    public AvailabilityResponse() {}
+    
+    public AvailabilityResponse(int count, BitSet available) {
+        this.count = count;
+        this.availableCount = available.cardinality();
+        this.bitmap = Base64.getEncoder().encodeToString(available.toByteArray());
+    }
+    
+    // Getters and Setters
+    public int getCount() {
+        return count;
+    }
+    
+    public void setCount(int count) {
+        this.count = count;
+    }
+    
+    public int getAvailableCount() {
+        return availableCount;
+    }
+    
+    public void setAvailableCount(int availableCount) {
+        this.availableCount = availableCount;
+    }
+    
+    public String getBitmap() {
+        return bitmap;
+    }
+    
+    public void setBitmap(String bitmap) {
+        this.bitmap = bitmap;
+    }
+}
\ No newline at end of file
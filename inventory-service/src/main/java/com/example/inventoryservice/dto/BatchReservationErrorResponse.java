@@ -0,0 +1,26 @@
+package com.example.inventoryservice.dto;
+
+import java.util.List;
+
+/**
+ * Error response for a rejected batch reservation, listing every line that was short.
+ */
+public class BatchReservationErrorResponse extends ErrorResponse {
+    
+    private List<ReservationShortfall> shortfalls;
+    
+    public BatchReservationErrorResponse() {}
+    
+    public BatchReservationErrorResponse(String error, String message, List<ReservationShortfall> shortfalls) {
+        super(error, message);
+        this.shortfalls = shortfalls;
+    }
+    
+    public List<ReservationShortfall> getShortfalls() {
+        return shortfalls;
+    }
+    
+    public void setShortfalls(List<ReservationShortfall> shortfalls) {
+        this.shortfalls = shortfalls;
+    }
+}
\ No newline at end of file
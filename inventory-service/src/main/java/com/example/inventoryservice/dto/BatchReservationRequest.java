@@ -0,0 +1,26 @@
+package com.example.inventoryservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BatchReservationRequest {
+    
+    @NotEmpty(message = "At least one item is required")
+    private List<@Valid ReservationLine> items;
+    
+    public BatchReservationRequest() {}
+    
+    public BatchReservationRequest(List<ReservationLine> items) {
+        this.items = items;
+    }
+    
+    public List<ReservationLine> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<ReservationLine> items) {
+        this.items = items;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.example.inventoryservice.dto;
+
+public class BatchingStats {
+    
+    private boolean enabled;
+    private long requests;
+    private long batches;
+    private int largestBatch;
+    private long failedRequests;
+    private long retriedBatches;
+    private long directRequests;
+    private int queuedRequests;
+    
+    public BatchingStats() {}
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public long getRequests() {
+        return requests;
+    }
+    
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+    
+    public long getBatches() {
+        return batches;
+    }
+    
+    public void setBatches(long batches) {
+        this.batches = batches;
+    }
+    
+    public int getLargestBatch() {
+        return largestBatch;
+    }
+    
+    public void setLargestBatch(int largestBatch) {
+        this.largestBatch = largestBatch;
+    }
+    
+    public long getFailedRequests() {
+        return failedRequests;
+    }
+    
+    public void setFailedRequests(long failedRequests) {
+        this.failedRequests = failedRequests;
+    }
+    
+    public long getRetriedBatches() {
+        return retriedBatches;
+    }
+    
+    public void setRetriedBatches(long retriedBatches) {
+        this.retriedBatches = retriedBatches;
+    }
+    
+    public long getDirectRequests() {
+        return directRequests;
+    }
+    
+    public void setDirectRequests(long directRequests) {
+        this.directRequests = directRequests;
+    }
+    
+    public int getQueuedRequests() {
+        return queuedRequests;
+    }
+    
+    public void setQueuedRequests(int queuedRequests) {
+        this.queuedRequests = queuedRequests;
+    }
+}
\ No newline at end of file
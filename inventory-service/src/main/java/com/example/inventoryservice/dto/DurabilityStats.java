@@ -0,0 +1,107 @@
+package com.example.inventoryservice.dto;
+
+public class DurabilityStats {
+    
+    private boolean enabled;
+    private long journalRecords;
+    private long journalGeneration;
+    private long snapshotGeneration;
+    private long snapshots;
+    private long snapshotFailures;
+    private int lastSnapshotProducts;
+    private long lastSnapshotMillis;
+    private int restoredProducts;
+    private long replayedRecords;
+    private long restoreMillis;
+    
+    public DurabilityStats() {}
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public long getJournalRecords() {
+        return journalRecords;
+    }
+    
+    public void setJournalRecords(long journalRecords) {
+        this.journalRecords = journalRecords;
+    }
+    
+    public long getJournalGeneration() {
+        return journalGeneration;
+    }
+    
+    public void setJournalGeneration(long journalGeneration) {
+        this.journalGeneration = journalGeneration;
+    }
+    
+    public long getSnapshotGeneration() {
+        return snapshotGeneration;
+    }
+    
+    public void setSnapshotGeneration(long snapshotGeneration) {
+        this.snapshotGeneration = snapshotGeneration;
+    }
+    
+    public long getSnapshots() {
+        return snapshots;
+    }
+    
+    public void setSnapshots(long snapshots) {
+        this.snapshots = snapshots;
+    }
+    
+    public long getSnapshotFailures() {
+        return snapshotFailures;
+    }
+    
+    public void setSnapshotFailures(long snapshotFailures) {
+        this.snapshotFailures = snapshotFailures;
+    }
+    
+    public int getLastSnapshotProducts() {
+        return lastSnapshotProducts;
+    }
+    
+    public void setLastSnapshotProducts(int lastSnapshotProducts) {
+        this.lastSnapshotProducts = lastSnapshotProducts;
+    }
+    
+    public long getLastSnapshotMillis() {
+        return lastSnapshotMillis;
+    }
+    
+    public void setLastSnapshotMillis(long lastSnapshotMillis) {
+        this.lastSnapshotMillis = lastSnapshotMillis;
+    }
+    
+    public int getRestoredProducts() {
+        return restoredProducts;
+    }
+    
+    public void setRestoredProducts(int restoredProducts) {
+        this.restoredProducts = restoredProducts;
+    }
+    
+    public long getReplayedRecords() {
+        return replayedRecords;
+    }
+    
+    public void setReplayedRecords(long replayedRecords) {
+        this.replayedRecords = replayedRecords;
+    }
+    
+    public long getRestoreMillis() {
+        return restoreMillis;
+    }
+    
+    public void setRestoreMillis(long restoreMillis) {
+        this.restoreMillis = restoreMillis;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.example.inventoryservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class HoldRequest {
+    
+    @NotEmpty(message = "At least one item is required")
+    private List<@Valid ReservationLine> items;
+    
+    // Optional; inventory.reservations.default-ttl-seconds when not given
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    private Integer ttlSeconds;
+    
+    public HoldRequest() {}
+    
+    public HoldRequest(List<ReservationLine> items, Integer ttlSeconds) {
+        this.items = items;
+        this.ttlSeconds = ttlSeconds;
+    }
+    
+    public List<ReservationLine> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<ReservationLine> items) {
+        this.items = items;
+    }
+    
+    public Integer getTtlSeconds() {
+        return ttlSeconds;
+    }
+    
+    public void setTtlSeconds(Integer ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.example.inventoryservice.dto;
+
+import com.example.inventoryservice.model.InventoryItem;
+
+import java.util.List;
+
+/**
+ * One page of inventory items in available stock, then product ID, order. Pass {@code nextAfterStock}
+ * and {@code nextAfterProductId} back to get the next page; both are null on the last page.
+ */
+public class InventoryPage {
+    
+    private List<InventoryItem> items;
+    private Integer nextAfterStock;
+    private Long nextAfterProductId;
+    
+    public InventoryPage() {}
+    
+    public InventoryPage(List<InventoryItem> items, Integer nextAfterStock, Long nextAfterProductId) {
+        this.items = items;
+        this.nextAfterStock = nextAfterStock;
+        this.nextAfterProductId = nextAfterProductId;
+    }
+    
+    // Getters and Setters
+    public List<InventoryItem> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<InventoryItem> items) {
+        this.items = items;
+    }
+    
+    public Integer getNextAfterStock() {
+        return nextAfterStock;
+    }
+    
+    public void setNextAfterStock(Integer nextAfterStock) {
+        this.nextAfterStock = nextAfterStock;
+    }
+    
+    public Long getNextAfterProductId() {
+        return nextAfterProductId;
+    }
+    
+    public void setNextAfterProductId(Long nextAfterProductId) {
+        this.nextAfterProductId = nextAfterProductId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.example.inventoryservice.dto;
+
+public class LedgerStats {
+    
+    private boolean enabled;
+    private int products;
+    private long reservations;
+    private long releases;
+    private long rejections;
+    private int pendingProducts;
+    private long flushes;
+    private long flushedRows;
+    private long flushFailures;
+    private long journalRecords;
+    private long journalSyncs;
+    
+    public LedgerStats() {}
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getProducts() {
+        return products;
+    }
+    
+    public void setProducts(int products) {
+        this.products = products;
+    }
+    
+    public long getReservations() {
+        return reservations;
+    }
+    
+    public void setReservations(long reservations) {
+        this.reservations = reservations;
+    }
+    
+    public long getReleases() {
+        return releases;
+    }
+    
+    public void setReleases(long releases) {
+        this.releases = releases;
+    }
+    
+    public long getRejections() {
+        return rejections;
+    }
+    
+    public void setRejections(long rejections) {
+        this.rejections = rejections;
+    }
+    
+    public int getPendingProducts() {
+        return pendingProducts;
+    }
+    
+    public void setPendingProducts(int pendingProducts) {
+        this.pendingProducts = pendingProducts;
+    }
+    
+    public long getFlushes() {
+        return flushes;
+    }
+    
+    public void setFlushes(long flushes) {
+        this.flushes = flushes;
+    }
+    
+    public long getFlushedRows() {
+        return flushedRows;
+    }
+    
+    public void setFlushedRows(long flushedRows) {
+        this.flushedRows = flushedRows;
+    }
+    
+    public long getFlushFailures() {
+        return flushFailures;
+    }
+    
+    public void setFlushFailures(long flushFailures) {
+        this.flushFailures = flushFailures;
+    }
+    
+    public long getJournalRecords() {
+        return journalRecords;
+    }
+    
+    public void setJournalRecords(long journalRecords) {
+        this.journalRecords = journalRecords;
+    }
+    
+    public long getJournalSyncs() {
+        return journalSyncs;
+    }
+    
+    public void setJournalSyncs(long journalSyncs) {
+        this.journalSyncs = journalSyncs;
+    }
+}
\ No newline at end of file
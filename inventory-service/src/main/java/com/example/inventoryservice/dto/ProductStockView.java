@@ -0,0 +1,11 @@
+package com.example.inventoryservice.dto;
+
+/**
+ * A product's available stock, read without loading the entity.
+ */
+public interface ProductStockView {
+    
+    Long getProductId();
+    
+    Integer getAvailableStock();
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.example.inventoryservice.dto;
+
+/**
+ * A batch line that could not be reserved. {@code available} is null when the product has no inventory.
+ */
+public class ReservationShortfall {
+    
+    private Long productId;
+    private Integer requested;
+    private Integer available;
+    
+    public ReservationShortfall() {}
+    
+    public ReservationShortfall(Long productId, Integer requested, Integer available) {
+        this.productId = productId;
+        this.requested = requested;
+        this.available = available;
+    }
+    
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getRequested() {
+        return requested;
+    }
+    
+    public void setRequested(Integer requested) {
+        this.requested = requested;
+    }
+    
+    public Integer getAvailable() {
+        return available;
+    }
+    
+    public void setAvailable(Integer available) {
+        this.available = available;
+    }
+}
\ No newline at end of file
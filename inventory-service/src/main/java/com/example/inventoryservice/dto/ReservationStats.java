@@ -0,0 +1,103 @@
+package com.example.inventoryservice.dto;
+
+/**
+ * Counters for expiring reservations. {@code expiredPerSecond} is expired reservations per second of
+ * time spent expiring them, and {@code pendingUnits} is stock from failed expiry batches waiting to be
+ * retried.
+ */
+public class ReservationStats {
+    
+    private int active;
+    private long created;
+    private long confirmed;
+    private long cancelled;
+    private long expired;
+    private long expiredUnits;
+    private long expiryBatches;
+    private long expiryFailures;
+    private long pendingUnits;
+    private long expiredPerSecond;
+    
+    public ReservationStats() {}
+    
+    // Getters and Setters
+    public int getActive() {
+        return active;
+    }
+    
+    public void setActive(int active) {
+        this.active = active;
+    }
+    
+    public long getCreated() {
+        return created;
+    }
+    
+    public void setCreated(long created) {
+        this.created = created;
+    }
+    
+    public long getConfirmed() {
+        return confirmed;
+    }
+    
+    public void setConfirmed(long confirmed) {
+        this.confirmed = confirmed;
+    }
+    
+    public long getCancelled() {
+        return cancelled;
+    }
+    
+    public void setCancelled(long cancelled) {
+        this.cancelled = cancelled;
+    }
+    
+    public long getExpired() {
+        return expired;
+    }
+    
+    public void setExpired(long expired) {
+        this.expired = expired;
+    }
+    
+    public long getExpiredUnits() {
+        return expiredUnits;
+    }
+    
+    public void setExpiredUnits(long expiredUnits) {
+        this.expiredUnits = expiredUnits;
+    }
+    
+    public long getExpiryBatches() {
+        return expiryBatches;
+    }
+    
+    public void setExpiryBatches(long expiryBatches) {
+        this.expiryBatches = expiryBatches;
+    }
+    
+    public long getExpiryFailures() {
+        return expiryFailures;
+    }
+    
+    public void setExpiryFailures(long expiryFailures) {
+        this.expiryFailures = expiryFailures;
+    }
+    
+    public long getPendingUnits() {
+        return pendingUnits;
+    }
+    
+    public void setPendingUnits(long pendingUnits) {
+        this.pendingUnits = pendingUnits;
+    }
+    
+    public long getExpiredPerSecond() {
+        return expiredPerSecond;
+    }
+    
+    public void setExpiredPerSecond(long expiredPerSecond) {
+        this.expiredPerSecond = expiredPerSecond;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.inventoryservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A product's stock level as pushed to stream subscribers. Both levels are null once the product's
+ * inventory has been deleted.
+ */
+public class StockChange {
+    
+    private Long productId;
+    private Integer availableStock;
+    private Integer reservedStock;
+    private LocalDateTime lastUpdated;
+    
+    public StockChange() {}
+    
+    public StockChange(Long productId, Integer availableStock, Integer reservedStock, LocalDateTime lastUpdated) {
+        this.productId = productId;
+        this.availableStock = availableStock;
+        this.reservedStock = reservedStock;
+        this.lastUpdated = lastUpdated;
+    }
+    
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getAvailableStock() {
+        return availableStock;
+    }
+    
+    public void setAvailableStock(Integer availableStock) {
+        this.availableStock = availableStock;
+    }
+    
+    public Integer getReservedStock() {
+        return reservedStock;
+    }
+    
+    public void setReservedStock(Integer reservedStock) {
+        this.reservedStock = reservedStock;
+    }
+    
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+    
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.example.inventoryservice.dto;
+
+/**
+ * Counters for the stock-change stream. {@code changes} counts stock changes to watched products;
+ * {@code eventsCoalesced} counts buffered events replaced by a newer level before they were sent, and
+ * {@code overflows} counts subscribers whose buffer filled up and who were told to resync.
+ */
+public class StockStreamStats {
+    
+    private int subscribers;
+    private int watchedProducts;
+    private long changes;
+    private long windows;
+    private long eventsSent;
+    private long eventsCoalesced;
+    private long overflows;
+    private long disconnects;
+    
+    public StockStreamStats() {}
+    
+    // Getters and Setters
+    public int getSubscribers() {
+        return subscribers;
+    }
+    
+    public void setSubscribers(int subscribers) {
+        this.subscribers = subscribers;
+    }
+    
+    public int getWatchedProducts() {
+        return watchedProducts;
+    }
+    
+    public void setWatchedProducts(int watchedProducts) {
+        this.watchedProducts = watchedProducts;
+    }
+    
+    public long getChanges() {
+        return changes;
+    }
+    
+    public void setChanges(long changes) {
+        this.changes = changes;
+    }
+    
+    public long getWindows() {
+        return windows;
+    }
+    
+    public void setWindows(long windows) {
+        this.windows = windows;
+    }
+    
+    public long getEventsSent() {
+        return eventsSent;
+    }
+    
+    public void setEventsSent(long eventsSent) {
+        this.eventsSent = eventsSent;
+    }
+    
+    public long getEventsCoalesced() {
+        return eventsCoalesced;
+    }
+    
+    public void setEventsCoalesced(long eventsCoalesced) {
+        this.eventsCoalesced = eventsCoalesced;
+    }
+    
+    public long getOverflows() {
+        return overflows;
+    }
+    
+    public void setOverflows(long overflows) {
+        this.overflows = overflows;
+    }
+    
+    public long getDisconnects() {
+        return disconnects;
+    }
+    
+    public void setDisconnects(long disconnects) {
+        this.disconnects = disconnects;
+    }
+}
\ No newline at end of file
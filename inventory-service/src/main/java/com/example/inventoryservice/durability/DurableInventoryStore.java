@@ -0,0 +1,319 @@
+package com.example.inventoryservice.durability;
+
+import com.example.inventoryservice.dto.DurabilityStats;
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.repository.InventoryRepository;
+import com.example.inventoryservice.transaction.CommitSequencer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Optional durable mode for an in-memory database. When enabled, every committed stock change (create,
+ * update, reserve, release, expiry, delete and stock ledger flushes) is appended to an
+ * {@link InventoryJournal}, and on startup the table is filled from the latest {@link InventorySnapshot}
+ * plus the journal segments written after it.
+ *
+ * <p>Database changes are journaled once their transaction commits, before the caller is answered, so a
+ * crash can only lose changes that were never acknowledged and never restores one that was not committed.
+ * Changes are ordered by {@link CommitSequencer} while the row's write lock is held, so the journal ends at
+ * each product's committed row even when commit callbacks run out of order.
+ * Every {@code snapshot-interval-ms} the journal is rotated, and the previous snapshot and the sealed
+ * segments are compacted into a new snapshot, after which they are deleted. Snapshots are built from
+ * the files alone, never from the table, so a change still uncommitted when one is taken is not lost.
+ *
+ * <p>Restored rows get new IDs; products keep their product IDs, stock levels and last-updated times.
+ * Active reservation holds are kept in a {@link HoldJournal} alongside, for the reservation service to
+ * re-arm.
+ */
+@Component
+public class DurableInventoryStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(DurableInventoryStore.class);
+    
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final String INSERT_SQL = "INSERT INTO inventory_items " +
+        "(product_id, available_stock, reserved_stock, last_updated) VALUES (?, ?, ?, ?)";
+    
+    private final InventoryRepository inventoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final CommitSequencer journaled = new CommitSequencer();
+    private InventoryJournal journal;
+    private HoldJournal holdJournal;
+    
+    private volatile long snapshotGeneration;
+    private volatile int restoredProducts;
+    private volatile long replayedRecords;
+    private volatile long restoreMillis;
+    private volatile int lastSnapshotProducts;
+    private volatile long lastSnapshotMillis;
+    private final LongAdder snapshots = new LongAdder();
+    private final LongAdder snapshotFailures = new LongAdder();
+    
+    @Autowired
+    public DurableInventoryStore(InventoryRepository inventoryRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${inventory.durability.enabled}") boolean enabled,
+                                 @Value("${inventory.durability.directory}") Path directory,
+                                 @Value("${inventory.durability.segment-size-mb}") int segmentSizeMb) {
+        this.inventoryRepository = inventoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentBytes = segmentSizeMb << 20;
+    }
+    
+    /**
+     * Restores the table from the snapshot and journal, then compacts them into a new snapshot.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        deleteTemporaryFiles();
+        Recovery recovery = load(directory, Long.MAX_VALUE);
+        if (inventoryRepository.count() == 0) {
+            restoredProducts = transactionTemplate.execute(status -> insert(jdbcTemplate, recovery.state()));
+        } else {
+            log.warn("inventory_items is not empty; keeping its rows instead of restoring {} products",
+                recovery.state().size());
+        }
+        replayedRecords = recovery.records();
+        journal = new InventoryJournal(directory, segmentBytes);
+        holdJournal = HoldJournal.open(directory);
+        compact(recovery);
+        restoreMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Restored {} products from snapshot {} and {} journal records in {} ms", restoredProducts,
+            recovery.snapshotGeneration(), recovery.records(), restoreMillis);
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        if (enabled) {
+            journal.close();
+            holdJournal.close();
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * The journal of active reservation holds, or null when durable mode is off.
+     */
+    public HoldJournal getHoldJournal() {
+        return holdJournal;
+    }
+    
+    public void recordChange(InventoryItem item) {
+        if (enabled) {
+            recordLevel(item.getProductId(), item.getAvailableStock(), item.getReservedStock(), item.getLastUpdated());
+        }
+    }
+    
+    /**
+     * Journals the product's row once the current transaction commits. Must be called while the
+     * transaction holds the row's write lock.
+     */
+    public void recordLevel(long productId, int availableStock, int reservedStock, LocalDateTime lastUpdated) {
+        if (enabled) {
+            long lastUpdatedMillis = toMillis(lastUpdated);
+            journaled.afterCommit(productId,
+                () -> journal.put(productId, availableStock, reservedStock, lastUpdatedMillis));
+        }
+    }
+    
+    public void recordRemoval(Long productId) {
+        if (enabled) {
+            journaled.afterCommit(productId, () -> journal.remove(productId));
+        }
+    }
+    
+    /**
+     * Writes the journals' appended records to disk. Without this, they survive the process crashing
+     * but not the machine.
+     */
+    @Scheduled(fixedDelayString = "${inventory.durability.sync-interval-ms}")
+    public void sync() {
+        if (enabled) {
+            journal.force();
+            holdJournal.force();
+        }
+    }
+    
+    /**
+     * Rotates the journal and compacts the previous snapshot and every sealed segment into a new
+     * snapshot. Appends carry on into the new segment meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${inventory.durability.snapshot-interval-ms}")
+    public synchronized void snapshot() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long sealed = journal.rotate();
+            if (sealed == 0) {
+                return;
+            }
+            compact(load(directory, sealed));
+        } catch (IOException | UncheckedIOException ex) {
+            snapshotFailures.increment();
+            log.error("Failed to snapshot inventory; the journal is kept and compacted next time", ex);
+        }
+    }
+    
+    public DurabilityStats getStats() {
+        DurabilityStats stats = new DurabilityStats();
+        stats.setEnabled(enabled);
+        if (journal != null) {
+            stats.setJournalRecords(journal.getAppendedRecords());
+            stats.setJournalGeneration(journal.getGeneration());
+        }
+        stats.setSnapshotGeneration(snapshotGeneration);
+        stats.setSnapshots(snapshots.sum());
+        stats.setSnapshotFailures(snapshotFailures.sum());
+        stats.setLastSnapshotProducts(lastSnapshotProducts);
+        stats.setLastSnapshotMillis(lastSnapshotMillis);
+        stats.setRestoredProducts(restoredProducts);
+        stats.setReplayedRecords(replayedRecords);
+        stats.setRestoreMillis(restoreMillis);
+        return stats;
+    }
+    
+    /**
+     * Rebuilds the state recorded in {@code directory} through journal generation
+     * {@code throughGeneration}: the newest snapshot, then each later segment in order.
+     */
+    public static Recovery load(Path directory, long throughGeneration) throws IOException {
+        Path snapshot = null;
+        for (Path file : InventorySnapshot.snapshots(directory)) {
+            if (InventorySnapshot.generationOf(file) <= throughGeneration) {
+                snapshot = file;
+            }
+        }
+        InventoryState state = new InventoryState();
+        long snapshotGeneration = 0;
+        if (snapshot != null) {
+            InventorySnapshot.read(snapshot, state);
+            snapshotGeneration = InventorySnapshot.generationOf(snapshot);
+        }
+        long generation = snapshotGeneration;
+        long records = 0;
+        List<Path> segments = new ArrayList<>();
+        for (Path segment : InventoryJournal.segments(directory)) {
+            long segmentGeneration = InventoryJournal.generationOf(segment);
+            if (segmentGeneration > snapshotGeneration && segmentGeneration <= throughGeneration) {
+                records += InventoryJournal.replay(segment, state);
+                segments.add(segment);
+                generation = segmentGeneration;
+            }
+        }
+        return new Recovery(state, snapshotGeneration, generation, segments, records);
+    }
+    
+    /**
+     * Inserts every product in {@code state} into an empty {@code inventory_items} table in JDBC batches,
+     * and returns how many were inserted.
+     */
+    public static int insert(JdbcTemplate jdbcTemplate, InventoryState state) {
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        int[] inserted = new int[1];
+        state.forEach((productId, availableStock, reservedStock, lastUpdatedMillis) -> {
+            batch.add(new Object[] {productId, availableStock, reservedStock, fromMillis(lastUpdatedMillis)});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                inserted[0] += batch.size();
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+            inserted[0] += batch.size();
+        }
+        return inserted[0];
+    }
+    
+    /**
+     * The state rebuilt by {@link #load}, the snapshot it started from, the last generation it covers,
+     * and the segments and records replayed on top of the snapshot.
+     */
+    public record Recovery(InventoryState state, long snapshotGeneration, long generation, List<Path> segments,
+                           long records) {
+    }
+    
+    /**
+     * Writes the recovered state as the snapshot for its generation, then deletes the segments and
+     * snapshots it covers. Does nothing if no segment was replayed on top of the last snapshot.
+     */
+    private void compact(Recovery recovery) throws IOException {
+        if (recovery.segments().isEmpty()) {
+            snapshotGeneration = recovery.snapshotGeneration();
+            return;
+        }
+        long start = System.nanoTime();
+        InventorySnapshot.write(directory, recovery.generation(), recovery.state());
+        for (Path segment : recovery.segments()) {
+            Files.deleteIfExists(segment);
+        }
+        for (Path snapshot : InventorySnapshot.snapshots(directory)) {
+            if (InventorySnapshot.generationOf(snapshot) < recovery.generation()) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+        snapshotGeneration = recovery.generation();
+        lastSnapshotProducts = recovery.state().size();
+        lastSnapshotMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        snapshots.increment();
+        log.debug("Snapshot {} written with {} products, compacting {} journal records", recovery.generation(),
+            recovery.state().size(), recovery.records());
+    }
+    
+    /**
+     * Deletes snapshots a crash left half-written.
+     */
+    private void deleteTemporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? 0L : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+    
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.example.inventoryservice.durability;
+
+import com.example.inventoryservice.dto.ReservationLine;
+import com.example.inventoryservice.model.Reservation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal of active reservation holds, so that a restart re-arms the holds whose stock the inventory
+ * journal keeps reserved. A hold is recorded when it is created and ended when it is confirmed, cancelled
+ * or expires. The file is rewritten with only the active holds when it is opened, and whenever ended
+ * holds come to outnumber them.
+ *
+ * <p>Record layout (little-endian): payload length (int), payload, CRC32C of the payload (int). A hold's
+ * payload is type 1 (byte), reservation ID (short length and UTF-8 bytes), created and expiry times in
+ * epoch milliseconds (long each), line count (int), then each line's product ID (long) and quantity
+ * (int). An end's payload is type 2 and the reservation ID. Reading stops at the first record that is
+ * short or fails its checksum, which drops a record torn by a crash. Records are written to the file
+ * directly, so they survive the process crashing; {@link #force()} writes them to disk as well.
+ */
+public final class HoldJournal implements AutoCloseable {
+    
+    static final String FILE_NAME = "holds.journal";
+    
+    private static final byte HOLD = 1;
+    private static final byte END = 2;
+    private static final int MIN_REWRITE_RECORDS = 1024;
+    
+    private final Path file;
+    private final Map<String, Reservation> active = new LinkedHashMap<>();
+    private final CRC32C checksum = new CRC32C();
+    private FileChannel channel;
+    private long records;
+    
+    private HoldJournal(Path file) {
+        this.file = file;
+    }
+    
+    /**
+     * Reads the holds still active in {@code directory}'s journal, rewrites the journal with only those,
+     * and opens it for appending.
+     */
+    public static HoldJournal open(Path directory) throws IOException {
+        HoldJournal journal = new HoldJournal(directory.resolve(FILE_NAME));
+        if (Files.exists(journal.file)) {
+            read(journal.file, journal.active);
+        }
+        journal.rewrite();
+        return journal;
+    }
+    
+    /**
+     * Holds recorded and not yet ended, oldest first.
+     */
+    public synchronized List<Reservation> getActive() {
+        return new ArrayList<>(active.values());
+    }
+    
+    public synchronized void held(Reservation reservation) {
+        active.put(reservation.getReservationId(), reservation);
+        write(encodeHold(reservation));
+    }
+    
+    public synchronized void ended(String reservationId) {
+        if (active.remove(reservationId) == null) {
+            return;
+        }
+        write(encodeEnd(reservationId));
+        if (records > MIN_REWRITE_RECORDS && records > 2L * active.size()) {
+            try {
+                rewrite();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to rewrite hold journal " + file, ex);
+            }
+        }
+    }
+    
+    /**
+     * Writes the appended records to disk.
+     */
+    public synchronized void force() {
+        try {
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to sync hold journal " + file, ex);
+        }
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+    
+    /**
+     * Applies the journal's records to {@code active}, keyed by reservation ID.
+     */
+    static void read(Path file, Map<String, Reservation> active) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C crc = new CRC32C();
+        while (in.remaining() >= Integer.BYTES) {
+            int length = in.getInt();
+            if (length <= 0 || in.remaining() < length + Integer.BYTES) {
+                break;
+            }
+            ByteBuffer payload = in.slice(in.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+            crc.reset();
+            crc.update(payload.duplicate());
+            in.position(in.position() + length);
+            if ((int) crc.getValue() != in.getInt()) {
+                break;
+            }
+            byte type = payload.get();
+            byte[] id = new byte[payload.getShort()];
+            payload.get(id);
+            String reservationId = new String(id, StandardCharsets.UTF_8);
+            if (type == HOLD) {
+                LocalDateTime createdAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(payload.getLong()),
+                    ZoneId.systemDefault());
+                long expiresAtMillis = payload.getLong();
+                List<ReservationLine> lines = new ArrayList<>();
+                for (int i = payload.getInt(); i > 0; i--) {
+                    lines.add(new ReservationLine(payload.getLong(), payload.getInt()));
+                }
+                active.put(reservationId, new Reservation(reservationId, lines, createdAt, expiresAtMillis));
+            } else {
+                active.remove(reservationId);
+            }
+        }
+    }
+    
+    /**
+     * Writes the active holds to a temporary file, renames it over the journal and appends to it from
+     * then on.
+     */
+    private void rewrite() throws IOException {
+        Path temporary = file.resolveSibling(FILE_NAME + ".tmp");
+        FileChannel next = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            for (Reservation reservation : active.values()) {
+                writeRecord(next, encodeHold(reservation));
+            }
+            next.force(false);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException ex) {
+            next.close();
+            throw ex;
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        channel = next;
+        records = active.size();
+    }
+    
+    private void write(ByteBuffer payload) {
+        try {
+            writeRecord(channel, payload);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to append to hold journal " + file, ex);
+        }
+        records++;
+    }
+    
+    private void writeRecord(FileChannel out, ByteBuffer payload) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(payload.remaining() + 2 * Integer.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        checksum.reset();
+        checksum.update(payload.duplicate());
+        record.putInt(payload.remaining()).put(payload).putInt((int) checksum.getValue()).flip();
+        while (record.hasRemaining()) {
+            out.write(record);
+        }
+    }
+    
+    private static ByteBuffer encodeHold(Reservation reservation) {
+        byte[] id = reservation.getReservationId().getBytes(StandardCharsets.UTF_8);
+        List<ReservationLine> lines = reservation.getItems();
+        ByteBuffer payload = ByteBuffer.allocate(1 + Short.BYTES + id.length + 2 * Long.BYTES + Integer.BYTES +
+            lines.size() * (Long.BYTES + Integer.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        payload.put(HOLD).putShort((short) id.length).put(id)
+            .putLong(reservation.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+            .putLong(reservation.getExpiresAtMillis())
+            .putInt(lines.size());
+        for (ReservationLine line : lines) {
+            payload.putLong(line.getProductId()).putInt(line.getQuantity());
+        }
+        return payload.flip();
+    }
+    
+    private static ByteBuffer encodeEnd(String reservationId) {
+        byte[] id = reservationId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(1 + Short.BYTES + id.length).order(ByteOrder.LITTLE_ENDIAN);
+        return payload.put(END).putShort((short) id.length).put(id).flip();
+    }
+}
\ No newline at end of file
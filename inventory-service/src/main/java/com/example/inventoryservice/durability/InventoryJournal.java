@@ -0,0 +1,201 @@
+package com.example.inventoryservice.durability;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of inventory changes in memory-mapped segment files. Each record is a product's
+ * full row after a change, or its removal, so replaying the records in order leaves every product as it
+ * was last recorded.
+ *
+ * <p>A segment is created at its full size and mapped once; an append copies one record into the
+ * mapping under a short lock, with no system call. The operating system writes the pages back, so a
+ * record survives the process crashing as soon as it is appended. {@link #force()} writes the current
+ * segment to disk, to survive losing the machine too. A full segment is followed by the next one.
+ *
+ * <p>Record layout (32 bytes, little-endian): type (int, 1 = put, 2 = remove), product ID (long),
+ * available (int), reserved (int), last updated in epoch milliseconds (long), CRC32C of the first 28
+ * bytes (int). Segments are zero-filled, so a segment ends at the first record whose type is zero or
+ * whose checksum fails, which also drops a record torn by a crash.
+ */
+public final class InventoryJournal implements AutoCloseable {
+    
+    public static final int RECORD_BYTES = 32;
+    
+    static final String PREFIX = "inventory-";
+    static final String SUFFIX = ".journal";
+    
+    private static final int PUT = 1;
+    private static final int REMOVE = 2;
+    private static final int CHECKSUMMED_BYTES = RECORD_BYTES - Integer.BYTES;
+    
+    private final Path directory;
+    private final int segmentBytes;
+    private final CRC32C checksum = new CRC32C();
+    private final LongAdder appended = new LongAdder();
+    
+    private long generation;
+    private MappedByteBuffer segment;
+    
+    /**
+     * Opens a new segment after any already in {@code directory}; those are left for recovery.
+     */
+    public InventoryJournal(Path directory, int segmentBytes) {
+        if (segmentBytes < RECORD_BYTES) {
+            throw new IllegalArgumentException("Segment must hold at least one record");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes - segmentBytes % RECORD_BYTES;
+        try {
+            Files.createDirectories(directory);
+            generation = segments(directory).stream().mapToLong(InventoryJournal::generationOf).max().orElse(0L);
+            openNext();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open inventory journal in " + directory, ex);
+        }
+    }
+    
+    public void put(long productId, int availableStock, int reservedStock, long lastUpdatedMillis) {
+        append(PUT, productId, availableStock, reservedStock, lastUpdatedMillis);
+    }
+    
+    public void remove(long productId) {
+        append(REMOVE, productId, 0, 0, 0L);
+    }
+    
+    /**
+     * Seals the current segment and starts the next one, and returns the sealed segment's generation,
+     * or 0 if the current segment has no records. Every record in a sealed segment was appended before
+     * this call returned.
+     */
+    public synchronized long rotate() {
+        if (segment.position() == 0) {
+            return 0L;
+        }
+        long sealed = generation;
+        segment.force();
+        try {
+            openNext();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to rotate inventory journal", ex);
+        }
+        return sealed;
+    }
+    
+    /**
+     * Writes the current segment's appended records to disk.
+     */
+    public void force() {
+        MappedByteBuffer current;
+        synchronized (this) {
+            current = segment;
+        }
+        current.force();
+    }
+    
+    public synchronized long getGeneration() {
+        return generation;
+    }
+    
+    public long getAppendedRecords() {
+        return appended.sum();
+    }
+    
+    @Override
+    public synchronized void close() {
+        segment.force();
+    }
+    
+    /**
+     * Applies a segment's records to {@code state} and returns how many there were.
+     */
+    public static long replay(Path file, InventoryState state) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C crc = new CRC32C();
+        long records = 0;
+        for (int offset = 0; offset + RECORD_BYTES <= in.limit(); offset += RECORD_BYTES) {
+            int type = in.getInt(offset);
+            if (type == 0) {
+                break;
+            }
+            crc.reset();
+            crc.update(in.slice(offset, CHECKSUMMED_BYTES));
+            if ((int) crc.getValue() != in.getInt(offset + CHECKSUMMED_BYTES)) {
+                break;
+            }
+            long productId = in.getLong(offset + 4);
+            if (type == PUT) {
+                state.put(productId, in.getInt(offset + 12), in.getInt(offset + 16), in.getLong(offset + 20));
+            } else {
+                state.remove(productId);
+            }
+            records++;
+        }
+        return records;
+    }
+    
+    /**
+     * Segment files in {@code directory}, oldest first.
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> file.getFileName().toString().startsWith(PREFIX))
+                .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                .sorted()
+                .toList();
+        }
+    }
+    
+    static long generationOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+    
+    private synchronized void append(int type, long productId, int availableStock, int reservedStock,
+                                     long lastUpdatedMillis) {
+        if (segment.remaining() < RECORD_BYTES) {
+            try {
+                openNext();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to start inventory journal segment", ex);
+            }
+        }
+        int offset = segment.position();
+        segment.putLong(offset + 4, productId)
+            .putInt(offset + 12, availableStock)
+            .putInt(offset + 16, reservedStock)
+            .putLong(offset + 20, lastUpdatedMillis)
+            .putInt(offset, type);
+        checksum.reset();
+        checksum.update(segment.slice(offset, CHECKSUMMED_BYTES));
+        segment.putInt(offset + CHECKSUMMED_BYTES, (int) checksum.getValue());
+        segment.position(offset + RECORD_BYTES);
+        appended.increment();
+    }
+    
+    private void openNext() throws IOException {
+        generation++;
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, generation, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // Mapping past the end grows the file to its full, zero-filled size
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
\ No newline at end of file
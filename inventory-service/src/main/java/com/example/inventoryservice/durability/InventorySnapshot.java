@@ -0,0 +1,130 @@
+package com.example.inventoryservice.durability;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact snapshot of every product's stock, covering the journal up to and including one segment
+ * generation, which is part of the file name.
+ *
+ * <p>Layout (little-endian): magic (long), product count (int), then per product its ID (long),
+ * available (int), reserved (int) and last updated in epoch milliseconds (long), then a CRC32C of
+ * everything before it (int). A snapshot is written to a temporary file and renamed into place, so a
+ * crash never leaves a partial one under its final name.
+ */
+public final class InventorySnapshot {
+    
+    static final String PREFIX = "inventory-";
+    static final String SUFFIX = ".snapshot";
+    
+    private static final long MAGIC = 0x494E56534E415031L;
+    private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+    private static final int ITEM_BYTES = 24;
+    
+    private InventorySnapshot() {}
+    
+    /**
+     * Writes {@code state} as the snapshot covering the journal through {@code generation}, and returns
+     * its path.
+     */
+    public static Path write(Path directory, long generation, InventoryState state) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, generation, SUFFIX));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(ITEM_BYTES * 8192).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C crc = new CRC32C();
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putLong(MAGIC).putInt(state.size());
+            IOException[] failure = new IOException[1];
+            state.forEach((productId, availableStock, reservedStock, lastUpdatedMillis) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                if (buffer.remaining() < ITEM_BYTES) {
+                    try {
+                        drain(out, buffer, crc);
+                    } catch (IOException ex) {
+                        failure[0] = ex;
+                        return;
+                    }
+                }
+                buffer.putLong(productId).putInt(availableStock).putInt(reservedStock).putLong(lastUpdatedMillis);
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            drain(out, buffer, crc);
+            buffer.putInt((int) crc.getValue()).flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+    
+    /**
+     * Loads the snapshot into {@code state}, failing if it is damaged.
+     */
+    public static void read(Path file, InventoryState state) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        if (in.limit() < HEADER_BYTES + Integer.BYTES || in.getLong(0) != MAGIC) {
+            throw new IOException("Not an inventory snapshot: " + file);
+        }
+        int count = in.getInt(Long.BYTES);
+        int end = HEADER_BYTES + count * ITEM_BYTES;
+        if (end + Integer.BYTES != in.limit()) {
+            throw new IOException("Truncated inventory snapshot: " + file);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(in.slice(0, end));
+        if ((int) crc.getValue() != in.getInt(end)) {
+            throw new IOException("Corrupt inventory snapshot: " + file);
+        }
+        for (int offset = HEADER_BYTES; offset < end; offset += ITEM_BYTES) {
+            state.put(in.getLong(offset), in.getInt(offset + 8), in.getInt(offset + 12), in.getLong(offset + 16));
+        }
+    }
+    
+    /**
+     * Snapshot files in {@code directory}, oldest first.
+     */
+    static List<Path> snapshots(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> file.getFileName().toString().startsWith(PREFIX))
+                .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                .sorted()
+                .toList();
+        }
+    }
+    
+    static long generationOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+    
+    private static void drain(FileChannel out, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
\ No newline at end of file
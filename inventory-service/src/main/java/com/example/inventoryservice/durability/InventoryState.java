@@ -0,0 +1,150 @@
+package com.example.inventoryservice.durability;
+
+import java.util.Arrays;
+
+/**
+ * Every product's stock, keyed by product ID, as rebuilt from a snapshot and the journal. Held in
+ * parallel primitive arrays with open addressing, so replaying millions of records allocates nothing
+ * per record. Not thread-safe.
+ */
+public final class InventoryState {
+    
+    private static final long EMPTY = Long.MIN_VALUE;
+    
+    private long[] productIds;
+    private int[] available;
+    private int[] reserved;
+    private long[] lastUpdated;
+    private int size;
+    
+    public InventoryState() {
+        this(1024);
+    }
+    
+    public InventoryState(int expectedProducts) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedProducts * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+    
+    public void put(long productId, int availableStock, int reservedStock, long lastUpdatedMillis) {
+        int slot = slotOf(productId);
+        if (productIds[slot] == EMPTY) {
+            if ((size + 1) * 2 > productIds.length) {
+                resize();
+                slot = slotOf(productId);
+            }
+            productIds[slot] = productId;
+            size++;
+        }
+        available[slot] = availableStock;
+        reserved[slot] = reservedStock;
+        lastUpdated[slot] = lastUpdatedMillis;
+    }
+    
+    public void remove(long productId) {
+        int slot = slotOf(productId);
+        if (productIds[slot] == EMPTY) {
+            return;
+        }
+        // Backward-shift deletion: move later entries of the probe run into the gap, so lookups never
+        // need tombstones
+        int mask = productIds.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; productIds[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(productIds[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                move(next, gap);
+                gap = next;
+            }
+        }
+        productIds[gap] = EMPTY;
+        size--;
+    }
+    
+    public boolean contains(long productId) {
+        return productIds[slotOf(productId)] != EMPTY;
+    }
+    
+    /**
+     * Returns the product's available stock, or -1 if it is not held.
+     */
+    public int getAvailable(long productId) {
+        int slot = slotOf(productId);
+        return productIds[slot] == EMPTY ? -1 : available[slot];
+    }
+    
+    /**
+     * Returns the product's reserved stock, or -1 if it is not held.
+     */
+    public int getReserved(long productId) {
+        int slot = slotOf(productId);
+        return productIds[slot] == EMPTY ? -1 : reserved[slot];
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void forEach(ItemConsumer consumer) {
+        for (int slot = 0; slot < productIds.length; slot++) {
+            if (productIds[slot] != EMPTY) {
+                consumer.accept(productIds[slot], available[slot], reserved[slot], lastUpdated[slot]);
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    public interface ItemConsumer {
+        
+        void accept(long productId, int availableStock, int reservedStock, long lastUpdatedMillis);
+    }
+    
+    /**
+     * Returns the product's slot, or the empty slot where it would go.
+     */
+    private int slotOf(long productId) {
+        if (productId == EMPTY) {
+            throw new IllegalArgumentException("Product ID out of range: " + productId);
+        }
+        int mask = productIds.length - 1;
+        int slot = hash(productId) & mask;
+        while (productIds[slot] != EMPTY && productIds[slot] != productId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    private void move(int from, int to) {
+        productIds[to] = productIds[from];
+        available[to] = available[from];
+        reserved[to] = reserved[from];
+        lastUpdated[to] = lastUpdated[from];
+    }
+    
+    private void resize() {
+        long[] oldProductIds = productIds;
+        int[] oldAvailable = available;
+        int[] oldReserved = reserved;
+        long[] oldLastUpdated = lastUpdated;
+        allocate(oldProductIds.length * 2);
+        size = 0;
+        for (int slot = 0; slot < oldProductIds.length; slot++) {
+            if (oldProductIds[slot] != EMPTY) {
+                put(oldProductIds[slot], oldAvailable[slot], oldReserved[slot], oldLastUpdated[slot]);
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        productIds = new long[capacity];
+        Arrays.fill(productIds, EMPTY);
+        available = new int[capacity];
+        reserved = new int[capacity];
+        lastUpdated = new long[capacity];
+    }
+    
+    private static int hash(long productId) {
+        long h = productId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
\ No newline at end of file
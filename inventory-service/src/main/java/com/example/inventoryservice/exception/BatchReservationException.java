@@ -0,0 +1,19 @@
+package com.example.inventoryservice.exception;
+
+import com.example.inventoryservice.dto.ReservationShortfall;
+
+import java.util.List;
+
+public class BatchReservationException extends InsufficientStockException {
+    
+    private final List<ReservationShortfall> shortfalls;
+    
+    public BatchReservationException(List<ReservationShortfall> shortfalls, int lineCount) {
+        super(String.format("Insufficient stock for %d of %d products", shortfalls.size(), lineCount));
+        this.shortfalls = shortfalls;
+    }
+    
+    public List<ReservationShortfall> getShortfalls() {
+        return shortfalls;
+    }
+}
\ No newline at end of file
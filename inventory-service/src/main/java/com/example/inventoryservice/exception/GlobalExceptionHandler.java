@@ -1,5 +1,6 @@
 package com.example.inventoryservice.exception;
 
+import com.example.inventoryservice.dto.BatchReservationErrorResponse;
 import com.example.inventoryservice.dto.ErrorResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +27,13 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
     
+    @ExceptionHandler(BatchReservationException.class)
+    public ResponseEntity<ErrorResponse> handleBatchReservation(BatchReservationException ex) {
+        ErrorResponse errorResponse = new BatchReservationErrorResponse("INSUFFICIENT_STOCK", ex.getMessage(),
+            ex.getShortfalls());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+    
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex) {
         ErrorResponse errorResponse = new ErrorResponse("INVALID_ARGUMENT", ex.getMessage());
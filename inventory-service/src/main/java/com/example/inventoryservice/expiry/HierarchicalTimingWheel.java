@@ -0,0 +1,174 @@
+package com.example.inventoryservice.expiry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: schedules and cancels timeouts in constant time, however many are
+ * pending, and hands back the ones that are due as time is advanced.
+ *
+ * <p>Time is counted in ticks of {@code tickMillis}. Each level has 64 slots; a slot on level 0 spans
+ * one tick, a slot on level 1 spans 64 ticks, and so on, so four levels cover 16.7 million ticks. A
+ * timeout is placed on the lowest level whose range reaches its deadline. When time crosses the start
+ * of a higher-level slot, that slot's timeouts are moved down to finer levels, so each timeout is moved
+ * at most once per level before it expires. Timeouts further out than the wheel covers wait in the top
+ * level and are placed again each time they are moved down.
+ *
+ * <p>Deadlines are rounded up to the next tick, so a timeout never expires early, and at most one tick
+ * late plus however late {@link #advance(long)} is called. All methods are synchronized.
+ */
+public final class HierarchicalTimingWheel<T> {
+    
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    
+    private final long tickMillis;
+    private final long startMillis;
+    private final int levels;
+    private final long maxDelta;
+    // One sentinel per slot heads a circular doubly-linked list of that slot's timeouts
+    private final Timeout<?>[] slots;
+    
+    private long currentTick;
+    private int size;
+    
+    public HierarchicalTimingWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be at least one millisecond");
+        }
+        if (levels < 1 || levels * SLOT_BITS > 48) {
+            throw new IllegalArgumentException("Levels must be between 1 and 8");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.levels = levels;
+        this.maxDelta = (1L << (SLOT_BITS * levels)) - 1;
+        this.slots = new Timeout<?>[levels * SLOTS];
+        for (int i = 0; i < slots.length; i++) {
+            Timeout<?> sentinel = new Timeout<>(null, 0);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            slots[i] = sentinel;
+        }
+    }
+    
+    /**
+     * Schedules {@code value} to be returned by the first {@link #advance(long)} at or after
+     * {@code deadlineMillis}. A deadline already passed expires on the next tick.
+     */
+    public synchronized Timeout<T> schedule(T value, long deadlineMillis) {
+        long deadline = Math.max(Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis),
+            currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(value, deadline);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+    
+    /**
+     * Removes the timeout if it has neither expired nor been cancelled, and returns whether it did.
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.prev == null) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+    
+    /**
+     * Moves time forward to {@code nowMillis} and returns the values whose deadline has been reached,
+     * in deadline order. Does nothing if time has not reached the next tick.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Timeout<?> sentinel = slots[(int) (currentTick & SLOT_MASK)];
+            while (sentinel.next != sentinel) {
+                @SuppressWarnings("unchecked")
+                Timeout<T> timeout = (Timeout<T>) sentinel.next;
+                unlink(timeout);
+                size--;
+                expired.add(timeout.value);
+            }
+        }
+        return expired;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    /**
+     * Moves the timeouts of every higher-level slot that starts at the current tick down to finer
+     * levels, highest level first.
+     */
+    private void cascade() {
+        int top = 0;
+        while (top + 1 < levels && (currentTick & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            Timeout<?> sentinel = slots[level * SLOTS + slotIndex(currentTick, level)];
+            Timeout<?> timeout = sentinel.next;
+            sentinel.next = sentinel;
+            sentinel.prev = sentinel;
+            while (timeout != sentinel) {
+                Timeout<?> next = timeout.next;
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+    
+    private void place(Timeout<?> timeout) {
+        long delta = timeout.deadline - currentTick;
+        int level = 0;
+        while (level + 1 < levels && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        // Beyond the wheel's range, wait in the top level until the deadline comes within range
+        long slotTick = delta > maxDelta ? currentTick + maxDelta : timeout.deadline;
+        Timeout<?> sentinel = slots[level * SLOTS + slotIndex(slotTick, level)];
+        timeout.prev = sentinel.prev;
+        timeout.next = sentinel;
+        sentinel.prev.next = timeout;
+        sentinel.prev = timeout;
+    }
+    
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+    
+    private static void unlink(Timeout<?> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+    
+    /**
+     * Handle to a scheduled value, used to cancel it.
+     */
+    public static final class Timeout<T> {
+        
+        private final T value;
+        private final long deadline;
+        private Timeout<?> prev;
+        private Timeout<?> next;
+        
+        private Timeout(T value, long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+        }
+        
+        public T getValue() {
+            return value;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.example.inventoryservice.index;
+
+import com.example.inventoryservice.dto.ProductStockView;
+import com.example.inventoryservice.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of every product ordered by available stock, then product ID, so low-stock and
+ * in-stock pages are read by seeking to a position and walking forward, however large the catalog.
+ *
+ * <p>Built from the table on startup, after the stock ledger has recovered, and then kept current by
+ * {@code InventoryService} on every stock change. Changes to one product are applied one at a time,
+ * and {@link #refresh(Long, Supplier)} reads the level inside that critical section, so the index ends
+ * up at the latest level even when changes are reported out of order. A reader walking the index while
+ * a product moves can briefly miss it or see it at both levels.
+ */
+@Component
+// The ledger may replay journaled levels into the table on startup, so it must start first
+@DependsOn("stockLedger")
+public class StockLevelIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockLevelIndex.class);
+    
+    private final InventoryRepository inventoryRepository;
+    private final boolean enabled;
+    
+    private final Map<Long, Integer> levels = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> ordered = new ConcurrentSkipListSet<>();
+    
+    @Autowired
+    public StockLevelIndex(InventoryRepository inventoryRepository,
+                           @Value("${inventory.stock-index.enabled}") boolean enabled) {
+        this.inventoryRepository = inventoryRepository;
+        this.enabled = enabled;
+    }
+    
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        levels.clear();
+        ordered.clear();
+        for (ProductStockView level : inventoryRepository.findAllStockLevels()) {
+            put(level.getProductId(), level.getAvailableStock());
+        }
+        log.info("Indexed stock levels of {} products", levels.size());
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void put(Long productId, int availableStock) {
+        refresh(productId, () -> availableStock);
+    }
+    
+    public void remove(Long productId) {
+        refresh(productId, () -> null);
+    }
+    
+    /**
+     * Moves the product to the level returned by {@code currentLevel}, or drops it if that is null.
+     * The supplier is called while no other change to the product can be applied, so it should read the
+     * product's current level from wherever it is kept.
+     */
+    public void refresh(Long productId, Supplier<Integer> currentLevel) {
+        if (!enabled) {
+            return;
+        }
+        levels.compute(productId, (id, previous) -> {
+            Integer current = currentLevel.get();
+            if (previous != null && !previous.equals(current)) {
+                ordered.remove(new Entry(previous, id));
+            }
+            if (current != null && !current.equals(previous)) {
+                ordered.add(new Entry(current, id));
+            }
+            return current;
+        });
+    }
+    
+    /**
+     * Returns up to {@code limit} entries with available stock from {@code minStock} (inclusive) to
+     * {@code maxStock} (exclusive), in stock then product ID order, starting after {@code after} if it
+     * is given.
+     */
+    public List<Entry> page(int minStock, int maxStock, Entry after, int limit) {
+        Entry from = new Entry(minStock, Long.MIN_VALUE);
+        NavigableSet<Entry> tail = after != null && after.compareTo(from) >= 0
+            ? ordered.tailSet(after, false)
+            : ordered.tailSet(from, true);
+        List<Entry> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Entry entry : tail) {
+            if (entry.availableStock() >= maxStock || page.size() == limit) {
+                break;
+            }
+            page.add(entry);
+        }
+        return page;
+    }
+    
+    public int size() {
+        return levels.size();
+    }
+    
+    /**
+     * A product's position in the index.
+     */
+    public record Entry(int availableStock, long productId) implements Comparable<Entry> {
+        
+        @Override
+        public int compareTo(Entry other) {
+            int byStock = Integer.compare(availableStock, other.availableStock);
+            return byStock != 0 ? byStock : Long.compare(productId, other.productId);
+        }
+    }
+}
\ No newline at end of file
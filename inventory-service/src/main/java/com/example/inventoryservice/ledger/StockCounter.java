@@ -0,0 +1,180 @@
+package com.example.inventoryservice.ledger;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Available and reserved stock of one product, split across one or more shards so that threads
+ * reserving the same product mostly update different memory. Each shard packs its two counts into one
+ * long that is changed by compare-and-set, and shards sit a cache line apart.
+ *
+ * <p>A thread first tries to move the whole quantity within its own shard, with one compare-and-set.
+ * If that shard cannot cover it, the thread takes the counter for itself: it waits for operations
+ * in progress on the shards to finish, checks the totals, and either moves the quantity and spreads
+ * the new totals evenly across the shards again, or fails without changing anything. An operation
+ * therefore fails only if the counter as a whole falls short, and never half succeeds. With one shard
+ * this is a single compare-and-set counter.
+ *
+ * <p>No shard ever goes negative, so stock is never oversold.
+ */
+public final class StockCounter {
+    
+    // Eight longs per shard keep neighbouring shards on different cache lines
+    private static final int STRIDE = 8;
+    // Offset, within a shard's cache line, of the number of operations in progress on it
+    private static final int IN_PROGRESS = 1;
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+    
+    private final AtomicLongArray cells;
+    private final int shards;
+    // Set while one thread has the counter to itself; operations on a shard then wait for it
+    private volatile boolean exclusive;
+    
+    public StockCounter(int available, int reserved, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = shards;
+        this.cells = new AtomicLongArray(shards * STRIDE);
+        for (int shard = 0; shard < shards; shard++) {
+            cells.set(shard * STRIDE, pack(share(available, shard), share(reserved, shard)));
+        }
+    }
+    
+    /**
+     * Moves {@code quantity} from available to reserved, or returns false without changing anything
+     * if not enough is available.
+     */
+    public boolean reserve(int quantity) {
+        return moveInShard(quantity, true) || moveExclusively(quantity, true);
+    }
+    
+    /**
+     * Moves {@code quantity} from reserved back to available, or returns false without changing
+     * anything if that much is not reserved.
+     */
+    public boolean release(int quantity) {
+        return moveInShard(quantity, false) || moveExclusively(quantity, false);
+    }
+    
+    /**
+     * Spreads {@code available} evenly across the shards, leaving the reserved total as it is.
+     */
+    public synchronized void setAvailable(int available) {
+        acquireExclusive();
+        try {
+            spread(available, level().reserved);
+        } finally {
+            exclusive = false;
+        }
+    }
+    
+    public int getAvailable() {
+        int available = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            available += available(cells.get(shard * STRIDE));
+        }
+        return available;
+    }
+    
+    public int getShards() {
+        return shards;
+    }
+    
+    StockLevel level() {
+        int available = 0;
+        int reserved = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            long cell = cells.get(shard * STRIDE);
+            available += available(cell);
+            reserved += reserved(cell);
+        }
+        return new StockLevel(available, reserved);
+    }
+    
+    /**
+     * Moves the whole quantity within the calling thread's shard, returning false if that shard cannot
+     * cover it or another thread has the counter to itself.
+     */
+    private boolean moveInShard(int quantity, boolean reserve) {
+        int index = homeShard() * STRIDE;
+        cells.incrementAndGet(index + IN_PROGRESS);
+        try {
+            if (exclusive) {
+                return false;
+            }
+            long current;
+            long next;
+            do {
+                current = cells.get(index);
+                int from = reserve ? available(current) : reserved(current);
+                if (from < quantity) {
+                    return false;
+                }
+                next = reserve
+                    ? pack(available(current) - quantity, reserved(current) + quantity)
+                    : pack(available(current) + quantity, reserved(current) - quantity);
+            } while (!cells.compareAndSet(index, current, next));
+            return true;
+        } finally {
+            cells.decrementAndGet(index + IN_PROGRESS);
+        }
+    }
+    
+    /**
+     * Moves the quantity against the counter's totals, with no other operation in progress, and spreads
+     * the result evenly across the shards.
+     */
+    private synchronized boolean moveExclusively(int quantity, boolean reserve) {
+        acquireExclusive();
+        try {
+            StockLevel level = level();
+            if ((reserve ? level.available : level.reserved) < quantity) {
+                return false;
+            }
+            spread(reserve ? level.available - quantity : level.available + quantity,
+                reserve ? level.reserved + quantity : level.reserved - quantity);
+            return true;
+        } finally {
+            exclusive = false;
+        }
+    }
+    
+    /**
+     * Stops new operations on the shards and waits for those in progress to finish. Called while
+     * holding this counter's monitor; the caller clears {@link #exclusive} when done.
+     */
+    private void acquireExclusive() {
+        exclusive = true;
+        for (int shard = 0; shard < shards; shard++) {
+            while (cells.get(shard * STRIDE + IN_PROGRESS) != 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+    
+    private void spread(int available, int reserved) {
+        for (int shard = 0; shard < shards; shard++) {
+            cells.set(shard * STRIDE, pack(share(available, shard), share(reserved, shard)));
+        }
+    }
+    
+    private int homeShard() {
+        return shards == 1 ? 0 : (int) (Thread.currentThread().getId() % shards);
+    }
+    
+    private int share(int total, int shard) {
+        return total / shards + (shard < total % shards ? 1 : 0);
+    }
+    
+    private static long pack(int available, int reserved) {
+        return ((long) available << 32) | (reserved & COUNT_MASK);
+    }
+    
+    private static int available(long cell) {
+        return (int) (cell >>> 32);
+    }
+    
+    private static int reserved(long cell) {
+        return (int) (cell & COUNT_MASK);
+    }
+}
\ No newline at end of file
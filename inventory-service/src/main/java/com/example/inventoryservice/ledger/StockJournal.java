@@ -0,0 +1,231 @@
+package com.example.inventoryservice.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Append-only intent log of ledger changes. Each record is the product's full level, read from its
+ * counter while the record is written, so a record includes every change appended before it. Replaying
+ * the files in order therefore leaves each product at its last recorded level.
+ *
+ * <p>Records go to the current generation file. {@link #rotate()} seals it and starts the next one;
+ * sealed files can be deleted once their levels are in the database. With fsync enabled, a write does
+ * not return until it is on disk. Writers that arrive while one is forcing the file wait for that force
+ * or the next, so one fsync covers a whole group of writes.
+ *
+ * <p>Record layout (16 bytes): product ID (long), available (int), reserved (int). A
+ * partly written record at the end of a file, left by a crash mid-write, is ignored.
+ */
+final class StockJournal implements AutoCloseable {
+    
+    static final int RECORD_BYTES = 16;
+    
+    private static final String PREFIX = "stock-";
+    private static final String SUFFIX = ".journal";
+    
+    private final Path directory;
+    private final boolean fsync;
+    private final ByteBuffer record = ByteBuffer.allocateDirect(RECORD_BYTES);
+    private final Object syncLock = new Object();
+    
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    
+    private long generation;
+    private Path currentFile;
+    private FileChannel channel;
+    private long recordsInCurrentFile;
+    // Bytes written across all generations; a writer waits until syncedPosition covers its record
+    private long writtenPosition;
+    private volatile long syncedPosition;
+    
+    StockJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            generation = journalFiles().stream().mapToLong(StockJournal::generationOf).max().orElse(0L);
+            openNext();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open stock journal in " + directory, ex);
+        }
+    }
+    
+    /**
+     * Appends the counter's current level and returns it once it is durable: written to the file, and
+     * with fsync enabled, forced to disk.
+     */
+    StockLevel append(long productId, StockCounter counter) {
+        long position;
+        StockLevel level;
+        synchronized (this) {
+            level = counter.level();
+            record.clear();
+            record.putLong(productId).putInt(level.available).putInt(level.reserved);
+            record.flip();
+            try {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to write stock journal " + currentFile, ex);
+            }
+            recordsInCurrentFile++;
+            writtenPosition += RECORD_BYTES;
+            position = writtenPosition;
+        }
+        appended.increment();
+        if (fsync) {
+            awaitSynced(position);
+        }
+        return level;
+    }
+    
+    /**
+     * Seals the current file and starts a new one, returning the sealed file, or nothing if the current
+     * file has no records. Every record in a sealed file was written before this call returned.
+     */
+    List<Path> rotate() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (recordsInCurrentFile == 0) {
+                    return List.of();
+                }
+                Path sealed = currentFile;
+                try {
+                    channel.force(false);
+                    syncedPosition = writtenPosition;
+                    channel.close();
+                    openNext();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Failed to rotate stock journal " + sealed, ex);
+                }
+                return List.of(sealed);
+            }
+        }
+    }
+    
+    /**
+     * Files left by earlier runs, which are not being written to.
+     */
+    List<Path> sealedFiles() throws IOException {
+        List<Path> sealed = new ArrayList<>();
+        for (Path file : journalFiles()) {
+            if (generationOf(file) < generationOfCurrent()) {
+                sealed.add(file);
+            }
+        }
+        return sealed;
+    }
+    
+    void delete(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to delete stock journal " + file, ex);
+            }
+        }
+    }
+    
+    long getAppendedRecords() {
+        return appended.sum();
+    }
+    
+    long getSyncs() {
+        return syncs.sum();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+    }
+    
+    /**
+     * Reads the files, oldest first, and returns each product's last recorded level.
+     */
+    static Map<Long, StockLevel> read(List<Path> files) throws IOException {
+        Map<Long, StockLevel> levels = new HashMap<>();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 4096);
+        for (Path file : files) {
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer.clear();
+                while (in.read(buffer) > 0 || buffer.position() >= RECORD_BYTES) {
+                    buffer.flip();
+                    while (buffer.remaining() >= RECORD_BYTES) {
+                        long productId = buffer.getLong();
+                        levels.put(productId, new StockLevel(buffer.getInt(), buffer.getInt()));
+                    }
+                    buffer.compact();
+                }
+            }
+        }
+        return levels;
+    }
+    
+    private synchronized long generationOfCurrent() {
+        return generation;
+    }
+    
+    private void awaitSynced(long position) {
+        if (syncedPosition >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedPosition >= position) {
+                return;
+            }
+            FileChannel target;
+            long upTo;
+            synchronized (this) {
+                target = channel;
+                upTo = writtenPosition;
+            }
+            try {
+                target.force(false);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to sync stock journal", ex);
+            }
+            syncs.increment();
+            syncedPosition = upTo;
+        }
+    }
+    
+    private void openNext() throws IOException {
+        generation++;
+        currentFile = directory.resolve(String.format("%s%020d%s", PREFIX, generation, SUFFIX));
+        channel = FileChannel.open(currentFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        recordsInCurrentFile = 0;
+    }
+    
+    private List<Path> journalFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> file.getFileName().toString().startsWith(PREFIX))
+                .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                .sorted()
+                .toList();
+        }
+    }
+    
+    private static long generationOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
\ No newline at end of file
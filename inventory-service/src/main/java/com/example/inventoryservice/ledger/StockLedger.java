@@ -0,0 +1,355 @@
+package com.example.inventoryservice.ledger;
+
+import com.example.inventoryservice.dto.LedgerStats;
+import com.example.inventoryservice.durability.DurableInventoryStore;
+import com.example.inventoryservice.exception.InsufficientStockException;
+import com.example.inventoryservice.exception.ResourceNotFoundException;
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional in-memory stock ledger. When enabled, reservations, releases and availability checks are
+ * served from memory and the {@code inventory_items} table is brought up to date by a periodic flush.
+ *
+ * <p>A product's level is loaded from the database on first use and then changed only here, by
+ * compare-and-set on its {@link StockCounter}, so concurrent requests for a hot product never take a
+ * database connection. With {@code inventory.ledger.shards} above one, each product's stock is split
+ * across that many shards so that threads reserving the same product rarely collide. A reservation or
+ * release that fails leaves the counter unchanged, so there is nothing to journal for it.
+ *
+ * <p>Every change is written to the {@link StockJournal} before it is acknowledged. The flush rotates
+ * the journal, writes the latest level of each changed product in one transaction, however many
+ * changes it had, and then deletes the journal files it covered. On startup, journal files left by a
+ * crash are replayed into the table before anything is served.
+ */
+@Component
+public class StockLedger {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+    
+    private final InventoryRepository inventoryRepository;
+    private final DurableInventoryStore durableInventoryStore;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path journalDirectory;
+    private final boolean fsync;
+    private final int shards;
+    private StockJournal journal;
+    
+    private final Map<Long, LedgerEntry> entries = new ConcurrentHashMap<>();
+    private final Queue<LedgerEntry> changed = new ConcurrentLinkedQueue<>();
+    private final List<Path> unflushedFiles = new ArrayList<>();
+    
+    private final LongAdder reservations = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    
+    @Autowired
+    public StockLedger(InventoryRepository inventoryRepository,
+                       DurableInventoryStore durableInventoryStore,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${inventory.ledger.enabled}") boolean enabled,
+                       @Value("${inventory.ledger.journal-directory}") Path journalDirectory,
+                       @Value("${inventory.ledger.fsync}") boolean fsync,
+                       @Value("${inventory.ledger.shards}") int shards) {
+        this.inventoryRepository = inventoryRepository;
+        this.durableInventoryStore = durableInventoryStore;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.journalDirectory = journalDirectory;
+        this.fsync = fsync;
+        this.shards = shards;
+    }
+    
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = new StockJournal(journalDirectory, fsync);
+        recover();
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Moves stock from available to reserved, failing the same way as the database path when the
+     * product is unknown or short of stock.
+     */
+    public InventoryItem reserve(Long productId, int quantity) {
+        LedgerEntry entry = getEntry(productId);
+        if (!entry.counter.reserve(quantity)) {
+            rejections.increment();
+            throw new InsufficientStockException(
+                String.format("Insufficient stock for product %d. Available: %d, Requested: %d",
+                    productId, entry.counter.getAvailable(), quantity));
+        }
+        StockLevel level = recordOrUndo(entry, () -> entry.counter.release(quantity));
+        reservations.increment();
+        return entry.toItem(level);
+    }
+    
+    public InventoryItem release(Long productId, int quantity) {
+        LedgerEntry entry = getEntry(productId);
+        if (!entry.counter.release(quantity)) {
+            throw new IllegalArgumentException(
+                String.format("Cannot release more stock than reserved for product %d. Reserved: %d, Requested: %d",
+                    productId, entry.counter.level().reserved, quantity));
+        }
+        StockLevel level = recordOrUndo(entry, () -> entry.counter.reserve(quantity));
+        releases.increment();
+        return entry.toItem(level);
+    }
+    
+    public InventoryItem setAvailable(Long productId, int availableStock) {
+        LedgerEntry entry = getEntry(productId);
+        entry.counter.setAvailable(availableStock);
+        return entry.toItem(record(entry));
+    }
+    
+    /**
+     * Returns the product's available stock, or null if it has no inventory.
+     */
+    public Integer getAvailable(Long productId) {
+        LedgerEntry entry = findEntry(productId);
+        return entry == null ? null : entry.counter.getAvailable();
+    }
+    
+    /**
+     * Returns the product's reserved stock, or null if it has no inventory.
+     */
+    public Integer getReserved(Long productId) {
+        LedgerEntry entry = findEntry(productId);
+        return entry == null ? null : entry.counter.level().reserved;
+    }
+    
+    /**
+     * Returns the product's available stock if the ledger holds it, and otherwise
+     * {@code storedAvailable}, as read from the table. Unlike the other reads, never loads the product.
+     */
+    public int currentAvailable(long productId, int storedAvailable) {
+        LedgerEntry entry = enabled ? entries.get(productId) : null;
+        return entry == null ? storedAvailable : entry.counter.getAvailable();
+    }
+    
+    public boolean isStockAvailable(Long productId, int quantity) {
+        LedgerEntry entry = findEntry(productId);
+        return entry != null && entry.counter.getAvailable() >= quantity;
+    }
+    
+    /**
+     * Returns the item with its ledger stock levels if the ledger holds the product. The database row
+     * can be up to one flush interval behind.
+     */
+    public InventoryItem view(InventoryItem item) {
+        LedgerEntry entry = enabled ? entries.get(item.getProductId()) : null;
+        return entry == null ? item : entry.toItem(entry.counter.level());
+    }
+    
+    /**
+     * Forgets the product, so its level is loaded again from the database on next use.
+     */
+    public void evict(Long productId) {
+        entries.remove(productId);
+    }
+    
+    /**
+     * Writes every product changed since the last flush to the database and deletes the journal files
+     * those changes were recorded in. If the write fails, the products and files are kept for the next
+     * flush.
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval-ms}")
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        unflushedFiles.addAll(journal.rotate());
+        List<LedgerEntry> batch = new ArrayList<>();
+        List<StockLevel> levels = new ArrayList<>();
+        LedgerEntry entry;
+        while ((entry = changed.poll()) != null) {
+            // Cleared before the level is read, so a change made after the read queues the entry again
+            entry.queued.set(false);
+            batch.add(entry);
+            levels.add(entry.counter.level());
+        }
+        
+        if (!batch.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        LedgerEntry flushed = batch.get(i);
+                        StockLevel level = levels.get(i);
+                        writeStockLevel(flushed.productId, level, flushed.lastUpdated);
+                    }
+                });
+            } catch (RuntimeException ex) {
+                flushFailures.increment();
+                batch.forEach(this::markChanged);
+                log.error("Failed to flush {} stock levels; keeping {} journal files", batch.size(),
+                    unflushedFiles.size(), ex);
+                return;
+            }
+            flushes.increment();
+            flushedRows.add(batch.size());
+            log.debug("Flushed {} stock levels", batch.size());
+        }
+        journal.delete(unflushedFiles);
+        unflushedFiles.clear();
+    }
+    
+    public LedgerStats getStats() {
+        LedgerStats stats = new LedgerStats();
+        stats.setEnabled(enabled);
+        stats.setProducts(entries.size());
+        stats.setReservations(reservations.sum());
+        stats.setReleases(releases.sum());
+        stats.setRejections(rejections.sum());
+        stats.setPendingProducts(changed.size());
+        stats.setFlushes(flushes.sum());
+        stats.setFlushedRows(flushedRows.sum());
+        stats.setFlushFailures(flushFailures.sum());
+        if (journal != null) {
+            stats.setJournalRecords(journal.getAppendedRecords());
+            stats.setJournalSyncs(journal.getSyncs());
+        }
+        return stats;
+    }
+    
+    /**
+     * Replays journal files left by a previous run into the table, then deletes them.
+     */
+    private void recover() throws IOException {
+        List<Path> files = journal.sealedFiles();
+        if (files.isEmpty()) {
+            return;
+        }
+        Map<Long, StockLevel> levels = StockJournal.read(files);
+        LocalDateTime now = LocalDateTime.now();
+        Integer restored = transactionTemplate.execute(status -> {
+            int rows = 0;
+            for (Map.Entry<Long, StockLevel> level : levels.entrySet()) {
+                rows += writeStockLevel(level.getKey(), level.getValue(), now);
+            }
+            return rows;
+        });
+        journal.delete(files);
+        log.info("Recovered {} stock levels from {} journal files ({} products no longer exist)", restored,
+            files.size(), levels.size() - restored);
+    }
+    
+    /**
+     * Writes the level to the product's row, and in durable mode journals it if the row still exists.
+     */
+    private int writeStockLevel(long productId, StockLevel level, LocalDateTime lastUpdated) {
+        int rows = inventoryRepository.writeStockLevel(productId, level.available, level.reserved, lastUpdated);
+        if (rows > 0) {
+            durableInventoryStore.recordLevel(productId, level.available, level.reserved, lastUpdated);
+        }
+        return rows;
+    }
+    
+    /**
+     * Journals the change just made, undoing it in memory if it cannot be journaled: a change that is
+     * not acknowledged must not be kept.
+     */
+    private StockLevel recordOrUndo(LedgerEntry entry, Runnable undo) {
+        try {
+            return record(entry);
+        } catch (UncheckedIOException ex) {
+            undo.run();
+            throw ex;
+        }
+    }
+    
+    private StockLevel record(LedgerEntry entry) {
+        StockLevel level = journal.append(entry.productId, entry.counter);
+        entry.lastUpdated = LocalDateTime.now();
+        markChanged(entry);
+        return level;
+    }
+    
+    private void markChanged(LedgerEntry entry) {
+        if (!entry.queued.get() && entry.queued.compareAndSet(false, true)) {
+            changed.add(entry);
+        }
+    }
+    
+    private LedgerEntry getEntry(Long productId) {
+        LedgerEntry entry = findEntry(productId);
+        if (entry == null) {
+            throw new ResourceNotFoundException("Inventory not found for product id: " + productId);
+        }
+        return entry;
+    }
+    
+    private LedgerEntry findEntry(Long productId) {
+        LedgerEntry entry = entries.get(productId);
+        if (entry != null) {
+            return entry;
+        }
+        return entries.computeIfAbsent(productId, id -> inventoryRepository.findByProductId(id)
+            .map(item -> new LedgerEntry(item, shards))
+            .orElse(null));
+    }
+    
+    private static final class LedgerEntry {
+        
+        private final Long id;
+        private final long productId;
+        private final StockCounter counter;
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private volatile LocalDateTime lastUpdated;
+        
+        private LedgerEntry(InventoryItem item, int shards) {
+            this.id = item.getId();
+            this.productId = item.getProductId();
+            this.counter = new StockCounter(item.getAvailableStock(), item.getReservedStock(), shards);
+            this.lastUpdated = item.getLastUpdated();
+        }
+        
+        private InventoryItem toItem(StockLevel stockLevel) {
+            InventoryItem item = new InventoryItem(productId, stockLevel.available);
+            item.setId(id);
+            item.setReservedStock(stockLevel.reserved);
+            item.setLastUpdated(lastUpdated);
+            return item;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.inventoryservice.ledger;
+
+/**
+ * One product's available and reserved stock at a point in time.
+ */
+final class StockLevel {
+    
+    final int available;
+    final int reserved;
+    
+    StockLevel(int available, int reserved) {
+        this.available = available;
+        this.reserved = reserved;
+    }
+}
\ No newline at end of file
@@ -6,7 +6,9 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory_items")
+@Table(name = "inventory_items", indexes = {
+    @Index(name = "idx_inventory_items_available_stock", columnList = "availableStock, productId")
+})
 public class InventoryItem {
     
     @Id
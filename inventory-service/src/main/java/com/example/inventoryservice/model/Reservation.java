@@ -0,0 +1,76 @@
+package com.example.inventoryservice.model;
+
+import com.example.inventoryservice.dto.ReservationLine;
+import com.example.inventoryservice.expiry.HierarchicalTimingWheel;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * A hold on stock that is released automatically unless it is confirmed before it expires. Held in
+ * memory by {@code ReservationService}, not stored in the database; in durable mode it is also journaled.
+ */
+public class Reservation {
+    
+    private final String reservationId;
+    private final List<ReservationLine> items;
+    private final LocalDateTime createdAt;
+    private final long expiresAtMillis;
+    private volatile ReservationStatus status;
+    private volatile HierarchicalTimingWheel.Timeout<Reservation> timeout;
+    
+    public Reservation(String reservationId, List<ReservationLine> items, long expiresAtMillis) {
+        this(reservationId, items, LocalDateTime.now(), expiresAtMillis);
+    }
+    
+    public Reservation(String reservationId, List<ReservationLine> items, LocalDateTime createdAt,
+                       long expiresAtMillis) {
+        this.reservationId = reservationId;
+        this.items = List.copyOf(items);
+        this.createdAt = createdAt;
+        this.expiresAtMillis = expiresAtMillis;
+        this.status = ReservationStatus.ACTIVE;
+    }
+    
+    // Getters and Setters
+    public String getReservationId() {
+        return reservationId;
+    }
+    
+    public List<ReservationLine> getItems() {
+        return items;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault());
+    }
+    
+    @JsonIgnore
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+    
+    public ReservationStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+    
+    @JsonIgnore
+    public HierarchicalTimingWheel.Timeout<Reservation> getTimeout() {
+        return timeout;
+    }
+    
+    public void setTimeout(HierarchicalTimingWheel.Timeout<Reservation> timeout) {
+        this.timeout = timeout;
+    }
+}
\ No newline at end of file
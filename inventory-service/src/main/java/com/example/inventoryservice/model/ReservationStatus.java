@@ -0,0 +1,8 @@
+package com.example.inventoryservice.model;
+
+public enum ReservationStatus {
+    ACTIVE,
+    CONFIRMED,
+    CANCELLED,
+    EXPIRED
+}
\ No newline at end of file
@@ -1,9 +1,16 @@
 package com.example.inventoryservice.repository;
 
+import com.example.inventoryservice.dto.ProductStockView;
 import com.example.inventoryservice.model.InventoryItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,9 +21,66 @@ public interface InventoryRepository extends JpaRepository<InventoryItem, Long>
     
     boolean existsByProductId(Long productId);
     
-    @Query("SELECT i FROM InventoryItem i WHERE i.availableStock > 0")
-    List<InventoryItem> findItemsWithAvailableStock();
+    /**
+     * Loads and write-locks the items in product ID order, so transactions locking overlapping sets of
+     * products always lock them in the same order and cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventoryItem i WHERE i.productId IN :productIds ORDER BY i.productId")
+    List<InventoryItem> findAllByProductIdInForUpdate(Collection<Long> productIds);
     
-    @Query("SELECT i FROM InventoryItem i WHERE i.availableStock < :threshold")
-    List<InventoryItem> findLowStockItems(Integer threshold);
+    List<InventoryItem> findAllByProductIdIn(Collection<Long> productIds);
+    
+    /**
+     * The next page, in stock then product ID order, of items with available stock from
+     * {@code minStock} (inclusive) to {@code maxStock} (exclusive) that come after the given position.
+     * Served by the {@code (availableStock, productId)} index, so a page costs the same however deep it
+     * is.
+     */
+    @Query("SELECT i FROM InventoryItem i WHERE i.availableStock >= :minStock AND i.availableStock < :maxStock " +
+           "AND i.availableStock >= :afterStock " +
+           "AND (i.availableStock > :afterStock OR i.productId > :afterProductId) " +
+           "ORDER BY i.availableStock, i.productId")
+    List<InventoryItem> findStockRangeAfter(int minStock, int maxStock, int afterStock, long afterProductId,
+                                            Pageable pageable);
+    
+    @Query("SELECT i.productId AS productId, i.availableStock AS availableStock FROM InventoryItem i")
+    List<ProductStockView> findAllStockLevels();
+    
+    /**
+     * Product ID and available stock of each listed product that exists, as {@code [productId,
+     * availableStock]} rows. The IDs are bound as one array parameter, so the statement is the same
+     * however many are listed.
+     */
+    @Query(value = "SELECT product_id AS productId, available_stock AS availableStock FROM inventory_items " +
+                   "WHERE product_id = ANY(:productIds)", nativeQuery = true)
+    List<Object[]> findStockLevelsByProductIdIn(Long[] productIds);
+    
+    /**
+     * Moves {@code quantity} from available to reserved stock in one statement, only if enough is
+     * available. Returns the number of rows changed: 0 if the product is missing or short of stock.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventoryItem i SET i.availableStock = i.availableStock - :quantity, " +
+           "i.reservedStock = i.reservedStock + :quantity, i.lastUpdated = :now " +
+           "WHERE i.productId = :productId AND i.availableStock >= :quantity")
+    int reserveStock(Long productId, int quantity, LocalDateTime now);
+    
+    /**
+     * Moves {@code quantity} from reserved back to available stock in one statement, only if that much
+     * is reserved. Returns the number of rows changed: 0 if the product is missing or not reserved enough.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventoryItem i SET i.availableStock = i.availableStock + :quantity, " +
+           "i.reservedStock = i.reservedStock - :quantity, i.lastUpdated = :now " +
+           "WHERE i.productId = :productId AND i.reservedStock >= :quantity")
+    int releaseStock(Long productId, int quantity, LocalDateTime now);
+    
+    /**
+     * Overwrites the stock levels of a product with those held in the stock ledger.
+     */
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.availableStock = :availableStock, i.reservedStock = :reservedStock, " +
+           "i.lastUpdated = :lastUpdated WHERE i.productId = :productId")
+    int writeStockLevel(Long productId, int availableStock, int reservedStock, LocalDateTime lastUpdated);
 }
\ No newline at end of file
@@ -1,32 +1,76 @@
 package com.example.inventoryservice.service;
 
+import com.example.inventoryservice.batching.StockRequest;
+import com.example.inventoryservice.dto.InventoryPage;
+import com.example.inventoryservice.dto.ReservationLine;
+import com.example.inventoryservice.dto.ReservationShortfall;
+import com.example.inventoryservice.durability.DurableInventoryStore;
+import com.example.inventoryservice.exception.BatchReservationException;
 import com.example.inventoryservice.exception.InsufficientStockException;
 import com.example.inventoryservice.exception.ResourceNotFoundException;
+import com.example.inventoryservice.index.StockLevelIndex;
+import com.example.inventoryservice.ledger.StockLedger;
 import com.example.inventoryservice.model.InventoryItem;
 import com.example.inventoryservice.repository.InventoryRepository;
+import com.example.inventoryservice.stream.StockChangeBroadcaster;
+import com.example.inventoryservice.transaction.CommitSequencer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 @Transactional
 public class InventoryService {
     
+    private static final int MAX_PAGE_SIZE = 1000;
+    
     private final InventoryRepository inventoryRepository;
+    private final StockLedger stockLedger;
+    private final StockLevelIndex stockLevelIndex;
+    private final StockChangeBroadcaster stockChangeBroadcaster;
+    private final DurableInventoryStore durableInventoryStore;
+    private final TransactionTemplate transactionTemplate;
+    private final CommitSequencer indexUpdates = new CommitSequencer();
     
     @Autowired
-    public InventoryService(InventoryRepository inventoryRepository) {
+    public InventoryService(InventoryRepository inventoryRepository,
+                            StockLedger stockLedger,
+                            StockLevelIndex stockLevelIndex,
+                            StockChangeBroadcaster stockChangeBroadcaster,
+                            DurableInventoryStore durableInventoryStore,
+                            TransactionTemplate transactionTemplate) {
         this.inventoryRepository = inventoryRepository;
+        this.stockLedger = stockLedger;
+        this.stockLevelIndex = stockLevelIndex;
+        this.stockChangeBroadcaster = stockChangeBroadcaster;
+        this.durableInventoryStore = durableInventoryStore;
+        this.transactionTemplate = transactionTemplate;
     }
     
     public List<InventoryItem> getAllInventoryItems() {
-        return inventoryRepository.findAll();
+        return inventoryRepository.findAll().stream().map(stockLedger::view).toList();
     }
     
     public InventoryItem getInventoryByProductId(Long productId) {
         return inventoryRepository.findByProductId(productId)
+            .map(stockLedger::view)
             .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product id: " + productId));
     }
     
@@ -34,60 +78,476 @@ public class InventoryService {
         if (inventoryRepository.existsByProductId(inventoryItem.getProductId())) {
             throw new IllegalArgumentException("Inventory already exists for product id: " + inventoryItem.getProductId());
         }
-        return inventoryRepository.save(inventoryItem);
+        InventoryItem createdItem = inventoryRepository.save(inventoryItem);
+        stockChangedInTransaction(createdItem);
+        return createdItem;
     }
     
     public InventoryItem updateStock(Long productId, Integer newStock) {
+        if (stockLedger.isEnabled()) {
+            InventoryItem updatedItem = stockLedger.setAvailable(productId, newStock);
+            ledgerStockChanged(productId);
+            return updatedItem;
+        }
         InventoryItem inventoryItem = getInventoryByProductId(productId);
         inventoryItem.setAvailableStock(newStock);
-        return inventoryRepository.save(inventoryItem);
+        // Flushed so the row is locked before the index is updated
+        InventoryItem updatedItem = inventoryRepository.saveAndFlush(inventoryItem);
+        stockChangedInTransaction(updatedItem);
+        return updatedItem;
     }
     
     public void deleteInventoryItem(Long productId) {
         InventoryItem inventoryItem = getInventoryByProductId(productId);
         inventoryRepository.delete(inventoryItem);
+        inventoryRepository.flush();
+        stockRemovedInTransaction(productId);
+        if (stockLedger.isEnabled()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stockLedger.evict(productId);
+                }
+            });
+        }
     }
     
+    /**
+     * Reserves stock with a single conditional update, so concurrent reservations can neither lose
+     * updates nor oversell. The row is only read afterwards, to return it or explain a failure. With
+     * the stock ledger enabled, the reservation is made in memory and no transaction is started.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public InventoryItem reserveStock(Long productId, Integer quantity) {
-        InventoryItem inventoryItem = getInventoryByProductId(productId);
-        
-        if (!inventoryItem.canReserve(quantity)) {
+        if (stockLedger.isEnabled()) {
+            return reserveInLedger(productId, quantity);
+        }
+        return transactionTemplate.execute(status -> reserveInDatabase(productId, quantity));
+    }
+    
+    /**
+     * Releases reserved stock with a single conditional update; see {@link #reserveStock(Long, Integer)}.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public InventoryItem releaseStock(Long productId, Integer quantity) {
+        if (stockLedger.isEnabled()) {
+            return releaseInLedger(productId, quantity);
+        }
+        return transactionTemplate.execute(status -> releaseInDatabase(productId, quantity));
+    }
+    
+    private InventoryItem reserveInDatabase(Long productId, Integer quantity) {
+        if (inventoryRepository.reserveStock(productId, quantity, LocalDateTime.now()) == 0) {
+            InventoryItem inventoryItem = getInventoryByProductId(productId);
             throw new InsufficientStockException(
                 String.format("Insufficient stock for product %d. Available: %d, Requested: %d", 
                     productId, inventoryItem.getAvailableStock(), quantity));
         }
-        
-        inventoryItem.reserveStock(quantity);
-        return inventoryRepository.save(inventoryItem);
+        InventoryItem reservedItem = getInventoryByProductId(productId);
+        stockChangedInTransaction(reservedItem);
+        return reservedItem;
     }
     
-    public InventoryItem releaseStock(Long productId, Integer quantity) {
-        InventoryItem inventoryItem = getInventoryByProductId(productId);
-        
-        if (inventoryItem.getReservedStock() < quantity) {
+    private InventoryItem releaseInDatabase(Long productId, Integer quantity) {
+        if (inventoryRepository.releaseStock(productId, quantity, LocalDateTime.now()) == 0) {
+            InventoryItem inventoryItem = getInventoryByProductId(productId);
             throw new IllegalArgumentException(
                 String.format("Cannot release more stock than reserved for product %d. Reserved: %d, Requested: %d", 
                     productId, inventoryItem.getReservedStock(), quantity));
         }
+        InventoryItem releasedItem = getInventoryByProductId(productId);
+        stockChangedInTransaction(releasedItem);
+        return releasedItem;
+    }
+    
+    private InventoryItem reserveInLedger(Long productId, int quantity) {
+        InventoryItem reservedItem = stockLedger.reserve(productId, quantity);
+        ledgerStockChanged(productId);
+        return reservedItem;
+    }
+    
+    private InventoryItem releaseInLedger(Long productId, int quantity) {
+        InventoryItem releasedItem = stockLedger.release(productId, quantity);
+        ledgerStockChanged(productId);
+        return releasedItem;
+    }
+    
+    /**
+     * Reserves every line or none of them. Lines for the same product are merged. In the database the
+     * rows are locked in product ID order with one query, so concurrent batches cannot deadlock, and
+     * checked together before any is changed. In the stock ledger a failed line undoes the lines
+     * already reserved.
+     *
+     * @throws BatchReservationException listing every line that is short, if any is
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<InventoryItem> reserveStock(List<ReservationLine> lines) {
+        Map<Long, Integer> quantities = mergeLines(lines);
+        if (!stockLedger.isEnabled()) {
+            return transactionTemplate.execute(status -> reserveInDatabase(quantities));
+        }
         
-        inventoryItem.releaseStock(quantity);
-        return inventoryRepository.save(inventoryItem);
+        List<InventoryItem> reservedItems = new ArrayList<>();
+        try {
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                reservedItems.add(reserveInLedger(line.getKey(), line.getValue()));
+            }
+        } catch (InsufficientStockException | ResourceNotFoundException ex) {
+            for (InventoryItem reserved : reservedItems) {
+                releaseInLedger(reserved.getProductId(), quantities.get(reserved.getProductId()));
+            }
+            Map<Long, Integer> available = new HashMap<>();
+            quantities.keySet().forEach(productId -> available.put(productId, stockLedger.getAvailable(productId)));
+            List<ReservationShortfall> shortfalls = shortfalls(quantities, available);
+            if (shortfalls.isEmpty()) {
+                // Stock arrived after the failing line was tried; report that line alone
+                throw ex;
+            }
+            throw new BatchReservationException(shortfalls, quantities.size());
+        }
+        return reservedItems;
     }
     
-    public boolean isStockAvailable(Long productId, Integer quantity) {
+    private List<InventoryItem> reserveInDatabase(Map<Long, Integer> quantities) {
+        List<InventoryItem> items = inventoryRepository.findAllByProductIdInForUpdate(quantities.keySet());
+        Map<Long, Integer> available = new HashMap<>();
+        for (InventoryItem item : items) {
+            available.put(item.getProductId(), item.getAvailableStock());
+        }
+        List<ReservationShortfall> shortfalls = shortfalls(quantities, available);
+        if (!shortfalls.isEmpty()) {
+            throw new BatchReservationException(shortfalls, quantities.size());
+        }
+        // The locked rows are updated together when the transaction commits
+        for (InventoryItem item : items) {
+            item.reserveStock(quantities.get(item.getProductId()));
+            stockChangedInTransaction(item);
+        }
+        return items;
+    }
+    
+    private List<ReservationShortfall> shortfalls(Map<Long, Integer> quantities, Map<Long, Integer> available) {
+        List<ReservationShortfall> shortfalls = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Integer availableStock = available.get(line.getKey());
+            if (availableStock == null || availableStock < line.getValue()) {
+                shortfalls.add(new ReservationShortfall(line.getKey(), line.getValue(), availableStock));
+            }
+        }
+        return shortfalls;
+    }
+    
+    /**
+     * Releases every line or none of them, in the same order as {@link #reserveStock(List)}.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<InventoryItem> releaseStock(List<ReservationLine> lines) {
+        Map<Long, Integer> quantities = mergeLines(lines);
+        if (!stockLedger.isEnabled()) {
+            return transactionTemplate.execute(status -> {
+                List<InventoryItem> releasedItems = new ArrayList<>();
+                for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                    releasedItems.add(releaseInDatabase(line.getKey(), line.getValue()));
+                }
+                return releasedItems;
+            });
+        }
+        
+        List<InventoryItem> releasedItems = new ArrayList<>();
         try {
-            InventoryItem inventoryItem = getInventoryByProductId(productId);
-            return inventoryItem.canReserve(quantity);
-        } catch (ResourceNotFoundException e) {
-            return false;
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                releasedItems.add(releaseInLedger(line.getKey(), line.getValue()));
+            }
+        } catch (RuntimeException ex) {
+            for (InventoryItem released : releasedItems) {
+                reserveInLedger(released.getProductId(), quantities.get(released.getProductId()));
+            }
+            throw ex;
         }
+        return releasedItems;
     }
     
-    public List<InventoryItem> getItemsWithAvailableStock() {
-        return inventoryRepository.findItemsWithAvailableStock();
+    /**
+     * Returns stock held by expired reservations, keyed by product ID, and returns how many units were
+     * released. Unlike {@link #releaseStock(List)} this never fails as a whole: products that no longer
+     * exist are skipped, and a product with less reserved stock than expected releases what it has. In
+     * the database the rows are locked in product ID order with one query and written back in one batch.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int releaseExpiredReservations(Map<Long, Integer> quantities) {
+        if (!stockLedger.isEnabled()) {
+            return transactionTemplate.execute(status -> {
+                int released = 0;
+                for (InventoryItem item : inventoryRepository.findAllByProductIdInForUpdate(quantities.keySet())) {
+                    int quantity = Math.min(quantities.get(item.getProductId()), item.getReservedStock());
+                    item.releaseStock(quantity);
+                    stockChangedInTransaction(item);
+                    released += quantity;
+                }
+                return released;
+            });
+        }
+        
+        int released = 0;
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Integer reserved = stockLedger.getReserved(line.getKey());
+            int quantity = reserved == null ? 0 : Math.min(line.getValue(), reserved);
+            if (quantity == 0) {
+                continue;
+            }
+            try {
+                releaseInLedger(line.getKey(), quantity);
+                released += quantity;
+            } catch (IllegalArgumentException ex) {
+                // Released by someone else since it was read; nothing is left to return
+            }
+        }
+        return released;
+    }
+    
+    /**
+     * Applies reservations and releases from many callers in one transaction, in order, and records each
+     * one's outcome on it: the item right after that request, or why it failed. A request that fails,
+     * for lack of stock or an unknown product, changes nothing and does not stop the others. In the
+     * database every product is locked in product ID order with one query, and the changed rows are
+     * written back in one batch. In the stock ledger each request is applied on its own.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void applyStockRequests(List<StockRequest> requests) {
+        if (stockLedger.isEnabled()) {
+            requests.forEach(this::applyStockRequest);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> applyInDatabase(requests));
+    }
+    
+    /**
+     * Applies one request in its own transaction, as {@link #reserveStock(Long, Integer)} or
+     * {@link #releaseStock(Long, Integer)} would, and records its outcome on it.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void applyStockRequest(StockRequest request) {
+        try {
+            request.succeeded(request.isRelease()
+                ? releaseStock(request.getProductId(), request.getQuantity())
+                : reserveStock(request.getProductId(), request.getQuantity()));
+        } catch (RuntimeException ex) {
+            request.failed(ex);
+        }
+    }
+    
+    private void applyInDatabase(List<StockRequest> requests) {
+        Set<Long> productIds = new TreeSet<>();
+        requests.forEach(request -> productIds.add(request.getProductId()));
+        Map<Long, InventoryItem> items = new HashMap<>();
+        for (InventoryItem item : inventoryRepository.findAllByProductIdInForUpdate(productIds)) {
+            items.put(item.getProductId(), item);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        Set<InventoryItem> changedItems = new LinkedHashSet<>();
+        for (StockRequest request : requests) {
+            Long productId = request.getProductId();
+            int quantity = request.getQuantity();
+            InventoryItem item = items.get(productId);
+            if (item == null) {
+                request.failed(new ResourceNotFoundException("Inventory not found for product id: " + productId));
+            } else if (!request.isRelease() && !item.canReserve(quantity)) {
+                request.failed(new InsufficientStockException(
+                    String.format("Insufficient stock for product %d. Available: %d, Requested: %d", 
+                        productId, item.getAvailableStock(), quantity)));
+            } else if (request.isRelease() && item.getReservedStock() < quantity) {
+                request.failed(new IllegalArgumentException(
+                    String.format("Cannot release more stock than reserved for product %d. Reserved: %d, Requested: %d", 
+                        productId, item.getReservedStock(), quantity)));
+            } else {
+                if (request.isRelease()) {
+                    item.releaseStock(quantity);
+                } else {
+                    item.reserveStock(quantity);
+                }
+                item.setLastUpdated(now);
+                changedItems.add(item);
+                request.succeeded(copyOf(item));
+            }
+        }
+        // The locked rows are updated together when the transaction commits
+        changedItems.forEach(this::stockChangedInTransaction);
+    }
+    
+    /**
+     * Detached copy of the item as it is now, for a caller whose request later ones in its batch build on.
+     */
+    private InventoryItem copyOf(InventoryItem item) {
+        InventoryItem copy = new InventoryItem(item.getProductId(), item.getAvailableStock());
+        copy.setId(item.getId());
+        copy.setReservedStock(item.getReservedStock());
+        copy.setLastUpdated(item.getLastUpdated());
+        return copy;
+    }
+    
+    private Map<Long, Integer> mergeLines(List<ReservationLine> lines) {
+        Map<Long, Integer> quantitiesByProduct = new TreeMap<>();
+        for (ReservationLine line : lines) {
+            quantitiesByProduct.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        return quantitiesByProduct;
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean isStockAvailable(Long productId, Integer quantity) {
+        if (stockLedger.isEnabled()) {
+            return stockLedger.isStockAvailable(productId, quantity);
+        }
+        return inventoryRepository.findByProductId(productId)
+            .map(inventoryItem -> inventoryItem.canReserve(quantity))
+            .orElse(false);
+    }
+    
+    /**
+     * Checks every line on its own, as {@link #isStockAvailable} would, and returns a bitmap aligned to
+     * {@code lines}: bit {@code i} is set if line {@code i} could be reserved now. Unknown products are
+     * not available. The levels of all distinct products are read with one query into sorted primitive
+     * arrays, and products the stock ledger holds use its level instead.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BitSet checkAvailability(List<ReservationLine> lines) {
+        long[] productIds = new long[lines.size()];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = lines.get(i).getProductId();
+        }
+        productIds = Arrays.stream(productIds).sorted().distinct().toArray();
+        // Unknown products keep a level no quantity fits
+        int[] available = new int[productIds.length];
+        Arrays.fill(available, Integer.MIN_VALUE);
+        
+        for (Object[] level : inventoryRepository.findStockLevelsByProductIdIn(
+                Arrays.stream(productIds).boxed().toArray(Long[]::new))) {
+            long productId = ((Number) level[0]).longValue();
+            available[Arrays.binarySearch(productIds, productId)] =
+                stockLedger.currentAvailable(productId, ((Number) level[1]).intValue());
+        }
+        
+        BitSet result = new BitSet(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            ReservationLine line = lines.get(i);
+            if (available[Arrays.binarySearch(productIds, line.getProductId())] >= line.getQuantity()) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns a page of items with stock available, lowest stock first; see {@link #getStockRange}.
+     */
+    public InventoryPage getItemsWithAvailableStock(Integer afterStock, Long afterProductId, int limit) {
+        return getStockRange(1, Integer.MAX_VALUE, afterStock, afterProductId, limit);
+    }
+    
+    /**
+     * Returns a page of items with less than {@code threshold} available, lowest stock first; see
+     * {@link #getStockRange}.
+     */
+    public InventoryPage getLowStockItems(Integer threshold, Integer afterStock, Long afterProductId, int limit) {
+        return getStockRange(Integer.MIN_VALUE, threshold, afterStock, afterProductId, limit);
+    }
+    
+    /**
+     * Returns up to {@code limit} items with available stock from {@code minStock} (inclusive) to
+     * {@code maxStock} (exclusive), in stock then product ID order, after the given position. Served
+     * from the {@link StockLevelIndex} when it is enabled, and otherwise by a keyset query on the
+     * table's stock index. Either way a page costs the same however deep it is.
+     */
+    private InventoryPage getStockRange(int minStock, int maxStock, Integer afterStock, Long afterProductId,
+                                        int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((afterStock == null) != (afterProductId == null)) {
+            throw new IllegalArgumentException("afterStock and afterProductId must be given together");
+        }
+        
+        if (stockLevelIndex.isEnabled()) {
+            StockLevelIndex.Entry after = afterStock == null ? null : new StockLevelIndex.Entry(afterStock, afterProductId);
+            // One extra entry tells whether there is a next page
+            List<StockLevelIndex.Entry> entries = stockLevelIndex.page(minStock, maxStock, after, limit + 1);
+            boolean more = entries.size() > limit;
+            entries = more ? entries.subList(0, limit) : entries;
+            Map<Long, InventoryItem> itemsById = new HashMap<>();
+            for (InventoryItem item : inventoryRepository.findAllByProductIdIn(
+                    entries.stream().map(StockLevelIndex.Entry::productId).toList())) {
+                itemsById.put(item.getProductId(), item);
+            }
+            List<InventoryItem> items = new ArrayList<>();
+            for (StockLevelIndex.Entry entry : entries) {
+                InventoryItem item = itemsById.get(entry.productId());
+                if (item == null) {
+                    continue;
+                }
+                // The index catches up with a commit just after it, so a row can briefly be outside the range
+                InventoryItem view = stockLedger.view(item);
+                if (view.getAvailableStock() >= minStock && view.getAvailableStock() < maxStock) {
+                    items.add(view);
+                }
+            }
+            StockLevelIndex.Entry last = more ? entries.get(entries.size() - 1) : null;
+            return new InventoryPage(items, last == null ? null : last.availableStock(),
+                last == null ? null : last.productId());
+        }
+        
+        List<InventoryItem> items = inventoryRepository.findStockRangeAfter(minStock, maxStock,
+            afterStock == null ? Integer.MIN_VALUE : afterStock,
+            afterProductId == null ? Long.MIN_VALUE : afterProductId,
+            PageRequest.of(0, limit + 1));
+        boolean more = items.size() > limit;
+        items = more ? items.subList(0, limit) : items;
+        InventoryItem last = more ? items.get(items.size() - 1) : null;
+        return new InventoryPage(items.stream().map(stockLedger::view).toList(),
+            last == null ? null : last.getAvailableStock(), last == null ? null : last.getProductId());
+    }
+    
+    /**
+     * Records a database stock change: once the transaction commits, journals it in durable mode, moves
+     * the item to its new level in the stock index and tells stock stream subscribers. Called while the
+     * transaction holds the row's write lock, so the journal and index end at each product's committed
+     * row, and pages never show a level that may yet roll back.
+     */
+    private void stockChangedInTransaction(InventoryItem item) {
+        Long productId = item.getProductId();
+        int availableStock = item.getAvailableStock();
+        indexUpdates.afterCommit(productId, () -> stockLevelIndex.put(productId, availableStock));
+        durableInventoryStore.recordChange(item);
+        onCompletion(productId);
+    }
+    
+    private void stockRemovedInTransaction(Long productId) {
+        indexUpdates.afterCommit(productId, () -> stockLevelIndex.remove(productId));
+        durableInventoryStore.recordRemoval(productId);
+        onCompletion(productId);
+    }
+    
+    private void onCompletion(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stockChangeBroadcaster.stockChanged(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    stockChangeBroadcaster.stockChanged(productId);
+                }
+            }
+        });
     }
     
-    public List<InventoryItem> getLowStockItems(Integer threshold) {
-        return inventoryRepository.findLowStockItems(threshold);
+    /**
+     * Records a stock ledger change. The level is read inside the index update, so concurrent changes
+     * leave the index at the latest level.
+     */
+    private void ledgerStockChanged(Long productId) {
+        stockLevelIndex.refresh(productId, () -> stockLedger.getAvailable(productId));
+        stockChangeBroadcaster.stockChanged(productId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,271 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.dto.ReservationLine;
+import com.example.inventoryservice.dto.ReservationStats;
+import com.example.inventoryservice.durability.DurableInventoryStore;
+import com.example.inventoryservice.durability.HoldJournal;
+import com.example.inventoryservice.exception.ResourceNotFoundException;
+import com.example.inventoryservice.expiry.HierarchicalTimingWheel;
+import com.example.inventoryservice.model.Reservation;
+import com.example.inventoryservice.model.ReservationStatus;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reservations that expire: stock is reserved as with {@link InventoryService#reserveStock(List)}, and
+ * released again unless the reservation is confirmed before its expiry.
+ *
+ * <p>Active reservations are kept in memory and their expiries in a {@link HierarchicalTimingWheel},
+ * so creating or confirming one costs the same however many are pending. Every tick, the reservations
+ * that are due are merged per product and their stock is returned in batched updates of up to
+ * {@code expiry-batch-size} products. A batch that fails is retried on the next tick. Whoever removes
+ * a reservation from the active map (confirm, cancel or expiry) decides its outcome, so a reservation
+ * confirmed while it is expiring is either confirmed or expired, never both. A cancellation whose
+ * release fails puts the reservation back, to be cancelled again or to expire.
+ *
+ * <p>In durable mode, holds are recorded in the {@link HoldJournal} and re-armed on startup, so the stock
+ * restored as reserved is still released when they expire. A hold is ended in the journal before its
+ * stock is released, so a crash in between leaves stock reserved rather than releasing it twice.
+ * Otherwise reservations do not survive a restart, and their stock stays reserved until released.
+ */
+@Service
+public class ReservationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReservationService.class);
+    
+    private static final int WHEEL_LEVELS = 4;
+    
+    private final InventoryService inventoryService;
+    private final DurableInventoryStore durableInventoryStore;
+    private final long defaultTtlSeconds;
+    private final int expiryBatchSize;
+    private final HierarchicalTimingWheel<Reservation> wheel;
+    private HoldJournal holdJournal;
+    
+    private final Map<String, Reservation> active = new ConcurrentHashMap<>();
+    // Stock of expired reservations whose release failed, retried on the next tick
+    private final Map<Long, Integer> pendingRelease = new TreeMap<>();
+    
+    private final LongAdder created = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder expiredUnits = new LongAdder();
+    private final LongAdder expiryBatches = new LongAdder();
+    private final LongAdder expiryFailures = new LongAdder();
+    private final LongAdder expiryNanos = new LongAdder();
+    
+    @Autowired
+    public ReservationService(InventoryService inventoryService,
+                              DurableInventoryStore durableInventoryStore,
+                              @Value("${inventory.reservations.default-ttl-seconds}") long defaultTtlSeconds,
+                              @Value("${inventory.reservations.tick-ms}") long tickMillis,
+                              @Value("${inventory.reservations.expiry-batch-size}") int expiryBatchSize) {
+        this.inventoryService = inventoryService;
+        this.durableInventoryStore = durableInventoryStore;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.expiryBatchSize = expiryBatchSize;
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+    
+    /**
+     * Re-arms the holds journaled before a restart. Those already past their expiry expire on the first
+     * tick.
+     */
+    @PostConstruct
+    public void start() {
+        holdJournal = durableInventoryStore.getHoldJournal();
+        if (holdJournal == null) {
+            return;
+        }
+        List<Reservation> holds = holdJournal.getActive();
+        for (Reservation reservation : holds) {
+            arm(reservation);
+        }
+        if (!holds.isEmpty()) {
+            log.info("Re-armed {} reservation holds from the hold journal", holds.size());
+        }
+    }
+    
+    /**
+     * Reserves every line or none of them and starts the reservation's expiry.
+     *
+     * @param ttlSeconds seconds until the reservation expires, or null for the default
+     */
+    public Reservation reserve(List<ReservationLine> lines, Integer ttlSeconds) {
+        inventoryService.reserveStock(lines);
+        long ttlMillis = (ttlSeconds != null ? ttlSeconds : defaultTtlSeconds) * 1000L;
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), lines,
+            System.currentTimeMillis() + ttlMillis);
+        // Journaled before it can be claimed, so its end is always recorded after it
+        if (holdJournal != null) {
+            holdJournal.held(reservation);
+        }
+        arm(reservation);
+        created.increment();
+        return reservation;
+    }
+    
+    public Reservation getReservation(String reservationId) {
+        Reservation reservation = active.get(reservationId);
+        if (reservation == null) {
+            throw notActive(reservationId);
+        }
+        return reservation;
+    }
+    
+    /**
+     * Keeps the reservation's stock reserved for good and cancels its expiry.
+     */
+    public Reservation confirm(String reservationId) {
+        Reservation reservation = claim(reservationId);
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        confirmed.increment();
+        return reservation;
+    }
+    
+    /**
+     * Releases the reservation's stock now rather than at expiry.
+     */
+    public Reservation cancel(String reservationId) {
+        Reservation reservation = claim(reservationId);
+        try {
+            inventoryService.releaseStock(reservation.getItems());
+        } catch (RuntimeException ex) {
+            // Its stock is still reserved, so it stays active until cancelled again or expired
+            if (holdJournal != null) {
+                holdJournal.held(reservation);
+            }
+            arm(reservation);
+            throw ex;
+        }
+        reservation.setStatus(ReservationStatus.CANCELLED);
+        cancelled.increment();
+        return reservation;
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.reservations.tick-ms}")
+    public void expireDue() {
+        expireDue(System.currentTimeMillis());
+    }
+    
+    /**
+     * Expires the reservations due by {@code nowMillis} and returns their stock, and returns how many
+     * reservations expired.
+     */
+    public synchronized int expireDue(long nowMillis) {
+        List<Reservation> due = wheel.advance(nowMillis);
+        if (due.isEmpty() && pendingRelease.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        int expiredNow = 0;
+        for (Reservation reservation : due) {
+            if (!active.remove(reservation.getReservationId(), reservation)) {
+                // Confirmed or cancelled after the wheel handed it out
+                continue;
+            }
+            ended(reservation);
+            reservation.setStatus(ReservationStatus.EXPIRED);
+            for (ReservationLine line : reservation.getItems()) {
+                pendingRelease.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            }
+            expiredNow++;
+        }
+        
+        List<Map<Long, Integer>> batches = new ArrayList<>();
+        Map<Long, Integer> batch = new TreeMap<>();
+        for (Map.Entry<Long, Integer> line : pendingRelease.entrySet()) {
+            batch.put(line.getKey(), line.getValue());
+            if (batch.size() == expiryBatchSize) {
+                batches.add(batch);
+                batch = new TreeMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        for (Map<Long, Integer> quantities : batches) {
+            try {
+                expiredUnits.add(inventoryService.releaseExpiredReservations(quantities));
+                expiryBatches.increment();
+                quantities.keySet().forEach(pendingRelease::remove);
+            } catch (RuntimeException ex) {
+                expiryFailures.increment();
+                log.error("Failed to release expired stock for {} products; retrying on the next tick",
+                    quantities.size(), ex);
+            }
+        }
+        
+        expired.add(expiredNow);
+        expiryNanos.add(System.nanoTime() - start);
+        if (expiredNow > 0) {
+            log.debug("Expired {} reservations in {} batches", expiredNow, batches.size());
+        }
+        return expiredNow;
+    }
+    
+    public synchronized ReservationStats getStats() {
+        ReservationStats stats = new ReservationStats();
+        stats.setActive(active.size());
+        stats.setCreated(created.sum());
+        stats.setConfirmed(confirmed.sum());
+        stats.setCancelled(cancelled.sum());
+        stats.setExpired(expired.sum());
+        stats.setExpiredUnits(expiredUnits.sum());
+        stats.setExpiryBatches(expiryBatches.sum());
+        stats.setExpiryFailures(expiryFailures.sum());
+        stats.setPendingUnits(pendingRelease.values().stream().mapToLong(Integer::longValue).sum());
+        long nanos = expiryNanos.sum();
+        stats.setExpiredPerSecond(nanos == 0 ? 0 : expired.sum() * 1_000_000_000L / nanos);
+        return stats;
+    }
+    
+    /**
+     * Makes the reservation active and schedules its expiry.
+     */
+    private void arm(Reservation reservation) {
+        active.put(reservation.getReservationId(), reservation);
+        reservation.setTimeout(wheel.schedule(reservation, reservation.getExpiresAtMillis()));
+    }
+    
+    /**
+     * Takes the reservation out of the active map, cancels its expiry and ends it in the hold journal,
+     * or fails if it is no longer active.
+     */
+    private Reservation claim(String reservationId) {
+        Reservation reservation = active.remove(reservationId);
+        if (reservation == null) {
+            throw notActive(reservationId);
+        }
+        // Not yet set if the reservation is claimed while it is being created; it then expires as a no-op
+        if (reservation.getTimeout() != null) {
+            wheel.cancel(reservation.getTimeout());
+        }
+        ended(reservation);
+        return reservation;
+    }
+    
+    private void ended(Reservation reservation) {
+        if (holdJournal != null) {
+            holdJournal.ended(reservation.getReservationId());
+        }
+    }
+    
+    private static ResourceNotFoundException notActive(String reservationId) {
+        return new ResourceNotFoundException("No active reservation with id: " + reservationId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,308 @@
+package com.example.inventoryservice.stream;
+
+import com.example.inventoryservice.dto.StockChange;
+import com.example.inventoryservice.dto.StockStreamStats;
+import com.example.inventoryservice.ledger.StockLedger;
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.repository.InventoryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes stock levels of the products a client subscribed to as server-sent events.
+ *
+ * <p>A new subscriber is first sent the current levels of its products. After that, a stock change only
+ * marks the product as changed, and only if someone watches it. Every {@code window-ms}, the changed
+ * products' current levels are read in one query and handed to their subscribers, so however often a
+ * product changes within a window, subscribers get one update for it.
+ *
+ * <p>Each subscriber buffers the latest unsent level per product and sends its whole buffer as one
+ * {@code stock} event on a small shared pool of sender threads. The buffer can never hold more than the
+ * subscriber's products. A slow subscriber, still busy sending when more than {@code buffer-size}
+ * products change, has its buffer dropped and is sent a {@code resync} event, telling it to read current
+ * levels again; the window is never held up for it. Idle subscribers hold no thread, only their emitter
+ * and buffer.
+ *
+ * <p>Writes block, so a subscriber that stops reading holds a sender thread until the server's write
+ * timeout ({@code server.tomcat.connection-timeout}) fails the send and the subscriber is disconnected.
+ * Meanwhile the other subscribers share the remaining threads.
+ */
+@Component
+public class StockChangeBroadcaster {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockChangeBroadcaster.class);
+    
+    private static final int LOAD_BATCH_SIZE = 1000;
+    
+    private final InventoryRepository inventoryRepository;
+    private final StockLedger stockLedger;
+    private final int bufferSize;
+    private final int maxProducts;
+    private final long timeoutMillis;
+    private final ExecutorService senders;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> subscribersByProduct = new ConcurrentHashMap<>();
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder windows = new LongAdder();
+    private final LongAdder eventsSent = new LongAdder();
+    private final LongAdder eventsCoalesced = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+    
+    @Autowired
+    public StockChangeBroadcaster(InventoryRepository inventoryRepository,
+                                  StockLedger stockLedger,
+                                  @Value("${inventory.stock-stream.buffer-size}") int bufferSize,
+                                  @Value("${inventory.stock-stream.max-products}") int maxProducts,
+                                  @Value("${inventory.stock-stream.timeout-ms}") long timeoutMillis,
+                                  @Value("${inventory.stock-stream.sender-threads}") int senderThreads) {
+        this.inventoryRepository = inventoryRepository;
+        this.stockLedger = stockLedger;
+        this.bufferSize = bufferSize;
+        this.maxProducts = maxProducts;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stock-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+    
+    public SseEmitter subscribe(Set<Long> productIds) {
+        return subscribe(productIds, new SseEmitter(timeoutMillis));
+    }
+    
+    /**
+     * Registers {@code emitter} for the products and starts it with their current levels.
+     */
+    SseEmitter subscribe(Set<Long> productIds, SseEmitter emitter) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one product ID is required");
+        }
+        if (productIds.size() > maxProducts) {
+            throw new IllegalArgumentException("At most " + maxProducts + " products can be watched per stream");
+        }
+        // Created draining, so changes that arrive before the current levels are sent wait in the buffer
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(productIds));
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        for (Long productId : subscriber.productIds) {
+            subscribersByProduct.compute(productId, (id, watching) -> {
+                Set<Subscriber> updated = watching != null ? watching : ConcurrentHashMap.newKeySet();
+                updated.add(subscriber);
+                return updated;
+            });
+        }
+        
+        try {
+            emitter.send(SseEmitter.event().name("stock")
+                .data(new ArrayList<>(currentLevels(subscriber.productIds).values())));
+            eventsSent.increment();
+        } catch (IOException ex) {
+            unsubscribe(subscriber);
+            emitter.completeWithError(ex);
+            return emitter;
+        }
+        // The emitter is not yet connected, so this only queues what arrived meanwhile
+        subscriber.drain();
+        log.debug("Stock stream opened for {} products, {} clients connected", productIds.size(), subscribers.size());
+        return emitter;
+    }
+    
+    /**
+     * Notes that the product's stock changed. Call it once the change is committed; the level sent is
+     * read when the window closes.
+     */
+    public void stockChanged(Long productId) {
+        if (subscribersByProduct.containsKey(productId)) {
+            changed.add(productId);
+            changes.increment();
+        }
+    }
+    
+    /**
+     * Closes the current window: reads the level of every product changed in it and hands it to the
+     * product's subscribers.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock-stream.window-ms}")
+    public void flush() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>();
+        for (Iterator<Long> it = changed.iterator(); it.hasNext(); ) {
+            productIds.add(it.next());
+            it.remove();
+        }
+        windows.increment();
+        
+        Map<Long, StockChange> levels = currentLevels(productIds);
+        Set<Subscriber> toDrain = new HashSet<>();
+        for (Long productId : productIds) {
+            Set<Subscriber> watching = subscribersByProduct.get(productId);
+            if (watching == null) {
+                continue;
+            }
+            StockChange level = levels.getOrDefault(productId, new StockChange(productId, null, null, null));
+            for (Subscriber subscriber : watching) {
+                if (subscriber.offer(level)) {
+                    toDrain.add(subscriber);
+                }
+            }
+        }
+        for (Subscriber subscriber : toDrain) {
+            senders.execute(subscriber::drain);
+        }
+    }
+    
+    public StockStreamStats getStats() {
+        StockStreamStats stats = new StockStreamStats();
+        stats.setSubscribers(subscribers.size());
+        stats.setWatchedProducts(subscribersByProduct.size());
+        stats.setChanges(changes.sum());
+        stats.setWindows(windows.sum());
+        stats.setEventsSent(eventsSent.sum());
+        stats.setEventsCoalesced(eventsCoalesced.sum());
+        stats.setOverflows(overflows.sum());
+        stats.setDisconnects(disconnects.sum());
+        return stats;
+    }
+    
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (Long productId : subscriber.productIds) {
+            subscribersByProduct.computeIfPresent(productId, (id, watching) -> {
+                watching.remove(subscriber);
+                return watching.isEmpty() ? null : watching;
+            });
+        }
+        disconnects.increment();
+    }
+    
+    /**
+     * Reads the products' current levels, including any the stock ledger has not yet flushed. Products
+     * without inventory are left out.
+     */
+    private Map<Long, StockChange> currentLevels(Collection<Long> productIds) {
+        Map<Long, StockChange> levels = new HashMap<>();
+        List<Long> ids = new ArrayList<>(productIds);
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()));
+            for (InventoryItem item : inventoryRepository.findAllByProductIdIn(batch)) {
+                InventoryItem current = stockLedger.view(item);
+                levels.put(current.getProductId(), new StockChange(current.getProductId(),
+                    current.getAvailableStock(), current.getReservedStock(), current.getLastUpdated()));
+            }
+        }
+        return levels;
+    }
+    
+    private final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final Set<Long> productIds;
+        // Latest unsent level per product, in the order first buffered
+        private final Map<Long, StockChange> buffer = new LinkedHashMap<>();
+        private boolean overflowed;
+        // A drain is scheduled or running
+        private boolean draining = true;
+        // The drain is inside a send
+        private boolean sending;
+        
+        private Subscriber(SseEmitter emitter, Set<Long> productIds) {
+            this.emitter = emitter;
+            this.productIds = productIds;
+        }
+        
+        /**
+         * Buffers the level, replacing an unsent one for the same product, and returns whether a drain
+         * must be scheduled.
+         */
+        private synchronized boolean offer(StockChange level) {
+            if (buffer.put(level.getProductId(), level) != null) {
+                eventsCoalesced.increment();
+            } else if (sending && buffer.size() > bufferSize) {
+                buffer.clear();
+                if (!overflowed) {
+                    overflowed = true;
+                    overflows.increment();
+                }
+            }
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+        
+        /**
+         * Sends buffered levels until the buffer is empty. Levels buffered while a send is in progress
+         * go out together in the next event.
+         */
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    if (overflowed) {
+                        overflowed = false;
+                        event = SseEmitter.event().name("resync").data("Buffer overflowed; read current levels again");
+                    } else if (buffer.isEmpty()) {
+                        draining = false;
+                        sending = false;
+                        return;
+                    } else {
+                        event = SseEmitter.event().name("stock").data(new ArrayList<>(buffer.values()));
+                        buffer.clear();
+                    }
+                    sending = true;
+                }
+                try {
+                    emitter.send(event);
+                    eventsSent.increment();
+                } catch (IOException | IllegalStateException ex) {
+                    // Also how a subscriber that stopped reading ends, once the server's write timeout expires.
+                    // Left marked as draining, so nothing more is scheduled for this subscriber
+                    unsubscribe(this);
+                    emitter.completeWithError(ex);
+                    return;
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.example.inventoryservice.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies the effects of row changes once their transaction commits, in the order the rows were changed.
+ *
+ * <p>A change is numbered when {@link #afterCommit} is called, which must be while its transaction holds
+ * the product's row lock, so numbers for one product follow commit order. Commit callbacks of different
+ * transactions can still run in either order. A callback that finds a later change to the same product
+ * already applied is skipped: changes carry the product's full row, so the later one includes it. Changes
+ * that roll back are never applied. Only products with a change in flight are tracked.
+ */
+public final class CommitSequencer {
+    
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Row> rows = new ConcurrentHashMap<>();
+    
+    /**
+     * Runs {@code action} once the current transaction commits, or now if there is none. The action runs
+     * while no other change to the product is applied, so it should be short.
+     */
+    public void afterCommit(long productId, Runnable action) {
+        long number = sequence.incrementAndGet();
+        rows.compute(productId, (id, row) -> {
+            Row tracked = row != null ? row : new Row();
+            tracked.pending++;
+            return tracked;
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(productId, number, true, action);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(productId, number, status == STATUS_COMMITTED, action);
+            }
+        });
+    }
+    
+    /**
+     * Products with a change waiting for its transaction to complete.
+     */
+    public int getPendingProducts() {
+        return rows.size();
+    }
+    
+    private void complete(long productId, long number, boolean committed, Runnable action) {
+        RuntimeException[] failure = new RuntimeException[1];
+        rows.compute(productId, (id, row) -> {
+            if (committed && number > row.applied) {
+                row.applied = number;
+                try {
+                    action.run();
+                } catch (RuntimeException ex) {
+                    // Rethrown once the product's count is settled, so a failure cannot leak its entry
+                    failure[0] = ex;
+                }
+            }
+            return --row.pending == 0 ? null : row;
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+    
+    private static final class Row {
+        
+        private long applied;
+        private int pending;
+    }
+}
\ No newline at end of file
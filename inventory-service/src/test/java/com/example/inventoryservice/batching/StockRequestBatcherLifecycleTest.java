@@ -0,0 +1,128 @@
+package com.example.inventoryservice.batching;
+
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.service.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Failures, timeouts and shutdown in the batcher itself, with the service mocked so a batch can be made
+ * to fail or hang.
+ */
+@ExtendWith(MockitoExtension.class)
+class StockRequestBatcherLifecycleTest {
+    
+    @Mock
+    private InventoryService inventoryService;
+    
+    private StockRequestBatcher batcher;
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+    
+    @Test
+    void testBatchFailureFailsEveryCallerAndCommitterCarriesOn() {
+        startBatcher(30000);
+        doThrow(new LinkageError("Broken batch"))
+            .doAnswer(invocation -> {
+                List<StockRequest> requests = invocation.getArgument(0);
+                requests.forEach(request -> request.succeeded(new InventoryItem(request.getProductId(), 1)));
+                return null;
+            })
+            .when(inventoryService).applyStockRequests(anyList());
+        
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> batcher.reserveStock(1L, 1));
+        assertInstanceOf(LinkageError.class, ex.getCause());
+        assertEquals(1, batcher.getStats().getFailedRequests());
+        
+        assertEquals(1L, batcher.reserveStock(1L, 1).getProductId());
+    }
+    
+    @Test
+    void testCallersStopWaitingAfterTheTimeout() throws Exception {
+        startBatcher(200);
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            applying.countDown();
+            finish.await();
+            return null;
+        }).when(inventoryService).applyStockRequests(anyList());
+        
+        CompletableFuture<Void> inBatch = CompletableFuture.runAsync(() -> batcher.reserveStock(1L, 1));
+        assertTrue(applying.await(5, TimeUnit.SECONDS));
+        // The only committer is busy, so this one is still queued when it times out
+        IllegalStateException queued = assertThrows(IllegalStateException.class, () -> batcher.reserveStock(2L, 1));
+        assertTrue(queued.getMessage().contains("was not applied"));
+        ExecutionException taken = assertThrows(ExecutionException.class, () -> inBatch.get(5, TimeUnit.SECONDS));
+        assertTrue(taken.getCause().getMessage().contains("may still be applied"));
+        assertEquals(0, batcher.getStats().getQueuedRequests());
+        finish.countDown();
+    }
+    
+    @Test
+    void testStopFinishesBatchesWithoutInterruptingThem() throws Exception {
+        startBatcher(30000);
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        List<Boolean> interrupted = new ArrayList<>();
+        doAnswer(invocation -> {
+            applying.countDown();
+            finish.await();
+            synchronized (interrupted) {
+                interrupted.add(Thread.currentThread().isInterrupted());
+            }
+            return null;
+        }).when(inventoryService).applyStockRequests(anyList());
+        
+        List<CompletableFuture<InventoryItem>> results = new ArrayList<>();
+        results.add(batcher.submit(new StockRequest(1L, 1, false)));
+        assertTrue(applying.await(5, TimeUnit.SECONDS));
+        for (long productId = 2; productId <= 5; productId++) {
+            results.add(batcher.submit(new StockRequest(productId, 1, false)));
+        }
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(() -> {
+            try {
+                batcher.stop();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        finish.countDown();
+        stopped.get(10, TimeUnit.SECONDS);
+        
+        for (CompletableFuture<InventoryItem> result : results) {
+            assertTrue(result.isDone() && !result.isCompletedExceptionally());
+        }
+        assertFalse(interrupted.contains(true));
+        
+        // Once stopped, callers apply their own request
+        batcher.submit(new StockRequest(6L, 1, false));
+        verify(inventoryService).applyStockRequest(any(StockRequest.class));
+        assertEquals(0, batcher.getStats().getQueuedRequests());
+    }
+    
+    private void startBatcher(long awaitTimeoutMillis) {
+        batcher = new StockRequestBatcher(inventoryService, true, 0, 100, 100, 1, awaitTimeoutMillis);
+        batcher.start();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.example.inventoryservice.batching;
+
+import com.example.inventoryservice.dto.BatchingStats;
+import com.example.inventoryservice.exception.InsufficientStockException;
+import com.example.inventoryservice.exception.ResourceNotFoundException;
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reservations and releases from many threads applied through the batcher, in shared transactions,
+ * with each caller still getting its own outcome.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.inventoryservice=INFO",
+    "logging.level.org.springframework.web=INFO",
+    "inventory.batching.enabled=true"
+})
+class StockRequestBatcherTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockRequestBatcherTest.class);
+    
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 200;
+    private static final int INITIAL_STOCK = 1000;
+    
+    @Autowired
+    private StockRequestBatcher stockRequestBatcher;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Test
+    void testConcurrentReservationsShareTransactionsWithoutOverselling() throws Exception {
+        inventoryService.createInventoryItem(new InventoryItem(9001L, INITIAL_STOCK));
+        BatchingStats before = stockRequestBatcher.getStats();
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        
+        long elapsedNanos = runConcurrently(() -> {
+            try {
+                stockRequestBatcher.reserveStock(9001L, 1);
+                reserved.incrementAndGet();
+            } catch (InsufficientStockException ex) {
+                rejected.incrementAndGet();
+            }
+        });
+        
+        BatchingStats after = stockRequestBatcher.getStats();
+        long batches = after.getBatches() - before.getBatches();
+        InventoryItem item = inventoryService.getInventoryByProductId(9001L);
+        log.info("{} reservations ({} rejected) in {} batches, {} ms: {} reservations/s", reserved.get(),
+            rejected.get(), batches, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+            THREADS * ATTEMPTS_PER_THREAD * 1_000_000_000L / Math.max(1, elapsedNanos));
+        
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - INITIAL_STOCK, rejected.get());
+        assertEquals(0, item.getAvailableStock());
+        assertEquals(INITIAL_STOCK, item.getReservedStock());
+        assertTrue(batches < THREADS * ATTEMPTS_PER_THREAD, "Requests should share transactions");
+        assertEquals(0, after.getRetriedBatches() - before.getRetriedBatches());
+    }
+    
+    @Test
+    void testFailedRequestsDoNotPoisonTheirBatch() {
+        inventoryService.createInventoryItem(new InventoryItem(9002L, 10));
+        List<StockRequest> batch = List.of(
+            new StockRequest(9002L, 4, false),
+            new StockRequest(9002L, 20, false),
+            new StockRequest(9002L, 5, true),
+            new StockRequest(9099L, 1, false),
+            new StockRequest(9002L, 6, false),
+            new StockRequest(9002L, 2, true));
+        
+        inventoryService.applyStockRequests(batch);
+        batch.forEach(StockRequest::complete);
+        
+        // Each successful caller sees the row as its own request left it
+        assertEquals(6, batch.get(0).getResult().join().getAvailableStock());
+        assertEquals(4, batch.get(0).getResult().join().getReservedStock());
+        assertCause(InsufficientStockException.class, batch.get(1));
+        assertCause(IllegalArgumentException.class, batch.get(2));
+        assertCause(ResourceNotFoundException.class, batch.get(3));
+        assertEquals(0, batch.get(4).getResult().join().getAvailableStock());
+        assertEquals(10, batch.get(4).getResult().join().getReservedStock());
+        assertEquals(2, batch.get(5).getResult().join().getAvailableStock());
+        
+        InventoryItem item = inventoryService.getInventoryByProductId(9002L);
+        assertEquals(2, item.getAvailableStock());
+        assertEquals(8, item.getReservedStock());
+    }
+    
+    @Test
+    void testCallersGetTheirOwnFailure() {
+        inventoryService.createInventoryItem(new InventoryItem(9003L, 5));
+        
+        assertEquals(2, stockRequestBatcher.reserveStock(9003L, 3).getAvailableStock());
+        assertThrows(InsufficientStockException.class, () -> stockRequestBatcher.reserveStock(9003L, 3));
+        assertThrows(IllegalArgumentException.class, () -> stockRequestBatcher.releaseStock(9003L, 4));
+        assertEquals(5, stockRequestBatcher.releaseStock(9003L, 3).getAvailableStock());
+    }
+    
+    private static void assertCause(Class<? extends Exception> expected, StockRequest request) {
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> request.getResult().get());
+        assertInstanceOf(expected, ex.getCause());
+    }
+    
+    private long runConcurrently(Runnable attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < ATTEMPTS_PER_THREAD; j++) {
+                        attempt.run();
+                    }
+                    return null;
+                }));
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - startNanos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
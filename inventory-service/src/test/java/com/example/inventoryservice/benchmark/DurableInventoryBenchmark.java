@@ -0,0 +1,132 @@
+package com.example.inventoryservice.benchmark;
+
+import com.example.inventoryservice.durability.DurableInventoryStore;
+import com.example.inventoryservice.durability.InventoryJournal;
+import com.example.inventoryservice.durability.InventorySnapshot;
+import com.example.inventoryservice.durability.InventoryState;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of durable mode: the latency one journal append adds to a stock change, and the time to recover
+ * 1,000,000 products from a snapshot plus 10,000,000 journal records, both into memory alone and on
+ * into an empty in-memory H2 table as a restart does. See the service README for how to run it.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class DurableInventoryBenchmark {
+    
+    private static final int PRODUCTS = 1_000_000;
+    private static final int JOURNAL_RECORDS = 10_000_000;
+    private static final int SEGMENT_BYTES = 64 << 20;
+    
+    @State(Scope.Benchmark)
+    public static class Journal {
+        
+        private Path directory;
+        private InventoryJournal journal;
+        
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            directory = Files.createTempDirectory("durable-append");
+            journal = new InventoryJournal(directory, SEGMENT_BYTES);
+        }
+        
+        @TearDown(Level.Iteration)
+        public void delete() throws IOException {
+            // Each iteration fills segments; dropping them keeps the disk from filling up
+            journal.close();
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Recovery {
+        
+        private Path directory;
+        private JdbcTemplate jdbcTemplate;
+        
+        @Setup(Level.Trial)
+        public void write() throws IOException {
+            directory = Files.createTempDirectory("durable-recovery");
+            Random random = new Random(42);
+            InventoryState state = new InventoryState(PRODUCTS);
+            for (int productId = 0; productId < PRODUCTS; productId++) {
+                state.put(productId, random.nextInt(1000), 0, 1_700_000_000_000L);
+            }
+            InventoryJournal journal = new InventoryJournal(directory, SEGMENT_BYTES);
+            long sealed = journal.rotate();
+            InventorySnapshot.write(directory, sealed, state);
+            for (int i = 0; i < JOURNAL_RECORDS; i++) {
+                journal.put(random.nextInt(PRODUCTS), random.nextInt(1000), random.nextInt(10),
+                    1_700_000_000_000L + i);
+            }
+            journal.close();
+            jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:durable-benchmark;DB_CLOSE_DELAY=-1", "sa", ""));
+            jdbcTemplate.execute("CREATE TABLE inventory_items (id BIGINT GENERATED BY DEFAULT AS IDENTITY " +
+                "PRIMARY KEY, product_id BIGINT UNIQUE, available_stock INTEGER, reserved_stock INTEGER, " +
+                "last_updated TIMESTAMP(6))");
+        }
+        
+        @Setup(Level.Invocation)
+        public void empty() {
+            jdbcTemplate.execute("TRUNCATE TABLE inventory_items");
+        }
+        
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            jdbcTemplate.execute("DROP TABLE inventory_items");
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public void append(Journal journal) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        journal.journal.put(random.nextInt(PRODUCTS), random.nextInt(1000), random.nextInt(10),
+            System.currentTimeMillis());
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public InventoryState load(Recovery recovery) throws IOException {
+        return DurableInventoryStore.load(recovery.directory, Long.MAX_VALUE).state();
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public int restore(Recovery recovery) throws IOException {
+        InventoryState state = DurableInventoryStore.load(recovery.directory, Long.MAX_VALUE).state();
+        return DurableInventoryStore.insert(recovery.jdbcTemplate, state);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(DurableInventoryBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
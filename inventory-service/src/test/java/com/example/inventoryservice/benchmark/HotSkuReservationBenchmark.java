@@ -0,0 +1,110 @@
+package com.example.inventoryservice.benchmark;
+
+import com.example.inventoryservice.durability.DurableInventoryStore;
+import com.example.inventoryservice.ledger.StockLedger;
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.repository.InventoryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained reservations per second against one product in the stock ledger, from 16 threads, with
+ * and without forcing the journal to disk. The database is replaced by a stub, so this measures the
+ * ledger and its journal only; compare with the database path in {@code InventoryServiceConcurrencyTest}.
+ * See the service README for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class HotSkuReservationBenchmark {
+    
+    private static final long HOT_PRODUCT_ID = 1L;
+    
+    @Param({"false", "true"})
+    private boolean fsync;
+    
+    private Path journalDirectory;
+    private StockLedger ledger;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        journalDirectory = Files.createTempDirectory("hot-sku-ledger");
+        ledger = new StockLedger(stubRepository(), new DurableInventoryStore(null, null, null, false, null, 0),
+            new TransactionTemplate(new NoOpTransactionManager()), true, journalDirectory, fsync, 1);
+        ledger.start();
+    }
+    
+    @TearDown(Level.Iteration)
+    public void flush() {
+        // Lets the journal files written during the iteration be deleted
+        ledger.flush();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ledger.stop();
+        FileSystemUtils.deleteRecursively(journalDirectory);
+    }
+    
+    @Benchmark
+    public InventoryItem reserve() {
+        return ledger.reserve(HOT_PRODUCT_ID, 1);
+    }
+    
+    /**
+     * Serves the hot product with more stock than the benchmark can reserve, and accepts flushes.
+     */
+    private static InventoryRepository stubRepository() {
+        InventoryItem item = new InventoryItem(HOT_PRODUCT_ID, Integer.MAX_VALUE);
+        item.setId(HOT_PRODUCT_ID);
+        return (InventoryRepository) Proxy.newProxyInstance(InventoryRepository.class.getClassLoader(),
+            new Class<?>[] {InventoryRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "findByProductId" -> Optional.of(item);
+                case "writeStockLevel" -> 1;
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+    
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+        
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+        
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(HotSkuReservationBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.inventoryservice.benchmark;
+
+import com.example.inventoryservice.ledger.StockCounter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention on one product's stock counter from 16 threads: a single compare-and-set counter
+ * ({@code shards = 1}) against the same stock split across shards. Reading the total gets slower as
+ * shards are added, since every shard is summed. See the service README for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class ShardedCounterBenchmark {
+    
+    @Param({"1", "4", "16"})
+    private int shards;
+    
+    private StockCounter counter;
+    
+    @Setup(Level.Iteration)
+    public void setUp() {
+        counter = new StockCounter(1_000_000, 0, shards);
+    }
+    
+    @Benchmark
+    public boolean reserveAndRelease() {
+        return counter.reserve(1) && counter.release(1);
+    }
+    
+    @Benchmark
+    public int readAvailable() {
+        return counter.getAvailable();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ShardedCounterBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.inventoryservice.benchmark;
+
+import com.example.inventoryservice.index.StockLevelIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to read a 100-item low-stock page, starting at a random cursor, as the catalog grows: from the
+ * stock level index, against scanning every product's level as the unindexed query did. Both run in
+ * memory, so the scan is a lower bound for a table scan. Also measures moving a product in the index.
+ * See the service README for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StockLevelIndexBenchmark {
+    
+    private static final int THRESHOLD = 10;
+    private static final int PAGE_SIZE = 100;
+    
+    @Param({"10000", "1000000"})
+    private int products;
+    
+    private StockLevelIndex index;
+    private int[] levels;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new StockLevelIndex(null, true);
+        levels = new int[products];
+        Random random = new Random(42);
+        for (int productId = 0; productId < products; productId++) {
+            // About a tenth of the catalog is low on stock
+            levels[productId] = random.nextInt(100);
+            index.put((long) productId, levels[productId]);
+        }
+    }
+    
+    @Benchmark
+    public List<StockLevelIndex.Entry> indexPage() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StockLevelIndex.Entry after = new StockLevelIndex.Entry(random.nextInt(THRESHOLD), random.nextInt(products));
+        return index.page(Integer.MIN_VALUE, THRESHOLD, after, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public int scanPage() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int afterStock = random.nextInt(THRESHOLD);
+        int afterProductId = random.nextInt(products);
+        int matches = 0;
+        for (int productId = 0; productId < levels.length; productId++) {
+            int level = levels[productId];
+            if (level < THRESHOLD && (level > afterStock || level == afterStock && productId > afterProductId)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+    
+    @Benchmark
+    public void indexUpdate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        index.put((long) random.nextInt(products), random.nextInt(100));
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(StockLevelIndexBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
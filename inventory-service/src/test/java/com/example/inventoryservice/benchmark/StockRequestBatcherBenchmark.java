@@ -0,0 +1,77 @@
+package com.example.inventoryservice.benchmark;
+
+import com.example.inventoryservice.InventoryServiceApplication;
+import com.example.inventoryservice.batching.StockRequestBatcher;
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.service.InventoryService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-unit reservations from 16 threads over 16 products, against the real service on its in-memory
+ * database, without batching and with batching windows from none to 5 ms. Reports throughput and the
+ * latency distribution each caller sees. See the service README for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class StockRequestBatcherBenchmark {
+    
+    private static final int PRODUCTS = 16;
+    
+    /**
+     * Batching window in microseconds; -1 runs without batching.
+     */
+    @Param({"-1", "0", "200", "1000", "5000"})
+    private int windowMicros;
+    
+    private ConfigurableApplicationContext context;
+    private StockRequestBatcher batcher;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryServiceApplication.class).run(
+            "--server.port=0",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.example.inventoryservice=WARN",
+            "--logging.level.org.springframework.web=WARN",
+            "--inventory.batching.enabled=" + (windowMicros >= 0),
+            "--inventory.batching.window-us=" + Math.max(0, windowMicros)
+        );
+        InventoryService inventoryService = context.getBean(InventoryService.class);
+        for (long productId = 1; productId <= PRODUCTS; productId++) {
+            inventoryService.createInventoryItem(new InventoryItem(productId, Integer.MAX_VALUE / 2));
+        }
+        batcher = context.getBean(StockRequestBatcher.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public InventoryItem reserve() {
+        return batcher.reserveStock(ThreadLocalRandom.current().nextLong(1, PRODUCTS + 1), 1);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(StockRequestBatcherBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.example.inventoryservice.benchmark;
+
+import com.example.inventoryservice.expiry.HierarchicalTimingWheel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating and confirming one reservation's expiry with {@code pending} other reservations
+ * outstanding, for the timing wheel against one task per reservation on a
+ * {@link ScheduledThreadPoolExecutor}, whose queue is a binary heap. Also measures expiring a full
+ * wheel in one advance. See the service README for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimingWheelBenchmark {
+    
+    private static final long TICK_MILLIS = 100;
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    private static final long START = 0;
+    
+    @Param({"10000", "1000000"})
+    private int pending;
+    
+    private HierarchicalTimingWheel<Long> wheel;
+    private ScheduledThreadPoolExecutor executor;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, 4, START);
+        executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        for (long i = 0; i < pending; i++) {
+            long ttl = randomTtl();
+            wheel.schedule(i, START + ttl);
+            executor.schedule(() -> { }, ttl, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Benchmark
+    public boolean wheelScheduleAndCancel() {
+        return wheel.cancel(wheel.schedule(-1L, START + randomTtl()));
+    }
+    
+    @Benchmark
+    public boolean executorScheduleAndCancel() {
+        ScheduledFuture<?> future = executor.schedule(() -> { }, randomTtl(), TimeUnit.MILLISECONDS);
+        return future.cancel(false);
+    }
+    
+    /**
+     * Schedules {@code pending} expiries on an empty wheel and advances past all of them; the score is
+     * full wheels per second.
+     */
+    @Benchmark
+    public int wheelExpireAll() {
+        HierarchicalTimingWheel<Long> full = new HierarchicalTimingWheel<>(TICK_MILLIS, 4, START);
+        for (long i = 0; i < pending; i++) {
+            full.schedule(i, START + randomTtl());
+        }
+        List<Long> expired = full.advance(START + 2 * TTL_MILLIS);
+        return expired.size();
+    }
+    
+    // Spread over a minute either side of the default 15-minute TTL
+    private static long randomTtl() {
+        return TTL_MILLIS + ThreadLocalRandom.current().nextLong(-60_000, 60_000);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(TimingWheelBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
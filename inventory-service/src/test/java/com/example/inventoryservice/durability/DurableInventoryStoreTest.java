@@ -0,0 +1,128 @@
+package com.example.inventoryservice.durability;
+
+import com.example.inventoryservice.InventoryServiceApplication;
+import com.example.inventoryservice.dto.DurabilityStats;
+import com.example.inventoryservice.dto.ReservationLine;
+import com.example.inventoryservice.exception.InsufficientStockException;
+import com.example.inventoryservice.exception.ResourceNotFoundException;
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.model.Reservation;
+import com.example.inventoryservice.model.ReservationStatus;
+import com.example.inventoryservice.service.InventoryService;
+import com.example.inventoryservice.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stock survives a restart of the service on a fresh in-memory database: the second run restores what
+ * the first one snapshotted and journaled.
+ */
+class DurableInventoryStoreTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void testRestartRestoresEveryKindOfChange() {
+        String holdId;
+        try (ConfigurableApplicationContext first = start()) {
+            InventoryService inventoryService = first.getBean(InventoryService.class);
+            inventoryService.createInventoryItem(new InventoryItem(8001L, 100));
+            inventoryService.createInventoryItem(new InventoryItem(8002L, 50));
+            inventoryService.createInventoryItem(new InventoryItem(8003L, 10));
+            inventoryService.reserveStock(8001L, 30);
+            inventoryService.releaseStock(8001L, 10);
+            inventoryService.updateStock(8002L, 70);
+            inventoryService.deleteInventoryItem(8003L);
+            assertThrows(InsufficientStockException.class, () -> inventoryService.reserveStock(8002L, 1000));
+            assertRolledBackChangesAreNotJournaled(first, inventoryService);
+            // Compacted into a snapshot; the changes after it stay in the journal
+            first.getBean(DurableInventoryStore.class).snapshot();
+            inventoryService.reserveStock(List.of(new ReservationLine(8001L, 5), new ReservationLine(8002L, 5)));
+            inventoryService.createInventoryItem(new InventoryItem(8004L, 5));
+            inventoryService.reserveStock(8004L, 2);
+            
+            ReservationService reservationService = first.getBean(ReservationService.class);
+            inventoryService.createInventoryItem(new InventoryItem(8005L, 20));
+            holdId = reservationService.reserve(List.of(new ReservationLine(8005L, 4)), 60).getReservationId();
+            reservationService.cancel(reservationService.reserve(List.of(new ReservationLine(8005L, 3)), 60)
+                .getReservationId());
+            reservationService.confirm(reservationService.reserve(List.of(new ReservationLine(8005L, 2)), 60)
+                .getReservationId());
+        }
+        
+        try (ConfigurableApplicationContext second = start()) {
+            InventoryService inventoryService = second.getBean(InventoryService.class);
+            DurabilityStats stats = second.getBean(DurableInventoryStore.class).getStats();
+            
+            assertEquals(4, stats.getRestoredProducts());
+            assertTrue(stats.getSnapshotGeneration() > 0);
+            assertEquals(75, inventoryService.getInventoryByProductId(8001L).getAvailableStock());
+            assertEquals(25, inventoryService.getInventoryByProductId(8001L).getReservedStock());
+            assertEquals(65, inventoryService.getInventoryByProductId(8002L).getAvailableStock());
+            assertEquals(5, inventoryService.getInventoryByProductId(8002L).getReservedStock());
+            assertThrows(ResourceNotFoundException.class, () -> inventoryService.getInventoryByProductId(8003L));
+            assertEquals(3, inventoryService.getInventoryByProductId(8004L).getAvailableStock());
+            // Restored before the stock level index is built, so pages include restored products
+            assertTrue(inventoryService.getLowStockItems(4, null, null, 10).getItems().stream()
+                .anyMatch(item -> item.getProductId() == 8004L));
+            
+            inventoryService.reserveStock(8004L, 3);
+            
+            // Only the hold still active is re-armed, and its stock is released when it expires
+            ReservationService reservationService = second.getBean(ReservationService.class);
+            assertEquals(1, reservationService.getStats().getActive());
+            Reservation hold = reservationService.getReservation(holdId);
+            assertEquals(ReservationStatus.ACTIVE, hold.getStatus());
+            assertEquals(6, inventoryService.getInventoryByProductId(8005L).getReservedStock());
+            assertEquals(1, reservationService.expireDue(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2)));
+            assertEquals(2, inventoryService.getInventoryByProductId(8005L).getReservedStock());
+            assertEquals(18, inventoryService.getInventoryByProductId(8005L).getAvailableStock());
+        }
+        
+        try (ConfigurableApplicationContext third = start()) {
+            InventoryService inventoryService = third.getBean(InventoryService.class);
+            assertEquals(0, inventoryService.getInventoryByProductId(8004L).getAvailableStock());
+            assertEquals(5, inventoryService.getInventoryByProductId(8004L).getReservedStock());
+            assertEquals(0, third.getBean(ReservationService.class).getStats().getActive());
+        }
+    }
+    
+    /**
+     * A change is journaled only once committed: a crash before the commit restores nothing of it.
+     */
+    private static void assertRolledBackChangesAreNotJournaled(ConfigurableApplicationContext context,
+                                                               InventoryService inventoryService) {
+        DurableInventoryStore store = context.getBean(DurableInventoryStore.class);
+        long journaled = store.getStats().getJournalRecords();
+        assertThrows(IllegalStateException.class, () -> context.getBean(TransactionTemplate.class)
+            .executeWithoutResult(status -> {
+                inventoryService.updateStock(8002L, 1);
+                assertEquals(journaled, store.getStats().getJournalRecords());
+                throw new IllegalStateException("Roll back");
+            }));
+        assertEquals(journaled, store.getStats().getJournalRecords());
+    }
+    
+    private ConfigurableApplicationContext start() {
+        // Arguments rather than builder properties, which application.yml would override
+        return new SpringApplicationBuilder(InventoryServiceApplication.class).run(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:durable-" + UUID.randomUUID(),
+            "--spring.jpa.show-sql=false",
+            "--inventory.durability.enabled=true",
+            "--inventory.durability.directory=" + directory,
+            "--inventory.durability.snapshot-interval-ms=3600000"
+        );
+    }
+}
\ No newline at end of file
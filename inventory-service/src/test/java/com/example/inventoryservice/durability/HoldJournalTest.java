@@ -0,0 +1,82 @@
+package com.example.inventoryservice.durability;
+
+import com.example.inventoryservice.dto.ReservationLine;
+import com.example.inventoryservice.model.Reservation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds written to the journal come back on reopening, without the ended ones, a torn record or the
+ * records a rewrite dropped.
+ */
+class HoldJournalTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void testReopeningReturnsActiveHolds() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        try (HoldJournal journal = HoldJournal.open(directory)) {
+            journal.held(new Reservation("a", List.of(new ReservationLine(1L, 2), new ReservationLine(3L, 4)),
+                createdAt, 1000L));
+            journal.held(new Reservation("b", List.of(new ReservationLine(5L, 6)), createdAt, 2000L));
+            journal.held(new Reservation("c", List.of(new ReservationLine(7L, 8)), createdAt, 3000L));
+            journal.ended("b");
+        }
+        
+        try (HoldJournal journal = HoldJournal.open(directory)) {
+            List<Reservation> holds = journal.getActive();
+            assertEquals(List.of("a", "c"), holds.stream().map(Reservation::getReservationId).toList());
+            Reservation first = holds.get(0);
+            assertEquals(createdAt, first.getCreatedAt());
+            assertEquals(1000L, first.getExpiresAtMillis());
+            assertEquals(2, first.getItems().size());
+            assertEquals(3L, first.getItems().get(1).getProductId());
+            assertEquals(4, first.getItems().get(1).getQuantity());
+        }
+    }
+    
+    @Test
+    void testTornRecordIsDropped() throws Exception {
+        try (HoldJournal journal = HoldJournal.open(directory)) {
+            journal.held(new Reservation("a", List.of(new ReservationLine(1L, 1)), 1000L));
+            journal.held(new Reservation("b", List.of(new ReservationLine(2L, 1)), 1000L));
+        }
+        Path file = directory.resolve(HoldJournal.FILE_NAME);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3), StandardOpenOption.TRUNCATE_EXISTING);
+        
+        try (HoldJournal journal = HoldJournal.open(directory)) {
+            assertEquals(List.of("a"), journal.getActive().stream().map(Reservation::getReservationId).toList());
+        }
+    }
+    
+    @Test
+    void testEndedHoldsAreRewrittenAway() throws Exception {
+        Path file = directory.resolve(HoldJournal.FILE_NAME);
+        try (HoldJournal journal = HoldJournal.open(directory)) {
+            journal.held(new Reservation("kept", List.of(new ReservationLine(1L, 1)), 1000L));
+            long oneHold = Files.size(file);
+            for (int i = 0; i < 5000; i++) {
+                journal.held(new Reservation("hold-" + i, List.of(new ReservationLine(1L, 1)), 1000L));
+                journal.ended("hold-" + i);
+            }
+            assertTrue(Files.size(file) < 2000 * oneHold, "Journal should have been rewritten");
+        }
+        
+        try (HoldJournal journal = HoldJournal.open(directory)) {
+            assertEquals(List.of("kept"), journal.getActive().stream().map(Reservation::getReservationId).toList());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.example.inventoryservice.durability;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryJournalTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void testLoadKeepsLastRecordPerProduct() throws Exception {
+        InventoryJournal journal = new InventoryJournal(directory, 1 << 16);
+        journal.put(1L, 100, 0, 1000L);
+        journal.put(2L, 10, 0, 1000L);
+        journal.put(1L, 90, 10, 2000L);
+        long sealed = journal.rotate();
+        InventorySnapshot.write(directory, sealed, DurableInventoryStore.load(directory, sealed).state());
+        journal.remove(2L);
+        journal.put(3L, 5, 1, 3000L);
+        journal.close();
+        
+        DurableInventoryStore.Recovery recovery = DurableInventoryStore.load(directory, Long.MAX_VALUE);
+        InventoryState state = recovery.state();
+        
+        assertEquals(sealed, recovery.snapshotGeneration());
+        // The sealed segment is covered by the snapshot, so only the newer one is replayed
+        assertEquals(2, recovery.records());
+        assertEquals(2, state.size());
+        assertEquals(90, state.getAvailable(1L));
+        assertEquals(10, state.getReserved(1L));
+        assertFalse(state.contains(2L));
+        assertEquals(5, state.getAvailable(3L));
+    }
+    
+    @Test
+    void testDamagedRecordEndsSegment() throws Exception {
+        InventoryJournal journal = new InventoryJournal(directory, 1 << 16);
+        journal.put(1L, 100, 0, 0L);
+        journal.put(1L, 50, 50, 0L);
+        journal.put(1L, 20, 80, 0L);
+        journal.close();
+        Path segment = InventoryJournal.segments(directory).get(0);
+        // Flip a byte of the second record's available stock, as a torn write would leave it
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), InventoryJournal.RECORD_BYTES + 12);
+        }
+        
+        InventoryState state = new InventoryState();
+        
+        assertEquals(1, InventoryJournal.replay(segment, state));
+        assertEquals(100, state.getAvailable(1L));
+    }
+    
+    @Test
+    void testFullSegmentRollsOver() throws Exception {
+        InventoryJournal journal = new InventoryJournal(directory, 4 * InventoryJournal.RECORD_BYTES);
+        for (int i = 0; i < 10; i++) {
+            journal.put(i, i, 0, 0L);
+        }
+        journal.close();
+        
+        List<Path> segments = InventoryJournal.segments(directory);
+        InventoryState state = DurableInventoryStore.load(directory, Long.MAX_VALUE).state();
+        
+        assertEquals(3, segments.size());
+        assertEquals(10, state.size());
+        assertEquals(9, state.getAvailable(9L));
+    }
+    
+    @Test
+    void testDamagedSnapshotIsRejected() throws Exception {
+        InventoryState state = new InventoryState();
+        state.put(1L, 10, 2, 1000L);
+        state.put(2L, 20, 0, 2000L);
+        Path snapshot = InventorySnapshot.write(directory, 7L, state);
+        
+        InventoryState read = new InventoryState();
+        InventorySnapshot.read(snapshot, read);
+        assertEquals(2, read.size());
+        assertEquals(2, read.getReserved(1L));
+        
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {42}), 20);
+        }
+        assertThrows(IOException.class, () -> InventorySnapshot.read(snapshot, new InventoryState()));
+    }
+    
+    @Test
+    void testStateMatchesHashMapUnderRandomChanges() {
+        InventoryState state = new InventoryState(16);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long productId = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                state.remove(productId);
+                expected.remove(productId);
+            } else {
+                state.put(productId, i, 0, 0L);
+                expected.put(productId, i);
+            }
+        }
+        
+        assertEquals(expected.size(), state.size());
+        for (long productId = 0; productId < 5000; productId++) {
+            assertEquals(expected.getOrDefault(productId, -1), state.getAvailable(productId));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.example.inventoryservice.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+    
+    private static final long START = 1_000_000L;
+    
+    @Test
+    void testTimeoutExpiresAtItsTickAndNotBefore() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, START);
+        wheel.schedule("a", START + 25);
+        
+        assertEquals(List.of(), wheel.advance(START + 29));
+        assertEquals(List.of("a"), wheel.advance(START + 30));
+        assertEquals(0, wheel.size());
+    }
+    
+    @Test
+    void testPastDeadlineExpiresOnNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, START);
+        wheel.advance(START + 100);
+        wheel.schedule("late", START + 50);
+        
+        assertEquals(List.of(), wheel.advance(START + 109));
+        assertEquals(List.of("late"), wheel.advance(START + 110));
+    }
+    
+    @Test
+    void testCancelledTimeoutNeverExpires() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 4, START);
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", START + 5_000);
+        wheel.schedule("kept", START + 5_000);
+        
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(List.of("kept"), wheel.advance(START + 10_000));
+    }
+    
+    @Test
+    void testRandomDeadlinesAcrossLevelsExpireOnTime() {
+        // Deadlines up to 64^3 ticks away land on every level and cascade down
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 4, START);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            long deadline = START + 1 + random.nextInt(64 * 64 * 64);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+        
+        int expired = 0;
+        for (long now = START; expired < deadlines.size(); now += 97) {
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now, "Expired early: " + deadline + " at " + now);
+                assertTrue(deadline > now - 97, "Expired late: " + deadline + " at " + now);
+                expired++;
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+    
+    @Test
+    void testDeadlineBeyondWheelRangeWaitsInTopLevel() {
+        // Two levels cover 4,096 ticks
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 2, START);
+        wheel.schedule("far", START + 10_000);
+        
+        assertEquals(List.of(), wheel.advance(START + 9_999));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("far"), wheel.advance(START + 10_000));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.example.inventoryservice.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockLevelIndexTest {
+    
+    private final StockLevelIndex index = new StockLevelIndex(null, true);
+    
+    @Test
+    void testPageIsOrderedByStockThenProduct() {
+        index.put(3L, 5);
+        index.put(1L, 5);
+        index.put(2L, 0);
+        index.put(4L, 12);
+        
+        assertEquals(List.of(new StockLevelIndex.Entry(0, 2L), new StockLevelIndex.Entry(5, 1L),
+            new StockLevelIndex.Entry(5, 3L)), index.page(Integer.MIN_VALUE, 10, null, 100));
+        assertEquals(List.of(new StockLevelIndex.Entry(5, 1L), new StockLevelIndex.Entry(5, 3L),
+            new StockLevelIndex.Entry(12, 4L)), index.page(1, Integer.MAX_VALUE, null, 100));
+    }
+    
+    @Test
+    void testStockChangesMoveAndRemoveProducts() {
+        index.put(1L, 5);
+        index.put(1L, 20);
+        index.put(2L, 3);
+        index.remove(2L);
+        
+        assertEquals(1, index.size());
+        assertEquals(List.of(), index.page(Integer.MIN_VALUE, 10, null, 100));
+        assertEquals(List.of(new StockLevelIndex.Entry(20, 1L)), index.page(1, Integer.MAX_VALUE, null, 100));
+    }
+    
+    @Test
+    void testPagesResumeAfterTheLastEntry() {
+        for (long productId = 1; productId <= 250; productId++) {
+            index.put(productId, (int) (productId % 7));
+        }
+        
+        List<StockLevelIndex.Entry> all = new ArrayList<>();
+        StockLevelIndex.Entry after = null;
+        List<StockLevelIndex.Entry> page;
+        do {
+            page = index.page(1, 6, after, 40);
+            all.addAll(page);
+            after = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == 40);
+        
+        // Stock 1 to 5 for 5 of every 7 products
+        assertEquals(180, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).compareTo(all.get(i)) < 0);
+        }
+    }
+    
+    @Test
+    void testRefreshReadsTheCurrentLevel() {
+        int[] current = {8};
+        index.refresh(1L, () -> current[0]);
+        current[0] = 2;
+        index.refresh(1L, () -> current[0]);
+        
+        assertEquals(List.of(new StockLevelIndex.Entry(2, 1L)), index.page(Integer.MIN_VALUE, 10, null, 10));
+    }
+    
+    @Test
+    void testDisabledIndexIgnoresChanges() {
+        StockLevelIndex disabled = new StockLevelIndex(null, false);
+        disabled.put(1L, 5);
+        
+        assertEquals(0, disabled.size());
+    }
+}
\ No newline at end of file
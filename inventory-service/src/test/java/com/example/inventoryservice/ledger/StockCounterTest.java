@@ -0,0 +1,163 @@
+package com.example.inventoryservice.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockCounterTest {
+    
+    @Test
+    void testStockIsSpreadAcrossShards() {
+        StockCounter counter = new StockCounter(10, 3, 4);
+        
+        assertEquals(4, counter.getShards());
+        assertEquals(10, counter.getAvailable());
+        assertEquals(3, counter.level().reserved);
+    }
+    
+    @Test
+    void testReservationBorrowsFromOtherShards() {
+        // 3 units per shard, so no single shard can cover the reservation
+        StockCounter counter = new StockCounter(12, 0, 4);
+        
+        assertTrue(counter.reserve(10));
+        assertEquals(2, counter.getAvailable());
+        assertEquals(10, counter.level().reserved);
+        assertTrue(counter.release(7));
+        assertEquals(9, counter.getAvailable());
+        assertEquals(3, counter.level().reserved);
+    }
+    
+    @Test
+    void testFailedReservationPutsBackWhatItTook() {
+        StockCounter counter = new StockCounter(12, 0, 4);
+        
+        assertFalse(counter.reserve(13));
+        assertEquals(12, counter.getAvailable());
+        assertEquals(0, counter.level().reserved);
+        assertFalse(counter.release(1));
+        assertEquals(12, counter.getAvailable());
+    }
+    
+    @Test
+    void testSetAvailableKeepsReservedStock() {
+        StockCounter counter = new StockCounter(12, 0, 4);
+        counter.reserve(5);
+        
+        counter.setAvailable(30);
+        
+        assertEquals(30, counter.getAvailable());
+        assertEquals(5, counter.level().reserved);
+    }
+    
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        StockCounter counter = new StockCounter(1000, 0, 8);
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        if (counter.reserve(2)) {
+                            reserved.addAndGet(2);
+                            if (j % 3 == 0 && counter.release(1)) {
+                                reserved.decrementAndGet();
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        StockLevel level = counter.level();
+        assertEquals(1000, level.available + level.reserved);
+        assertEquals(reserved.get(), level.reserved);
+    }
+    
+    @Test
+    void testReservationsThatFitTogetherAllSucceed() throws Exception {
+        // Exactly enough for every reservation, so none may fail however the shards drain
+        StockCounter counter = new StockCounter(16 * 200, 0, 8);
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                // Every thread reserves 200 units, half of them one at a time and half two at a time
+                int quantity = i % 2 + 1;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 200 / quantity; j++) {
+                        if (!counter.reserve(quantity)) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(0, failures.get());
+        assertEquals(0, counter.getAvailable());
+        assertEquals(16 * 200, counter.level().reserved);
+    }
+    
+    @Test
+    void testReleaseOfMoreThanReservedChangesNothing() throws Exception {
+        StockCounter counter = new StockCounter(1000, 0, 8);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger overReleases = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        if (counter.reserve(2)) {
+                            reserved.addAndGet(2);
+                        }
+                        if (counter.release(1)) {
+                            reserved.decrementAndGet();
+                        }
+                    }
+                }));
+            }
+            // Always asks for more than can be reserved at all
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 2000; j++) {
+                    if (counter.release(1001)) {
+                        overReleases.incrementAndGet();
+                    }
+                }
+            }));
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(0, overReleases.get());
+        StockLevel level = counter.level();
+        assertEquals(1000, level.available + level.reserved);
+        assertEquals(reserved.get(), level.reserved);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.example.inventoryservice.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockJournalTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void testReadKeepsLastRecordedLevelPerProduct() throws Exception {
+        StockCounter first = new StockCounter(100, 0, 1);
+        StockCounter second = new StockCounter(10, 0, 2);
+        try (StockJournal journal = new StockJournal(directory, false)) {
+            first.reserve(10);
+            journal.append(1L, first);
+            second.reserve(3);
+            journal.append(2L, second);
+            List<Path> sealed = journal.rotate();
+            first.reserve(10);
+            StockLevel recorded = journal.append(1L, first);
+            sealed = List.of(sealed.get(0), journal.rotate().get(0));
+            
+            Map<Long, StockLevel> levels = StockJournal.read(sealed);
+            
+            assertEquals(2, levels.size());
+            assertEquals(80, recorded.available);
+            assertEquals(80, levels.get(1L).available);
+            assertEquals(20, levels.get(1L).reserved);
+            assertEquals(7, levels.get(2L).available);
+            assertEquals(3, levels.get(2L).reserved);
+            assertEquals(3, journal.getAppendedRecords());
+        }
+    }
+    
+    @Test
+    void testRotateSkipsEmptyFile() throws Exception {
+        try (StockJournal journal = new StockJournal(directory, true)) {
+            assertTrue(journal.rotate().isEmpty());
+            journal.append(1L, new StockCounter(1, 0, 1));
+            assertEquals(1, journal.rotate().size());
+            assertEquals(1, journal.getSyncs());
+        }
+    }
+    
+    @Test
+    void testReopenedJournalTreatsEarlierFilesAsSealed() throws Exception {
+        try (StockJournal journal = new StockJournal(directory, false)) {
+            journal.append(1L, new StockCounter(4, 6, 1));
+        }
+        
+        try (StockJournal journal = new StockJournal(directory, false)) {
+            List<Path> sealed = journal.sealedFiles();
+            // A crash in the middle of a write leaves part of a record at the end of the file
+            Files.write(sealed.get(0), new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+            
+            Map<Long, StockLevel> levels = StockJournal.read(sealed);
+            
+            assertEquals(1, sealed.size());
+            assertEquals(1, levels.size());
+            assertEquals(4, levels.get(1L).available);
+            assertEquals(6, levels.get(1L).reserved);
+        }
+    }
+}
\ No newline at end of file
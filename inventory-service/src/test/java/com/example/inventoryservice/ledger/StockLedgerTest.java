@@ -0,0 +1,160 @@
+package com.example.inventoryservice.ledger;
+
+import com.example.inventoryservice.dto.ReservationLine;
+import com.example.inventoryservice.durability.DurableInventoryStore;
+import com.example.inventoryservice.exception.InsufficientStockException;
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.repository.InventoryRepository;
+import com.example.inventoryservice.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The stock ledger, with four shards per product, serving reservations for one hot product. Flushes
+ * are run by hand.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.inventoryservice=INFO",
+    "logging.level.org.springframework.web=INFO",
+    "inventory.ledger.enabled=true",
+    "inventory.ledger.journal-directory=${java.io.tmpdir}/inventory-service-test/ledger-${random.uuid}",
+    "inventory.ledger.flush-interval-ms=3600000",
+    "inventory.ledger.shards=4"
+})
+class StockLedgerTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerTest.class);
+    
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 200;
+    private static final int INITIAL_STOCK = 1000;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private StockLedger stockLedger;
+    
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    
+    @Autowired
+    private DurableInventoryStore durableInventoryStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @TempDir
+    Path crashedJournal;
+    
+    @Test
+    void testHotProductReservationsAreFlushedAsOneRowWrite() throws Exception {
+        inventoryService.createInventoryItem(new InventoryItem(2001L, INITIAL_STOCK));
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long flushedRowsBefore = stockLedger.getStats().getFlushedRows();
+        
+        long elapsedNanos = runConcurrently(() -> {
+            try {
+                inventoryService.reserveStock(2001L, 1);
+                reserved.incrementAndGet();
+            } catch (InsufficientStockException ex) {
+                rejected.incrementAndGet();
+            }
+        });
+        log.info("{} ledger reservations ({} rejected) in {} ms: {} reservations/s", reserved.get(), rejected.get(),
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+            THREADS * ATTEMPTS_PER_THREAD * 1_000_000_000L / Math.max(1, elapsedNanos));
+        
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - INITIAL_STOCK, rejected.get());
+        assertEquals(0, inventoryService.getInventoryByProductId(2001L).getAvailableStock());
+        // Nothing is written to the table until the flush
+        assertEquals(INITIAL_STOCK, inventoryRepository.findByProductId(2001L).orElseThrow().getAvailableStock());
+        
+        stockLedger.flush();
+        
+        InventoryItem row = inventoryRepository.findByProductId(2001L).orElseThrow();
+        assertEquals(0, row.getAvailableStock());
+        assertEquals(INITIAL_STOCK, row.getReservedStock());
+        assertEquals(1, stockLedger.getStats().getFlushedRows() - flushedRowsBefore);
+    }
+    
+    @Test
+    void testUnflushedReservationsRecoveredAfterCrash() throws Exception {
+        inventoryService.createInventoryItem(new InventoryItem(2002L, 100));
+        StockLedger crashed = new StockLedger(inventoryRepository, durableInventoryStore, transactionTemplate, true,
+            crashedJournal, true, 4);
+        crashed.start();
+        crashed.reserve(2002L, 30);
+        crashed.release(2002L, 5);
+        // Stopped without a flush, as if the process had died
+        
+        assertEquals(100, inventoryRepository.findByProductId(2002L).orElseThrow().getAvailableStock());
+        
+        StockLedger restarted = new StockLedger(inventoryRepository, durableInventoryStore, transactionTemplate, true,
+            crashedJournal, true, 4);
+        restarted.start();
+        
+        InventoryItem row = inventoryRepository.findByProductId(2002L).orElseThrow();
+        assertEquals(75, row.getAvailableStock());
+        assertEquals(25, row.getReservedStock());
+        restarted.stop();
+    }
+    
+    @Test
+    void testFailedBatchUndoesEarlierLines() {
+        inventoryService.createInventoryItem(new InventoryItem(2003L, 10));
+        inventoryService.createInventoryItem(new InventoryItem(2004L, 1));
+        
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserveStock(List.of(
+            new ReservationLine(2003L, 4),
+            new ReservationLine(2004L, 2))));
+        
+        assertEquals(10, inventoryService.getInventoryByProductId(2003L).getAvailableStock());
+        assertEquals(0, inventoryService.getInventoryByProductId(2003L).getReservedStock());
+    }
+    
+    private long runConcurrently(Runnable attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < ATTEMPTS_PER_THREAD; j++) {
+                        attempt.run();
+                    }
+                    return null;
+                }));
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - startNanos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
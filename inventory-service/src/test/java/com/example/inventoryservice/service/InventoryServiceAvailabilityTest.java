@@ -0,0 +1,94 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.dto.AvailabilityResponse;
+import com.example.inventoryservice.dto.ReservationLine;
+import com.example.inventoryservice.model.InventoryItem;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk availability checks agree with checking each line on its own, including unknown products and
+ * repeated lines, and cost one query instead of one per line.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.inventoryservice=INFO",
+    "logging.level.org.springframework.web=INFO"
+})
+class InventoryServiceAvailabilityTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(InventoryServiceAvailabilityTest.class);
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Test
+    void testBitmapIsAlignedToLines() {
+        inventoryService.createInventoryItem(new InventoryItem(7001L, 10));
+        inventoryService.createInventoryItem(new InventoryItem(7002L, 5));
+        inventoryService.reserveStock(7002L, 5);
+        
+        List<ReservationLine> lines = List.of(
+            new ReservationLine(7001L, 10),
+            new ReservationLine(7001L, 11),
+            new ReservationLine(7002L, 1),
+            new ReservationLine(7999L, 1),
+            new ReservationLine(7001L, 1));
+        BitSet available = inventoryService.checkAvailability(lines);
+        
+        assertEquals(BitSet.valueOf(new long[] {0b10001}), available);
+        for (int i = 0; i < lines.size(); i++) {
+            ReservationLine line = lines.get(i);
+            assertEquals(inventoryService.isStockAvailable(line.getProductId(), line.getQuantity()), available.get(i));
+        }
+        
+        AvailabilityResponse response = new AvailabilityResponse(lines.size(), available);
+        assertEquals(5, response.getCount());
+        assertEquals(2, response.getAvailableCount());
+        assertArrayEquals(new byte[] {0b10001}, Base64.getDecoder().decode(response.getBitmap()));
+    }
+    
+    @Test
+    void testBulkCheckMatchesSingleChecks() {
+        int products = 5000;
+        for (long productId = 70_001; productId <= 70_000 + products; productId++) {
+            inventoryService.createInventoryItem(new InventoryItem(productId, (int) (productId % 10)));
+        }
+        // Half the lines name products that do not exist
+        List<ReservationLine> lines = new ArrayList<>();
+        for (int i = 0; i < 2 * products; i++) {
+            lines.add(new ReservationLine(70_001L + i, 1 + i % 7));
+        }
+        
+        inventoryService.checkAvailability(lines);
+        long start = System.nanoTime();
+        BitSet available = inventoryService.checkAvailability(lines);
+        long bulkMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        start = System.nanoTime();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < lines.size(); i++) {
+            ReservationLine line = lines.get(i);
+            if (inventoryService.isStockAvailable(line.getProductId(), line.getQuantity())) {
+                expected.set(i);
+            }
+        }
+        long singleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Checked {} lines in {} ms in bulk, {} ms one by one", lines.size(), bulkMillis, singleMillis);
+        
+        assertEquals(expected, available);
+        assertTrue(available.cardinality() > 0);
+        assertTrue(available.nextSetBit(products) < 0);
+    }
+}
\ No newline at end of file
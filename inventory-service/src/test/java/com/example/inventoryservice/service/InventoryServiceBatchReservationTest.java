@@ -0,0 +1,150 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.dto.ReservationLine;
+import com.example.inventoryservice.dto.ReservationShortfall;
+import com.example.inventoryservice.exception.BatchReservationException;
+import com.example.inventoryservice.model.InventoryItem;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Multi-product reservations: all or nothing, every short line reported, no deadlocks between carts
+ * that share products, and cheaper than reserving line by line.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.inventoryservice=INFO",
+    "logging.level.org.springframework.web=INFO"
+})
+class InventoryServiceBatchReservationTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(InventoryServiceBatchReservationTest.class);
+    
+    private static final int CART_LINES = 20;
+    private static final int THREADS = 8;
+    private static final int CARTS_PER_THREAD = 25;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Test
+    void testShortfallsListEveryShortLine() {
+        inventoryService.createInventoryItem(new InventoryItem(3001L, 10));
+        inventoryService.createInventoryItem(new InventoryItem(3002L, 1));
+        
+        BatchReservationException ex = assertThrows(BatchReservationException.class, () ->
+            inventoryService.reserveStock(List.of(
+                new ReservationLine(3003L, 1),
+                new ReservationLine(3001L, 4),
+                new ReservationLine(3002L, 2))));
+        
+        List<ReservationShortfall> shortfalls = ex.getShortfalls();
+        assertEquals(2, shortfalls.size());
+        assertEquals(3002L, shortfalls.get(0).getProductId());
+        assertEquals(2, shortfalls.get(0).getRequested());
+        assertEquals(1, shortfalls.get(0).getAvailable());
+        assertEquals(3003L, shortfalls.get(1).getProductId());
+        assertNull(shortfalls.get(1).getAvailable());
+        assertEquals(10, inventoryService.getInventoryByProductId(3001L).getAvailableStock());
+        assertEquals(0, inventoryService.getInventoryByProductId(3001L).getReservedStock());
+    }
+    
+    @Test
+    void testOverlappingCartsDoNotDeadlock() throws Exception {
+        List<Long> productIds = createProducts(3100L, 10_000);
+        
+        // Half the threads list the lines in reverse order; locking still happens in product ID order
+        long elapsedNanos = runCarts(thread -> {
+            List<ReservationLine> cart = cart(productIds);
+            if (thread % 2 == 1) {
+                Collections.reverse(cart);
+            }
+            inventoryService.reserveStock(cart);
+        });
+        
+        int carts = THREADS * CARTS_PER_THREAD;
+        for (Long productId : productIds) {
+            InventoryItem item = inventoryService.getInventoryByProductId(productId);
+            assertEquals(carts, item.getReservedStock());
+            assertEquals(10_000 - carts, item.getAvailableStock());
+        }
+        log.info("{} overlapping {}-line carts reserved in {} ms", carts, CART_LINES,
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+    
+    @Test
+    void testBatchOutpacesLineByLineReservation() throws Exception {
+        List<Long> productIds = createProducts(3200L, 10_000);
+        
+        long lineByLineNanos = runCarts(thread -> {
+            for (ReservationLine line : cart(productIds)) {
+                inventoryService.reserveStock(line.getProductId(), line.getQuantity());
+            }
+        });
+        long batchNanos = runCarts(thread -> inventoryService.reserveStock(cart(productIds)));
+        
+        int carts = THREADS * CARTS_PER_THREAD;
+        log.info("{} {}-line carts: line by line {} carts/s, batched {} carts/s", carts, CART_LINES,
+            carts * 1_000_000_000L / lineByLineNanos, carts * 1_000_000_000L / batchNanos);
+        assertTrue(batchNanos < lineByLineNanos,
+            "Batched carts took " + batchNanos / 1_000_000 + " ms, line by line " + lineByLineNanos / 1_000_000 + " ms");
+        assertEquals(2 * carts, inventoryService.getInventoryByProductId(3200L).getReservedStock());
+    }
+    
+    private List<Long> createProducts(long firstProductId, int stock) {
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < CART_LINES; i++) {
+            inventoryService.createInventoryItem(new InventoryItem(firstProductId + i, stock));
+            productIds.add(firstProductId + i);
+        }
+        return productIds;
+    }
+    
+    private List<ReservationLine> cart(List<Long> productIds) {
+        List<ReservationLine> cart = new ArrayList<>();
+        for (Long productId : productIds) {
+            cart.add(new ReservationLine(productId, 1));
+        }
+        return cart;
+    }
+    
+    private long runCarts(CartBuyer buyer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < CARTS_PER_THREAD; j++) {
+                        buyer.buy(thread);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private interface CartBuyer {
+        void buy(int thread);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.exception.InsufficientStockException;
+import com.example.inventoryservice.model.InventoryItem;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many threads reserving and releasing the same product at once. Every successful reservation must be
+ * backed by stock, and the counts must add up afterwards.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.inventoryservice=INFO",
+    "logging.level.org.springframework.web=INFO"
+})
+class InventoryServiceConcurrencyTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(InventoryServiceConcurrencyTest.class);
+    
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 200;
+    private static final int INITIAL_STOCK = 1000;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        inventoryService.createInventoryItem(new InventoryItem(1001L, INITIAL_STOCK));
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        
+        long elapsedNanos = runConcurrently(() -> {
+            try {
+                inventoryService.reserveStock(1001L, 1);
+                reserved.incrementAndGet();
+            } catch (InsufficientStockException ex) {
+                rejected.incrementAndGet();
+            }
+        });
+        
+        InventoryItem item = inventoryService.getInventoryByProductId(1001L);
+        log.info("{} reservations ({} rejected) in {} ms: {} reservations/s", reserved.get(), rejected.get(),
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughput(THREADS * ATTEMPTS_PER_THREAD, elapsedNanos));
+        
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - INITIAL_STOCK, rejected.get());
+        assertEquals(0, item.getAvailableStock());
+        assertEquals(INITIAL_STOCK, item.getReservedStock());
+    }
+    
+    @Test
+    void testConcurrentReserveAndReleaseKeepTotals() throws Exception {
+        inventoryService.createInventoryItem(new InventoryItem(1002L, INITIAL_STOCK));
+        AtomicInteger reservedNet = new AtomicInteger();
+        
+        long elapsedNanos = runConcurrently(() -> {
+            try {
+                inventoryService.reserveStock(1002L, 2);
+                reservedNet.addAndGet(2);
+                inventoryService.releaseStock(1002L, 1);
+                reservedNet.addAndGet(-1);
+            } catch (InsufficientStockException ex) {
+                // Stock ran out; nothing was changed
+            }
+        });
+        
+        InventoryItem item = inventoryService.getInventoryByProductId(1002L);
+        log.info("Reserve/release pairs in {} ms: {} pairs/s", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+            throughput(THREADS * ATTEMPTS_PER_THREAD, elapsedNanos));
+        
+        assertEquals(INITIAL_STOCK, item.getAvailableStock() + item.getReservedStock());
+        assertEquals(reservedNet.get(), item.getReservedStock());
+    }
+    
+    private long runConcurrently(Runnable attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < ATTEMPTS_PER_THREAD; j++) {
+                        attempt.run();
+                    }
+                    return null;
+                }));
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - startNanos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private static long throughput(int operations, long elapsedNanos) {
+        return operations * 1_000_000_000L / Math.max(1, elapsedNanos);
+    }
+}
\ No newline at end of file
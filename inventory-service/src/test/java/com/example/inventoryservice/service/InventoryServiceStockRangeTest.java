@@ -0,0 +1,134 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.dto.InventoryPage;
+import com.example.inventoryservice.dto.ReservationLine;
+import com.example.inventoryservice.index.StockLevelIndex;
+import com.example.inventoryservice.model.InventoryItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Low-stock and in-stock pages follow every kind of stock change, whether served from the in-memory
+ * index or from the table.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.inventoryservice=INFO",
+    "logging.level.org.springframework.web=INFO"
+})
+class InventoryServiceStockRangeTest {
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private StockLevelIndex stockLevelIndex;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void testPagesFollowStockChanges() {
+        for (long productId = 5001; productId <= 5030; productId++) {
+            inventoryService.createInventoryItem(new InventoryItem(productId, (int) (productId - 5000)));
+        }
+        inventoryService.reserveStock(5030L, 28);
+        inventoryService.updateStock(5001L, 50);
+        inventoryService.reserveStock(List.of(new ReservationLine(5020L, 15), new ReservationLine(5025L, 20)));
+        inventoryService.releaseStock(5025L, 5);
+        inventoryService.deleteInventoryItem(5003L);
+        
+        // Below 8: 5002 and 5030 at 2, 5004 to 5007, and 5020 at 5; 5025 is back at 10
+        List<Long> expected = List.of(5002L, 5030L, 5004L, 5005L, 5020L, 5006L, 5007L);
+        assertEquals(expected, lowStockProductIds(8, 3));
+        
+        Object index = ReflectionTestUtils.getField(inventoryService, "stockLevelIndex");
+        ReflectionTestUtils.setField(index, "enabled", false);
+        try {
+            assertEquals(expected, lowStockProductIds(8, 3));
+        } finally {
+            ReflectionTestUtils.setField(index, "enabled", true);
+        }
+    }
+    
+    @Test
+    void testAvailablePagesSkipSoldOutItems() {
+        inventoryService.createInventoryItem(new InventoryItem(5101L, 0));
+        inventoryService.createInventoryItem(new InventoryItem(5102L, 1));
+        inventoryService.reserveStock(5102L, 1);
+        inventoryService.createInventoryItem(new InventoryItem(5103L, 1_000_000));
+        
+        List<Long> productIds = new ArrayList<>();
+        InventoryPage page = inventoryService.getItemsWithAvailableStock(null, null, 1000);
+        page.getItems().forEach(item -> productIds.add(item.getProductId()));
+        while (page.getNextAfterStock() != null) {
+            page = inventoryService.getItemsWithAvailableStock(page.getNextAfterStock(), page.getNextAfterProductId(), 1000);
+            page.getItems().forEach(item -> productIds.add(item.getProductId()));
+        }
+        
+        assertFalse(productIds.contains(5101L));
+        assertFalse(productIds.contains(5102L));
+        assertEquals(5103L, productIds.get(productIds.size() - 1));
+    }
+    
+    @Test
+    void testIndexOnlyShowsCommittedLevels() {
+        inventoryService.createInventoryItem(new InventoryItem(5201L, 100));
+        
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            inventoryService.updateStock(5201L, 1);
+            // Another request, while the change is uncommitted, must not find the product low on stock
+            assertFalse(CompletableFuture.supplyAsync(() -> indexedAt(5201L, 1)).join());
+            assertFalse(CompletableFuture.supplyAsync(() -> lowStockIds(2).contains(5201L)).join());
+            throw new IllegalStateException("Roll back");
+        }));
+        assertFalse(indexedAt(5201L, 1));
+        assertTrue(indexedAt(5201L, 100));
+        
+        inventoryService.updateStock(5201L, 1);
+        assertTrue(indexedAt(5201L, 1));
+        assertTrue(lowStockIds(2).contains(5201L));
+    }
+    
+    @Test
+    void testCursorMustBeComplete() {
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.getLowStockItems(10, 3, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.getLowStockItems(10, null, null, 0));
+    }
+    
+    private boolean indexedAt(long productId, int availableStock) {
+        return stockLevelIndex.page(availableStock, availableStock + 1, null, 1000).stream()
+            .anyMatch(entry -> entry.productId() == productId);
+    }
+    
+    private List<Long> lowStockIds(int threshold) {
+        return inventoryService.getLowStockItems(threshold, null, null, 1000).getItems().stream()
+            .map(InventoryItem::getProductId)
+            .toList();
+    }
+    
+    private List<Long> lowStockProductIds(int threshold, int limit) {
+        List<Long> productIds = new ArrayList<>();
+        InventoryPage page = inventoryService.getLowStockItems(threshold, null, null, limit);
+        while (true) {
+            page.getItems().stream()
+                .map(InventoryItem::getProductId)
+                .filter(productId -> productId > 5000 && productId <= 5030)
+                .forEach(productIds::add);
+            if (page.getNextAfterStock() == null) {
+                return productIds;
+            }
+            page = inventoryService.getLowStockItems(threshold, page.getNextAfterStock(), page.getNextAfterProductId(),
+                limit);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.dto.ReservationLine;
+import com.example.inventoryservice.dto.ReservationStats;
+import com.example.inventoryservice.exception.ResourceNotFoundException;
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.model.Reservation;
+import com.example.inventoryservice.model.ReservationStatus;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Expiring reservations. Expiry is driven by hand with clock readings a day or more ahead, so the
+ * scheduled tick never expires anything these tests create.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.inventoryservice=INFO",
+    "logging.level.org.springframework.web=INFO",
+    "inventory.reservations.expiry-batch-size=8"
+})
+class ReservationServiceTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReservationServiceTest.class);
+    
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    
+    // Each test moves the wheel further ahead than the last
+    private static int daysAhead;
+    
+    @Autowired
+    private ReservationService reservationService;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Test
+    void testExpiredReservationReturnsStock() {
+        inventoryService.createInventoryItem(new InventoryItem(4001L, 10));
+        Reservation reservation = reservationService.reserve(List.of(new ReservationLine(4001L, 3)), 60);
+        
+        assertEquals(ReservationStatus.ACTIVE, reservation.getStatus());
+        assertEquals(7, inventoryService.getInventoryByProductId(4001L).getAvailableStock());
+        
+        assertEquals(1, reservationService.expireDue(later()));
+        
+        assertEquals(ReservationStatus.EXPIRED, reservation.getStatus());
+        InventoryItem item = inventoryService.getInventoryByProductId(4001L);
+        assertEquals(10, item.getAvailableStock());
+        assertEquals(0, item.getReservedStock());
+        assertThrows(ResourceNotFoundException.class,
+            () -> reservationService.getReservation(reservation.getReservationId()));
+    }
+    
+    @Test
+    void testConfirmedReservationKeepsStock() {
+        inventoryService.createInventoryItem(new InventoryItem(4002L, 10));
+        Reservation reservation = reservationService.reserve(List.of(new ReservationLine(4002L, 4)), 60);
+        
+        reservationService.confirm(reservation.getReservationId());
+        
+        assertEquals(ReservationStatus.CONFIRMED, reservation.getStatus());
+        assertEquals(0, reservationService.expireDue(later()));
+        assertEquals(4, inventoryService.getInventoryByProductId(4002L).getReservedStock());
+        assertThrows(ResourceNotFoundException.class,
+            () -> reservationService.confirm(reservation.getReservationId()));
+    }
+    
+    @Test
+    void testCancelledReservationReturnsStockAtOnce() {
+        inventoryService.createInventoryItem(new InventoryItem(4003L, 10));
+        Reservation reservation = reservationService.reserve(List.of(new ReservationLine(4003L, 5)), 60);
+        
+        reservationService.cancel(reservation.getReservationId());
+        
+        assertEquals(ReservationStatus.CANCELLED, reservation.getStatus());
+        assertEquals(10, inventoryService.getInventoryByProductId(4003L).getAvailableStock());
+        assertEquals(0, reservationService.expireDue(later()));
+        assertEquals(10, inventoryService.getInventoryByProductId(4003L).getAvailableStock());
+    }
+    
+    @Test
+    void testFailedCancellationKeepsReservationActive() {
+        inventoryService.createInventoryItem(new InventoryItem(4004L, 10));
+        Reservation reservation = reservationService.reserve(List.of(new ReservationLine(4004L, 5)), 60);
+        // Released behind the reservation's back, so cancelling it cannot release its 5 units
+        inventoryService.releaseStock(4004L, 3);
+        
+        assertThrows(IllegalArgumentException.class, () -> reservationService.cancel(reservation.getReservationId()));
+        
+        assertEquals(ReservationStatus.ACTIVE, reservation.getStatus());
+        assertSame(reservation, reservationService.getReservation(reservation.getReservationId()));
+        inventoryService.reserveStock(4004L, 3);
+        reservationService.cancel(reservation.getReservationId());
+        assertEquals(10, inventoryService.getInventoryByProductId(4004L).getAvailableStock());
+    }
+    
+    @Test
+    void testExpiryReturnsStockInBatches() {
+        int products = 20;
+        int reservations = 1_000;
+        for (int i = 0; i < products; i++) {
+            inventoryService.createInventoryItem(new InventoryItem(4100L + i, reservations));
+        }
+        for (int i = 0; i < reservations; i++) {
+            reservationService.reserve(List.of(
+                new ReservationLine(4100L + i % products, 1),
+                new ReservationLine(4100L + (i + 1) % products, 1)), 60);
+        }
+        ReservationStats before = reservationService.getStats();
+        assertEquals(reservations, before.getActive());
+        
+        long start = System.nanoTime();
+        assertEquals(reservations, reservationService.expireDue(later()));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        ReservationStats after = reservationService.getStats();
+        assertEquals(0, after.getActive());
+        // 20 products in batches of 8
+        assertEquals(3, after.getExpiryBatches() - before.getExpiryBatches());
+        assertEquals(2L * reservations, after.getExpiredUnits() - before.getExpiredUnits());
+        assertEquals(0, after.getPendingUnits());
+        for (int i = 0; i < products; i++) {
+            assertEquals(0, inventoryService.getInventoryByProductId(4100L + i).getReservedStock());
+        }
+        log.info("Expired {} reservations over {} products in {} ms ({} expired/s overall)", reservations,
+            products, elapsedMillis, after.getExpiredPerSecond());
+    }
+    
+    private static long later() {
+        daysAhead++;
+        return System.currentTimeMillis() + daysAhead * DAY_MILLIS;
+    }
+}
\ No newline at end of file
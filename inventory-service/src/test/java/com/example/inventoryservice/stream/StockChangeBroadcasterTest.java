@@ -0,0 +1,206 @@
+package com.example.inventoryservice.stream;
+
+import com.example.inventoryservice.dto.StockChange;
+import com.example.inventoryservice.model.InventoryItem;
+import com.example.inventoryservice.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Subscribers get one update per product per window, only for the products they watch, and a slow
+ * subscriber is told to resync rather than holding up the others. Windows are closed by hand.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.inventoryservice=INFO",
+    "logging.level.org.springframework.web=INFO",
+    "inventory.stock-stream.window-ms=3600000",
+    "inventory.stock-stream.buffer-size=4"
+})
+class StockChangeBroadcasterTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockChangeBroadcasterTest.class);
+    
+    @Autowired
+    private StockChangeBroadcaster broadcaster;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Test
+    void testChangesWithinWindowAreCoalesced() throws Exception {
+        inventoryService.createInventoryItem(new InventoryItem(6001L, 100));
+        CapturingEmitter emitter = new CapturingEmitter(Integer.MAX_VALUE);
+        broadcaster.subscribe(Set.of(6001L), emitter);
+        
+        Event initial = emitter.awaitEvents(1).get(0);
+        assertEquals("stock", initial.name);
+        assertEquals(100, initial.changes().get(0).getAvailableStock());
+        
+        for (int i = 0; i < 50; i++) {
+            inventoryService.reserveStock(6001L, 1);
+        }
+        broadcaster.flush();
+        
+        List<StockChange> changes = emitter.awaitEvents(2).get(1).changes();
+        assertEquals(1, changes.size());
+        assertEquals(50, changes.get(0).getAvailableStock());
+        assertEquals(50, changes.get(0).getReservedStock());
+    }
+    
+    @Test
+    void testOnlyWatchedProductsAreSent() throws Exception {
+        inventoryService.createInventoryItem(new InventoryItem(6101L, 10));
+        inventoryService.createInventoryItem(new InventoryItem(6102L, 10));
+        CapturingEmitter emitter = new CapturingEmitter(Integer.MAX_VALUE);
+        broadcaster.subscribe(Set.of(6101L), emitter);
+        emitter.awaitEvents(1);
+        
+        inventoryService.updateStock(6102L, 20);
+        inventoryService.updateStock(6101L, 30);
+        broadcaster.flush();
+        List<StockChange> changes = emitter.awaitEvents(2).get(1).changes();
+        assertEquals(1, changes.size());
+        assertEquals(6101L, changes.get(0).getProductId());
+        assertEquals(30, changes.get(0).getAvailableStock());
+        
+        inventoryService.deleteInventoryItem(6101L);
+        broadcaster.flush();
+        StockChange deleted = emitter.awaitEvents(3).get(2).changes().get(0);
+        assertEquals(6101L, deleted.getProductId());
+        assertNull(deleted.getAvailableStock());
+        assertNull(deleted.getReservedStock());
+    }
+    
+    @Test
+    void testSlowSubscriberResyncsWithoutDelayingOthers() throws Exception {
+        Set<Long> productIds = LongStream.rangeClosed(6201, 6210).boxed().collect(Collectors.toSet());
+        for (Long productId : productIds) {
+            inventoryService.createInventoryItem(new InventoryItem(productId, 100));
+        }
+        // Blocks on every send after the current levels until released
+        CapturingEmitter slow = new CapturingEmitter(1);
+        CapturingEmitter fast = new CapturingEmitter(Integer.MAX_VALUE);
+        broadcaster.subscribe(productIds, slow);
+        broadcaster.subscribe(productIds, fast);
+        long overflows = broadcaster.getStats().getOverflows();
+        
+        inventoryService.reserveStock(6201L, 1);
+        broadcaster.flush();
+        fast.awaitEvents(2);
+        await(() -> slow.blocked.getCount() == 0);
+        
+        // The slow subscriber is stuck sending while all ten products change, more than its buffer holds
+        for (Long productId : productIds) {
+            inventoryService.reserveStock(productId, 2);
+        }
+        broadcaster.flush();
+        assertEquals(10, fast.awaitEvents(3).get(2).changes().size());
+        assertEquals(overflows + 1, broadcaster.getStats().getOverflows());
+        
+        slow.release.countDown();
+        await(() -> slow.events.stream().anyMatch(event -> event.name.equals("resync")));
+        List<Event> events = slow.events;
+        assertEquals(1, events.get(1).changes().size());
+        assertEquals("resync", events.get(2).name);
+    }
+    
+    @Test
+    void testThousandsOfSubscribers() throws Exception {
+        inventoryService.createInventoryItem(new InventoryItem(6301L, 100_000));
+        int subscriberCount = 5000;
+        List<CapturingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < subscriberCount; i++) {
+            CapturingEmitter emitter = new CapturingEmitter(Integer.MAX_VALUE);
+            broadcaster.subscribe(Set.of(6301L), emitter);
+            emitters.add(emitter);
+        }
+        for (int i = 0; i < 100; i++) {
+            inventoryService.reserveStock(6301L, 1);
+        }
+        
+        long start = System.nanoTime();
+        broadcaster.flush();
+        for (CapturingEmitter emitter : emitters) {
+            emitter.awaitEvents(2);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("100 changes to one product reached {} subscribers in {} ms", subscriberCount, elapsedMillis);
+        
+        for (CapturingEmitter emitter : emitters) {
+            assertEquals(2, emitter.events.size());
+            assertEquals(99_900, emitter.events.get(1).changes().get(0).getAvailableStock());
+        }
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting");
+            Thread.sleep(5);
+        }
+    }
+    
+    private record Event(String name, Object data) {
+        
+        @SuppressWarnings("unchecked")
+        List<StockChange> changes() {
+            return (List<StockChange>) data;
+        }
+    }
+    
+    /**
+     * Records the events sent to it instead of writing them to a response.
+     */
+    private static final class CapturingEmitter extends SseEmitter {
+        
+        private final List<Event> events = new CopyOnWriteArrayList<>();
+        private final int sendsBeforeBlocking;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        
+        private CapturingEmitter(int sendsBeforeBlocking) {
+            this.sendsBeforeBlocking = sendsBeforeBlocking;
+        }
+        
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (events.size() >= sendsBeforeBlocking) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+            }
+            List<ResponseBodyEmitter.DataWithMediaType> parts = new ArrayList<>(builder.build());
+            String header = (String) parts.get(0).getData();
+            String name = header.substring("event:".length(), header.indexOf('\n'));
+            events.add(new Event(name, parts.get(1).getData()));
+        }
+        
+        private List<Event> awaitEvents(int count) throws InterruptedException {
+            await(() -> events.size() >= count);
+            return events;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.example.orderservice.archive;
+
+import com.example.orderservice.model.Order;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A finished, read-only archive segment, memory-mapped in full.
+ *
+ * <p>File layout: a header ({@link #MAGIC}, {@link #VERSION}), the order records in ascending ID
+ * order, a sparse index of {@code (long id, int offset)} entries for every
+ * {@code index-interval}th record, and a fixed-size trailer:
+ *
+ * <pre>
+ * int recordCount, int indexEntryCount, long minId, long maxId, long indexOffset, int MAGIC
+ * </pre>
+ *
+ * A lookup binary-searches the in-memory copy of the sparse index and scans forward from the
+ * nearest indexed record, reading only the mapped pages it needs.
+ */
+final class ArchiveSegment {
+    
+    static final int MAGIC = 0x4f524441;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int TRAILER_BYTES = 4 + 4 + 8 + 8 + 8 + 4;
+    
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int recordCount;
+    private final long minId;
+    private final long maxId;
+    private final int recordsEnd;
+    private final long[] indexIds;
+    private final int[] indexOffsets;
+    
+    private ArchiveSegment(Path path, MappedByteBuffer buffer, int recordCount, long minId, long maxId,
+                           int recordsEnd, long[] indexIds, int[] indexOffsets) {
+        this.path = path;
+        this.buffer = buffer;
+        this.recordCount = recordCount;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.recordsEnd = recordsEnd;
+        this.indexIds = indexIds;
+        this.indexOffsets = indexOffsets;
+    }
+    
+    static ArchiveSegment open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        
+        int trailer = buffer.limit() - TRAILER_BYTES;
+        if (trailer < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(trailer + 32) != MAGIC) {
+            throw new IOException("Not an order archive segment: " + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported archive segment version " + buffer.getInt(4) + ": " + path);
+        }
+        
+        int recordCount = buffer.getInt(trailer);
+        int indexEntryCount = buffer.getInt(trailer + 4);
+        long minId = buffer.getLong(trailer + 8);
+        long maxId = buffer.getLong(trailer + 16);
+        int indexOffset = (int) buffer.getLong(trailer + 24);
+        
+        long[] indexIds = new long[indexEntryCount];
+        int[] indexOffsets = new int[indexEntryCount];
+        for (int i = 0, position = indexOffset; i < indexEntryCount; i++, position += 12) {
+            indexIds[i] = buffer.getLong(position);
+            indexOffsets[i] = buffer.getInt(position + 8);
+        }
+        return new ArchiveSegment(path, buffer, recordCount, minId, maxId, indexOffset, indexIds, indexOffsets);
+    }
+    
+    Optional<Order> find(long id) {
+        if (id < minId || id > maxId || indexIds.length == 0) {
+            return Optional.empty();
+        }
+        
+        int slot = Arrays.binarySearch(indexIds, id);
+        if (slot < 0) {
+            slot = -slot - 2;
+        }
+        // Absolute reads only, so concurrent lookups can share the mapped buffer
+        int position = indexOffsets[slot];
+        while (position < recordsEnd) {
+            long recordId = ArchivedOrderFormat.readId(buffer, position);
+            if (recordId == id) {
+                return Optional.of(ArchivedOrderFormat.read(buffer, position));
+            }
+            if (recordId > id) {
+                break;
+            }
+            position += ArchivedOrderFormat.recordSize(buffer, position);
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Reads every record in ID order.
+     */
+    void forEach(Consumer<Order> action) {
+        for (int position = HEADER_BYTES; position < recordsEnd;
+             position += ArchivedOrderFormat.recordSize(buffer, position)) {
+            action.accept(ArchivedOrderFormat.read(buffer, position));
+        }
+    }
+    
+    long getMinId() {
+        return minId;
+    }
+    
+    long getMaxId() {
+        return maxId;
+    }
+    
+    Path getPath() {
+        return path;
+    }
+    
+    int getRecordCount() {
+        return recordCount;
+    }
+    
+    long getSizeBytes() {
+        return buffer.limit();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.example.orderservice.archive;
+
+import com.example.orderservice.model.Order;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes one archive segment in the layout described on {@link ArchiveSegment}. Orders must be
+ * appended in ascending ID order. The segment is written to a temporary file, forced to disk and
+ * only then renamed into place, so a segment file is either complete or absent.
+ */
+final class ArchiveSegmentWriter implements AutoCloseable {
+    
+    static final String TEMP_SUFFIX = ".tmp";
+    
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private final int indexInterval;
+    
+    private final DataOutputStream index;
+    private final ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+    private int indexEntryCount;
+    private int recordCount;
+    private long position = ArchiveSegment.HEADER_BYTES;
+    private long minId = Long.MAX_VALUE;
+    private long maxId = Long.MIN_VALUE;
+    private boolean finished;
+    
+    ArchiveSegmentWriter(Path target, int indexInterval) throws IOException {
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        this.indexInterval = indexInterval;
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+        OutputStream stream = Channels.newOutputStream(channel);
+        this.out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+        this.index = new DataOutputStream(indexBytes);
+        out.writeInt(ArchiveSegment.MAGIC);
+        out.writeInt(ArchiveSegment.VERSION);
+    }
+    
+    void append(Order order) throws IOException {
+        if (order.getId() <= maxId) {
+            throw new IllegalArgumentException("Orders must be archived in ascending ID order");
+        }
+        if (recordCount % indexInterval == 0) {
+            index.writeLong(order.getId());
+            index.writeInt((int) position);
+            indexEntryCount++;
+        }
+        position += ArchivedOrderFormat.write(out, order);
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("Archive segment exceeds 2 GB: " + target);
+        }
+        minId = Math.min(minId, order.getId());
+        maxId = order.getId();
+        recordCount++;
+    }
+    
+    long size() {
+        return position;
+    }
+    
+    Path finish() throws IOException {
+        long indexOffset = position;
+        indexBytes.writeTo(out);
+        out.writeInt(recordCount);
+        out.writeInt(indexEntryCount);
+        out.writeLong(minId);
+        out.writeLong(maxId);
+        out.writeLong(indexOffset);
+        out.writeInt(ArchiveSegment.MAGIC);
+        out.flush();
+        channel.force(true);
+        out.close();
+        finished = true;
+        return Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            out.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+}
\ No newline at end of file
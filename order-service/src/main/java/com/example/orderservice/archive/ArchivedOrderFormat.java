@@ -0,0 +1,100 @@
+package com.example.orderservice.archive;
+
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary layout of one archived order. All values are big-endian.
+ *
+ * <pre>
+ * int  length of the rest of the record
+ * long id
+ * long userId
+ * byte status ordinal
+ * long totalAmountMinor
+ * long createdAt, microseconds since the epoch (UTC)
+ * long updatedAt, microseconds since the epoch (UTC)
+ * int  item count, followed by that many items of
+ *      long id, long productId, int quantity, long unitPriceMinor
+ * </pre>
+ *
+ * Status is stored by ordinal, so new {@link OrderStatus} values must be added at the end.
+ */
+final class ArchivedOrderFormat {
+    
+    static final int ITEM_BYTES = 8 + 8 + 4 + 8;
+    private static final int FIXED_BYTES = 8 + 8 + 1 + 8 + 8 + 8 + 4;
+    
+    private ArchivedOrderFormat() {}
+    
+    /**
+     * Writes the order and returns the number of bytes written.
+     */
+    static int write(DataOutput out, Order order) throws IOException {
+        int length = FIXED_BYTES + order.getOrderItems().size() * ITEM_BYTES;
+        out.writeInt(length);
+        out.writeLong(order.getId());
+        out.writeLong(order.getUserId());
+        out.writeByte(order.getStatus().ordinal());
+        out.writeLong(order.getTotalAmountMinor());
+        out.writeLong(toMicros(order.getCreatedAt()));
+        out.writeLong(toMicros(order.getUpdatedAt()));
+        out.writeInt(order.getOrderItems().size());
+        for (OrderItem item : order.getOrderItems()) {
+            out.writeLong(item.getId());
+            out.writeLong(item.getProductId());
+            out.writeInt(item.getQuantity() == null ? 0 : item.getQuantity());
+            out.writeLong(item.getUnitPriceMinor());
+        }
+        return 4 + length;
+    }
+    
+    static long readId(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + 4);
+    }
+    
+    static int recordSize(ByteBuffer buffer, int position) {
+        return 4 + buffer.getInt(position);
+    }
+    
+    static Order read(ByteBuffer buffer, int position) {
+        int offset = position + 4;
+        Order order = new Order(buffer.getLong(offset + 8));
+        order.setId(buffer.getLong(offset));
+        order.setStatus(OrderStatus.values()[buffer.get(offset + 16)]);
+        long totalAmountMinor = buffer.getLong(offset + 17);
+        
+        int itemCount = buffer.getInt(offset + 41);
+        int itemOffset = offset + FIXED_BYTES;
+        for (int i = 0; i < itemCount; i++, itemOffset += ITEM_BYTES) {
+            OrderItem item = new OrderItem(buffer.getLong(itemOffset + 8), buffer.getInt(itemOffset + 16),
+                Money.toBigDecimal(buffer.getLong(itemOffset + 20)));
+            item.setId(buffer.getLong(itemOffset));
+            order.addOrderItem(item);
+        }
+        if (order.getTotalAmountMinor() != totalAmountMinor) {
+            throw new IllegalStateException("Archived order " + order.getId() + " total does not match its items");
+        }
+        
+        order.setCreatedAt(fromMicros(buffer.getLong(offset + 25)));
+        order.setUpdatedAt(fromMicros(buffer.getLong(offset + 33)));
+        return order;
+    }
+    
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+    
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+            (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
\ No newline at end of file
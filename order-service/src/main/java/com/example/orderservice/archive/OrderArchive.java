@@ -0,0 +1,160 @@
+package com.example.orderservice.archive;
+
+import com.example.orderservice.dto.ArchiveStats;
+import com.example.orderservice.model.DatabaseInstance;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.repository.DatabaseInstanceRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Read side of the cold-order archive: every segment in the archive directory, memory-mapped.
+ * Segments are opened at startup and as the archival job finishes them.
+ *
+ * <p>Segments are kept in a subdirectory named after the {@link DatabaseInstance}, so those written for
+ * another database, such as the in-memory one of a previous run, are never opened: its order IDs would
+ * clash with the ones handed out now.
+ */
+@Component
+public class OrderArchive {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderArchive.class);
+    
+    static final String SEGMENT_SUFFIX = ".seg";
+    
+    private final Path root;
+    private final int indexInterval;
+    private final DatabaseInstanceRepository databaseInstanceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private Path directory;
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+    private final AtomicInteger segmentSequence = new AtomicInteger();
+    
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    
+    @Autowired
+    public OrderArchive(@Value("${orders.archive.directory}") String directory,
+                        @Value("${orders.archive.index-interval}") int indexInterval,
+                        DatabaseInstanceRepository databaseInstanceRepository,
+                        TransactionTemplate transactionTemplate) {
+        this.root = Paths.get(directory);
+        this.indexInterval = indexInterval;
+        this.databaseInstanceRepository = databaseInstanceRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+    
+    @PostConstruct
+    public void open() throws IOException {
+        directory = root.resolve(loadInstanceId());
+        if (!Files.isDirectory(directory)) {
+            log.info("No order archive segments for this database in {}", directory);
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().toList()) {
+                if (file.toString().endsWith(SEGMENT_SUFFIX)) {
+                    segments.add(ArchiveSegment.open(file));
+                } else if (file.toString().endsWith(ArchiveSegmentWriter.TEMP_SUFFIX)) {
+                    // Left behind by a run that did not finish; its orders are still in the orders table
+                    Files.delete(file);
+                }
+            }
+        }
+        log.info("Opened {} order archive segments in {}", segments.size(), directory);
+    }
+    
+    /**
+     * Reads the database's instance ID, creating it along with a new schema. Read in a read-write
+     * transaction, so it comes from the primary.
+     */
+    private String loadInstanceId() {
+        try {
+            return transactionTemplate.execute(status -> databaseInstanceRepository.findById(DatabaseInstance.ID)
+                .orElseGet(() -> databaseInstanceRepository.saveAndFlush(DatabaseInstance.create())))
+                .getInstanceId();
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance of the service created it first
+            return transactionTemplate.execute(status -> databaseInstanceRepository.findById(DatabaseInstance.ID))
+                .orElseThrow(() -> ex)
+                .getInstanceId();
+        }
+    }
+    
+    /**
+     * Looks an order up in the archive, newest segment first.
+     */
+    public Optional<Order> find(Long id) {
+        lookups.increment();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Optional<Order> order = segments.get(i).find(id);
+            if (order.isPresent()) {
+                hits.increment();
+                return order;
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Reads every archived order once. An order archived more than once, because it changed while it was
+     * being archived and stayed in the orders table, is read from its newest segment.
+     */
+    public void forEach(Consumer<Order> action) {
+        Set<Long> seen = new HashSet<>();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            segments.get(i).forEach(order -> {
+                if (seen.add(order.getId())) {
+                    action.accept(order);
+                }
+            });
+        }
+    }
+    
+    public ArchiveStats getStats() {
+        ArchiveStats stats = new ArchiveStats();
+        stats.setDirectory(directory.toString());
+        stats.setSegments(segments.size());
+        stats.setArchivedOrders(segments.stream().mapToLong(ArchiveSegment::getRecordCount).sum());
+        stats.setSizeBytes(segments.stream().mapToLong(ArchiveSegment::getSizeBytes).sum());
+        stats.setLookups(lookups.sum());
+        stats.setHits(hits.sum());
+        return stats;
+    }
+    
+    ArchiveSegmentWriter newSegmentWriter() throws IOException {
+        Files.createDirectories(directory);
+        String name = String.format("orders-%d-%06d%s",
+            System.currentTimeMillis(), segmentSequence.getAndIncrement(), SEGMENT_SUFFIX);
+        return new ArchiveSegmentWriter(directory.resolve(name), indexInterval);
+    }
+    
+    void register(Path segment) {
+        try {
+            segments.add(ArchiveSegment.open(segment));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.example.orderservice.archive;
+
+import com.example.orderservice.dto.ArchiveRunResult;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves delivered and cancelled orders that have not changed for {@code orders.archive.min-age}
+ * out of the {@code orders} table into archive segments.
+ *
+ * <p>Segments are complete on disk before any order is deleted. Deletes only remove orders that
+ * are still eligible, so an order changed while it was being archived stays in the table, which
+ * takes precedence over the archive on lookup.
+ */
+@Service
+public class OrderArchiveService {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+    
+    private static final Set<OrderStatus> ARCHIVABLE_STATUSES = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+    
+    private final OrderArchive orderArchive;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxOrdersPerRun;
+    private final long segmentMaxBytes;
+    
+    @Autowired
+    public OrderArchiveService(OrderArchive orderArchive,
+                               OrderRepository orderRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${orders.archive.enabled}") boolean enabled,
+                               @Value("${orders.archive.min-age}") Duration minAge,
+                               @Value("${orders.archive.batch-size}") int batchSize,
+                               @Value("${orders.archive.max-orders-per-run}") int maxOrdersPerRun,
+                               @Value("${orders.archive.segment-max-bytes}") long segmentMaxBytes) {
+        this.orderArchive = orderArchive;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxOrdersPerRun = maxOrdersPerRun;
+        this.segmentMaxBytes = segmentMaxBytes;
+    }
+    
+    @Scheduled(fixedDelayString = "${orders.archive.interval-ms}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveAgedOrders();
+        }
+    }
+    
+    public synchronized ArchiveRunResult archiveAgedOrders() {
+        long start = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        ArchiveRunResult result = new ArchiveRunResult();
+        
+        List<Long> candidateIds = findCandidateIds(cutoff);
+        if (!candidateIds.isEmpty()) {
+            List<Long> archivedIds = writeSegments(candidateIds, cutoff, result);
+            result.setArchived(deleteArchived(archivedIds, cutoff));
+            result.setSkipped(candidateIds.size() - result.getArchived());
+        }
+        
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        if (result.getArchived() > 0) {
+            log.info("Archived {} orders into {} segments in {} ms ({} skipped)",
+                result.getArchived(), result.getSegments(), result.getElapsedMillis(), result.getSkipped());
+        }
+        return result;
+    }
+    
+    private List<Long> findCandidateIds(LocalDateTime cutoff) {
+        List<Long> ids = new ArrayList<>();
+        long afterId = 0L;
+        while (ids.size() < maxOrdersPerRun) {
+            long lastId = afterId;
+            int limit = Math.min(batchSize, maxOrdersPerRun - ids.size());
+            List<Long> page = transactionTemplate.execute(status -> orderRepository.findArchivableIds(
+                ARCHIVABLE_STATUSES, cutoff, lastId, PageRequest.of(0, limit)));
+            ids.addAll(page);
+            if (page.size() < limit) {
+                break;
+            }
+            afterId = page.get(page.size() - 1);
+        }
+        return ids;
+    }
+    
+    /**
+     * Writes the candidates that are still eligible to new segments and returns their IDs.
+     */
+    private List<Long> writeSegments(List<Long> candidateIds, LocalDateTime cutoff, ArchiveRunResult result) {
+        List<Long> archivedIds = new ArrayList<>(candidateIds.size());
+        List<Path> segments = new ArrayList<>();
+        ArchiveSegmentWriter writer = null;
+        try {
+            for (int from = 0; from < candidateIds.size(); from += batchSize) {
+                List<Long> chunk = candidateIds.subList(from, Math.min(from + batchSize, candidateIds.size()));
+                List<Order> orders = transactionTemplate.execute(status -> orderRepository.findAllWithItemsByIdIn(chunk));
+                orders.sort(Comparator.comparing(Order::getId));
+                
+                for (Order order : orders) {
+                    if (!ARCHIVABLE_STATUSES.contains(order.getStatus()) || !order.getUpdatedAt().isBefore(cutoff)) {
+                        continue;
+                    }
+                    if (writer == null) {
+                        writer = orderArchive.newSegmentWriter();
+                    }
+                    writer.append(order);
+                    archivedIds.add(order.getId());
+                    if (writer.size() >= segmentMaxBytes) {
+                        segments.add(writer.finish());
+                        writer = null;
+                    }
+                }
+            }
+            if (writer != null) {
+                segments.add(writer.finish());
+                writer = null;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write order archive segment", ex);
+        } finally {
+            closeQuietly(writer);
+        }
+        
+        segments.forEach(orderArchive::register);
+        result.setSegments(segments.size());
+        return archivedIds;
+    }
+    
+    private int deleteArchived(List<Long> archivedIds, LocalDateTime cutoff) {
+        int deleted = 0;
+        for (int from = 0; from < archivedIds.size(); from += batchSize) {
+            List<Long> chunk = archivedIds.subList(from, Math.min(from + batchSize, archivedIds.size()));
+            Integer count = transactionTemplate.execute(status -> {
+                orderRepository.deleteArchivableItems(chunk, ARCHIVABLE_STATUSES, cutoff);
+                return orderRepository.deleteArchivable(chunk, ARCHIVABLE_STATUSES, cutoff);
+            });
+            deleted += count;
+        }
+        return deleted;
+    }
+    
+    private void closeQuietly(ArchiveSegmentWriter writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException ex) {
+            log.warn("Failed to discard incomplete archive segment", ex);
+        }
+    }
+}
\ No newline at end of file
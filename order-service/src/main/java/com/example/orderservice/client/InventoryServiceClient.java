@@ -0,0 +1,72 @@
+package com.example.orderservice.client;
+
+import com.example.orderservice.dto.BatchReservationRequest;
+import com.example.orderservice.dto.ErrorResponse;
+import com.example.orderservice.dto.ReservationLine;
+import com.example.orderservice.exception.ServiceCommunicationException;
+import com.example.orderservice.exception.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+@Component
+public class InventoryServiceClient {
+    
+    private static final Logger log = LoggerFactory.getLogger(InventoryServiceClient.class);
+    
+    private final RestTemplate restTemplate;
+    private final String inventoryServiceUrl;
+    
+    @Autowired
+    public InventoryServiceClient(RestTemplate restTemplate,
+                                  @Value("${services.inventory-service}") String inventoryServiceUrl) {
+        this.restTemplate = restTemplate;
+        this.inventoryServiceUrl = inventoryServiceUrl;
+    }
+    
+    /**
+     * Reserves all lines in a single all-or-nothing call.
+     *
+     * @throws ValidationException if inventory-service rejects the reservation, e.g. for insufficient stock
+     */
+    public void reserveStock(List<ReservationLine> lines) {
+        post("/api/inventory/reservations", lines);
+    }
+    
+    public void releaseStock(List<ReservationLine> lines) {
+        post("/api/inventory/reservations/release", lines);
+    }
+    
+    private void post(String path, List<ReservationLine> lines) {
+        String url = inventoryServiceUrl + path;
+        try {
+            log.debug("Calling Inventory Service: {} with {} lines", url, lines.size());
+            restTemplate.postForEntity(url, new BatchReservationRequest(lines), Void.class);
+        } catch (HttpClientErrorException ex) {
+            String message = extractMessage(ex);
+            log.warn("Inventory Service rejected request to {}: {}", url, message);
+            throw new ValidationException(message, ex);
+        } catch (Exception ex) {
+            log.error("Failed to call Inventory Service: {}", url, ex);
+            throw new ServiceCommunicationException("Failed to communicate with Inventory Service", ex);
+        }
+    }
+    
+    private String extractMessage(HttpClientErrorException ex) {
+        try {
+            ErrorResponse error = ex.getResponseBodyAs(ErrorResponse.class);
+            if (error != null && error.getMessage() != null) {
+                return error.getMessage();
+            }
+        } catch (RuntimeException parseEx) {
+            log.debug("Could not parse Inventory Service error response", parseEx);
+        }
+        return "Stock reservation rejected: " + ex.getStatusText();
+    }
+}
@@ -1,17 +1,40 @@
 package com.example.orderservice.client;
 
 import com.example.orderservice.dto.Product;
+import com.example.orderservice.dto.ProductCacheStats;
 import com.example.orderservice.exception.ServiceCommunicationException;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Looks up products in product-service, keeping a local snapshot of each product found.
+ *
+ * <p>A snapshot younger than the soft TTL is returned as-is. An older one is still returned straight
+ * away, and a background refresh replaces it. If product-service cannot be reached, the stale snapshot
+ * keeps being served until it reaches the hard TTL. After that the lookup goes to product-service
+ * again and fails if it is still down. At most {@code max-entries} snapshots are kept; a new one
+ * replaces the one fetched longest ago, which is also the first to expire.
+ */
 @Component
 public class ProductServiceClient {
     
@@ -19,15 +42,108 @@ public class ProductServiceClient {
     
     private final RestTemplate restTemplate;
     private final String productServiceUrl;
+    private final boolean cacheEnabled;
+    private final long softTtlNanos;
+    private final long hardTtlNanos;
+    private final int maxEntries;
+    private final ExecutorService refreshExecutor;
+    
+    private final Map<Long, CachedProduct> cache = new ConcurrentHashMap<>();
+    // The same snapshots, oldest fetch first. Every write to the cache is made under this map's lock, so
+    // the two always agree; lookups read the cache without locking.
+    private final LinkedHashMap<Long, CachedProduct> fetchOrder = new LinkedHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
     
     @Autowired
-    public ProductServiceClient(RestTemplate restTemplate, 
-                              @Value("${services.product-service}") String productServiceUrl) {
+    public ProductServiceClient(RestTemplate restTemplate,
+                              @Value("${services.product-service}") String productServiceUrl,
+                              @Value("${orders.product-cache.enabled}") boolean cacheEnabled,
+                              @Value("${orders.product-cache.soft-ttl}") Duration softTtl,
+                              @Value("${orders.product-cache.hard-ttl}") Duration hardTtl,
+                              @Value("${orders.product-cache.max-entries}") int maxEntries,
+                              @Value("${orders.product-cache.refresh-threads}") int refreshThreads) {
         this.restTemplate = restTemplate;
         this.productServiceUrl = productServiceUrl;
+        this.cacheEnabled = cacheEnabled;
+        this.softTtlNanos = softTtl.toNanos();
+        this.hardTtlNanos = Math.max(softTtl.toNanos(), hardTtl.toNanos());
+        this.maxEntries = maxEntries;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.refreshExecutor = Executors.newFixedThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "product-refresh-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void stop() {
+        refreshExecutor.shutdownNow();
     }
     
+    /**
+     * Returns the product, from the local snapshot when one is recent enough.
+     *
+     * @throws ServiceCommunicationException if product-service is unreachable and no usable snapshot exists
+     */
     public Optional<Product> getProductById(Long productId) {
+        if (!cacheEnabled) {
+            return fetchProduct(productId);
+        }
+        
+        CachedProduct cached = cache.get(productId);
+        if (cached != null) {
+            long age = System.nanoTime() - cached.fetchedAt;
+            if (age < softTtlNanos) {
+                hits.increment();
+                return Optional.of(cached.product);
+            }
+            if (age < hardTtlNanos) {
+                staleHits.increment();
+                if (cached.refreshFailed) {
+                    fallbacks.increment();
+                }
+                refreshAsync(productId, cached);
+                return Optional.of(cached.product);
+            }
+        }
+        
+        misses.increment();
+        Optional<Product> product = fetchProduct(productId);
+        store(productId, product);
+        return product;
+    }
+    
+    public boolean productExists(Long productId) {
+        try {
+            return getProductById(productId).isPresent();
+        } catch (ServiceCommunicationException ex) {
+            log.error("Error checking if product exists with ID: {}", productId, ex);
+            return false;
+        }
+    }
+    
+    public ProductCacheStats getCacheStats() {
+        ProductCacheStats stats = new ProductCacheStats();
+        stats.setEnabled(cacheEnabled);
+        stats.setSize(cache.size());
+        stats.setHits(hits.sum());
+        stats.setStaleHits(staleHits.sum());
+        stats.setMisses(misses.sum());
+        stats.setRefreshes(refreshes.sum());
+        stats.setRefreshFailures(refreshFailures.sum());
+        stats.setFallbacks(fallbacks.sum());
+        stats.setEvictions(evictions.sum());
+        return stats;
+    }
+    
+    private Optional<Product> fetchProduct(Long productId) {
         try {
             String url = productServiceUrl + "/api/products/" + productId;
             log.debug("Calling Product Service: {}", url);
@@ -41,18 +157,100 @@ public class ProductServiceClient {
                 log.warn("Product not found with ID: {}", productId);
                 return Optional.empty();
             }
+        } catch (HttpClientErrorException.NotFound ex) {
+            log.warn("Product not found with ID: {}", productId);
+            return Optional.empty();
         } catch (Exception ex) {
             log.error("Failed to fetch product with ID: {}", productId, ex);
             throw new ServiceCommunicationException("Failed to communicate with Product Service", ex);
         }
     }
     
-    public boolean productExists(Long productId) {
+    private void store(Long productId, Optional<Product> product) {
+        synchronized (fetchOrder) {
+            if (product.isEmpty()) {
+                cache.remove(productId);
+                fetchOrder.remove(productId);
+                return;
+            }
+            fetchOrder.remove(productId);
+            evictOldest();
+            put(productId, new CachedProduct(product.get(), System.nanoTime(), false));
+        }
+    }
+    
+    /**
+     * Starts one background refresh per stale snapshot. A failed refresh keeps the old snapshot, marked so
+     * that lookups served from it count as fallbacks, and the next stale lookup tries again.
+     */
+    private void refreshAsync(Long productId, CachedProduct cached) {
+        if (!cached.refreshing.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            return getProductById(productId).isPresent();
-        } catch (ServiceCommunicationException ex) {
-            log.error("Error checking if product exists with ID: {}", productId, ex);
-            return false;
+            refreshExecutor.execute(() -> {
+                try {
+                    Optional<Product> product = fetchProduct(productId);
+                    synchronized (fetchOrder) {
+                        if (cache.get(productId) == cached) {
+                            fetchOrder.remove(productId);
+                            if (product.isPresent()) {
+                                put(productId, new CachedProduct(product.get(), System.nanoTime(), false));
+                            } else {
+                                cache.remove(productId);
+                            }
+                        }
+                    }
+                    refreshes.increment();
+                } catch (RuntimeException ex) {
+                    refreshFailures.increment();
+                    synchronized (fetchOrder) {
+                        if (cache.get(productId) == cached) {
+                            // Keeps its place in the fetch order, as it keeps its fetch time
+                            put(productId, new CachedProduct(cached.product, cached.fetchedAt, true));
+                        }
+                    }
+                    log.warn("Serving stale product ID: {} after refresh failed", productId);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            cached.refreshing.set(false);
+        }
+    }
+    
+    /**
+     * Makes room for one more snapshot by removing those fetched longest ago. Expired snapshots are the
+     * oldest, so they go first, and only removing a live one counts as an eviction.
+     */
+    private void evictOldest() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Long, CachedProduct>> oldest = fetchOrder.entrySet().iterator();
+        while (fetchOrder.size() >= maxEntries && oldest.hasNext()) {
+            Map.Entry<Long, CachedProduct> entry = oldest.next();
+            oldest.remove();
+            cache.remove(entry.getKey());
+            if (now - entry.getValue().fetchedAt < hardTtlNanos) {
+                evictions.increment();
+            }
+        }
+    }
+    
+    private void put(Long productId, CachedProduct cached) {
+        fetchOrder.put(productId, cached);
+        cache.put(productId, cached);
+    }
+    
+    private static final class CachedProduct {
+        
+        private final Product product;
+        private final long fetchedAt;
+        private final boolean refreshFailed;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        
+        private CachedProduct(Product product, long fetchedAt, boolean refreshFailed) {
+            this.product = product;
+            this.fetchedAt = fetchedAt;
+            this.refreshFailed = refreshFailed;
         }
     }
 }
\ No newline at end of file
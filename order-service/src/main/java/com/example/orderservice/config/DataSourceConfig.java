@@ -0,0 +1,54 @@
+package com.example.orderservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Two connection pools: the primary from {@code spring.datasource}, and an optional read replica from
+ * {@code orders.datasource.replica}. The application's {@link DataSource} routes between them per
+ * transaction.
+ */
+@Configuration
+public class DataSourceConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "orders.datasource.replica.enabled", havingValue = "true")
+    @ConfigurationProperties("orders.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                        @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource.getIfAvailable());
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        // Defers taking a connection until the first statement, by which time the transaction is marked read-only or not
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
\ No newline at end of file
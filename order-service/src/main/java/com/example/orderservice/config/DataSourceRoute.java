@@ -0,0 +1,10 @@
+package com.example.orderservice.config;
+
+/**
+ * Where a connection is taken from: read-write transactions use the primary, read-only transactions
+ * use the replica.
+ */
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.dto.DataSourcePoolStats;
+import com.example.orderservice.dto.DataSourceStats;
+import com.example.orderservice.metrics.LatencyStats;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else to the
+ * primary. Without a replica both routes use the primary.
+ *
+ * <p>The route is decided when a connection is taken, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; otherwise the connection
+ * is fetched before the transaction is marked read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    private final Map<DataSourceRoute, DataSource> pools = new EnumMap<>(DataSourceRoute.class);
+    private final Map<DataSourceRoute, RouteStats> stats = new EnumMap<>(DataSourceRoute.class);
+    private final boolean replicaEnabled;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        this.replicaEnabled = replica != null;
+        pools.put(DataSourceRoute.PRIMARY, primary);
+        pools.put(DataSourceRoute.REPLICA, replicaEnabled ? replica : primary);
+        for (DataSourceRoute route : DataSourceRoute.values()) {
+            stats.put(route, new RouteStats());
+        }
+        setTargetDataSources(Map.copyOf(pools));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected DataSourceRoute determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            ? DataSourceRoute.REPLICA
+            : DataSourceRoute.PRIMARY;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSourceRoute route = determineCurrentLookupKey();
+        long start = System.nanoTime();
+        Connection connection = pools.get(route).getConnection();
+        return track(connection, route, start);
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSourceRoute route = determineCurrentLookupKey();
+        long start = System.nanoTime();
+        Connection connection = pools.get(route).getConnection(username, password);
+        return track(connection, route, start);
+    }
+    
+    public DataSourceStats getStats() {
+        DataSourceStats dataSourceStats = new DataSourceStats();
+        dataSourceStats.setReplicaEnabled(replicaEnabled);
+        dataSourceStats.setPrimary(poolStats(DataSourceRoute.PRIMARY));
+        dataSourceStats.setReplica(poolStats(DataSourceRoute.REPLICA));
+        return dataSourceStats;
+    }
+    
+    private DataSourcePoolStats poolStats(DataSourceRoute route) {
+        RouteStats routeStats = stats.get(route);
+        DataSourcePoolStats poolStats = new DataSourcePoolStats();
+        poolStats.setConnectionWait(routeStats.connectionWait);
+        poolStats.setConnectionHeld(routeStats.connectionHeld);
+        if (pools.get(route) instanceof HikariDataSource hikari) {
+            poolStats.setPoolName(hikari.getPoolName());
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null) {
+                poolStats.setActiveConnections(pool.getActiveConnections());
+                poolStats.setIdleConnections(pool.getIdleConnections());
+                poolStats.setThreadsAwaitingConnection(pool.getThreadsAwaitingConnection());
+            }
+        }
+        return poolStats;
+    }
+    
+    /**
+     * Records how long the connection took to obtain and, once it is closed, how long it was held.
+     */
+    private Connection track(Connection connection, DataSourceRoute route, long requestedAt) {
+        RouteStats routeStats = stats.get(route);
+        routeStats.connectionWait.recordSince(requestedAt);
+        long borrowedAt = System.nanoTime();
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                    routeStats.connectionHeld.recordSince(borrowedAt);
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            });
+    }
+    
+    private static final class RouteStats {
+        private final LatencyStats connectionWait = new LatencyStats();
+        private final LatencyStats connectionHeld = new LatencyStats();
+    }
+}
\ No newline at end of file
@@ -1,31 +1,149 @@
 package com.example.orderservice.controller;
 
+import com.example.orderservice.archive.OrderArchive;
+import com.example.orderservice.archive.OrderArchiveService;
+import com.example.orderservice.client.ProductServiceClient;
+import com.example.orderservice.config.ReadWriteRoutingDataSource;
+import com.example.orderservice.dto.ArchiveRunResult;
+import com.example.orderservice.dto.ArchiveStats;
+import com.example.orderservice.dto.BulkOrderResponse;
+import com.example.orderservice.dto.BulkStatusUpdateRequest;
+import com.example.orderservice.dto.BulkStatusUpdateResponse;
+import com.example.orderservice.dto.DataSourceStats;
+import com.example.orderservice.dto.IdempotentResponse;
+import com.example.orderservice.dto.OrderListView;
+import com.example.orderservice.dto.OrderPipelineStats;
+import com.example.orderservice.dto.OrderPlacementResponse;
+import com.example.orderservice.dto.OutboxStats;
+import com.example.orderservice.dto.ProductCacheStats;
+import com.example.orderservice.dto.SummaryRebuildResponse;
+import com.example.orderservice.event.OrderEventBroadcaster;
+import com.example.orderservice.event.OutboxPublisher;
+import com.example.orderservice.model.BucketGranularity;
 import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
 import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.RevenueBucket;
+import com.example.orderservice.model.UserOrderSummary;
+import com.example.orderservice.service.AsyncOrderPlacementService;
+import com.example.orderservice.service.BulkOrderService;
+import com.example.orderservice.service.BulkOrderStatusService;
+import com.example.orderservice.service.IdempotencyService;
+import com.example.orderservice.service.OrderExportService;
 import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.RevenueBucketService;
+import com.example.orderservice.service.UserOrderSummaryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
     
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final BulkOrderService bulkOrderService;
+    private final BulkOrderStatusService bulkOrderStatusService;
+    private final AsyncOrderPlacementService asyncOrderPlacementService;
+    private final OrderEventBroadcaster orderEventBroadcaster;
+    private final OutboxPublisher outboxPublisher;
+    private final UserOrderSummaryService userOrderSummaryService;
+    private final IdempotencyService idempotencyService;
+    private final RevenueBucketService revenueBucketService;
+    private final OrderArchive orderArchive;
+    private final OrderArchiveService orderArchiveService;
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final ProductServiceClient productServiceClient;
     
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService,
+                           OrderExportService orderExportService,
+                           BulkOrderService bulkOrderService,
+                           BulkOrderStatusService bulkOrderStatusService,
+                           AsyncOrderPlacementService asyncOrderPlacementService,
+                           OrderEventBroadcaster orderEventBroadcaster,
+                           OutboxPublisher outboxPublisher,
+                           UserOrderSummaryService userOrderSummaryService,
+                           IdempotencyService idempotencyService,
+                           RevenueBucketService revenueBucketService,
+                           OrderArchive orderArchive,
+                           OrderArchiveService orderArchiveService,
+                           ReadWriteRoutingDataSource routingDataSource,
+                           ProductServiceClient productServiceClient) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
+        this.bulkOrderService = bulkOrderService;
+        this.bulkOrderStatusService = bulkOrderStatusService;
+        this.asyncOrderPlacementService = asyncOrderPlacementService;
+        this.orderEventBroadcaster = orderEventBroadcaster;
+        this.outboxPublisher = outboxPublisher;
+        this.userOrderSummaryService = userOrderSummaryService;
+        this.idempotencyService = idempotencyService;
+        this.revenueBucketService = revenueBucketService;
+        this.orderArchive = orderArchive;
+        this.orderArchiveService = orderArchiveService;
+        this.routingDataSource = routingDataSource;
+        this.productServiceClient = productServiceClient;
     }
     
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<List<?>> getAllOrders(@RequestParam(defaultValue = "SUMMARY") OrderListView view,
+                                                @RequestParam(required = false) OrderStatus status) {
+        if (view == OrderListView.FULL) {
+            List<Order> orders = status == null ? orderService.getAllOrders() : orderService.getOrdersByStatus(status);
+            return ResponseEntity.ok(orders);
+        }
+        return ResponseEntity.ok(orderService.getOrderSummaries(null, status));
+    }
+    
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "0") Long after,
+                                                              @RequestParam(required = false) Integer limit) {
+        StreamingResponseBody body = outputStream -> orderExportService.exportOrders(after, limit, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents() {
+        return orderEventBroadcaster.subscribe();
+    }
+    
+    @GetMapping("/events/stats")
+    public ResponseEntity<OutboxStats> getEventStats() {
+        return ResponseEntity.ok(outboxPublisher.getStats());
+    }
+    
+    @GetMapping("/revenue")
+    public ResponseEntity<List<RevenueBucket>> getRevenue(
+            @RequestParam(defaultValue = "DAY") BucketGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) OrderStatus status) {
+        return ResponseEntity.ok(revenueBucketService.getBuckets(granularity, from, to, status));
+    }
+    
+    @GetMapping("/archive/stats")
+    public ResponseEntity<ArchiveStats> getArchiveStats() {
+        return ResponseEntity.ok(orderArchive.getStats());
+    }
+    
+    @PostMapping("/archive/run")
+    public ResponseEntity<ArchiveRunResult> runArchive() {
+        return ResponseEntity.ok(orderArchiveService.archiveAgedOrders());
     }
     
     @GetMapping("/{id}")
@@ -34,16 +152,82 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
     
+    @GetMapping("/{id}/status")
+    public ResponseEntity<OrderPlacementResponse> getOrderStatus(@PathVariable Long id) {
+        Order order = orderService.getOrderById(id);
+        return ResponseEntity.ok(new OrderPlacementResponse(order.getId(), order.getStatus()));
+    }
+    
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable Long userId) {
-        List<Order> orders = orderService.getOrdersByUserId(userId);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<List<?>> getOrdersByUserId(@PathVariable Long userId,
+                                                     @RequestParam(defaultValue = "SUMMARY") OrderListView view,
+                                                     @RequestParam(required = false) OrderStatus status) {
+        if (view == OrderListView.FULL) {
+            List<Order> orders = status == null
+                ? orderService.getOrdersByUserId(userId)
+                : orderService.getOrdersByUserIdAndStatus(userId, status);
+            return ResponseEntity.ok(orders);
+        }
+        return ResponseEntity.ok(orderService.getOrderSummaries(userId, status));
+    }
+    
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<UserOrderSummary> getUserOrderSummary(@PathVariable Long userId) {
+        return ResponseEntity.ok(userOrderSummaryService.getSummary(userId));
+    }
+    
+    @PostMapping("/summaries/rebuild")
+    public ResponseEntity<SummaryRebuildResponse> rebuildUserOrderSummaries() {
+        return ResponseEntity.ok(userOrderSummaryService.rebuild());
     }
     
     @PostMapping
-    public ResponseEntity<Order> createOrder(@Valid @RequestBody Order order) {
-        Order createdOrder = orderService.createOrder(order);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+    public ResponseEntity<?> createOrder(@Valid @RequestBody Order order,
+                                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            Order createdOrder = orderService.createOrder(order);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+        }
+        
+        IdempotentResponse response = idempotencyService.execute(idempotencyKey, fingerprint(order),
+            HttpStatus.CREATED, recorder -> orderService.createOrder(order, recorder::accept));
+        return ResponseEntity.status(response.getStatus())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(response.isReplayed()))
+            .body(response.getBody());
+    }
+    
+    @PostMapping("/async")
+    public ResponseEntity<OrderPlacementResponse> placeOrderAsync(@Valid @RequestBody Order order) {
+        OrderPlacementResponse response = asyncOrderPlacementService.placeOrder(order);
+        return ResponseEntity.accepted().location(URI.create(response.getStatusUrl())).body(response);
+    }
+    
+    @GetMapping("/pipeline/stats")
+    public ResponseEntity<OrderPipelineStats> getPipelineStats() {
+        return ResponseEntity.ok(asyncOrderPlacementService.getStats());
+    }
+    
+    @GetMapping("/datasource/stats")
+    public ResponseEntity<DataSourceStats> getDataSourceStats() {
+        return ResponseEntity.ok(routingDataSource.getStats());
+    }
+    
+    @GetMapping("/product-cache/stats")
+    public ResponseEntity<ProductCacheStats> getProductCacheStats() {
+        return ResponseEntity.ok(productServiceClient.getCacheStats());
+    }
+    
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkOrderResponse> createOrders(@RequestBody List<Order> orders) {
+        BulkOrderResponse response = bulkOrderService.createOrders(orders);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/bulk/status")
+    public ResponseEntity<BulkStatusUpdateResponse> updateOrderStatuses(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        BulkStatusUpdateResponse response = bulkOrderStatusService.updateStatus(request);
+        return ResponseEntity.ok(response);
     }
     
     @PutMapping("/{id}")
@@ -62,4 +246,15 @@ public class OrderController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Order Service is healthy");
     }
+    
+    /**
+     * The parts of an order request that identify it for idempotency purposes.
+     */
+    private static String fingerprint(Order order) {
+        StringBuilder fingerprint = new StringBuilder().append(order.getUserId());
+        for (OrderItem item : order.getOrderItems()) {
+            fingerprint.append('|').append(item.getProductId()).append('x').append(item.getQuantity());
+        }
+        return fingerprint.toString();
+    }
 }
\ No newline at end of file
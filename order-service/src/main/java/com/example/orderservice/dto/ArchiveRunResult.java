@@ -0,0 +1,44 @@
+package com.example.orderservice.dto;
+
+public class ArchiveRunResult {
+    
+    private int archived;
+    private int skipped;
+    private int segments;
+    private long elapsedMillis;
+    
+    public ArchiveRunResult() {}
+    
+    // Getters and Setters
+    public int getArchived() {
+        return archived;
+    }
+    
+    public void setArchived(int archived) {
+        this.archived = archived;
+    }
+    
+    public int getSkipped() {
+        return skipped;
+    }
+    
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+    
+    public int getSegments() {
+        return segments;
+    }
+    
+    public void setSegments(int segments) {
+        this.segments = segments;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
\ No newline at end of file
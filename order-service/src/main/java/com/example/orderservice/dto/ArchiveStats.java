@@ -0,0 +1,62 @@
+package com.example.orderservice.dto;
+
+public class ArchiveStats {
+    
+    private String directory;
+    private int segments;
+    private long archivedOrders;
+    private long sizeBytes;
+    private long lookups;
+    private long hits;
+    
+    public ArchiveStats() {}
+    
+    // Getters and Setters
+    public String getDirectory() {
+        return directory;
+    }
+    
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+    
+    public int getSegments() {
+        return segments;
+    }
+    
+    public void setSegments(int segments) {
+        this.segments = segments;
+    }
+    
+    public long getArchivedOrders() {
+        return archivedOrders;
+    }
+    
+    public void setArchivedOrders(long archivedOrders) {
+        this.archivedOrders = archivedOrders;
+    }
+    
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+    
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+    
+    public long getLookups() {
+        return lookups;
+    }
+    
+    public void setLookups(long lookups) {
+        this.lookups = lookups;
+    }
+    
+    public long getHits() {
+        return hits;
+    }
+    
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+}
\ No newline at end of file
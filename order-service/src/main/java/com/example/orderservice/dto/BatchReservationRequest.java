@@ -0,0 +1,22 @@
+package com.example.orderservice.dto;
+
+import java.util.List;
+
+public class BatchReservationRequest {
+    
+    private List<ReservationLine> items;
+    
+    public BatchReservationRequest() {}
+    
+    public BatchReservationRequest(List<ReservationLine> items) {
+        this.items = items;
+    }
+    
+    public List<ReservationLine> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<ReservationLine> items) {
+        this.items = items;
+    }
+}
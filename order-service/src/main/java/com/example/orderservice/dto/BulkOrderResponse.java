@@ -0,0 +1,73 @@
+package com.example.orderservice.dto;
+
+import java.util.List;
+
+public class BulkOrderResponse {
+    
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long elapsedMillis;
+    private double ordersPerSecond;
+    private List<BulkOrderResult> results;
+    
+    public BulkOrderResponse() {}
+    
+    public BulkOrderResponse(List<BulkOrderResult> results, long elapsedNanos) {
+        this.results = results;
+        this.total = results.size();
+        this.succeeded = (int) results.stream().filter(BulkOrderResult::isSuccess).count();
+        this.failed = total - succeeded;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        this.ordersPerSecond = elapsedNanos > 0 ? succeeded * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+    
+    // Getters and Setters
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    public int getSucceeded() {
+        return succeeded;
+    }
+    
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public double getOrdersPerSecond() {
+        return ordersPerSecond;
+    }
+    
+    public void setOrdersPerSecond(double ordersPerSecond) {
+        this.ordersPerSecond = ordersPerSecond;
+    }
+    
+    public List<BulkOrderResult> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<BulkOrderResult> results) {
+        this.results = results;
+    }
+}
\ No newline at end of file
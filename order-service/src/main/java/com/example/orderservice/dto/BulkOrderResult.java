@@ -0,0 +1,59 @@
+package com.example.orderservice.dto;
+
+public class BulkOrderResult {
+    
+    private int index;
+    private Long orderId;
+    private boolean success;
+    private String error;
+    
+    public BulkOrderResult() {}
+    
+    public BulkOrderResult(int index, Long orderId, boolean success, String error) {
+        this.index = index;
+        this.orderId = orderId;
+        this.success = success;
+        this.error = error;
+    }
+    
+    public static BulkOrderResult succeeded(int index, Long orderId) {
+        return new BulkOrderResult(index, orderId, true, null);
+    }
+    
+    public static BulkOrderResult failed(int index, String error) {
+        return new BulkOrderResult(index, null, false, error);
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public boolean isSuccess() {
+        return success;
+    }
+    
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
\ No newline at end of file
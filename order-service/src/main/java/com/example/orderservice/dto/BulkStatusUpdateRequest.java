@@ -0,0 +1,55 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves orders to {@code targetStatus}. Orders are selected either by {@code orderIds} or by
+ * {@code currentStatus}, optionally limited to orders created before {@code createdBefore}.
+ */
+public class BulkStatusUpdateRequest {
+    
+    @NotNull(message = "Target status is required")
+    private OrderStatus targetStatus;
+    private List<Long> orderIds;
+    private OrderStatus currentStatus;
+    private LocalDateTime createdBefore;
+    
+    public BulkStatusUpdateRequest() {}
+    
+    // Getters and Setters
+    public OrderStatus getTargetStatus() {
+        return targetStatus;
+    }
+    
+    public void setTargetStatus(OrderStatus targetStatus) {
+        this.targetStatus = targetStatus;
+    }
+    
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+    
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+    
+    public OrderStatus getCurrentStatus() {
+        return currentStatus;
+    }
+    
+    public void setCurrentStatus(OrderStatus currentStatus) {
+        this.currentStatus = currentStatus;
+    }
+    
+    public LocalDateTime getCreatedBefore() {
+        return createdBefore;
+    }
+    
+    public void setCreatedBefore(LocalDateTime createdBefore) {
+        this.createdBefore = createdBefore;
+    }
+}
\ No newline at end of file
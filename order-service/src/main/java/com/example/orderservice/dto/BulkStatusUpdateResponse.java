@@ -0,0 +1,82 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+/**
+ * Counts for a bulk status update. {@code matched} orders were found; of those, {@code updated} were
+ * moved and {@code invalidTransitions} were left alone because the lifecycle does not allow the move.
+ * {@code notFound} counts requested IDs with no order.
+ */
+public class BulkStatusUpdateResponse {
+    
+    private OrderStatus targetStatus;
+    private int matched;
+    private int updated;
+    private int invalidTransitions;
+    private int notFound;
+    private int chunks;
+    private long elapsedMillis;
+    
+    public BulkStatusUpdateResponse() {}
+    
+    public BulkStatusUpdateResponse(OrderStatus targetStatus) {
+        this.targetStatus = targetStatus;
+    }
+    
+    // Getters and Setters
+    public OrderStatus getTargetStatus() {
+        return targetStatus;
+    }
+    
+    public void setTargetStatus(OrderStatus targetStatus) {
+        this.targetStatus = targetStatus;
+    }
+    
+    public int getMatched() {
+        return matched;
+    }
+    
+    public void setMatched(int matched) {
+        this.matched = matched;
+    }
+    
+    public int getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+    
+    public int getInvalidTransitions() {
+        return invalidTransitions;
+    }
+    
+    public void setInvalidTransitions(int invalidTransitions) {
+        this.invalidTransitions = invalidTransitions;
+    }
+    
+    public int getNotFound() {
+        return notFound;
+    }
+    
+    public void setNotFound(int notFound) {
+        this.notFound = notFound;
+    }
+    
+    public int getChunks() {
+        return chunks;
+    }
+    
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.metrics.LatencyStats;
+
+public class DataSourcePoolStats {
+    
+    private String poolName;
+    private LatencyStats connectionWait;
+    private LatencyStats connectionHeld;
+    private int activeConnections;
+    private int idleConnections;
+    private int threadsAwaitingConnection;
+    
+    public DataSourcePoolStats() {}
+    
+    // Getters and Setters
+    public String getPoolName() {
+        return poolName;
+    }
+    
+    public void setPoolName(String poolName) {
+        this.poolName = poolName;
+    }
+    
+    public LatencyStats getConnectionWait() {
+        return connectionWait;
+    }
+    
+    public void setConnectionWait(LatencyStats connectionWait) {
+        this.connectionWait = connectionWait;
+    }
+    
+    public LatencyStats getConnectionHeld() {
+        return connectionHeld;
+    }
+    
+    public void setConnectionHeld(LatencyStats connectionHeld) {
+        this.connectionHeld = connectionHeld;
+    }
+    
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+    
+    public void setActiveConnections(int activeConnections) {
+        this.activeConnections = activeConnections;
+    }
+    
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+    
+    public void setIdleConnections(int idleConnections) {
+        this.idleConnections = idleConnections;
+    }
+    
+    public int getThreadsAwaitingConnection() {
+        return threadsAwaitingConnection;
+    }
+    
+    public void setThreadsAwaitingConnection(int threadsAwaitingConnection) {
+        this.threadsAwaitingConnection = threadsAwaitingConnection;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.orderservice.dto;
+
+public class DataSourceStats {
+    
+    private boolean replicaEnabled;
+    private DataSourcePoolStats primary;
+    private DataSourcePoolStats replica;
+    
+    public DataSourceStats() {}
+    
+    // Getters and Setters
+    public boolean isReplicaEnabled() {
+        return replicaEnabled;
+    }
+    
+    public void setReplicaEnabled(boolean replicaEnabled) {
+        this.replicaEnabled = replicaEnabled;
+    }
+    
+    public DataSourcePoolStats getPrimary() {
+        return primary;
+    }
+    
+    public void setPrimary(DataSourcePoolStats primary) {
+        this.primary = primary;
+    }
+    
+    public DataSourcePoolStats getReplica() {
+        return replica;
+    }
+    
+    public void setReplica(DataSourcePoolStats replica) {
+        this.replica = replica;
+    }
+}
\ No newline at end of file
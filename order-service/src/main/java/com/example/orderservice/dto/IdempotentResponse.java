@@ -0,0 +1,34 @@
+package com.example.orderservice.dto;
+
+/**
+ * A response recorded under an idempotency key: the status and the serialized body.
+ */
+public class IdempotentResponse {
+    
+    private final int status;
+    private final String body;
+    private final boolean replayed;
+    
+    public IdempotentResponse(int status, String body, boolean replayed) {
+        this.status = status;
+        this.body = body;
+        this.replayed = replayed;
+    }
+    
+    public IdempotentResponse asReplay() {
+        return replayed ? this : new IdempotentResponse(status, body, true);
+    }
+    
+    // Getters
+    public int getStatus() {
+        return status;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public boolean isReplayed() {
+        return replayed;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.example.orderservice.dto;
+
+/**
+ * Shape of the orders returned by the list endpoints.
+ */
+public enum OrderListView {
+    /** {@link OrderSummary} rows, read without loading entities. */
+    SUMMARY,
+    /** Full orders with their items, as returned by {@code GET /api/orders/{id}}. */
+    FULL
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.metrics.LatencyStats;
+
+public class OrderPipelineStats {
+    
+    private int queueDepth;
+    private int queueCapacity;
+    private long submitted;
+    private long rejected;
+    private long confirmed;
+    private long cancelled;
+    private long failed;
+    private long recovered;
+    private long batches;
+    private LatencyStats queueWait;
+    private LatencyStats loadStage;
+    private LatencyStats validationStage;
+    private LatencyStats persistStage;
+    
+    public OrderPipelineStats() {}
+    
+    // Getters and Setters
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+    
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+    
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+    
+    public long getSubmitted() {
+        return submitted;
+    }
+    
+    public void setSubmitted(long submitted) {
+        this.submitted = submitted;
+    }
+    
+    public long getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+    
+    public long getConfirmed() {
+        return confirmed;
+    }
+    
+    public void setConfirmed(long confirmed) {
+        this.confirmed = confirmed;
+    }
+    
+    public long getCancelled() {
+        return cancelled;
+    }
+    
+    public void setCancelled(long cancelled) {
+        this.cancelled = cancelled;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+    
+    public long getRecovered() {
+        return recovered;
+    }
+    
+    public void setRecovered(long recovered) {
+        this.recovered = recovered;
+    }
+    
+    public long getBatches() {
+        return batches;
+    }
+    
+    public void setBatches(long batches) {
+        this.batches = batches;
+    }
+    
+    public LatencyStats getQueueWait() {
+        return queueWait;
+    }
+    
+    public void setQueueWait(LatencyStats queueWait) {
+        this.queueWait = queueWait;
+    }
+    
+    public LatencyStats getLoadStage() {
+        return loadStage;
+    }
+    
+    public void setLoadStage(LatencyStats loadStage) {
+        this.loadStage = loadStage;
+    }
+    
+    public LatencyStats getValidationStage() {
+        return validationStage;
+    }
+    
+    public void setValidationStage(LatencyStats validationStage) {
+        this.validationStage = validationStage;
+    }
+    
+    public LatencyStats getPersistStage() {
+        return persistStage;
+    }
+    
+    public void setPersistStage(LatencyStats persistStage) {
+        this.persistStage = persistStage;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+public class OrderPlacementResponse {
+    
+    private Long orderId;
+    private OrderStatus status;
+    private String statusUrl;
+    
+    public OrderPlacementResponse() {}
+    
+    public OrderPlacementResponse(Long orderId, OrderStatus status) {
+        this.orderId = orderId;
+        this.status = status;
+        this.statusUrl = "/api/orders/" + orderId + "/status";
+    }
+    
+    // Getters and Setters
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+    
+    public String getStatusUrl() {
+        return statusUrl;
+    }
+    
+    public void setStatusUrl(String statusUrl) {
+        this.statusUrl = statusUrl;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of an order needed to change its status, read without loading the entity or its items.
+ */
+public interface OrderStatusView {
+    
+    Long getId();
+    
+    Long getUserId();
+    
+    OrderStatus getStatus();
+    
+    long getTotalAmountMinor();
+    
+    int getItemCount();
+    
+    LocalDateTime getCreatedAt();
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of an order list, selected straight from the orders table without loading the entity or its
+ * items. The full order is available from {@code GET /api/orders/{id}}.
+ */
+public class OrderSummary {
+    
+    private final Long id;
+    private final Long userId;
+    private final OrderStatus status;
+    private final long totalAmountMinor;
+    private final int itemCount;
+    private final LocalDateTime createdAt;
+    
+    public OrderSummary(Long id, Long userId, OrderStatus status, long totalAmountMinor, int itemCount,
+                        LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.status = status;
+        this.totalAmountMinor = totalAmountMinor;
+        this.itemCount = itemCount;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public OrderStatus getStatus() {
+        return status;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return Money.toBigDecimal(totalAmountMinor);
+    }
+    
+    @JsonIgnore
+    public long getTotalAmountMinor() {
+        return totalAmountMinor;
+    }
+    
+    public int getItemCount() {
+        return itemCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.metrics.LatencyStats;
+
+public class OutboxStats {
+    
+    private long pendingEvents;
+    private long publishedEvents;
+    private long totalPublishedEvents;
+    private long lastPublishedId;
+    private long batches;
+    private long deliveryFailures;
+    private int subscribers;
+    private double eventsPerSecond;
+    private LatencyStats batchLatency;
+    
+    public OutboxStats() {}
+    
+    // Getters and Setters
+    public long getPendingEvents() {
+        return pendingEvents;
+    }
+    
+    public void setPendingEvents(long pendingEvents) {
+        this.pendingEvents = pendingEvents;
+    }
+    
+    public long getPublishedEvents() {
+        return publishedEvents;
+    }
+    
+    public void setPublishedEvents(long publishedEvents) {
+        this.publishedEvents = publishedEvents;
+    }
+    
+    public long getTotalPublishedEvents() {
+        return totalPublishedEvents;
+    }
+    
+    public void setTotalPublishedEvents(long totalPublishedEvents) {
+        this.totalPublishedEvents = totalPublishedEvents;
+    }
+    
+    public long getLastPublishedId() {
+        return lastPublishedId;
+    }
+    
+    public void setLastPublishedId(long lastPublishedId) {
+        this.lastPublishedId = lastPublishedId;
+    }
+    
+    public long getBatches() {
+        return batches;
+    }
+    
+    public void setBatches(long batches) {
+        this.batches = batches;
+    }
+    
+    public long getDeliveryFailures() {
+        return deliveryFailures;
+    }
+    
+    public void setDeliveryFailures(long deliveryFailures) {
+        this.deliveryFailures = deliveryFailures;
+    }
+    
+    public int getSubscribers() {
+        return subscribers;
+    }
+    
+    public void setSubscribers(int subscribers) {
+        this.subscribers = subscribers;
+    }
+    
+    public double getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+    
+    public void setEventsPerSecond(double eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+    
+    public LatencyStats getBatchLatency() {
+        return batchLatency;
+    }
+    
+    public void setBatchLatency(LatencyStats batchLatency) {
+        this.batchLatency = batchLatency;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.example.orderservice.dto;
+
+public class ProductCacheStats {
+    
+    private boolean enabled;
+    private int size;
+    private long hits;
+    private long staleHits;
+    private long misses;
+    private long refreshes;
+    private long refreshFailures;
+    private long fallbacks;
+    private long evictions;
+    
+    public ProductCacheStats() {}
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public long getHits() {
+        return hits;
+    }
+    
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+    
+    public long getStaleHits() {
+        return staleHits;
+    }
+    
+    public void setStaleHits(long staleHits) {
+        this.staleHits = staleHits;
+    }
+    
+    public long getMisses() {
+        return misses;
+    }
+    
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+    
+    public long getRefreshes() {
+        return refreshes;
+    }
+    
+    public void setRefreshes(long refreshes) {
+        this.refreshes = refreshes;
+    }
+    
+    public long getRefreshFailures() {
+        return refreshFailures;
+    }
+    
+    public void setRefreshFailures(long refreshFailures) {
+        this.refreshFailures = refreshFailures;
+    }
+    
+    public long getFallbacks() {
+        return fallbacks;
+    }
+    
+    public void setFallbacks(long fallbacks) {
+        this.fallbacks = fallbacks;
+    }
+    
+    public long getEvictions() {
+        return evictions;
+    }
+    
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+}
\ No newline at end of file
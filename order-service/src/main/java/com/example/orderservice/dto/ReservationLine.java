@@ -0,0 +1,30 @@
+package com.example.orderservice.dto;
+
+public class ReservationLine {
+    
+    private Long productId;
+    private Integer quantity;
+    
+    public ReservationLine() {}
+    
+    public ReservationLine(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
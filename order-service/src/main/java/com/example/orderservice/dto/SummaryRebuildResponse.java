@@ -0,0 +1,31 @@
+package com.example.orderservice.dto;
+
+public class SummaryRebuildResponse {
+    
+    private int users;
+    private long elapsedMillis;
+    
+    public SummaryRebuildResponse() {}
+    
+    public SummaryRebuildResponse(int users, long elapsedNanos) {
+        this.users = users;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+    }
+    
+    // Getters and Setters
+    public int getUsers() {
+        return users;
+    }
+    
+    public void setUsers(int users) {
+        this.users = users;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.example.orderservice.event;
+
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A change to one order, as recorded in the outbox and delivered to subscribers. Status changes carry
+ * the previous status and total so that consumers can apply them as deltas.
+ */
+public class OrderEvent {
+    
+    private OrderEventType eventType;
+    private Long orderId;
+    private Long userId;
+    private OrderStatus status;
+    private OrderStatus previousStatus;
+    private long totalAmountMinor;
+    private long previousTotalAmountMinor;
+    private int itemCount;
+    private LocalDateTime orderCreatedAt;
+    private LocalDateTime occurredAt;
+    
+    public OrderEvent() {}
+    
+    private OrderEvent(OrderEventType eventType, Order order) {
+        this.eventType = eventType;
+        this.orderId = order.getId();
+        this.userId = order.getUserId();
+        this.status = order.getStatus();
+        this.totalAmountMinor = order.getTotalAmountMinor();
+        this.previousTotalAmountMinor = order.getTotalAmountMinor();
+        this.itemCount = order.getItemCount();
+        this.orderCreatedAt = order.getCreatedAt();
+        this.occurredAt = LocalDateTime.now();
+    }
+    
+    public static OrderEvent created(Order order) {
+        OrderEvent event = new OrderEvent(OrderEventType.ORDER_CREATED, order);
+        event.previousTotalAmountMinor = 0L;
+        return event;
+    }
+    
+    public static OrderEvent statusChanged(Order order, OrderStatus previousStatus, long previousTotalAmountMinor) {
+        OrderEvent event = new OrderEvent(OrderEventType.ORDER_STATUS_CHANGED, order);
+        event.previousStatus = previousStatus;
+        event.previousTotalAmountMinor = previousTotalAmountMinor;
+        return event;
+    }
+    
+    /**
+     * A status change applied without loading the order, from its stored ID, user, total, item count and
+     * creation time.
+     */
+    public static OrderEvent statusChanged(Long orderId, Long userId, OrderStatus previousStatus, OrderStatus status,
+                                           long totalAmountMinor, int itemCount, LocalDateTime orderCreatedAt) {
+        OrderEvent event = new OrderEvent();
+        event.eventType = OrderEventType.ORDER_STATUS_CHANGED;
+        event.orderId = orderId;
+        event.userId = userId;
+        event.status = status;
+        event.previousStatus = previousStatus;
+        event.totalAmountMinor = totalAmountMinor;
+        event.previousTotalAmountMinor = totalAmountMinor;
+        event.itemCount = itemCount;
+        event.orderCreatedAt = orderCreatedAt;
+        event.occurredAt = LocalDateTime.now();
+        return event;
+    }
+    
+    public static OrderEvent deleted(Order order) {
+        OrderEvent event = new OrderEvent(OrderEventType.ORDER_DELETED, order);
+        event.previousStatus = order.getStatus();
+        return event;
+    }
+    
+    // Getters and Setters
+    public OrderEventType getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(OrderEventType eventType) {
+        this.eventType = eventType;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+    
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public void setPreviousStatus(OrderStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return Money.toBigDecimal(totalAmountMinor);
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmountMinor = Money.toMinorUnits(totalAmount);
+    }
+    
+    @JsonIgnore
+    public long getTotalAmountMinor() {
+        return totalAmountMinor;
+    }
+    
+    public BigDecimal getPreviousTotalAmount() {
+        return Money.toBigDecimal(previousTotalAmountMinor);
+    }
+    
+    public void setPreviousTotalAmount(BigDecimal previousTotalAmount) {
+        this.previousTotalAmountMinor = Money.toMinorUnits(previousTotalAmount);
+    }
+    
+    @JsonIgnore
+    public long getPreviousTotalAmountMinor() {
+        return previousTotalAmountMinor;
+    }
+    
+    public int getItemCount() {
+        return itemCount;
+    }
+    
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+    
+    public LocalDateTime getOrderCreatedAt() {
+        return orderCreatedAt;
+    }
+    
+    public void setOrderCreatedAt(LocalDateTime orderCreatedAt) {
+        this.orderCreatedAt = orderCreatedAt;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
\ No newline at end of file
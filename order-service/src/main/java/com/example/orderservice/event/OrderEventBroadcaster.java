@@ -0,0 +1,170 @@
+package com.example.orderservice.event;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams published order events to connected clients as server-sent events. Each event carries its
+ * outbox ID and is named after its type.
+ *
+ * <p>Publishing only queues the event for each client; a small shared pool of sender threads writes it
+ * out, so a slow client never holds up the publisher. Writes block, so a client that stops reading holds
+ * a sender thread until the server's write timeout ({@code server.tomcat.connection-timeout}) fails the
+ * send and the client is disconnected; meanwhile the other clients share the remaining threads.
+ *
+ * <p>A client queues at most {@code buffer-size} unsent events. One that falls further behind has its
+ * queue dropped and is sent a {@code resync} event, telling it that events were missed and current state
+ * must be read again; the events published after that follow as usual. Idle clients hold no thread, only
+ * their emitter and queue.
+ */
+@Component
+public class OrderEventBroadcaster implements OrderEventSubscriber {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderEventBroadcaster.class);
+    
+    private final int bufferSize;
+    private final ExecutorService senders;
+    
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final LongAdder overflows = new LongAdder();
+    
+    @Autowired
+    public OrderEventBroadcaster(@Value("${orders.event-stream.buffer-size}") int bufferSize,
+                                 @Value("${orders.event-stream.sender-threads}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-event-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void stop() {
+        clients.forEach(client -> client.emitter.complete());
+        senders.shutdownNow();
+    }
+    
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter());
+    }
+    
+    SseEmitter subscribe(SseEmitter emitter) {
+        Client client = new Client(emitter);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(ex -> clients.remove(client));
+        clients.add(client);
+        log.debug("Order event stream opened, {} clients connected", clients.size());
+        return emitter;
+    }
+    
+    public int getClientCount() {
+        return clients.size();
+    }
+    
+    /**
+     * Times a client fell more than {@code buffer-size} events behind and was told to resync.
+     */
+    public long getOverflows() {
+        return overflows.sum();
+    }
+    
+    @Override
+    public void onOrderEvent(long offset, OrderEvent event) {
+        Delivery delivery = new Delivery(offset, event);
+        for (Client client : clients) {
+            if (client.offer(delivery)) {
+                senders.execute(client::drain);
+            }
+        }
+    }
+    
+    private record Delivery(long offset, OrderEvent event) {
+        
+        private SseEmitter.SseEventBuilder toSse() {
+            return SseEmitter.event()
+                .id(Long.toString(offset))
+                .name(event.getEventType().name())
+                .data(event);
+        }
+    }
+    
+    private final class Client {
+        
+        private final SseEmitter emitter;
+        private final Deque<Delivery> buffer = new ArrayDeque<>();
+        private boolean overflowed;
+        // A drain is scheduled or running
+        private boolean draining;
+        
+        private Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        /**
+         * Queues the event, dropping the queue first if it is full, and returns whether a drain must be
+         * scheduled.
+         */
+        private synchronized boolean offer(Delivery delivery) {
+            if (buffer.size() >= bufferSize) {
+                buffer.clear();
+                if (!overflowed) {
+                    overflowed = true;
+                    overflows.increment();
+                }
+            }
+            buffer.add(delivery);
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+        
+        /**
+         * Sends queued events, preceded by a {@code resync} if events were dropped, until the queue is empty.
+         */
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder message;
+                synchronized (this) {
+                    if (overflowed) {
+                        overflowed = false;
+                        message = SseEmitter.event().name("resync").data("Events were dropped; read current state again");
+                    } else if (buffer.isEmpty()) {
+                        draining = false;
+                        return;
+                    } else {
+                        message = buffer.poll().toSse();
+                    }
+                }
+                try {
+                    emitter.send(message);
+                } catch (IOException | IllegalStateException ex) {
+                    // Also how a client that stopped reading ends, once the server's write timeout expires.
+                    // Left marked as draining, so nothing more is scheduled for this client
+                    clients.remove(this);
+                    emitter.completeWithError(ex);
+                    return;
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.orderservice.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hands each order change to every {@link OrderWriteListener} within the caller's transaction.
+ */
+@Component
+public class OrderEventDispatcher {
+    
+    private final List<OrderWriteListener> listeners;
+    
+    @Autowired
+    public OrderEventDispatcher(List<OrderWriteListener> listeners) {
+        this.listeners = listeners;
+    }
+    
+    public void dispatch(OrderEvent event) {
+        for (OrderWriteListener listener : listeners) {
+            listener.onOrderEvent(event);
+        }
+    }
+}
\ No newline at end of file
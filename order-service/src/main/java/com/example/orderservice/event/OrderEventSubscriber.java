@@ -0,0 +1,13 @@
+package com.example.orderservice.event;
+
+/**
+ * Receives order events after they have been committed to the outbox. Delivery is at least once, in the
+ * order the events became visible. {@code offset} is the event's outbox ID, which is unique but not
+ * monotonic: IDs are handed out before commit, so an event can arrive after one with a higher offset. To
+ * discard redeliveries, check whether the offset was already seen rather than comparing it with the
+ * highest one seen.
+ */
+public interface OrderEventSubscriber {
+    
+    void onOrderEvent(long offset, OrderEvent event);
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.orderservice.event;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_STATUS_CHANGED,
+    ORDER_DELETED
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.example.orderservice.event;
+
+/**
+ * Observes order writes from inside the writing transaction. Anything an implementation stores
+ * commits or rolls back together with the order change itself.
+ */
+public interface OrderWriteListener {
+    
+    void onOrderEvent(OrderEvent event);
+}
\ No newline at end of file
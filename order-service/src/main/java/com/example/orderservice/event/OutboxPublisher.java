@@ -0,0 +1,147 @@
+package com.example.orderservice.event;
+
+import com.example.orderservice.dto.OutboxStats;
+import com.example.orderservice.metrics.LatencyStats;
+import com.example.orderservice.model.OutboxEvent;
+import com.example.orderservice.model.OutboxOffset;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.repository.OutboxOffsetRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the outbox in batches and delivers each event to every {@link OrderEventSubscriber}.
+ *
+ * <p>Delivered rows are deleted in the same transaction that advances the stored offset. Sequence
+ * values are handed out before commit, so a row can become visible after one with a higher ID;
+ * reading whatever is left in the table, rather than everything above the last offset, means such
+ * late rows are still picked up. A crash between delivery and that commit redelivers the batch.
+ */
+@Component
+public class OutboxPublisher {
+    
+    private static final Logger log = LoggerFactory.getLogger(OutboxPublisher.class);
+    
+    static final String PUBLISHER_NAME = "order-events";
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxOffsetRepository outboxOffsetRepository;
+    private final List<OrderEventSubscriber> subscribers;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    
+    private final LongAdder published = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder deliveryFailures = new LongAdder();
+    private final LongAdder publishingNanos = new LongAdder();
+    private final LatencyStats batchLatency = new LatencyStats();
+    
+    @Autowired
+    public OutboxPublisher(OutboxEventRepository outboxEventRepository,
+                           OutboxOffsetRepository outboxOffsetRepository,
+                           List<OrderEventSubscriber> subscribers,
+                           ObjectMapper objectMapper,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${orders.outbox.batch-size}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.subscribers = subscribers;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+    
+    @Scheduled(fixedDelayString = "${orders.outbox.poll-interval-ms}")
+    public void publishPending() {
+        int delivered;
+        do {
+            delivered = publishBatch();
+        } while (delivered == batchSize);
+    }
+    
+    /**
+     * Delivers the oldest batch of pending events and returns how many were delivered.
+     */
+    public int publishBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status ->
+            outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize)));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        long start = System.nanoTime();
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            deliver(event);
+            ids.add(event.getId());
+        }
+        
+        long lastEventId = ids.get(ids.size() - 1);
+        transactionTemplate.executeWithoutResult(status -> {
+            OutboxOffset offset = outboxOffsetRepository.findById(PUBLISHER_NAME)
+                .orElseGet(() -> new OutboxOffset(PUBLISHER_NAME));
+            offset.advance(lastEventId, ids.size());
+            outboxOffsetRepository.save(offset);
+            outboxEventRepository.deleteByIdIn(ids);
+        });
+        
+        long elapsed = System.nanoTime() - start;
+        batchLatency.record(elapsed);
+        publishingNanos.add(elapsed);
+        published.add(ids.size());
+        batches.increment();
+        log.debug("Published {} order events up to ID: {}", ids.size(), lastEventId);
+        return ids.size();
+    }
+    
+    public OutboxStats getStats() {
+        OutboxStats stats = new OutboxStats();
+        stats.setPendingEvents(outboxEventRepository.count());
+        stats.setPublishedEvents(published.sum());
+        stats.setBatches(batches.sum());
+        stats.setDeliveryFailures(deliveryFailures.sum());
+        stats.setSubscribers(subscribers.size());
+        long nanos = publishingNanos.sum();
+        stats.setEventsPerSecond(nanos == 0 ? 0.0 : published.sum() * 1_000_000_000.0 / nanos);
+        stats.setBatchLatency(batchLatency);
+        outboxOffsetRepository.findById(PUBLISHER_NAME).ifPresent(offset -> {
+            stats.setLastPublishedId(offset.getLastEventId());
+            stats.setTotalPublishedEvents(offset.getPublishedCount());
+        });
+        return stats;
+    }
+    
+    private void deliver(OutboxEvent outboxEvent) {
+        OrderEvent event;
+        try {
+            event = objectMapper.readValue(outboxEvent.getPayload(), OrderEvent.class);
+        } catch (JsonProcessingException ex) {
+            deliveryFailures.increment();
+            log.error("Skipping unreadable outbox event ID: {}", outboxEvent.getId(), ex);
+            return;
+        }
+        
+        for (OrderEventSubscriber subscriber : subscribers) {
+            try {
+                subscriber.onOrderEvent(outboxEvent.getId(), event);
+            } catch (RuntimeException ex) {
+                deliveryFailures.increment();
+                log.error("Subscriber {} failed on outbox event ID: {}",
+                    subscriber.getClass().getSimpleName(), outboxEvent.getId(), ex);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.orderservice.event;
+
+import com.example.orderservice.model.OutboxEvent;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records every order event in the outbox table as part of the order's own transaction.
+ */
+@Component
+public class OutboxWriter implements OrderWriteListener {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Autowired
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderEvent(OrderEvent event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            outboxEventRepository.save(new OutboxEvent(event.getOrderId(), event.getEventType(), payload));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize order event for order " + event.getOrderId(), ex);
+        }
+    }
+}
\ No newline at end of file
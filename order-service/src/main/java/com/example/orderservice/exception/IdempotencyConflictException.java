@@ -0,0 +1,12 @@
+package com.example.orderservice.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+    
+    public IdempotencyConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
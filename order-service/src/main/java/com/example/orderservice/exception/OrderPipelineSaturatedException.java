@@ -0,0 +1,12 @@
+package com.example.orderservice.exception;
+
+public class OrderPipelineSaturatedException extends RuntimeException {
+    
+    public OrderPipelineSaturatedException(String message) {
+        super(message);
+    }
+    
+    public OrderPipelineSaturatedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
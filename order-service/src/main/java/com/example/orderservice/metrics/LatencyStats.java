@@ -0,0 +1,37 @@
+package com.example.orderservice.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free count, mean and maximum of recorded durations. Serialized as-is in stats responses.
+ */
+public class LatencyStats {
+    
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+    
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    public double getAverageMillis() {
+        long samples = count.sum();
+        return samples == 0 ? 0.0 : totalNanos.sum() / (samples * 1_000_000.0);
+    }
+    
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+}
\ No newline at end of file
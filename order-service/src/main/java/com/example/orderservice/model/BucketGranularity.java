@@ -0,0 +1,19 @@
+package com.example.orderservice.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum BucketGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+    
+    private final ChronoUnit unit;
+    
+    BucketGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+    
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+}
\ No newline at end of file
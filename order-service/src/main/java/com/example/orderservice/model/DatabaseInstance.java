@@ -0,0 +1,61 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A random ID given to the database when its schema is first used. Files kept outside the database,
+ * such as archive segments, are stamped with it, so they are never read against a recreated schema
+ * whose order IDs start again from 1.
+ */
+@Entity
+@Table(name = "database_instance")
+public class DatabaseInstance {
+    
+    // The table holds this one row
+    public static final int ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(nullable = false, updatable = false)
+    private String instanceId;
+    
+    private LocalDateTime createdAt;
+    
+    public DatabaseInstance() {}
+    
+    public static DatabaseInstance create() {
+        DatabaseInstance instance = new DatabaseInstance();
+        instance.id = ID;
+        instance.instanceId = UUID.randomUUID().toString();
+        instance.createdAt = LocalDateTime.now();
+        return instance;
+    }
+    
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public String getInstanceId() {
+        return instanceId;
+    }
+    
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
\ No newline at end of file
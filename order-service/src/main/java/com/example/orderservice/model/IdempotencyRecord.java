@@ -0,0 +1,95 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The stored outcome of a request made with an {@code Idempotency-Key}, kept until it expires.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt"))
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+    
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+    
+    private int responseStatus;
+    
+    @Lob
+    @Column(nullable = false)
+    private String responseBody;
+    
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    public IdempotencyRecord() {}
+    
+    public IdempotencyRecord(String idempotencyKey, String requestHash, int responseStatus, String responseBody,
+                             LocalDateTime expiresAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.responseStatus = responseStatus;
+        this.responseBody = responseBody;
+        this.createdAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+    }
+    
+    public boolean isExpired() {
+        return expiresAt.isBefore(LocalDateTime.now());
+    }
+    
+    // Getters and Setters
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public String getRequestHash() {
+        return requestHash;
+    }
+    
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+    
+    public int getResponseStatus() {
+        return responseStatus;
+    }
+    
+    public void setResponseStatus(int responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+    
+    public String getResponseBody() {
+        return responseBody;
+    }
+    
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
\ No newline at end of file
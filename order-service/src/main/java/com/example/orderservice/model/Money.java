@@ -0,0 +1,27 @@
+package com.example.orderservice.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Monetary amounts are held as {@code long} minor units (cents) inside the order model and only
+ * converted to {@link BigDecimal} at the API edge.
+ */
+public final class Money {
+    
+    public static final int SCALE = 2;
+    
+    private Money() {}
+    
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+    
+    public static long multiply(long minorUnits, int quantity) {
+        return Math.multiplyExact(minorUnits, quantity);
+    }
+}
\ No newline at end of file
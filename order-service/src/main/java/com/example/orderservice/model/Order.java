@@ -1,38 +1,56 @@
 package com.example.orderservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_created_at", columnList = "createdAt"),
+    @Index(name = "idx_orders_status", columnList = "status")
+})
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "User ID is required")
     private Long userId;
     
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id")
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
     
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
     
-    private BigDecimal totalAmount;
+    /**
+     * Order total in minor units, kept in step with the items as they are added, changed or removed.
+     */
+    private long totalAmountMinor;
+    
+    /**
+     * Total quantity across all items, maintained alongside the total amount.
+     */
+    private int itemCount;
+    
+    /**
+     * Set while an order placed asynchronously waits to be validated, so that orders a restart dropped
+     * from the queue can be found again.
+     */
+    private boolean awaitingValidation;
     
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
     public Order() {
         this.status = OrderStatus.PENDING;
-        this.totalAmount = BigDecimal.ZERO;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
@@ -46,24 +64,51 @@ public class Order {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        calculateTotalAmount();
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
-        calculateTotalAmount();
     }
     
+    /**
+     * Recomputes the total and item count from scratch. Only needed to reconcile; both are otherwise
+     * maintained incrementally.
+     */
     public void calculateTotalAmount() {
-        this.totalAmount = orderItems.stream()
-            .map(OrderItem::getTotalPrice)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long total = 0L;
+        int count = 0;
+        for (OrderItem orderItem : orderItems) {
+            total = Math.addExact(total, orderItem.getTotalPriceMinor());
+            count = Math.addExact(count, orderItem.getQuantityOrZero());
+        }
+        this.totalAmountMinor = total;
+        this.itemCount = count;
     }
     
     public void addOrderItem(OrderItem orderItem) {
+        orderItem.setOrder(this);
         this.orderItems.add(orderItem);
-        calculateTotalAmount();
+        adjustTotalAmount(orderItem.getTotalPriceMinor());
+        adjustItemCount(orderItem.getQuantityOrZero());
+    }
+    
+    public boolean removeOrderItem(OrderItem orderItem) {
+        if (!this.orderItems.remove(orderItem)) {
+            return false;
+        }
+        orderItem.setOrder(null);
+        adjustTotalAmount(-orderItem.getTotalPriceMinor());
+        adjustItemCount(-orderItem.getQuantityOrZero());
+        return true;
+    }
+    
+    void adjustTotalAmount(long deltaMinor) {
+        this.totalAmountMinor = Math.addExact(this.totalAmountMinor, deltaMinor);
+    }
+    
+    void adjustItemCount(int delta) {
+        this.itemCount = Math.addExact(this.itemCount, delta);
     }
     
     // Getters and Setters
@@ -84,11 +129,13 @@ public class Order {
     }
     
     public List<OrderItem> getOrderItems() {
-        return orderItems;
+        return Collections.unmodifiableList(orderItems);
     }
     
     public void setOrderItems(List<OrderItem> orderItems) {
-        this.orderItems = orderItems;
+        this.orderItems.forEach(orderItem -> orderItem.setOrder(null));
+        this.orderItems = new ArrayList<>(orderItems);
+        this.orderItems.forEach(orderItem -> orderItem.setOrder(this));
         calculateTotalAmount();
     }
     
@@ -101,11 +148,25 @@ public class Order {
     }
     
     public BigDecimal getTotalAmount() {
-        return totalAmount;
+        return Money.toBigDecimal(totalAmountMinor);
+    }
+    
+    @JsonIgnore
+    public long getTotalAmountMinor() {
+        return totalAmountMinor;
+    }
+    
+    public int getItemCount() {
+        return itemCount;
+    }
+    
+    @JsonIgnore
+    public boolean isAwaitingValidation() {
+        return awaitingValidation;
     }
     
-    public void setTotalAmount(BigDecimal totalAmount) {
-        this.totalAmount = totalAmount;
+    public void setAwaitingValidation(boolean awaitingValidation) {
+        this.awaitingValidation = awaitingValidation;
     }
     
     public LocalDateTime getCreatedAt() {
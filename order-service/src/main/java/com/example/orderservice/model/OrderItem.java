@@ -1,5 +1,6 @@
 package com.example.orderservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -10,9 +11,15 @@ import java.math.BigDecimal;
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
     
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id")
+    private Order order;
+    
     @NotNull(message = "Product ID is required")
     private Long productId;
     
@@ -20,18 +27,36 @@ public class OrderItem {
     private Integer quantity;
     
     @NotNull(message = "Unit price is required")
-    private BigDecimal unitPrice;
+    private Long unitPriceMinor;
     
     public OrderItem() {}
     
     public OrderItem(Long productId, Integer quantity, BigDecimal unitPrice) {
         this.productId = productId;
         this.quantity = quantity;
-        this.unitPrice = unitPrice;
+        setUnitPrice(unitPrice);
     }
     
     public BigDecimal getTotalPrice() {
-        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        return Money.toBigDecimal(getTotalPriceMinor());
+    }
+    
+    @JsonIgnore
+    public long getTotalPriceMinor() {
+        if (unitPriceMinor == null || quantity == null) {
+            return 0L;
+        }
+        return Money.multiply(unitPriceMinor, quantity);
+    }
+    
+    int getQuantityOrZero() {
+        return quantity == null ? 0 : quantity;
+    }
+    
+    private void onTotalPriceChanged(long previousTotalPriceMinor) {
+        if (order != null) {
+            order.adjustTotalAmount(getTotalPriceMinor() - previousTotalPriceMinor);
+        }
     }
     
     // Getters and Setters
@@ -43,6 +68,14 @@ public class OrderItem {
         this.id = id;
     }
     
+    public Order getOrder() {
+        return order;
+    }
+    
+    void setOrder(Order order) {
+        this.order = order;
+    }
+    
     public Long getProductId() {
         return productId;
     }
@@ -56,14 +89,27 @@ public class OrderItem {
     }
     
     public void setQuantity(Integer quantity) {
+        long previousTotalPriceMinor = getTotalPriceMinor();
+        int previousQuantity = getQuantityOrZero();
         this.quantity = quantity;
+        onTotalPriceChanged(previousTotalPriceMinor);
+        if (order != null) {
+            order.adjustItemCount(getQuantityOrZero() - previousQuantity);
+        }
     }
     
     public BigDecimal getUnitPrice() {
-        return unitPrice;
+        return unitPriceMinor == null ? null : Money.toBigDecimal(unitPriceMinor);
     }
     
     public void setUnitPrice(BigDecimal unitPrice) {
-        this.unitPrice = unitPrice;
+        long previousTotalPriceMinor = getTotalPriceMinor();
+        this.unitPriceMinor = unitPrice == null ? null : Money.toMinorUnits(unitPrice);
+        onTotalPriceChanged(previousTotalPriceMinor);
+    }
+    
+    @JsonIgnore
+    public Long getUnitPriceMinor() {
+        return unitPriceMinor;
     }
 }
\ No newline at end of file
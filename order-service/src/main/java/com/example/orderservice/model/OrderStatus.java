@@ -6,5 +6,27 @@ public enum OrderStatus {
     PROCESSING,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+    
+    /**
+     * Whether an order may move from this status to {@code target} in the normal order lifecycle.
+     * Delivered and cancelled orders are final.
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        return switch (this) {
+            case PENDING -> target == CONFIRMED || target == CANCELLED;
+            case CONFIRMED -> target == PROCESSING || target == CANCELLED;
+            case PROCESSING -> target == SHIPPED || target == CANCELLED;
+            case SHIPPED -> target == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
+    
+    /**
+     * Whether a validated order in this status still holds the stock reserved for it, i.e. it has
+     * neither shipped nor been cancelled.
+     */
+    public boolean holdsStock() {
+        return this == PENDING || this == CONFIRMED || this == PROCESSING;
+    }
 }
\ No newline at end of file
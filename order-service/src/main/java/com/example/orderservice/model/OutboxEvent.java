@@ -0,0 +1,81 @@
+package com.example.orderservice.model;
+
+import com.example.orderservice.event.OrderEventType;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An order event waiting to be published. Rows are written in the same transaction as the order
+ * change they describe and deleted once they have been delivered.
+ */
+@Entity
+@Table(name = "order_outbox")
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long orderId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderEventType eventType;
+    
+    @Column(nullable = false, length = 4000)
+    private String payload;
+    
+    private LocalDateTime createdAt;
+    
+    public OutboxEvent() {}
+    
+    public OutboxEvent(Long orderId, OrderEventType eventType, String payload) {
+        this.orderId = orderId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public OrderEventType getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(OrderEventType eventType) {
+        this.eventType = eventType;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
\ No newline at end of file
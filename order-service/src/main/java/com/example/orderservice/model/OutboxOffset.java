@@ -0,0 +1,67 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * How far a publisher has got through the outbox. Updated in the same transaction that removes the
+ * delivered rows, so a restarted publisher resumes with the first undelivered event.
+ */
+@Entity
+@Table(name = "order_outbox_offsets")
+public class OutboxOffset {
+    
+    @Id
+    private String publisher;
+    
+    private long lastEventId;
+    
+    private long publishedCount;
+    
+    private LocalDateTime updatedAt;
+    
+    public OutboxOffset() {}
+    
+    public OutboxOffset(String publisher) {
+        this.publisher = publisher;
+    }
+    
+    public void advance(long eventId, int count) {
+        lastEventId = Math.max(lastEventId, eventId);
+        publishedCount += count;
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getPublisher() {
+        return publisher;
+    }
+    
+    public void setPublisher(String publisher) {
+        this.publisher = publisher;
+    }
+    
+    public long getLastEventId() {
+        return lastEventId;
+    }
+    
+    public void setLastEventId(long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+    
+    public long getPublishedCount() {
+        return publishedCount;
+    }
+    
+    public void setPublishedCount(long publishedCount) {
+        this.publishedCount = publishedCount;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
\ No newline at end of file
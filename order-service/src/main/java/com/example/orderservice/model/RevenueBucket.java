@@ -0,0 +1,53 @@
+package com.example.orderservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Order count, revenue and item count of the orders created in one hour or day that are currently in
+ * one status. Maintained from order events; a status change moves the order between buckets of the
+ * same period.
+ */
+@Entity
+@Table(name = "revenue_buckets",
+       indexes = @Index(name = "idx_revenue_buckets_range", columnList = "granularity, bucketStart"))
+public class RevenueBucket {
+    
+    @EmbeddedId
+    private RevenueBucketId id;
+    
+    private long orderCount;
+    private long revenueMinor;
+    private long itemCount;
+    
+    public RevenueBucket() {}
+    
+    public RevenueBucket(RevenueBucketId id) {
+        this.id = id;
+    }
+    
+    // Getters and Setters
+    @JsonUnwrapped
+    public RevenueBucketId getId() {
+        return id;
+    }
+    
+    public long getOrderCount() {
+        return orderCount;
+    }
+    
+    public BigDecimal getRevenue() {
+        return Money.toBigDecimal(revenueMinor);
+    }
+    
+    @JsonIgnore
+    public long getRevenueMinor() {
+        return revenueMinor;
+    }
+    
+    public long getItemCount() {
+        return itemCount;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+
+@Embeddable
+public class RevenueBucketId implements Serializable, Comparable<RevenueBucketId> {
+    
+    private static final Comparator<RevenueBucketId> ORDER = Comparator
+        .comparing(RevenueBucketId::getGranularity)
+        .thenComparing(RevenueBucketId::getBucketStart)
+        .thenComparing(RevenueBucketId::getStatus);
+    
+    @Enumerated(EnumType.STRING)
+    private BucketGranularity granularity;
+    
+    private LocalDateTime bucketStart;
+    
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+    
+    public RevenueBucketId() {}
+    
+    public RevenueBucketId(BucketGranularity granularity, LocalDateTime bucketStart, OrderStatus status) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.status = status;
+    }
+    
+    @Override
+    public int compareTo(RevenueBucketId other) {
+        return ORDER.compare(this, other);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RevenueBucketId other)) {
+            return false;
+        }
+        return granularity == other.granularity
+            && Objects.equals(bucketStart, other.bucketStart)
+            && status == other.status;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(granularity, bucketStart, status);
+    }
+    
+    // Getters and Setters
+    public BucketGranularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(BucketGranularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.example.orderservice.model;
+
+import com.example.orderservice.event.OrderEvent;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-user order totals, kept up to date from order events in the same transaction as the order
+ * write. Cancelled orders are counted but do not contribute to the amount spent. The last order time
+ * only moves forward; deleting a user's latest order leaves it in place until the next rebuild.
+ */
+@Entity
+@Table(name = "user_order_summaries")
+public class UserOrderSummary {
+    
+    @Id
+    private Long userId;
+    
+    private long orderCount;
+    private long totalSpentMinor;
+    private LocalDateTime lastOrderAt;
+    
+    private long pendingCount;
+    private long confirmedCount;
+    private long processingCount;
+    private long shippedCount;
+    private long deliveredCount;
+    private long cancelledCount;
+    
+    private LocalDateTime updatedAt;
+    
+    public UserOrderSummary() {}
+    
+    public UserOrderSummary(Long userId) {
+        this.userId = userId;
+    }
+    
+    public void apply(OrderEvent event) {
+        switch (event.getEventType()) {
+            case ORDER_CREATED -> {
+                orderCount++;
+                adjust(event.getStatus(), event.getTotalAmountMinor(), 1);
+                recordOrderTime(event.getOrderCreatedAt());
+            }
+            case ORDER_STATUS_CHANGED -> {
+                adjust(event.getPreviousStatus(), event.getPreviousTotalAmountMinor(), -1);
+                adjust(event.getStatus(), event.getTotalAmountMinor(), 1);
+            }
+            case ORDER_DELETED -> {
+                orderCount--;
+                adjust(event.getStatus(), event.getTotalAmountMinor(), -1);
+            }
+        }
+        updatedAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Adds {@code count} orders of the given status and total, as read from the order table.
+     */
+    public void add(OrderStatus status, long count, long totalAmountMinor, LocalDateTime lastCreatedAt) {
+        orderCount += count;
+        adjustStatusCount(status, count);
+        if (status != OrderStatus.CANCELLED) {
+            totalSpentMinor = Math.addExact(totalSpentMinor, totalAmountMinor);
+        }
+        recordOrderTime(lastCreatedAt);
+        updatedAt = LocalDateTime.now();
+    }
+    
+    private void adjust(OrderStatus status, long totalAmountMinor, int sign) {
+        adjustStatusCount(status, sign);
+        if (status != OrderStatus.CANCELLED) {
+            totalSpentMinor = Math.addExact(totalSpentMinor, sign * totalAmountMinor);
+        }
+    }
+    
+    private void adjustStatusCount(OrderStatus status, long delta) {
+        switch (status) {
+            case PENDING -> pendingCount += delta;
+            case CONFIRMED -> confirmedCount += delta;
+            case PROCESSING -> processingCount += delta;
+            case SHIPPED -> shippedCount += delta;
+            case DELIVERED -> deliveredCount += delta;
+            case CANCELLED -> cancelledCount += delta;
+        }
+    }
+    
+    private void recordOrderTime(LocalDateTime orderTime) {
+        if (orderTime != null && (lastOrderAt == null || orderTime.isAfter(lastOrderAt))) {
+            lastOrderAt = orderTime;
+        }
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public long getOrderCount() {
+        return orderCount;
+    }
+    
+    public BigDecimal getTotalSpent() {
+        return Money.toBigDecimal(totalSpentMinor);
+    }
+    
+    @JsonIgnore
+    public long getTotalSpentMinor() {
+        return totalSpentMinor;
+    }
+    
+    public LocalDateTime getLastOrderAt() {
+        return lastOrderAt;
+    }
+    
+    public Map<OrderStatus, Long> getOrdersByStatus() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        counts.put(OrderStatus.PENDING, pendingCount);
+        counts.put(OrderStatus.CONFIRMED, confirmedCount);
+        counts.put(OrderStatus.PROCESSING, processingCount);
+        counts.put(OrderStatus.SHIPPED, shippedCount);
+        counts.put(OrderStatus.DELIVERED, deliveredCount);
+        counts.put(OrderStatus.CANCELLED, cancelledCount);
+        return counts;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
\ No newline at end of file
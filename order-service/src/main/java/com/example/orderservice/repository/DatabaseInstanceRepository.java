@@ -0,0 +1,9 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.DatabaseInstance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DatabaseInstanceRepository extends JpaRepository<DatabaseInstance, Integer> {
+}
\ No newline at end of file
@@ -1,17 +1,128 @@
 package com.example.orderservice.repository;
 
+import com.example.orderservice.dto.OrderStatusView;
+import com.example.orderservice.dto.OrderSummary;
 import com.example.orderservice.model.Order;
 import com.example.orderservice.model.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
+    String SELECT_SUMMARY = "SELECT new com.example.orderservice.dto.OrderSummary(o.id, o.userId, o.status, " +
+                            "o.totalAmountMinor, o.itemCount, o.createdAt) FROM Order o ";
+    
     List<Order> findByUserId(Long userId);
     
     List<Order> findByStatus(OrderStatus status);
     
     List<Order> findByUserIdAndStatus(Long userId, OrderStatus status);
+    
+    @Query(SELECT_SUMMARY + "ORDER BY o.id")
+    List<OrderSummary> findAllSummaries();
+    
+    @Query(SELECT_SUMMARY + "WHERE o.userId = :userId ORDER BY o.id")
+    List<OrderSummary> findSummariesByUserId(Long userId);
+    
+    @Query(SELECT_SUMMARY + "WHERE o.status = :status ORDER BY o.id")
+    List<OrderSummary> findSummariesByStatus(OrderStatus status);
+    
+    @Query(SELECT_SUMMARY + "WHERE o.userId = :userId AND o.status = :status ORDER BY o.id")
+    List<OrderSummary> findSummariesByUserIdAndStatus(Long userId, OrderStatus status);
+    
+    /**
+     * Order count, summed total and latest creation time for every user and status, as rows of
+     * {@code [userId, status, count, totalAmountMinor, lastCreatedAt]}.
+     */
+    @Query("SELECT o.userId, o.status, COUNT(o), SUM(o.totalAmountMinor), MAX(o.createdAt) " +
+           "FROM Order o GROUP BY o.userId, o.status")
+    List<Object[]> summarizeByUserAndStatus();
+    
+    /**
+     * Locks the given orders and reads the columns needed for a status change.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id AS id, o.userId AS userId, o.status AS status, o.totalAmountMinor AS totalAmountMinor, " +
+           "o.itemCount AS itemCount, o.createdAt AS createdAt FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<OrderStatusView> lockStatusViewsByIdIn(Collection<Long> ids);
+    
+    /**
+     * Locks the next page, in ID order after {@code afterId}, of orders in the given status created
+     * before the given time, and reads the columns needed for a status change.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id AS id, o.userId AS userId, o.status AS status, o.totalAmountMinor AS totalAmountMinor, " +
+           "o.itemCount AS itemCount, o.createdAt AS createdAt FROM Order o " +
+           "WHERE o.status = :status AND o.createdAt < :createdBefore AND o.id > :afterId ORDER BY o.id")
+    List<OrderStatusView> lockStatusViewsAfter(OrderStatus status, LocalDateTime createdBefore, Long afterId,
+                                               Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :updatedAt WHERE o.id IN :ids")
+    int updateStatus(Collection<Long> ids, OrderStatus status, LocalDateTime updatedAt);
+    
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.updatedAt < :cutoff AND o.id > :afterId " +
+           "ORDER BY o.id")
+    List<Long> findArchivableIds(Collection<OrderStatus> statuses, LocalDateTime cutoff, Long afterId, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN " +
+           "(SELECT o.id FROM Order o WHERE o.id IN :ids AND o.status IN :statuses AND o.updatedAt < :cutoff)")
+    int deleteArchivableItems(Collection<Long> ids, Collection<OrderStatus> statuses, LocalDateTime cutoff);
+    
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids AND o.status IN :statuses AND o.updatedAt < :cutoff")
+    int deleteArchivable(Collection<Long> ids, Collection<OrderStatus> statuses, LocalDateTime cutoff);
+    
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.awaitingValidation = true " +
+           "AND o.createdAt < :createdBefore ORDER BY o.id")
+    List<Long> findIdsAwaitingValidation(OrderStatus status, LocalDateTime createdBefore, Pageable pageable);
+    
+    /**
+     * Locks those of the given orders that are in the given status and still await validation, and
+     * returns their IDs.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids AND o.status = :status AND o.awaitingValidation = true " +
+           "ORDER BY o.id")
+    List<Long> lockIdsAwaitingValidation(Collection<Long> ids, OrderStatus status);
+    
+    /**
+     * Sums the item quantities per product over those of the given orders that are no longer awaiting
+     * validation, as {@code [productId, quantity]} rows.
+     */
+    @Query("SELECT i.productId, SUM(i.quantity) FROM OrderItem i " +
+           "WHERE i.order.id IN :ids AND i.order.awaitingValidation = false GROUP BY i.productId ORDER BY i.productId")
+    List<Object[]> sumValidatedQuantitiesByProduct(Collection<Long> ids);
+    
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(Collection<Long> ids);
+    
+    /**
+     * Streams orders with their items in ascending ID order, starting after the given ID.
+     * The result is backed by a forward-only cursor and must be consumed inside a transaction
+     * and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id > :afterId ORDER BY o.id")
+    Stream<Order> streamWithItemsAfter(Long afterId);
 }
\ No newline at end of file
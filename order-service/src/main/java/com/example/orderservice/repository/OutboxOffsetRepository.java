@@ -0,0 +1,9 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.OutboxOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+}
\ No newline at end of file
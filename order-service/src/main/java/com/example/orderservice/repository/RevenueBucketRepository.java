@@ -0,0 +1,33 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.BucketGranularity;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.RevenueBucket;
+import com.example.orderservice.model.RevenueBucketId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevenueBucketRepository extends JpaRepository<RevenueBucket, RevenueBucketId> {
+    
+    /**
+     * Buckets starting in {@code [from, to)}, read through the (granularity, bucket start) index.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT b FROM RevenueBucket b WHERE b.id.granularity = :granularity " +
+           "AND b.id.bucketStart >= :from AND b.id.bucketStart < :to ORDER BY b.id.bucketStart, b.id.status")
+    List<RevenueBucket> findRange(BucketGranularity granularity, LocalDateTime from, LocalDateTime to);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT b FROM RevenueBucket b WHERE b.id.granularity = :granularity " +
+           "AND b.id.bucketStart >= :from AND b.id.bucketStart < :to AND b.id.status = :status " +
+           "ORDER BY b.id.bucketStart")
+    List<RevenueBucket> findRangeByStatus(BucketGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                          OrderStatus status);
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.UserOrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserOrderSummaryRepository extends JpaRepository<UserOrderSummary, Long> {
+}
\ No newline at end of file
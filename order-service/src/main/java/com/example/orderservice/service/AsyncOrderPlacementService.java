@@ -0,0 +1,399 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderPipelineStats;
+import com.example.orderservice.dto.OrderPlacementResponse;
+import com.example.orderservice.event.OrderEvent;
+import com.example.orderservice.event.OrderEventDispatcher;
+import com.example.orderservice.exception.OrderPipelineSaturatedException;
+import com.example.orderservice.metrics.LatencyStats;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accepts orders without waiting for remote validation. Orders are stored as {@code PENDING} and
+ * queued; worker threads drain the queue in batches, validate and price each batch with a single
+ * round of user and product lookups, and move every order to {@code CONFIRMED} or {@code CANCELLED}.
+ *
+ * <p>The queue is bounded. Once it is full, new submissions are rejected before anything is stored.
+ *
+ * <p>If a batch fails as a whole, its orders are cancelled rather than left {@code PENDING}. The queue
+ * is in memory, so queued orders are marked as awaiting validation: on startup, and every
+ * {@code recovery-interval-ms} for orders older than {@code stale-after}, orders still awaiting
+ * validation that this instance has not queued are queued again.
+ *
+ * <p>An order changed or deleted while its batch is being validated keeps its new state; stock
+ * reserved for it by the batch is released.
+ */
+@Service
+public class AsyncOrderPlacementService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AsyncOrderPlacementService.class);
+    
+    private final OrderRepository orderRepository;
+    private final OrderBatchValidator orderBatchValidator;
+    private final StockReservationService stockReservationService;
+    private final OrderEventDispatcher orderEventDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final int workerCount;
+    private final Duration staleAfter;
+    
+    private final BlockingQueue<PendingOrder> queue;
+    private final Semaphore slots;
+    // Orders queued or being processed here, which recovery must not queue a second time
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private ExecutorService workers;
+    private volatile boolean running;
+    
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LatencyStats queueWait = new LatencyStats();
+    private final LatencyStats loadStage = new LatencyStats();
+    private final LatencyStats validationStage = new LatencyStats();
+    private final LatencyStats persistStage = new LatencyStats();
+    
+    @Autowired
+    public AsyncOrderPlacementService(OrderRepository orderRepository,
+                                      OrderBatchValidator orderBatchValidator,
+                                      StockReservationService stockReservationService,
+                                      OrderEventDispatcher orderEventDispatcher,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${orders.async.queue-capacity}") int queueCapacity,
+                                      @Value("${orders.async.batch-size}") int batchSize,
+                                      @Value("${orders.async.workers}") int workerCount,
+                                      @Value("${orders.async.stale-after}") Duration staleAfter) {
+        this.orderRepository = orderRepository;
+        this.orderBatchValidator = orderBatchValidator;
+        this.stockReservationService = stockReservationService;
+        this.orderEventDispatcher = orderEventDispatcher;
+        this.transactionTemplate = transactionTemplate;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.workerCount = workerCount;
+        this.staleAfter = staleAfter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.slots = new Semaphore(queueCapacity);
+    }
+    
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        running = true;
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "order-pipeline-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::runWorker);
+        }
+        log.info("Started order placement pipeline with {} workers (queue capacity: {}, batch size: {})",
+            workerCount, queueCapacity, batchSize);
+        try {
+            // Nothing is queued yet, so every order awaiting validation was left behind by a restart
+            requeueAwaitingValidation(LocalDateTime.now());
+        } catch (RuntimeException ex) {
+            log.error("Failed to requeue orders awaiting validation; retrying on the next recovery run", ex);
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workers.shutdownNow();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Stores the order as {@code PENDING} and queues it for validation.
+     *
+     * @throws OrderPipelineSaturatedException if the queue is full
+     */
+    public OrderPlacementResponse placeOrder(Order order) {
+        if (!slots.tryAcquire()) {
+            rejected.increment();
+            log.warn("Rejecting order for user ID: {}, pipeline queue is full", order.getUserId());
+            throw new OrderPipelineSaturatedException("Order pipeline is at capacity, retry later");
+        }
+        
+        Order savedOrder;
+        try {
+            order.setStatus(OrderStatus.PENDING);
+            order.setAwaitingValidation(true);
+            // Items are priced during validation; until then they carry a zero price
+            for (OrderItem item : order.getOrderItems()) {
+                if (item.getUnitPrice() == null) {
+                    item.setUnitPrice(BigDecimal.ZERO);
+                }
+            }
+            savedOrder = transactionTemplate.execute(status -> {
+                Order pendingOrder = orderRepository.save(order);
+                orderEventDispatcher.dispatch(OrderEvent.created(pendingOrder));
+                return pendingOrder;
+            });
+        } catch (RuntimeException ex) {
+            slots.release();
+            throw ex;
+        }
+        
+        inFlight.add(savedOrder.getId());
+        queue.add(new PendingOrder(savedOrder.getId(), System.nanoTime()));
+        submitted.increment();
+        log.info("Accepted order ID: {} for asynchronous placement", savedOrder.getId());
+        
+        return new OrderPlacementResponse(savedOrder.getId(), savedOrder.getStatus());
+    }
+    
+    /**
+     * Queues orders that have been awaiting validation for longer than {@code stale-after} and are not
+     * queued here, such as those another instance accepted before it stopped.
+     */
+    @Scheduled(initialDelayString = "${orders.async.recovery-interval-ms}",
+               fixedDelayString = "${orders.async.recovery-interval-ms}")
+    public void recoverStaleOrders() {
+        requeueAwaitingValidation(LocalDateTime.now().minus(staleAfter));
+    }
+    
+    /**
+     * Queues the orders created before {@code createdBefore} that still await validation and are not
+     * already queued here, as far as the queue has room, and returns how many were queued.
+     */
+    public int requeueAwaitingValidation(LocalDateTime createdBefore) {
+        List<Long> orderIds = transactionTemplate.execute(status -> orderRepository.findIdsAwaitingValidation(
+            OrderStatus.PENDING, createdBefore, PageRequest.of(0, queueCapacity)));
+        int requeued = 0;
+        for (Long orderId : orderIds) {
+            if (!inFlight.add(orderId)) {
+                continue;
+            }
+            if (!slots.tryAcquire()) {
+                inFlight.remove(orderId);
+                break;
+            }
+            queue.add(new PendingOrder(orderId, System.nanoTime()));
+            requeued++;
+        }
+        if (requeued > 0) {
+            recovered.add(requeued);
+            log.info("Requeued {} orders awaiting validation", requeued);
+        }
+        return requeued;
+    }
+    
+    public OrderPipelineStats getStats() {
+        OrderPipelineStats stats = new OrderPipelineStats();
+        stats.setQueueDepth(queue.size());
+        stats.setQueueCapacity(queueCapacity);
+        stats.setSubmitted(submitted.sum());
+        stats.setRejected(rejected.sum());
+        stats.setConfirmed(confirmed.sum());
+        stats.setCancelled(cancelled.sum());
+        stats.setFailed(failed.sum());
+        stats.setRecovered(recovered.sum());
+        stats.setBatches(batches.sum());
+        stats.setQueueWait(queueWait);
+        stats.setLoadStage(loadStage);
+        stats.setValidationStage(validationStage);
+        stats.setPersistStage(persistStage);
+        return stats;
+    }
+    
+    private void runWorker() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingOrder first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                slots.release(batch.size());
+                
+                processBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Failed to process batch of {} pending orders", batch.size(), ex);
+                cancelFailedBatch(batch, ex);
+            } finally {
+                batch.forEach(pendingOrder -> inFlight.remove(pendingOrder.orderId()));
+                batch.clear();
+            }
+        }
+    }
+    
+    private void processBatch(List<PendingOrder> batch) {
+        batches.increment();
+        long now = System.nanoTime();
+        List<Long> orderIds = new ArrayList<>(batch.size());
+        for (PendingOrder pendingOrder : batch) {
+            queueWait.record(now - pendingOrder.enqueuedAt());
+            orderIds.add(pendingOrder.orderId());
+        }
+        
+        long start = System.nanoTime();
+        // Orders settled meanwhile, for instance cancelled by hand or processed before being requeued, are skipped
+        List<Order> orders = transactionTemplate.execute(status -> orderRepository.findAllWithItemsByIdIn(orderIds))
+            .stream()
+            .filter(order -> order.getStatus() == OrderStatus.PENDING && order.isAwaitingValidation())
+            .toList();
+        loadStage.recordSince(start);
+        long[] pendingTotals = new long[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            pendingTotals[i] = orders.get(i).getTotalAmountMinor();
+        }
+        
+        start = System.nanoTime();
+        List<String> errors = orderBatchValidator.validateAndEnrich(orders);
+        reserveStock(orders, errors);
+        validationStage.recordSince(start);
+        
+        start = System.nanoTime();
+        boolean[] settled;
+        try {
+            settled = persistOutcomes(orders, pendingTotals, errors);
+        } catch (RuntimeException ex) {
+            settled = new boolean[orders.size()];
+            releaseUnsettled(orders, errors, settled);
+            throw ex;
+        }
+        persistStage.recordSince(start);
+        releaseUnsettled(orders, errors, settled);
+        
+        for (int i = 0; i < orders.size(); i++) {
+            if (!settled[i]) {
+                continue;
+            }
+            if (errors.get(i) == null) {
+                confirmed.increment();
+            } else {
+                cancelled.increment();
+            }
+        }
+        log.debug("Processed batch of {} pending orders", orders.size());
+    }
+    
+    /**
+     * Releases the stock reserved for orders whose outcome was not stored.
+     */
+    private void releaseUnsettled(List<Order> orders, List<String> errors, boolean[] settled) {
+        for (int i = 0; i < orders.size(); i++) {
+            if (!settled[i] && errors.get(i) == null) {
+                stockReservationService.release(orders.get(i));
+            }
+        }
+    }
+    
+    private void reserveStock(List<Order> orders, List<String> errors) {
+        for (int i = 0; i < orders.size(); i++) {
+            if (errors.get(i) != null) {
+                continue;
+            }
+            try {
+                stockReservationService.reserve(orders.get(i));
+            } catch (RuntimeException ex) {
+                errors.set(i, ex.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Stores each order's outcome, provided the order is still pending and awaiting validation. Orders
+     * were loaded before the remote calls; one changed or deleted since is left as it now is. Returns
+     * which outcomes were stored.
+     */
+    private boolean[] persistOutcomes(List<Order> orders, long[] pendingTotals, List<String> errors) {
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        return transactionTemplate.execute(status -> {
+            Set<Long> awaiting = new HashSet<>(orderRepository.lockIdsAwaitingValidation(orderIds, OrderStatus.PENDING));
+            boolean[] settled = new boolean[orders.size()];
+            for (int i = 0; i < orders.size(); i++) {
+                Order order = orders.get(i);
+                if (!awaiting.contains(order.getId())) {
+                    log.info("Skipping order ID: {}, it was changed or deleted while being validated", order.getId());
+                    continue;
+                }
+                if (errors.get(i) == null) {
+                    order.setStatus(OrderStatus.CONFIRMED);
+                } else {
+                    log.info("Cancelling order ID: {}: {}", order.getId(), errors.get(i));
+                    order.setStatus(OrderStatus.CANCELLED);
+                }
+                order.setAwaitingValidation(false);
+                orderRepository.save(order);
+                orderEventDispatcher.dispatch(OrderEvent.statusChanged(order, OrderStatus.PENDING, pendingTotals[i]));
+                settled[i] = true;
+            }
+            return settled;
+        });
+    }
+    
+    /**
+     * Cancels the batch's orders that are still pending, so a batch that cannot be processed does not
+     * leave them pending for good. If that fails too, they are left for recovery to queue again.
+     */
+    private void cancelFailedBatch(List<PendingOrder> batch, RuntimeException cause) {
+        List<Long> orderIds = batch.stream().map(PendingOrder::orderId).toList();
+        try {
+            int cancelledOrders = transactionTemplate.execute(status -> {
+                List<Long> awaiting = orderRepository.lockIdsAwaitingValidation(orderIds, OrderStatus.PENDING);
+                if (awaiting.isEmpty()) {
+                    return 0;
+                }
+                int count = 0;
+                for (Order order : orderRepository.findAllWithItemsByIdIn(awaiting)) {
+                    order.setStatus(OrderStatus.CANCELLED);
+                    order.setAwaitingValidation(false);
+                    orderRepository.save(order);
+                    orderEventDispatcher.dispatch(
+                        OrderEvent.statusChanged(order, OrderStatus.PENDING, order.getTotalAmountMinor()));
+                    count++;
+                }
+                return count;
+            });
+            failed.add(cancelledOrders);
+            log.warn("Cancelled {} orders of a failed batch: {}", cancelledOrders, cause.getMessage());
+        } catch (RuntimeException ex) {
+            log.error("Failed to cancel orders of a failed batch; they are left for recovery", ex);
+        }
+    }
+    
+    private record PendingOrder(Long orderId, long enqueuedAt) {}
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.BulkOrderResponse;
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.event.OrderEvent;
+import com.example.orderservice.event.OrderEventDispatcher;
+import com.example.orderservice.exception.ValidationException;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ingests large numbers of orders. Users and products are validated in a few batched lookups, and
+ * accepted orders are persisted in chunks so that Hibernate can group the inserts into JDBC batches.
+ */
+@Service
+public class BulkOrderService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BulkOrderService.class);
+    
+    private final OrderRepository orderRepository;
+    private final OrderBatchValidator orderBatchValidator;
+    private final StockReservationService stockReservationService;
+    private final OrderEventDispatcher orderEventDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int maxOrders;
+    private final int chunkSize;
+    
+    @Autowired
+    public BulkOrderService(OrderRepository orderRepository,
+                            OrderBatchValidator orderBatchValidator,
+                            StockReservationService stockReservationService,
+                            OrderEventDispatcher orderEventDispatcher,
+                            TransactionTemplate transactionTemplate,
+                            EntityManager entityManager,
+                            @Value("${orders.bulk.max-orders}") int maxOrders,
+                            @Value("${orders.bulk.chunk-size}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.orderBatchValidator = orderBatchValidator;
+        this.stockReservationService = stockReservationService;
+        this.orderEventDispatcher = orderEventDispatcher;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.maxOrders = maxOrders;
+        this.chunkSize = chunkSize;
+    }
+    
+    public BulkOrderResponse createOrders(List<Order> orders) {
+        if (orders == null || orders.isEmpty()) {
+            throw new ValidationException("At least one order is required");
+        }
+        if (orders.size() > maxOrders) {
+            throw new ValidationException("A bulk request may contain at most " + maxOrders + " orders");
+        }
+        
+        long start = System.nanoTime();
+        log.info("Bulk creating {} orders", orders.size());
+        
+        BulkOrderResult[] results = new BulkOrderResult[orders.size()];
+        List<String> errors = orderBatchValidator.validateAndEnrich(orders);
+        
+        List<Integer> accepted = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            String error = errors.get(i) == null ? reserveStock(orders.get(i)) : errors.get(i);
+            if (error == null) {
+                accepted.add(i);
+            } else {
+                results[i] = BulkOrderResult.failed(i, error);
+            }
+        }
+        
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + chunkSize, accepted.size()));
+            persistChunk(orders, chunk, results);
+        }
+        
+        BulkOrderResponse response = new BulkOrderResponse(Arrays.asList(results), System.nanoTime() - start);
+        log.info("Bulk created {} of {} orders in {} ms ({} orders/s)",
+            response.getSucceeded(), response.getTotal(), response.getElapsedMillis(),
+            String.format("%.1f", response.getOrdersPerSecond()));
+        return response;
+    }
+    
+    private String reserveStock(Order order) {
+        try {
+            stockReservationService.reserve(order);
+            return null;
+        } catch (RuntimeException ex) {
+            return ex.getMessage();
+        }
+    }
+    
+    private void persistChunk(List<Order> orders, List<Integer> chunk, BulkOrderResult[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Integer index : chunk) {
+                    Order order = orders.get(index);
+                    entityManager.persist(order);
+                    orderEventDispatcher.dispatch(OrderEvent.created(order));
+                }
+                entityManager.flush();
+                for (Integer index : chunk) {
+                    results[index] = BulkOrderResult.succeeded(index, orders.get(index).getId());
+                }
+                entityManager.clear();
+            });
+        } catch (RuntimeException ex) {
+            log.error("Failed to persist bulk chunk of {} orders", chunk.size(), ex);
+            entityManager.clear();
+            for (Integer index : chunk) {
+                stockReservationService.release(orders.get(index));
+                results[index] = BulkOrderResult.failed(index, "Failed to persist order");
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.BulkStatusUpdateRequest;
+import com.example.orderservice.dto.BulkStatusUpdateResponse;
+import com.example.orderservice.dto.OrderStatusView;
+import com.example.orderservice.dto.ReservationLine;
+import com.example.orderservice.event.OrderEvent;
+import com.example.orderservice.event.OrderEventDispatcher;
+import com.example.orderservice.exception.ValidationException;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Changes the status of many orders with set-based updates. Each chunk is handled in its own
+ * transaction: the orders' status columns are read under a row lock, transitions are checked
+ * against the order lifecycle, and the allowed ones are applied with a single {@code UPDATE}.
+ * Stock held by orders that are cancelled is released once their chunk commits. Orders and their
+ * items are never loaded as entities.
+ */
+@Service
+public class BulkOrderStatusService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BulkOrderStatusService.class);
+    
+    private final OrderRepository orderRepository;
+    private final OrderEventDispatcher orderEventDispatcher;
+    private final StockReservationService stockReservationService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxOrders;
+    private final int chunkSize;
+    
+    @Autowired
+    public BulkOrderStatusService(OrderRepository orderRepository,
+                                  OrderEventDispatcher orderEventDispatcher,
+                                  StockReservationService stockReservationService,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${orders.bulk.max-orders}") int maxOrders,
+                                  @Value("${orders.bulk.chunk-size}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.orderEventDispatcher = orderEventDispatcher;
+        this.stockReservationService = stockReservationService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxOrders = maxOrders;
+        this.chunkSize = chunkSize;
+    }
+    
+    public BulkStatusUpdateResponse updateStatus(BulkStatusUpdateRequest request) {
+        boolean byIds = request.getOrderIds() != null && !request.getOrderIds().isEmpty();
+        if (byIds == (request.getCurrentStatus() != null)) {
+            throw new ValidationException("Provide either orderIds or currentStatus");
+        }
+        
+        long start = System.nanoTime();
+        BulkStatusUpdateResponse response = new BulkStatusUpdateResponse(request.getTargetStatus());
+        if (byIds) {
+            updateByIds(request, response);
+        } else {
+            updateByFilter(request, response);
+        }
+        response.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        
+        log.info("Bulk status update to {}: {} matched, {} updated, {} invalid transitions, {} not found in {} ms",
+            request.getTargetStatus(), response.getMatched(), response.getUpdated(),
+            response.getInvalidTransitions(), response.getNotFound(), response.getElapsedMillis());
+        return response;
+    }
+    
+    private void updateByIds(BulkStatusUpdateRequest request, BulkStatusUpdateResponse response) {
+        List<Long> orderIds = new ArrayList<>(new LinkedHashSet<>(request.getOrderIds()));
+        if (orderIds.size() > maxOrders) {
+            throw new ValidationException("A bulk status update may name at most " + maxOrders + " orders");
+        }
+        
+        for (int from = 0; from < orderIds.size(); from += chunkSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + chunkSize, orderIds.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                List<OrderStatusView> orders = orderRepository.lockStatusViewsByIdIn(chunk);
+                response.setNotFound(response.getNotFound() + chunk.size() - orders.size());
+                applyTransition(orders, request.getTargetStatus(), response);
+            });
+        }
+    }
+    
+    private void updateByFilter(BulkStatusUpdateRequest request, BulkStatusUpdateResponse response) {
+        LocalDateTime createdBefore = request.getCreatedBefore() != null ? request.getCreatedBefore() : LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, chunkSize);
+        
+        long afterId = 0L;
+        while (true) {
+            long lastId = afterId;
+            Long nextAfterId = transactionTemplate.execute(status -> {
+                List<OrderStatusView> orders = orderRepository.lockStatusViewsAfter(
+                    request.getCurrentStatus(), createdBefore, lastId, page);
+                applyTransition(orders, request.getTargetStatus(), response);
+                return orders.size() < chunkSize ? null : orders.get(orders.size() - 1).getId();
+            });
+            if (nextAfterId == null) {
+                return;
+            }
+            afterId = nextAfterId;
+        }
+    }
+    
+    private void applyTransition(List<OrderStatusView> orders, OrderStatus targetStatus,
+                                 BulkStatusUpdateResponse response) {
+        response.setChunks(response.getChunks() + 1);
+        response.setMatched(response.getMatched() + orders.size());
+        
+        List<OrderStatusView> allowed = new ArrayList<>(orders.size());
+        for (OrderStatusView order : orders) {
+            if (order.getStatus().canTransitionTo(targetStatus)) {
+                allowed.add(order);
+            } else if (order.getStatus() != targetStatus) {
+                response.setInvalidTransitions(response.getInvalidTransitions() + 1);
+            }
+        }
+        if (allowed.isEmpty()) {
+            return;
+        }
+        
+        List<Long> ids = new ArrayList<>(allowed.size());
+        allowed.forEach(order -> ids.add(order.getId()));
+        if (targetStatus == OrderStatus.CANCELLED) {
+            releaseStock(allowed);
+        }
+        response.setUpdated(response.getUpdated() + orderRepository.updateStatus(ids, targetStatus, LocalDateTime.now()));
+        
+        for (OrderStatusView order : allowed) {
+            orderEventDispatcher.dispatch(OrderEvent.statusChanged(order.getId(), order.getUserId(), order.getStatus(),
+                targetStatus, order.getTotalAmountMinor(), order.getItemCount(), order.getCreatedAt()));
+        }
+    }
+    
+    /**
+     * Releases the stock held by the orders being cancelled with one inventory call once the chunk
+     * commits, summing their items per product.
+     */
+    private void releaseStock(List<OrderStatusView> cancelled) {
+        List<Long> ids = new ArrayList<>(cancelled.size());
+        for (OrderStatusView order : cancelled) {
+            if (order.getStatus().holdsStock()) {
+                ids.add(order.getId());
+            }
+        }
+        if (ids.isEmpty() || !stockReservationService.isEnabled()) {
+            return;
+        }
+        List<ReservationLine> lines = new ArrayList<>();
+        for (Object[] row : orderRepository.sumValidatedQuantitiesByProduct(ids)) {
+            lines.add(new ReservationLine((Long) row[0], ((Number) row[1]).intValue()));
+        }
+        stockReservationService.releaseAfterCommit(lines, ids.size() + " cancelled orders");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,259 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.IdempotentResponse;
+import com.example.orderservice.exception.IdempotencyConflictException;
+import com.example.orderservice.exception.ValidationException;
+import com.example.orderservice.model.IdempotencyRecord;
+import com.example.orderservice.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}.
+ *
+ * <p>Keys are claimed in a bounded in-memory index, so a duplicate that arrives while the first
+ * request is still running waits for its outcome instead of running it again. Successful responses
+ * are stored in the {@code idempotency_keys} table in the same transaction as the work itself and
+ * are replayed until they expire. Only successful responses are stored: a failed request records
+ * nothing and releases its key, duplicates waiting on it get the same exception, and a retry with the
+ * key runs the request again.
+ */
+@Service
+public class IdempotencyService {
+    
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Map<String, Claim> claims;
+    
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              EntityManager entityManager,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${orders.idempotency.ttl}") Duration ttl,
+                              @Value("${orders.idempotency.wait-timeout}") Duration waitTimeout,
+                              @Value("${orders.idempotency.max-entries}") int maxEntries) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        // Least recently used completed claims are evicted first; in-flight claims are never evicted
+        this.claims = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claim> eldest) {
+                return size() > maxEntries && eldest.getValue().response.isDone();
+            }
+        };
+    }
+    
+    /**
+     * Returns the response recorded for {@code key}, or runs {@code action}, which records its response.
+     *
+     * @param fingerprint identifies the request content; reusing a key for a different request fails
+     * @throws IdempotencyConflictException if the key was used for a different request, or the original
+     *                                      request is still running after the wait timeout
+     */
+    public IdempotentResponse execute(String key, String fingerprint, HttpStatus status, IdempotentAction action) {
+        validateKey(key);
+        String requestHash = hash(fingerprint);
+        
+        Claim claim = new Claim(requestHash);
+        Claim existing;
+        synchronized (claims) {
+            existing = claims.get(key);
+            if (existing != null && existing.isExpired()) {
+                claims.remove(key);
+                existing = null;
+            }
+            if (existing == null) {
+                claims.put(key, claim);
+            }
+        }
+        if (existing != null) {
+            return awaitOriginal(key, existing, requestHash);
+        }
+        
+        try {
+            Optional<IdempotencyRecord> stored = findStored(key, requestHash);
+            IdempotencyRecord record = stored.orElseGet(() -> perform(key, requestHash, status, action));
+            IdempotentResponse response =
+                new IdempotentResponse(record.getResponseStatus(), record.getResponseBody(), stored.isPresent());
+            claim.complete(response, record.getExpiresAt());
+            return response;
+        } catch (RuntimeException ex) {
+            synchronized (claims) {
+                claims.remove(key, claim);
+            }
+            claim.response.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval-ms}")
+    public void purgeExpired() {
+        synchronized (claims) {
+            Iterator<Claim> iterator = claims.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isExpired()) {
+                    iterator.remove();
+                }
+            }
+        }
+        Integer purged = transactionTemplate.execute(status ->
+            idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+    
+    private IdempotencyRecord perform(String key, String requestHash, HttpStatus status, IdempotentAction action) {
+        IdempotencyRecord[] recorded = new IdempotencyRecord[1];
+        try {
+            action.run(response -> {
+                if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw new IllegalStateException("Response for idempotency key " + key + " must be recorded in a transaction");
+                }
+                IdempotencyRecord record = new IdempotencyRecord(key, requestHash, status.value(),
+                    toJson(response), LocalDateTime.now().plus(ttl));
+                entityManager.persist(record);
+                entityManager.flush();
+                recorded[0] = record;
+            });
+        } catch (ConstraintViolationException ex) {
+            // Another instance recorded the key first; its outcome wins and this attempt was rolled back
+            return findStored(key, requestHash).orElseThrow(() -> ex);
+        }
+        if (recorded[0] == null) {
+            throw new IllegalStateException("No response was recorded for idempotency key " + key);
+        }
+        return recorded[0];
+    }
+    
+    private Optional<IdempotencyRecord> findStored(String key, String requestHash) {
+        return transactionTemplate.execute(status -> {
+            Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(key);
+            if (stored.isPresent() && stored.get().isExpired()) {
+                idempotencyRecordRepository.delete(stored.get());
+                return Optional.empty();
+            }
+            stored.ifPresent(record -> {
+                checkSameRequest(key, record.getRequestHash(), requestHash);
+                log.info("Replaying stored response for idempotency key: {}", key);
+            });
+            return stored;
+        });
+    }
+    
+    private IdempotentResponse awaitOriginal(String key, Claim claim, String requestHash) {
+        checkSameRequest(key, claim.requestHash, requestHash);
+        log.info("Waiting for original request with idempotency key: {}", key);
+        try {
+            return claim.response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS).asReplay();
+        } catch (TimeoutException ex) {
+            throw new IdempotencyConflictException("Request with idempotency key " + key + " is still in progress");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted waiting for request with idempotency key " + key);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+    
+    private void checkSameRequest(String key, String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyConflictException("Idempotency key " + key + " was already used for a different request");
+        }
+    }
+    
+    private void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+    
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize response for idempotency key", ex);
+        }
+    }
+    
+    private static String hash(String fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(fingerprint.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    /**
+     * Work guarded by an idempotency key. It passes its response to {@code recorder} from inside its own
+     * transaction, so the response is stored if and only if the work commits.
+     */
+    @FunctionalInterface
+    public interface IdempotentAction {
+        void run(Consumer<Object> recorder);
+    }
+    
+    private static final class Claim {
+        
+        private final String requestHash;
+        private final CompletableFuture<IdempotentResponse> response = new CompletableFuture<>();
+        private volatile LocalDateTime expiresAt;
+        
+        private Claim(String requestHash) {
+            this.requestHash = requestHash;
+        }
+        
+        private void complete(IdempotentResponse completed, LocalDateTime expiry) {
+            expiresAt = expiry;
+            response.complete(completed);
+        }
+        
+        private boolean isExpired() {
+            return expiresAt != null && expiresAt.isBefore(LocalDateTime.now());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.ProductServiceClient;
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.exception.ServiceCommunicationException;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Validates and prices many orders at once. Lookups are de-duplicated rather than batched: the user
+ * and product services only fetch one ID per call, so each distinct user and product costs one call
+ * per batch, however many orders reference it.
+ */
+@Component
+public class OrderBatchValidator {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderBatchValidator.class);
+    
+    private final UserServiceClient userServiceClient;
+    private final ProductServiceClient productServiceClient;
+    private final Validator validator;
+    
+    @Autowired
+    public OrderBatchValidator(UserServiceClient userServiceClient,
+                               ProductServiceClient productServiceClient,
+                               Validator validator) {
+        this.userServiceClient = userServiceClient;
+        this.productServiceClient = productServiceClient;
+        this.validator = validator;
+    }
+    
+    /**
+     * Validates the orders and sets each item's unit price from the product service.
+     *
+     * @return one entry per order, aligned with the input: {@code null} when the order is valid,
+     *         otherwise the reason it was rejected
+     */
+    public List<String> validateAndEnrich(List<Order> orders) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (Order order : orders) {
+            if (order.getUserId() != null) {
+                userIds.add(order.getUserId());
+            }
+            for (OrderItem item : order.getOrderItems()) {
+                if (item.getProductId() != null) {
+                    productIds.add(item.getProductId());
+                }
+            }
+        }
+        
+        log.debug("Validating {} orders against {} users and {} products",
+            orders.size(), userIds.size(), productIds.size());
+        
+        Map<Long, Boolean> existingUsers = new HashMap<>();
+        for (Long userId : userIds) {
+            existingUsers.put(userId, userServiceClient.userExists(userId));
+        }
+        
+        Map<Long, Product> products = new HashMap<>();
+        Map<Long, String> productErrors = new HashMap<>();
+        for (Long productId : productIds) {
+            try {
+                Optional<Product> product = productServiceClient.getProductById(productId);
+                if (product.isPresent()) {
+                    products.put(productId, product.get());
+                } else {
+                    productErrors.put(productId, "Product not found with id: " + productId);
+                }
+            } catch (ServiceCommunicationException ex) {
+                productErrors.put(productId, "Failed to validate product with id: " + productId);
+            }
+        }
+        
+        List<String> errors = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            errors.add(validateAndEnrich(order, existingUsers, products, productErrors));
+        }
+        return errors;
+    }
+    
+    private String validateAndEnrich(Order order,
+                                     Map<Long, Boolean> existingUsers,
+                                     Map<Long, Product> products,
+                                     Map<Long, String> productErrors) {
+        if (order.getUserId() == null) {
+            return "User ID is required";
+        }
+        if (!existingUsers.getOrDefault(order.getUserId(), false)) {
+            return "User not found with id: " + order.getUserId();
+        }
+        
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getProductId() == null) {
+                return "Product ID is required";
+            }
+            String productError = productErrors.get(item.getProductId());
+            if (productError != null) {
+                return productError;
+            }
+            item.setUnitPrice(products.get(item.getProductId()).getPrice());
+            
+            Set<ConstraintViolation<OrderItem>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                return violations.iterator().next().getMessage();
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders as newline-delimited JSON straight from a database cursor.
+ * Each order is detached once written, so heap use does not depend on the number of orders exported.
+ */
+@Service
+public class OrderExportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderExportService.class);
+    
+    private static final int FLUSH_INTERVAL = 500;
+    
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter orderWriter;
+    
+    @Autowired
+    public OrderExportService(OrderRepository orderRepository,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.orderWriter = objectMapper.writerFor(Order.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    /**
+     * Writes every order with an ID greater than {@code afterId}, one JSON document per line.
+     * The ID of the last line written is the resume token for the next call.
+     *
+     * @param afterId exclusive lower bound on order IDs
+     * @param limit maximum number of orders to write, or {@code null} for no limit
+     * @return the number of orders written
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(Long afterId, Integer limit, OutputStream outputStream) throws IOException {
+        log.info("Exporting orders after ID: {} (limit: {})", afterId, limit);
+        
+        long written = 0;
+        JsonGenerator generator = orderWriter.createGenerator(outputStream)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setRootValueSeparator(null);
+        
+        try (Stream<Order> orders = orderRepository.streamWithItemsAfter(afterId)) {
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext() && (limit == null || written < limit)) {
+                Order order = iterator.next();
+                orderWriter.writeValue(generator, order);
+                generator.writeRaw('\n');
+                entityManager.detach(order);
+                
+                if (++written % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        } finally {
+            generator.close();
+        }
+        
+        log.info("Exported {} orders", written);
+        return written;
+    }
+}
\ No newline at end of file
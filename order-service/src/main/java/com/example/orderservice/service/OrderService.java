@@ -1,8 +1,12 @@
 package com.example.orderservice.service;
 
+import com.example.orderservice.archive.OrderArchive;
 import com.example.orderservice.client.ProductServiceClient;
 import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderSummary;
 import com.example.orderservice.dto.Product;
+import com.example.orderservice.event.OrderEvent;
+import com.example.orderservice.event.OrderEventDispatcher;
 import com.example.orderservice.exception.ResourceNotFoundException;
 import com.example.orderservice.exception.ValidationException;
 import com.example.orderservice.model.Order;
@@ -14,12 +18,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+/**
+ * Order reads and writes. Order creation talks to user-, product- and inventory-service before its
+ * transaction starts, so no database connection is held while waiting on the network.
+ */
 @Service
-@Transactional
 public class OrderService {
     
     private static final Logger log = LoggerFactory.getLogger(OrderService.class);
@@ -27,58 +36,144 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final UserServiceClient userServiceClient;
     private final ProductServiceClient productServiceClient;
+    private final StockReservationService stockReservationService;
+    private final OrderEventDispatcher orderEventDispatcher;
+    private final OrderArchive orderArchive;
+    private final TransactionTemplate transactionTemplate;
     
     @Autowired
     public OrderService(OrderRepository orderRepository,
                        UserServiceClient userServiceClient,
-                       ProductServiceClient productServiceClient) {
+                       ProductServiceClient productServiceClient,
+                       StockReservationService stockReservationService,
+                       OrderEventDispatcher orderEventDispatcher,
+                       OrderArchive orderArchive,
+                       TransactionTemplate transactionTemplate) {
         this.orderRepository = orderRepository;
         this.userServiceClient = userServiceClient;
         this.productServiceClient = productServiceClient;
+        this.stockReservationService = stockReservationService;
+        this.orderEventDispatcher = orderEventDispatcher;
+        this.orderArchive = orderArchive;
+        this.transactionTemplate = transactionTemplate;
     }
     
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersByStatus(OrderStatus status) {
+        return orderRepository.findByStatus(status);
+    }
+    
+    /**
+     * Lists orders, optionally of one user and/or in one status, as summary rows without loading the
+     * entities or their items.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderSummary> getOrderSummaries(Long userId, OrderStatus status) {
+        if (userId == null) {
+            return status == null
+                ? orderRepository.findAllSummaries()
+                : orderRepository.findSummariesByStatus(status);
+        }
+        return status == null
+            ? orderRepository.findSummariesByUserId(userId)
+            : orderRepository.findSummariesByUserIdAndStatus(userId, status);
+    }
+    
+    /**
+     * Returns the order from the orders table or, failing that, from the archive. Archived orders are
+     * detached copies and cannot be modified.
+     */
+    @Transactional(readOnly = true)
     public Order getOrderById(Long id) {
         return orderRepository.findById(id)
+            .or(() -> orderArchive.find(id))
             .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
     }
     
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByUserId(Long userId) {
         return orderRepository.findByUserId(userId);
     }
     
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersByUserIdAndStatus(Long userId, OrderStatus status) {
+        return orderRepository.findByUserIdAndStatus(userId, status);
+    }
+    
     public Order createOrder(Order order) {
+        return createOrder(order, savedOrder -> {});
+    }
+    
+    /**
+     * Validates, prices and reserves stock for the order, then stores it in a transaction of its own.
+     *
+     * @param inTransaction runs after the insert, inside the same transaction; if it throws, the order is
+     *                      rolled back and its stock released
+     */
+    public Order createOrder(Order order, Consumer<Order> inTransaction) {
         log.info("Creating order for user ID: {}", order.getUserId());
         
         // Validate user exists
         validateUser(order.getUserId());
         
-        // Validate and enrich order items
+        // Validate and enrich order items; the total follows each price change
         validateAndEnrichOrderItems(order);
         
-        // Calculate total amount
-        order.calculateTotalAmount();
+        // Reserve stock for all items in one call, released again if the order is not committed
+        stockReservationService.reserve(order);
         
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder;
+        try {
+            savedOrder = transactionTemplate.execute(status -> {
+                Order persistedOrder = orderRepository.save(order);
+                orderEventDispatcher.dispatch(OrderEvent.created(persistedOrder));
+                inTransaction.accept(persistedOrder);
+                return persistedOrder;
+            });
+        } catch (RuntimeException ex) {
+            stockReservationService.release(order);
+            throw ex;
+        }
         log.info("Order created successfully with ID: {}", savedOrder.getId());
         
         return savedOrder;
     }
     
+    @Transactional
     public Order updateOrderStatus(Long id, OrderStatus status) {
-        Order order = getOrderById(id);
+        Order order = getModifiableOrder(id);
+        OrderStatus previousStatus = order.getStatus();
+        if (status == OrderStatus.CANCELLED) {
+            stockReservationService.releaseAfterCommit(order);
+        }
         order.setStatus(status);
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        if (previousStatus != status) {
+            orderEventDispatcher.dispatch(
+                OrderEvent.statusChanged(savedOrder, previousStatus, savedOrder.getTotalAmountMinor()));
+        }
+        return savedOrder;
     }
     
+    @Transactional
     public void deleteOrder(Long id) {
-        Order order = getOrderById(id);
+        Order order = getModifiableOrder(id);
+        stockReservationService.releaseAfterCommit(order);
+        orderEventDispatcher.dispatch(OrderEvent.deleted(order));
         orderRepository.delete(order);
     }
     
+    private Order getModifiableOrder(Long id) {
+        return orderRepository.findById(id).orElseThrow(() -> orderArchive.find(id).isPresent()
+            ? new ValidationException("Order " + id + " is archived and can no longer be modified")
+            : new ResourceNotFoundException("Order not found with id: " + id));
+    }
+    
     private void validateUser(Long userId) {
         log.debug("Validating user with ID: {}", userId);
         
@@ -0,0 +1,120 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.event.OrderEvent;
+import com.example.orderservice.event.OrderWriteListener;
+import com.example.orderservice.exception.ValidationException;
+import com.example.orderservice.model.BucketGranularity;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.RevenueBucket;
+import com.example.orderservice.model.RevenueBucketId;
+import com.example.orderservice.repository.RevenueBucketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains hourly and daily {@link RevenueBucket}s from order events, inside the order transaction.
+ * A transaction's deltas are summed per bucket and applied just before it commits, one upsert per
+ * bucket in key order. Bucket rows are therefore locked only while the transaction commits, and
+ * transactions that move orders between the same buckets in opposite directions cannot deadlock.
+ */
+@Service
+public class RevenueBucketService implements OrderWriteListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(RevenueBucketService.class);
+    
+    /**
+     * Adds to a bucket's totals, creating the bucket if it does not exist yet.
+     */
+    private static final String ADD_TO_BUCKET_SQL =
+        "MERGE INTO revenue_buckets b USING (VALUES (CAST(? AS VARCHAR(8)), CAST(? AS TIMESTAMP), " +
+        "CAST(? AS VARCHAR(16)), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+        "d (granularity, bucket_start, status, order_count, revenue_minor, item_count) " +
+        "ON b.granularity = d.granularity AND b.bucket_start = d.bucket_start AND b.status = d.status " +
+        "WHEN MATCHED THEN UPDATE SET order_count = b.order_count + d.order_count, " +
+        "revenue_minor = b.revenue_minor + d.revenue_minor, item_count = b.item_count + d.item_count " +
+        "WHEN NOT MATCHED THEN INSERT (granularity, bucket_start, status, order_count, revenue_minor, item_count) " +
+        "VALUES (d.granularity, d.bucket_start, d.status, d.order_count, d.revenue_minor, d.item_count)";
+    
+    private final RevenueBucketRepository revenueBucketRepository;
+    private final JdbcTemplate jdbcTemplate;
+    
+    private final TransactionDeltas<RevenueBucketId, long[]> deltas =
+        new TransactionDeltas<>(id -> new long[3], this::applyDeltas);
+    
+    @Autowired
+    public RevenueBucketService(RevenueBucketRepository revenueBucketRepository, JdbcTemplate jdbcTemplate) {
+        this.revenueBucketRepository = revenueBucketRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderEvent(OrderEvent event) {
+        switch (event.getEventType()) {
+            case ORDER_CREATED -> addDelta(event, event.getStatus(), 1, event.getTotalAmountMinor());
+            case ORDER_STATUS_CHANGED -> {
+                addDelta(event, event.getPreviousStatus(), -1, event.getPreviousTotalAmountMinor());
+                addDelta(event, event.getStatus(), 1, event.getTotalAmountMinor());
+            }
+            case ORDER_DELETED -> addDelta(event, event.getStatus(), -1, event.getTotalAmountMinor());
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public List<RevenueBucket> getBuckets(BucketGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                          OrderStatus status) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("'from' must be before 'to'");
+        }
+        LocalDateTime start = granularity.bucketStart(from);
+        return status == null
+            ? revenueBucketRepository.findRange(granularity, start, to)
+            : revenueBucketRepository.findRangeByStatus(granularity, start, to, status);
+    }
+    
+    private void applyDeltas(Map<RevenueBucketId, long[]> deltas) {
+        deltas.forEach((id, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0 || delta[2] != 0) {
+                addToBucket(id, delta);
+            }
+        });
+    }
+    
+    /**
+     * Runs the upsert through JDBC, so that a failed statement does not mark the order transaction for
+     * rollback. A bucket inserted concurrently fails the insert once the other transaction commits; the
+     * upsert then finds the row and adds to it.
+     */
+    private void addToBucket(RevenueBucketId id, long[] delta) {
+        Object[] args = {id.getGranularity().name(), Timestamp.valueOf(id.getBucketStart()), id.getStatus().name(),
+            delta[0], delta[1], delta[2]};
+        try {
+            jdbcTemplate.update(ADD_TO_BUCKET_SQL, args);
+        } catch (DuplicateKeyException ex) {
+            log.debug("Revenue bucket {} {} {} was created concurrently",
+                id.getGranularity(), id.getBucketStart(), id.getStatus());
+            jdbcTemplate.update(ADD_TO_BUCKET_SQL, args);
+        }
+    }
+    
+    private void addDelta(OrderEvent event, OrderStatus status, int sign, long totalAmountMinor) {
+        for (BucketGranularity granularity : BucketGranularity.values()) {
+            RevenueBucketId id = new RevenueBucketId(granularity, granularity.bucketStart(event.getOrderCreatedAt()), status);
+            long[] delta = deltas.get(id);
+            delta[0] += sign;
+            delta[1] = Math.addExact(delta[1], sign * totalAmountMinor);
+            delta[2] += (long) sign * event.getItemCount();
+        }
+    }
+}
\ No newline at end of file
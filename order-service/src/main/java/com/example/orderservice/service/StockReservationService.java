@@ -0,0 +1,110 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.InventoryServiceClient;
+import com.example.orderservice.dto.ReservationLine;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reserves stock for all lines of an order with one inventory-service call, and releases it again
+ * with one call when the order cannot be completed, or after it has been cancelled or deleted.
+ */
+@Service
+public class StockReservationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+    
+    private final InventoryServiceClient inventoryServiceClient;
+    private final boolean enabled;
+    
+    @Autowired
+    public StockReservationService(InventoryServiceClient inventoryServiceClient,
+                                   @Value("${orders.inventory.reservation-enabled}") boolean enabled) {
+        this.inventoryServiceClient = inventoryServiceClient;
+        this.enabled = enabled;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Reserves stock for every item of the order, or for none of them.
+     *
+     * @throws com.example.orderservice.exception.ValidationException if stock is insufficient
+     * @throws com.example.orderservice.exception.ServiceCommunicationException if inventory-service is unreachable
+     */
+    public void reserve(Order order) {
+        if (!enabled || order.getOrderItems().isEmpty()) {
+            return;
+        }
+        log.debug("Reserving stock for {} order items", order.getOrderItems().size());
+        inventoryServiceClient.reserveStock(toLines(order));
+    }
+    
+    /**
+     * Compensates a previous {@link #reserve(Order)}. Failures are logged rather than thrown, as this
+     * runs while another failure is already being reported.
+     */
+    public void release(Order order) {
+        if (!enabled || order.getOrderItems().isEmpty()) {
+            return;
+        }
+        try {
+            log.info("Releasing stock reserved for order of user ID: {}", order.getUserId());
+            inventoryServiceClient.releaseStock(toLines(order));
+        } catch (RuntimeException ex) {
+            log.error("Failed to release stock reserved for order of user ID: {}", order.getUserId(), ex);
+        }
+    }
+    
+    /**
+     * Releases the stock held by a stored order once the current transaction commits, for an order
+     * that is being cancelled or deleted. Nothing is released if the order does not hold stock or the
+     * transaction rolls back.
+     */
+    public void releaseAfterCommit(Order order) {
+        if (!order.isAwaitingValidation() && order.getStatus().holdsStock()) {
+            releaseAfterCommit(toLines(order), "order ID: " + order.getId());
+        }
+    }
+    
+    /**
+     * Releases the given lines once the current transaction commits. Failures are logged; the stock
+     * then stays reserved.
+     */
+    public void releaseAfterCommit(List<ReservationLine> lines, String description) {
+        if (!enabled || lines.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    log.info("Releasing stock reserved for {}", description);
+                    inventoryServiceClient.releaseStock(lines);
+                } catch (RuntimeException ex) {
+                    log.error("Failed to release stock reserved for {}", description, ex);
+                }
+            }
+        });
+    }
+    
+    private List<ReservationLine> toLines(Order order) {
+        List<ReservationLine> lines = new ArrayList<>(order.getOrderItems().size());
+        for (OrderItem item : order.getOrderItems()) {
+            lines.add(new ReservationLine(item.getProductId(), item.getQuantity()));
+        }
+        return lines;
+    }
+}
\ No newline at end of file
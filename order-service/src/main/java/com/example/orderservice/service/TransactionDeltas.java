@@ -0,0 +1,61 @@
+package com.example.orderservice.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Deltas collected per key over the current transaction and applied just before it commits, in key
+ * order. Rows updated from them are locked only while the transaction commits, and transactions that
+ * touch the same rows lock them in the same order.
+ *
+ * @param <K> the key of the row a delta applies to
+ * @param <D> the delta
+ */
+final class TransactionDeltas<K extends Comparable<K>, D> {
+    
+    private final Function<K, D> newDelta;
+    private final Consumer<SortedMap<K, D>> apply;
+    
+    /**
+     * @param newDelta creates an empty delta for a key
+     * @param apply    applies a transaction's deltas; runs inside the transaction, before it commits
+     */
+    TransactionDeltas(Function<K, D> newDelta, Consumer<SortedMap<K, D>> apply) {
+        this.newDelta = newDelta;
+        this.apply = apply;
+    }
+    
+    /**
+     * Returns the current transaction's delta for the key, creating an empty one if there is none yet.
+     */
+    D get(K key) {
+        return deltas().computeIfAbsent(key, newDelta);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private SortedMap<K, D> deltas() {
+        SortedMap<K, D> deltas = (SortedMap<K, D>) TransactionSynchronizationManager.getResource(this);
+        if (deltas != null) {
+            return deltas;
+        }
+        SortedMap<K, D> created = new TreeMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                apply.accept(created);
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(TransactionDeltas.this);
+            }
+        });
+        return created;
+    }
+}
\ No newline at end of file
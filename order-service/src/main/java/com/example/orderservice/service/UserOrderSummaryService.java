@@ -0,0 +1,170 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.archive.OrderArchive;
+import com.example.orderservice.dto.SummaryRebuildResponse;
+import com.example.orderservice.event.OrderEvent;
+import com.example.orderservice.event.OrderWriteListener;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.UserOrderSummary;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.UserOrderSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains {@link UserOrderSummary} rows from order events, inside the order transaction. A
+ * transaction's events are summed per user and applied just before it commits, one upsert per user in
+ * user ID order, so a user's summary row is locked only while the transaction commits.
+ */
+@Service
+public class UserOrderSummaryService implements OrderWriteListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(UserOrderSummaryService.class);
+    
+    private static final int ARCHIVE_CHUNK_SIZE = 500;
+    
+    /**
+     * Adds to a user's summary, creating it if it does not exist yet. The last order time only moves forward.
+     */
+    private static final String ADD_TO_SUMMARY_SQL =
+        "MERGE INTO user_order_summaries s USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), " +
+        "CAST(? AS BIGINT), CAST(? AS TIMESTAMP), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), " +
+        "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS TIMESTAMP))) " +
+        "d (user_id, order_count, total_spent_minor, last_order_at, pending_count, confirmed_count, " +
+        "processing_count, shipped_count, delivered_count, cancelled_count, updated_at) " +
+        "ON s.user_id = d.user_id " +
+        "WHEN MATCHED THEN UPDATE SET order_count = s.order_count + d.order_count, " +
+        "total_spent_minor = s.total_spent_minor + d.total_spent_minor, " +
+        "last_order_at = CASE WHEN s.last_order_at IS NULL OR d.last_order_at > s.last_order_at " +
+        "THEN d.last_order_at ELSE s.last_order_at END, " +
+        "pending_count = s.pending_count + d.pending_count, confirmed_count = s.confirmed_count + d.confirmed_count, " +
+        "processing_count = s.processing_count + d.processing_count, " +
+        "shipped_count = s.shipped_count + d.shipped_count, delivered_count = s.delivered_count + d.delivered_count, " +
+        "cancelled_count = s.cancelled_count + d.cancelled_count, updated_at = d.updated_at " +
+        "WHEN NOT MATCHED THEN INSERT (user_id, order_count, total_spent_minor, last_order_at, pending_count, " +
+        "confirmed_count, processing_count, shipped_count, delivered_count, cancelled_count, updated_at) " +
+        "VALUES (d.user_id, d.order_count, d.total_spent_minor, d.last_order_at, d.pending_count, " +
+        "d.confirmed_count, d.processing_count, d.shipped_count, d.delivered_count, d.cancelled_count, d.updated_at)";
+    
+    private final UserOrderSummaryRepository summaryRepository;
+    private final OrderRepository orderRepository;
+    private final OrderArchive orderArchive;
+    private final JdbcTemplate jdbcTemplate;
+    
+    // Each user's changes in the current transaction, held as a summary that starts from zero
+    private final TransactionDeltas<Long, UserOrderSummary> deltas =
+        new TransactionDeltas<>(UserOrderSummary::new, this::applyDeltas);
+    
+    @Autowired
+    public UserOrderSummaryService(UserOrderSummaryRepository summaryRepository,
+                                   OrderRepository orderRepository,
+                                   OrderArchive orderArchive,
+                                   JdbcTemplate jdbcTemplate) {
+        this.summaryRepository = summaryRepository;
+        this.orderRepository = orderRepository;
+        this.orderArchive = orderArchive;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderEvent(OrderEvent event) {
+        deltas.get(event.getUserId()).apply(event);
+    }
+    
+    @Transactional(readOnly = true)
+    public UserOrderSummary getSummary(Long userId) {
+        return summaryRepository.findById(userId).orElseGet(() -> new UserOrderSummary(userId));
+    }
+    
+    /**
+     * Recomputes every summary from the order table and the archive. Archiving does not change a user's
+     * summary, so archived orders are counted too, unless they are still in the order table. Order
+     * writes that commit while the rebuild is running may be missed and are picked up by the next rebuild.
+     */
+    @Transactional
+    public SummaryRebuildResponse rebuild() {
+        long start = System.nanoTime();
+        Map<Long, UserOrderSummary> summaries = new HashMap<>();
+        for (Object[] row : orderRepository.summarizeByUserAndStatus()) {
+            Long userId = (Long) row[0];
+            summaries.computeIfAbsent(userId, UserOrderSummary::new)
+                .add((OrderStatus) row[1], (Long) row[2], (Long) row[3], (LocalDateTime) row[4]);
+        }
+        List<Order> archived = new ArrayList<>(ARCHIVE_CHUNK_SIZE);
+        orderArchive.forEach(order -> {
+            archived.add(order);
+            if (archived.size() == ARCHIVE_CHUNK_SIZE) {
+                addArchived(summaries, archived);
+                archived.clear();
+            }
+        });
+        addArchived(summaries, archived);
+        
+        summaryRepository.deleteAllInBatch();
+        summaryRepository.saveAll(summaries.values());
+        
+        SummaryRebuildResponse response = new SummaryRebuildResponse(summaries.size(), System.nanoTime() - start);
+        log.info("Rebuilt order summaries for {} users in {} ms", response.getUsers(), response.getElapsedMillis());
+        return response;
+    }
+    
+    /**
+     * Adds the archived orders that are no longer in the order table; those still there were counted from it.
+     */
+    private void addArchived(Map<Long, UserOrderSummary> summaries, List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Set<Long> inTable = new HashSet<>(orderRepository.findIdsByIdIn(orders.stream().map(Order::getId).toList()));
+        for (Order order : orders) {
+            if (!inTable.contains(order.getId())) {
+                summaries.computeIfAbsent(order.getUserId(), UserOrderSummary::new)
+                    .add(order.getStatus(), 1, order.getTotalAmountMinor(), order.getCreatedAt());
+            }
+        }
+    }
+    
+    private void applyDeltas(Map<Long, UserOrderSummary> deltas) {
+        deltas.values().forEach(this::addToSummary);
+    }
+    
+    /**
+     * Runs the upsert through JDBC, so that a failed statement does not mark the order transaction for
+     * rollback. A summary inserted concurrently fails the insert once the other transaction commits; the
+     * upsert then finds the row and adds to it.
+     */
+    private void addToSummary(UserOrderSummary delta) {
+        Map<OrderStatus, Long> counts = delta.getOrdersByStatus();
+        Object[] args = {delta.getUserId(), delta.getOrderCount(), delta.getTotalSpentMinor(),
+            toTimestamp(delta.getLastOrderAt()), counts.get(OrderStatus.PENDING), counts.get(OrderStatus.CONFIRMED),
+            counts.get(OrderStatus.PROCESSING), counts.get(OrderStatus.SHIPPED), counts.get(OrderStatus.DELIVERED),
+            counts.get(OrderStatus.CANCELLED), toTimestamp(delta.getUpdatedAt())};
+        try {
+            jdbcTemplate.update(ADD_TO_SUMMARY_SQL, args);
+        } catch (DuplicateKeyException ex) {
+            log.debug("Order summary for user ID: {} was created concurrently", delta.getUserId());
+            jdbcTemplate.update(ADD_TO_SUMMARY_SQL, args);
+        }
+    }
+    
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.example.orderservice;
+
+import com.example.orderservice.client.InventoryServiceClient;
+import com.example.orderservice.client.ProductServiceClient;
+import com.example.orderservice.client.UserServiceClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactories;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.test.context.MergedContextConfiguration;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Base for tests that start the whole service. The other services are mocked, and every application
+ * context gets an in-memory database of its own: the schema is dropped and recreated per context, so
+ * contexts sharing one database would hand out the same order IDs.
+ *
+ * <p>Subclasses add their own settings with {@code @TestPropertySource}.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.orderservice=INFO",
+    "logging.level.org.springframework.web=INFO",
+    "orders.outbox.poll-interval-ms=60000"
+})
+@ContextCustomizerFactories(OrderServiceIntegrationTest.UniqueDatabaseFactory.class)
+public abstract class OrderServiceIntegrationTest {
+    
+    @MockBean
+    protected UserServiceClient userServiceClient;
+    
+    @MockBean
+    protected ProductServiceClient productServiceClient;
+    
+    @MockBean
+    protected InventoryServiceClient inventoryServiceClient;
+    
+    static class UniqueDatabaseFactory implements ContextCustomizerFactory {
+        
+        @Override
+        public ContextCustomizer createContextCustomizer(Class<?> testClass,
+                                                         List<ContextConfigurationAttributes> configAttributes) {
+            return new UniqueDatabase();
+        }
+    }
+    
+    /**
+     * Points the primary and the replica pool at the same freshly named database.
+     */
+    private record UniqueDatabase() implements ContextCustomizer {
+        
+        @Override
+        public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+            String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";OPTIMIZE_REUSE_RESULTS=FALSE";
+            TestPropertyValues.of("spring.datasource.url=" + url, "orders.datasource.replica.jdbc-url=" + url)
+                .applyTo(context);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.example.orderservice.archive;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveSegmentTest {
+    
+    private static final int INDEX_INTERVAL = 4;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_456_789);
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void testOrdersRoundTrip() throws IOException {
+        ArchiveSegment segment = ArchiveSegment.open(writeSegment(10));
+        
+        for (long id = 10; id <= 100; id += 10) {
+            Order order = segment.find(id).orElseThrow();
+            assertEquals(id, order.getId());
+            assertEquals(id % 3, order.getUserId());
+            assertEquals(id % 20 == 0 ? OrderStatus.DELIVERED : OrderStatus.CANCELLED, order.getStatus());
+            assertEquals(new BigDecimal("25.49"), order.getTotalAmount());
+            assertEquals(2, order.getOrderItems().size());
+            OrderItem item = order.getOrderItems().get(1);
+            assertEquals(id * 10 + 1, item.getId());
+            assertEquals(7L, item.getProductId());
+            assertEquals(1, item.getQuantity());
+            assertEquals(new BigDecimal("0.99"), item.getUnitPrice());
+            // Times are kept to the microsecond
+            assertEquals(CREATED_AT.withNano(123_456_000), order.getCreatedAt());
+            assertEquals(CREATED_AT.plusDays(id).withNano(123_456_000), order.getUpdatedAt());
+        }
+        assertTrue(segment.find(5L).isEmpty());
+        assertTrue(segment.find(55L).isEmpty());
+        assertTrue(segment.find(105L).isEmpty());
+        
+        List<Long> ids = new ArrayList<>();
+        segment.forEach(order -> ids.add(order.getId()));
+        assertEquals(List.of(10L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L), ids);
+    }
+    
+    @Test
+    void testTrailerDescribesRecordsAndSparseIndex() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(writeSegment(10)));
+        int trailer = buffer.limit() - ArchiveSegment.TRAILER_BYTES;
+        
+        assertEquals(ArchiveSegment.MAGIC, buffer.getInt(0));
+        assertEquals(ArchiveSegment.VERSION, buffer.getInt(4));
+        assertEquals(10, buffer.getInt(trailer));
+        assertEquals(10L, buffer.getLong(trailer + 8));
+        assertEquals(100L, buffer.getLong(trailer + 16));
+        assertEquals(ArchiveSegment.MAGIC, buffer.getInt(trailer + 32));
+        
+        // One entry for every fourth record, each pointing at the record it names
+        int indexEntryCount = buffer.getInt(trailer + 4);
+        int indexOffset = (int) buffer.getLong(trailer + 24);
+        assertEquals(3, indexEntryCount);
+        assertEquals(trailer, indexOffset + indexEntryCount * 12);
+        long[] expectedIds = {10L, 50L, 90L};
+        for (int i = 0; i < indexEntryCount; i++) {
+            long id = buffer.getLong(indexOffset + i * 12);
+            int recordOffset = buffer.getInt(indexOffset + i * 12 + 8);
+            assertEquals(expectedIds[i], id);
+            assertEquals(id, ArchivedOrderFormat.readId(buffer, recordOffset));
+        }
+    }
+    
+    @Test
+    void testSegmentAppearsOnlyOnceFinished() throws IOException {
+        Path target = directory.resolve("orders-1" + OrderArchive.SEGMENT_SUFFIX);
+        Path temp = directory.resolve("orders-1" + OrderArchive.SEGMENT_SUFFIX + ArchiveSegmentWriter.TEMP_SUFFIX);
+        
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(target, INDEX_INTERVAL)) {
+            writer.append(newOrder(1L));
+            assertTrue(Files.exists(temp));
+            assertFalse(Files.exists(target));
+        }
+        // Abandoned without finishing: nothing is left behind
+        assertFalse(Files.exists(temp));
+        assertFalse(Files.exists(target));
+        
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(target, INDEX_INTERVAL)) {
+            writer.append(newOrder(1L));
+            assertEquals(target, writer.finish());
+        }
+        assertTrue(Files.exists(target));
+        assertFalse(Files.exists(temp));
+    }
+    
+    @Test
+    void testOrdersMustBeAppendedInIdOrder() throws IOException {
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(directory.resolve("orders.seg"), INDEX_INTERVAL)) {
+            writer.append(newOrder(20L));
+            assertThrows(IllegalArgumentException.class, () -> writer.append(newOrder(10L)));
+            assertThrows(IllegalArgumentException.class, () -> writer.append(newOrder(20L)));
+        }
+    }
+    
+    @Test
+    void testTruncatedSegmentIsRejected() throws IOException {
+        Path segment = writeSegment(3);
+        try (var channel = Files.newByteChannel(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        
+        assertThrows(IOException.class, () -> ArchiveSegment.open(segment));
+    }
+    
+    private Path writeSegment(int orders) throws IOException {
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(directory.resolve("orders.seg"), INDEX_INTERVAL)) {
+            for (long id = 10; id <= orders * 10L; id += 10) {
+                writer.append(newOrder(id));
+            }
+            return writer.finish();
+        }
+    }
+    
+    private static Order newOrder(long id) {
+        Order order = new Order(id % 3);
+        order.setId(id);
+        order.setStatus(id % 20 == 0 ? OrderStatus.DELIVERED : OrderStatus.CANCELLED);
+        OrderItem first = new OrderItem(3L, 2, new BigDecimal("12.25"));
+        first.setId(id * 10);
+        OrderItem second = new OrderItem(7L, 1, new BigDecimal("0.99"));
+        second.setId(id * 10 + 1);
+        order.addOrderItem(first);
+        order.addOrderItem(second);
+        order.setCreatedAt(CREATED_AT);
+        order.setUpdatedAt(CREATED_AT.plusDays(id));
+        return order;
+    }
+}
\ No newline at end of file
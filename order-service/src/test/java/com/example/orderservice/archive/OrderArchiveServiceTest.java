@@ -0,0 +1,172 @@
+package com.example.orderservice.archive;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.ArchiveRunResult;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.exception.ValidationException;
+import com.example.orderservice.model.DatabaseInstance;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.UserOrderSummary;
+import com.example.orderservice.repository.DatabaseInstanceRepository;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.UserOrderSummaryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Archiving with no minimum age, so an order can be archived as soon as it is delivered or cancelled.
+ */
+@TestPropertySource(properties = "orders.archive.min-age=0s")
+class OrderArchiveServiceTest extends OrderServiceIntegrationTest {
+    
+    @TempDir
+    static Path archiveDirectory;
+    
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("orders.archive.directory", archiveDirectory::toString);
+    }
+    
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+    
+    @Autowired
+    private OrderArchive orderArchive;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserOrderSummaryService userOrderSummaryService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private DatabaseInstanceRepository databaseInstanceRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("12.50"));
+        when(userServiceClient.userExists(anyLong())).thenReturn(true);
+        when(productServiceClient.getProductById(anyLong())).thenReturn(Optional.of(product));
+    }
+    
+    @Test
+    void testArchivedOrderIsReadFromTheArchive() throws Exception {
+        Order order = createOrder(3601L);
+        orderService.updateOrderStatus(order.getId(), OrderStatus.CANCELLED);
+        long hits = orderArchive.getStats().getHits();
+        
+        ArchiveRunResult result = archive();
+        
+        assertTrue(result.getArchived() >= 1);
+        assertTrue(result.getSegments() >= 1);
+        assertTrue(orderRepository.findById(order.getId()).isEmpty());
+        Order archived = orderService.getOrderById(order.getId());
+        assertEquals(OrderStatus.CANCELLED, archived.getStatus());
+        assertEquals(3601L, archived.getUserId());
+        assertEquals(new BigDecimal("25.00"), archived.getTotalAmount());
+        assertEquals(1, archived.getOrderItems().size());
+        assertEquals(hits + 1, orderArchive.getStats().getHits());
+    }
+    
+    @Test
+    void testArchivedOrderCannotBeModified() throws Exception {
+        Order order = createOrder(3602L);
+        orderService.updateOrderStatus(order.getId(), OrderStatus.CANCELLED);
+        archive();
+        
+        ValidationException update = assertThrows(ValidationException.class,
+            () -> orderService.updateOrderStatus(order.getId(), OrderStatus.CONFIRMED));
+        assertTrue(update.getMessage().contains("archived"));
+        assertThrows(ValidationException.class, () -> orderService.deleteOrder(order.getId()));
+        assertEquals(OrderStatus.CANCELLED, orderService.getOrderById(order.getId()).getStatus());
+    }
+    
+    @Test
+    void testSegmentsOfAnotherDatabaseAreNotOpened() throws Exception {
+        Order order = createOrder(3604L);
+        orderService.updateOrderStatus(order.getId(), OrderStatus.CANCELLED);
+        archive();
+        assertTrue(reopenArchive().find(order.getId()).isPresent());
+        
+        // As after a restart with an in-memory database, where order IDs start again from 1
+        DatabaseInstance current = databaseInstanceRepository.findById(DatabaseInstance.ID).orElseThrow();
+        databaseInstanceRepository.delete(current);
+        databaseInstanceRepository.save(DatabaseInstance.create());
+        try {
+            OrderArchive reopened = reopenArchive();
+            assertTrue(reopened.find(order.getId()).isEmpty());
+            assertEquals(0, reopened.getStats().getSegments());
+        } finally {
+            databaseInstanceRepository.deleteAll();
+            databaseInstanceRepository.save(current);
+        }
+    }
+    
+    @Test
+    void testRebuildCountsArchivedOrders() throws Exception {
+        Order delivered = createOrder(3603L);
+        for (OrderStatus status : new OrderStatus[] {OrderStatus.CONFIRMED, OrderStatus.PROCESSING,
+                OrderStatus.SHIPPED, OrderStatus.DELIVERED}) {
+            orderService.updateOrderStatus(delivered.getId(), status);
+        }
+        createOrder(3603L);
+        archive();
+        assertTrue(orderRepository.findById(delivered.getId()).isEmpty());
+        
+        userOrderSummaryService.rebuild();
+        
+        UserOrderSummary summary = userOrderSummaryService.getSummary(3603L);
+        assertEquals(2L, summary.getOrderCount());
+        assertEquals(new BigDecimal("50.00"), summary.getTotalSpent());
+        assertEquals(1L, summary.getOrdersByStatus().get(OrderStatus.DELIVERED));
+        assertEquals(1L, summary.getOrdersByStatus().get(OrderStatus.PENDING));
+    }
+    
+    private OrderArchive reopenArchive() throws IOException {
+        OrderArchive archive = new OrderArchive(archiveDirectory.toString(), 32, databaseInstanceRepository,
+            transactionTemplate);
+        archive.open();
+        return archive;
+    }
+    
+    private Order createOrder(Long userId) {
+        Order order = new Order(userId);
+        order.addOrderItem(new OrderItem(1L, 2, null));
+        return orderService.createOrder(order);
+    }
+    
+    /**
+     * Archives everything delivered or cancelled so far. The cutoff is taken when the run starts, so
+     * a moment is left for the last update to fall before it.
+     */
+    private ArchiveRunResult archive() throws InterruptedException {
+        Thread.sleep(10);
+        return orderArchiveService.archiveAgedOrders();
+    }
+}
\ No newline at end of file
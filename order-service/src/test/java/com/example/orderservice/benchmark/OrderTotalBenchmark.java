@@ -0,0 +1,86 @@
+package com.example.orderservice.benchmark;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building a large order with the incremental minor-unit total against the previous
+ * approach of re-reducing every item's {@link BigDecimal} price on each add.
+ *
+ * <p>The GC profiler reports allocation per operation alongside throughput. See the service README
+ * for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    private int itemCount;
+    
+    private BigDecimal[] prices;
+    
+    @Setup
+    public void setUp() {
+        prices = new BigDecimal[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            prices[i] = new BigDecimal(i % 500 + ".99");
+        }
+    }
+    
+    @Benchmark
+    public BigDecimal incrementalMinorUnits() {
+        Order order = new Order(1L);
+        for (int i = 0; i < itemCount; i++) {
+            order.addOrderItem(new OrderItem((long) i, 2, prices[i]));
+        }
+        return order.getTotalAmount();
+    }
+    
+    @Benchmark
+    public BigDecimal recomputedBigDecimal() {
+        RecomputingOrder order = new RecomputingOrder();
+        for (int i = 0; i < itemCount; i++) {
+            order.addItem(prices[i], 2);
+        }
+        return order.totalAmount;
+    }
+    
+    /**
+     * The previous order total strategy: every add re-reduces all item totals.
+     */
+    private static final class RecomputingOrder {
+        
+        private final List<BigDecimal[]> items = new ArrayList<>();
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+        
+        void addItem(BigDecimal unitPrice, int quantity) {
+            items.add(new BigDecimal[] {unitPrice, BigDecimal.valueOf(quantity)});
+            totalAmount = items.stream()
+                .map(item -> item[0].multiply(item[1]))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(OrderTotalBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
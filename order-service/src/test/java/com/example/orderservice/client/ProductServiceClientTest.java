@@ -0,0 +1,156 @@
+package com.example.orderservice.client;
+
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.dto.ProductCacheStats;
+import com.example.orderservice.exception.ServiceCommunicationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductServiceClientTest {
+    
+    private static final String PRODUCT_SERVICE_URL = "http://product-service";
+    private static final Duration SOFT_TTL = Duration.ofMillis(100);
+    private static final Duration HARD_TTL = Duration.ofMillis(400);
+    
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private ProductServiceClient client = newClient(100);
+    
+    @AfterEach
+    void tearDown() {
+        client.stop();
+    }
+    
+    @Test
+    void testStaleSnapshotIsServedWhileRefreshed() throws Exception {
+        respond(1L, "10.00");
+        assertEquals(new BigDecimal("10.00"), price(1L));
+        assertEquals(new BigDecimal("10.00"), price(1L));
+        
+        respond(1L, "12.00");
+        Thread.sleep(SOFT_TTL.toMillis() + 20);
+        
+        // The old price is returned at once, and the refresh replaces it in the background
+        assertEquals(new BigDecimal("10.00"), price(1L));
+        await(() -> client.getCacheStats().getRefreshes() == 1);
+        assertEquals(new BigDecimal("12.00"), price(1L));
+        
+        ProductCacheStats stats = client.getCacheStats();
+        assertEquals(1, stats.getMisses());
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getStaleHits());
+        verify(restTemplate, times(2)).getForEntity(url(1L), Product.class);
+    }
+    
+    @Test
+    void testSnapshotIsUsedUntilHardTtlWhileServiceIsDown() throws Exception {
+        respond(1L, "10.00");
+        price(1L);
+        when(restTemplate.getForEntity(url(1L), Product.class))
+            .thenThrow(new ResourceAccessException("Connection refused"));
+        Thread.sleep(SOFT_TTL.toMillis() + 20);
+        
+        assertEquals(new BigDecimal("10.00"), price(1L));
+        await(() -> client.getCacheStats().getRefreshFailures() == 1);
+        // Served from the snapshot whose refresh failed
+        assertEquals(new BigDecimal("10.00"), price(1L));
+        assertEquals(1, client.getCacheStats().getFallbacks());
+        
+        Thread.sleep(HARD_TTL.toMillis());
+        assertThrows(ServiceCommunicationException.class, () -> client.getProductById(1L));
+        
+        respond(1L, "11.00");
+        assertEquals(new BigDecimal("11.00"), price(1L));
+    }
+    
+    @Test
+    void testOldestSnapshotIsEvictedAtCapacity() throws Exception {
+        client.stop();
+        client = newClient(2);
+        for (long id = 1; id <= 3; id++) {
+            respond(id, "1.00");
+        }
+        
+        price(1L);
+        Thread.sleep(2);
+        price(2L);
+        // Hits do not make a snapshot younger; product 1 is still the oldest
+        price(1L);
+        Thread.sleep(2);
+        price(3L);
+        
+        ProductCacheStats stats = client.getCacheStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+        
+        price(2L);
+        price(3L);
+        verify(restTemplate, times(1)).getForEntity(url(2L), Product.class);
+        verify(restTemplate, times(1)).getForEntity(url(3L), Product.class);
+        price(1L);
+        verify(restTemplate, times(2)).getForEntity(url(1L), Product.class);
+        assertEquals(2, client.getCacheStats().getSize());
+    }
+    
+    @Test
+    void testRefreshedSnapshotIsEvictedLast() throws Exception {
+        client.stop();
+        client = newClient(2);
+        for (long id = 1; id <= 3; id++) {
+            respond(id, "1.00");
+        }
+        
+        price(1L);
+        Thread.sleep(2);
+        price(2L);
+        Thread.sleep(SOFT_TTL.toMillis() + 20);
+        // Refreshing product 1 makes product 2 the snapshot fetched longest ago
+        price(1L);
+        await(() -> client.getCacheStats().getRefreshes() == 1);
+        price(3L);
+        
+        assertEquals(1, client.getCacheStats().getEvictions());
+        price(1L);
+        verify(restTemplate, times(2)).getForEntity(url(1L), Product.class);
+        price(2L);
+        verify(restTemplate, times(2)).getForEntity(url(2L), Product.class);
+    }
+    
+    private ProductServiceClient newClient(int maxEntries) {
+        return new ProductServiceClient(restTemplate, PRODUCT_SERVICE_URL, true, SOFT_TTL, HARD_TTL, maxEntries, 1);
+    }
+    
+    private void respond(Long id, String price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(new BigDecimal(price));
+        doReturn(ResponseEntity.ok(product)).when(restTemplate).getForEntity(url(id), Product.class);
+    }
+    
+    private BigDecimal price(Long id) {
+        Optional<Product> product = client.getProductById(id);
+        return product.orElseThrow().getPrice();
+    }
+    
+    private static String url(Long id) {
+        return PRODUCT_SERVICE_URL + "/api/products/" + id;
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting");
+            Thread.sleep(5);
+        }
+    }
+}
\ No newline at end of file
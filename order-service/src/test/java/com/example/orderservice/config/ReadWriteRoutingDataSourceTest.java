@@ -0,0 +1,133 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.DataSourceStats;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.UserOrderSummaryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Which pool each transaction draws its connection from. Only read-only transactions use the replica,
+ * so its connection count is exact even while scheduled jobs use the primary.
+ */
+class ReadWriteRoutingDataSourceTest extends OrderServiceIntegrationTest {
+    
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserOrderSummaryService userOrderSummaryService;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("12.50"));
+        when(userServiceClient.userExists(anyLong())).thenReturn(true);
+        when(productServiceClient.getProductById(anyLong())).thenReturn(Optional.of(product));
+    }
+    
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        Order order = createOrder();
+        long replica = replicaConnections();
+        
+        assertEquals(order.getId(), orderService.getOrderById(order.getId()).getId());
+        userOrderSummaryService.getSummary(3801L);
+        
+        assertEquals(replica + 2, replicaConnections());
+        DataSourceStats stats = routingDataSource.getStats();
+        assertTrue(stats.isReplicaEnabled());
+        assertEquals("replica", stats.getReplica().getPoolName());
+        assertEquals("primary", stats.getPrimary().getPoolName());
+    }
+    
+    @Test
+    void testWriteUsesPrimary() {
+        long primary = primaryConnections();
+        long replica = replicaConnections();
+        
+        createOrder();
+        
+        assertTrue(primaryConnections() > primary);
+        assertEquals(replica, replicaConnections());
+    }
+    
+    @Test
+    void testWriteAfterReadInOneEntityManagerUsesPrimary() {
+        Order order = createOrder();
+        long primary = primaryConnections();
+        long replica = replicaConnections();
+        
+        // Holds one entity manager across both calls, as open-session-in-view does for a request
+        EntityManagerHolder holder = new EntityManagerHolder(entityManagerFactory.createEntityManager());
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, holder);
+        try {
+            orderService.getOrderById(order.getId());
+            createOrder();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            holder.getEntityManager().close();
+        }
+        
+        assertEquals(replica + 1, replicaConnections());
+        assertTrue(primaryConnections() > primary);
+    }
+    
+    @Test
+    void testWithoutReplicaBothRoutesUsePrimary() throws Exception {
+        DataSource primary = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        ReadWriteRoutingDataSource withoutReplica = new ReadWriteRoutingDataSource(primary, null);
+        
+        withoutReplica.getConnection().close();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertEquals(DataSourceRoute.REPLICA, withoutReplica.determineCurrentLookupKey());
+            withoutReplica.getConnection().close();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        
+        verify(primary, times(2)).getConnection();
+        assertFalse(withoutReplica.getStats().isReplicaEnabled());
+        assertEquals(1, withoutReplica.getStats().getReplica().getConnectionWait().getCount());
+    }
+    
+    private Order createOrder() {
+        Order order = new Order(3801L);
+        order.addOrderItem(new OrderItem(1L, 1, null));
+        return orderService.createOrder(order);
+    }
+    
+    private long primaryConnections() {
+        return routingDataSource.getStats().getPrimary().getConnectionWait().getCount();
+    }
+    
+    private long replicaConnections() {
+        return routingDataSource.getStats().getReplica().getConnectionWait().getCount();
+    }
+}
\ No newline at end of file
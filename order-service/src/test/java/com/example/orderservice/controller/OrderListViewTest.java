@@ -0,0 +1,134 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.service.OrderService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class OrderListViewTest extends OrderServiceIntegrationTest {
+    
+    private static final Set<String> SUMMARY_FIELDS =
+        new TreeSet<>(List.of("id", "userId", "status", "totalAmount", "itemCount", "createdAt"));
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("12.50"));
+        when(userServiceClient.userExists(anyLong())).thenReturn(true);
+        when(productServiceClient.getProductById(anyLong())).thenReturn(Optional.of(product));
+    }
+    
+    @Test
+    void testUserOrdersAreListedAsSummariesByDefault() throws Exception {
+        Order large = createOrder(4001L, 3, 2);
+        Order small = createOrder(4001L, 1);
+        
+        JsonNode orders = getJson("/api/orders/user/4001");
+        
+        assertEquals(2, orders.size());
+        for (JsonNode order : orders) {
+            assertEquals(SUMMARY_FIELDS, fieldNames(order));
+        }
+        JsonNode first = orders.get(0).get("id").asLong() == large.getId() ? orders.get(0) : orders.get(1);
+        assertEquals(large.getId(), first.get("id").asLong());
+        assertEquals(4001L, first.get("userId").asLong());
+        assertEquals("PENDING", first.get("status").asText());
+        assertEquals(0, new BigDecimal("62.50").compareTo(first.get("totalAmount").decimalValue()));
+        // Units across both lines
+        assertEquals(5, first.get("itemCount").asInt());
+        assertTrue(ids(orders).contains(small.getId()));
+    }
+    
+    @Test
+    void testFullViewReturnsOrdersWithItems() throws Exception {
+        Order order = createOrder(4002L, 3, 2);
+        
+        JsonNode orders = getJson("/api/orders/user/4002?view=FULL");
+        
+        assertEquals(1, orders.size());
+        JsonNode full = orders.get(0);
+        assertEquals(order.getId(), full.get("id").asLong());
+        assertEquals(2, full.get("orderItems").size());
+        assertEquals(3, full.get("orderItems").get(0).get("quantity").asInt());
+        assertEquals(fieldNames(getJson("/api/orders/" + order.getId())), fieldNames(full));
+    }
+    
+    @Test
+    void testStatusFilterAppliesToBothViews() throws Exception {
+        Order cancelled = createOrder(4003L, 1);
+        Order pending = createOrder(4003L, 1);
+        orderService.updateOrderStatus(cancelled.getId(), OrderStatus.CANCELLED);
+        
+        assertEquals(List.of(cancelled.getId()), ids(getJson("/api/orders/user/4003?status=CANCELLED")));
+        assertEquals(List.of(pending.getId()), ids(getJson("/api/orders/user/4003?status=PENDING&view=FULL")));
+        
+        JsonNode allCancelled = getJson("/api/orders?status=CANCELLED");
+        assertTrue(ids(allCancelled).contains(cancelled.getId()));
+        assertFalse(ids(allCancelled).contains(pending.getId()));
+        for (JsonNode order : allCancelled) {
+            assertEquals("CANCELLED", order.get("status").asText());
+            assertEquals(SUMMARY_FIELDS, fieldNames(order));
+        }
+        assertTrue(ids(getJson("/api/orders?view=FULL")).containsAll(List.of(cancelled.getId(), pending.getId())));
+    }
+    
+    private JsonNode getJson(String uri) throws Exception {
+        String body = mockMvc.perform(get(uri))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+    
+    private Order createOrder(Long userId, int... quantities) {
+        Order order = new Order(userId);
+        for (int quantity : quantities) {
+            order.addOrderItem(new OrderItem(1L, quantity, null));
+        }
+        return orderService.createOrder(order);
+    }
+    
+    private static Set<String> fieldNames(JsonNode node) {
+        Set<String> names = new TreeSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+    
+    private static List<Long> ids(JsonNode orders) {
+        List<Long> ids = new ArrayList<>();
+        orders.forEach(order -> ids.add(order.get("id").asLong()));
+        return ids;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.example.orderservice.event;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Events are written to clients on the sender threads, and a client that stops reading is told to
+ * resync rather than holding up the publisher or the other clients.
+ */
+class OrderEventBroadcasterTest {
+    
+    private static final int BUFFER_SIZE = 4;
+    
+    private final OrderEventBroadcaster broadcaster = new OrderEventBroadcaster(BUFFER_SIZE, 2);
+    
+    @AfterEach
+    void tearDown() {
+        broadcaster.stop();
+    }
+    
+    @Test
+    void testEventsReachEveryClientInOrder() throws Exception {
+        CapturingEmitter first = new CapturingEmitter(Integer.MAX_VALUE);
+        CapturingEmitter second = new CapturingEmitter(Integer.MAX_VALUE);
+        broadcaster.subscribe(first);
+        broadcaster.subscribe(second);
+        
+        // Offsets are passed through as they come, lower ones included
+        broadcaster.onOrderEvent(12L, newEvent(1L));
+        broadcaster.onOrderEvent(11L, newEvent(2L));
+        broadcaster.onOrderEvent(13L, newEvent(3L));
+        
+        for (CapturingEmitter emitter : List.of(first, second)) {
+            List<Event> events = emitter.awaitEvents(3);
+            assertEquals(List.of("12", "11", "13"), events.stream().map(Event::id).toList());
+            assertEquals("ORDER_CREATED", events.get(0).name());
+            assertEquals(2L, ((OrderEvent) events.get(1).data()).getOrderId());
+        }
+        assertEquals(2, broadcaster.getClientCount());
+    }
+    
+    @Test
+    void testSlowClientResyncsWithoutDelayingOthers() throws Exception {
+        // Blocks on its second send until released
+        CapturingEmitter slow = new CapturingEmitter(1);
+        CapturingEmitter fast = new CapturingEmitter(Integer.MAX_VALUE);
+        broadcaster.subscribe(slow);
+        broadcaster.subscribe(fast);
+        
+        broadcaster.onOrderEvent(1L, newEvent(1L));
+        broadcaster.onOrderEvent(2L, newEvent(2L));
+        await(() -> slow.blocked.getCount() == 0);
+        
+        // Publishing returns at once although the slow client is stuck, and overruns its queue. Each event
+        // reaches the fast client before the next is published, so only the slow client falls behind.
+        for (long offset = 3; offset <= 3 + BUFFER_SIZE; offset++) {
+            broadcaster.onOrderEvent(offset, newEvent(offset));
+            fast.awaitEvents((int) offset);
+        }
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7"), fast.events.stream().map(Event::id).toList());
+        assertEquals(1, broadcaster.getOverflows());
+        
+        slow.release.countDown();
+        await(() -> slow.events.size() == 4);
+        List<Event> events = slow.events;
+        assertEquals(List.of("1", "2"), List.of(events.get(0).id(), events.get(1).id()));
+        // The queue was dropped when it overflowed; what followed is still sent after the resync
+        assertEquals("resync", events.get(2).name());
+        assertEquals(Long.toString(3 + BUFFER_SIZE), events.get(3).id());
+    }
+    
+    @Test
+    void testFailedClientIsDropped() throws Exception {
+        CapturingEmitter closed = new CapturingEmitter(Integer.MAX_VALUE);
+        closed.failing = true;
+        CapturingEmitter open = new CapturingEmitter(Integer.MAX_VALUE);
+        broadcaster.subscribe(closed);
+        broadcaster.subscribe(open);
+        
+        broadcaster.onOrderEvent(1L, newEvent(1L));
+        open.awaitEvents(1);
+        await(() -> broadcaster.getClientCount() == 1);
+        
+        broadcaster.onOrderEvent(2L, newEvent(2L));
+        assertEquals(2, open.awaitEvents(2).size());
+        assertTrue(closed.events.isEmpty());
+    }
+    
+    private static OrderEvent newEvent(long orderId) {
+        Order order = new Order(7L);
+        order.setId(orderId);
+        order.addOrderItem(new OrderItem(1L, 1, new BigDecimal("5.00")));
+        return OrderEvent.created(order);
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting");
+            Thread.sleep(5);
+        }
+    }
+    
+    private record Event(String id, String name, Object data) {}
+    
+    /**
+     * Records the events sent to it instead of writing them to a response.
+     */
+    private static final class CapturingEmitter extends SseEmitter {
+        
+        private final List<Event> events = new CopyOnWriteArrayList<>();
+        private final int sendsBeforeBlocking;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean failing;
+        
+        private CapturingEmitter(int sendsBeforeBlocking) {
+            this.sendsBeforeBlocking = sendsBeforeBlocking;
+        }
+        
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Client disconnected");
+            }
+            if (events.size() >= sendsBeforeBlocking) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+            }
+            List<ResponseBodyEmitter.DataWithMediaType> parts = new ArrayList<>(builder.build());
+            String id = null;
+            String name = null;
+            for (String line : ((String) parts.get(0).getData()).split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring("id:".length());
+                } else if (line.startsWith("event:")) {
+                    name = line.substring("event:".length());
+                }
+            }
+            events.add(new Event(id, name, parts.get(1).getData()));
+        }
+        
+        private List<Event> awaitEvents(int count) throws InterruptedException {
+            await(() -> events.size() >= count);
+            return events;
+        }
+    }
+}
\ No newline at end of file
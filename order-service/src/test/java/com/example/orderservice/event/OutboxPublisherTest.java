@@ -0,0 +1,175 @@
+package com.example.orderservice.event;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.OutboxStats;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Outbox delivery, driven by hand. The test has a database of its own, so no other test context's
+ * publisher drains its outbox.
+ */
+@TestPropertySource(properties = {
+    "orders.outbox.poll-interval-ms=3600000",
+    "orders.outbox.batch-size=2"
+})
+class OutboxPublisherTest extends OrderServiceIntegrationTest {
+    
+    @TestConfiguration
+    static class SubscriberConfig {
+        
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+    
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private OutboxWriter outboxWriter;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private RecordingSubscriber subscriber;
+    
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("12.50"));
+        when(userServiceClient.userExists(anyLong())).thenReturn(true);
+        when(productServiceClient.getProductById(anyLong())).thenReturn(Optional.of(product));
+        outboxPublisher.publishPending();
+        subscriber.deliveries.clear();
+    }
+    
+    @Test
+    void testEventsAreDeliveredOnceAndRemoved() {
+        Order order = createOrder();
+        orderService.updateOrderStatus(order.getId(), OrderStatus.CONFIRMED);
+        orderService.updateOrderStatus(order.getId(), OrderStatus.CANCELLED);
+        long published = outboxPublisher.getStats().getTotalPublishedEvents();
+        
+        // Three events in batches of two
+        outboxPublisher.publishPending();
+        
+        List<Delivery> deliveries = subscriber.deliveries;
+        assertEquals(List.of(OrderEventType.ORDER_CREATED, OrderEventType.ORDER_STATUS_CHANGED,
+            OrderEventType.ORDER_STATUS_CHANGED), deliveries.stream().map(delivery -> delivery.event().getEventType()).toList());
+        assertEquals(OrderStatus.CANCELLED, deliveries.get(2).event().getStatus());
+        assertEquals(OrderStatus.CONFIRMED, deliveries.get(2).event().getPreviousStatus());
+        OutboxStats stats = outboxPublisher.getStats();
+        assertEquals(0, stats.getPendingEvents());
+        assertEquals(published + 3, stats.getTotalPublishedEvents());
+        assertEquals(deliveries.get(2).offset(), stats.getLastPublishedId());
+        
+        assertEquals(0, outboxPublisher.publishBatch());
+        assertEquals(3, deliveries.size());
+    }
+    
+    @Test
+    void testEventCommittedLateIsDeliveredAfterHigherOffsets() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        // Takes its outbox ID first but commits last
+        CompletableFuture<Void> late = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            outboxWriter.onOrderEvent(OrderEvent.created(storedOrder(1L)));
+            written.countDown();
+            try {
+                assertTrue(commit.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }));
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+        transactionTemplate.executeWithoutResult(status -> outboxWriter.onOrderEvent(OrderEvent.created(storedOrder(2L))));
+        
+        outboxPublisher.publishPending();
+        assertEquals(1, subscriber.deliveries.size());
+        assertEquals(2L, subscriber.deliveries.get(0).event().getOrderId());
+        
+        commit.countDown();
+        late.get(10, TimeUnit.SECONDS);
+        outboxPublisher.publishPending();
+        
+        assertEquals(2, subscriber.deliveries.size());
+        Delivery lateDelivery = subscriber.deliveries.get(1);
+        assertEquals(1L, lateDelivery.event().getOrderId());
+        assertTrue(lateDelivery.offset() < subscriber.deliveries.get(0).offset());
+        assertEquals(0, outboxPublisher.getStats().getPendingEvents());
+    }
+    
+    @Test
+    void testFailingSubscriberDoesNotStopDelivery() {
+        subscriber.failing = true;
+        long failures = outboxPublisher.getStats().getDeliveryFailures();
+        createOrder();
+        
+        assertEquals(1, outboxPublisher.publishBatch());
+        
+        assertEquals(failures + 1, outboxPublisher.getStats().getDeliveryFailures());
+        assertEquals(0, outboxPublisher.getStats().getPendingEvents());
+        subscriber.failing = false;
+    }
+    
+    private Order createOrder() {
+        return orderService.createOrder(newOrder());
+    }
+    
+    private static Order storedOrder(Long id) {
+        Order order = newOrder();
+        order.setId(id);
+        return order;
+    }
+    
+    private static Order newOrder() {
+        Order order = new Order(4101L);
+        order.addOrderItem(new OrderItem(1L, 1, null));
+        return order;
+    }
+    
+    record Delivery(long offset, OrderEvent event) {}
+    
+    static final class RecordingSubscriber implements OrderEventSubscriber {
+        
+        private final List<Delivery> deliveries = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+        
+        @Override
+        public void onOrderEvent(long offset, OrderEvent event) {
+            if (failing) {
+                throw new IllegalStateException("Subscriber unavailable");
+            }
+            deliveries.add(new Delivery(offset, event));
+        }
+    }
+}
\ No newline at end of file
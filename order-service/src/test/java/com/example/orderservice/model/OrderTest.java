@@ -0,0 +1,64 @@
+package com.example.orderservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderTest {
+    
+    @Test
+    void testTotalFollowsAddedItems() {
+        Order order = new Order(1L);
+        order.addOrderItem(new OrderItem(1L, 2, new BigDecimal("19.99")));
+        order.addOrderItem(new OrderItem(2L, 1, new BigDecimal("0.01")));
+        
+        assertEquals(new BigDecimal("39.99"), order.getTotalAmount());
+        assertEquals(3999L, order.getTotalAmountMinor());
+    }
+    
+    @Test
+    void testTotalFollowsItemChanges() {
+        Order order = new Order(1L);
+        OrderItem item = new OrderItem(1L, 1, null);
+        order.addOrderItem(item);
+        
+        assertEquals(new BigDecimal("0.00"), order.getTotalAmount());
+        
+        item.setUnitPrice(new BigDecimal("10.50"));
+        item.setQuantity(3);
+        
+        assertEquals(new BigDecimal("31.50"), order.getTotalAmount());
+    }
+    
+    @Test
+    void testTotalFollowsRemovedItems() {
+        Order order = new Order(1L);
+        OrderItem kept = new OrderItem(1L, 1, new BigDecimal("5.00"));
+        OrderItem removed = new OrderItem(2L, 4, new BigDecimal("2.25"));
+        order.addOrderItem(kept);
+        order.addOrderItem(removed);
+        
+        assertTrue(order.removeOrderItem(removed));
+        removed.setQuantity(10);
+        
+        assertEquals(new BigDecimal("5.00"), order.getTotalAmount());
+        assertNull(removed.getOrder());
+    }
+    
+    @Test
+    void testSetOrderItemsRecomputesTotal() {
+        Order order = new Order(1L);
+        order.addOrderItem(new OrderItem(1L, 1, new BigDecimal("100.00")));
+        
+        order.setOrderItems(List.of(
+            new OrderItem(2L, 2, new BigDecimal("1.10")),
+            new OrderItem(3L, 1, new BigDecimal("0.80"))));
+        
+        assertEquals(new BigDecimal("3.00"), order.getTotalAmount());
+        assertEquals(2, order.getOrderItems().size());
+        assertSame(order, order.getOrderItems().get(0).getOrder());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.OrderPipelineStats;
+import com.example.orderservice.dto.OrderPlacementResponse;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.exception.ServiceCommunicationException;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.UserOrderSummary;
+import com.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Orders accepted for asynchronous placement are validated by the workers and end up confirmed or
+ * cancelled, even when their batch fails or the queue that held them was lost. An order changed while
+ * its batch is validated keeps the change.
+ */
+@TestPropertySource(properties = "orders.async.recovery-interval-ms=3600000")
+class AsyncOrderPlacementServiceTest extends OrderServiceIntegrationTest {
+    
+    private static final long TIMEOUT_MILLIS = 10_000;
+    
+    @Autowired
+    private AsyncOrderPlacementService asyncOrderPlacementService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserOrderSummaryService userOrderSummaryService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("12.50"));
+        when(userServiceClient.userExists(anyLong())).thenReturn(true);
+        when(productServiceClient.getProductById(anyLong())).thenReturn(Optional.of(product));
+    }
+    
+    @Test
+    void testAcceptedOrderIsPricedAndConfirmed() throws Exception {
+        OrderPlacementResponse response = asyncOrderPlacementService.placeOrder(newOrder(2101L));
+        
+        assertEquals(OrderStatus.PENDING, response.getStatus());
+        Order order = awaitSettled(response.getOrderId());
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        assertEquals(new BigDecimal("25.00"), order.getTotalAmount());
+        assertFalse(order.isAwaitingValidation());
+    }
+    
+    @Test
+    void testInvalidOrderIsCancelled() throws Exception {
+        when(userServiceClient.userExists(2102L)).thenReturn(false);
+        
+        Order order = awaitSettled(asyncOrderPlacementService.placeOrder(newOrder(2102L)).getOrderId());
+        
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+    }
+    
+    @Test
+    void testOrdersOfFailedBatchAreCancelled() throws Exception {
+        when(userServiceClient.userExists(2103L)).thenThrow(new ServiceCommunicationException("User service down"));
+        long failedBefore = asyncOrderPlacementService.getStats().getFailed();
+        
+        Order order = awaitSettled(asyncOrderPlacementService.placeOrder(newOrder(2103L)).getOrderId());
+        
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        assertFalse(order.isAwaitingValidation());
+        // Counted once the cancellation has committed, just after it becomes visible
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (asyncOrderPlacementService.getStats().getFailed() == failedBefore
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(failedBefore + 1, asyncOrderPlacementService.getStats().getFailed());
+        // The cancellation was published like any other status change
+        UserOrderSummary summary = userOrderSummaryService.getSummary(2103L);
+        assertEquals(0L, summary.getOrdersByStatus().get(OrderStatus.PENDING));
+        assertEquals(1L, summary.getOrdersByStatus().get(OrderStatus.CANCELLED));
+    }
+    
+    @Test
+    void testOrdersLeftByRestartAreRequeued() throws Exception {
+        // Stored as placeOrder stores it, but never queued, as if the service stopped before a worker got to it
+        Order orphan = new Order(2104L);
+        orphan.addOrderItem(new OrderItem(1L, 2, BigDecimal.ZERO));
+        orphan.setAwaitingValidation(true);
+        Long orphanId = orderRepository.save(orphan).getId();
+        // Created synchronously and simply not confirmed yet; recovery must leave it alone
+        Order synchronous = new Order(2104L);
+        synchronous.addOrderItem(new OrderItem(1L, 2, new BigDecimal("1.00")));
+        Long synchronousId = orderRepository.save(synchronous).getId();
+        OrderPipelineStats before = asyncOrderPlacementService.getStats();
+        
+        assertEquals(0, asyncOrderPlacementService.requeueAwaitingValidation(LocalDateTime.now().minusMinutes(5)));
+        assertEquals(1, asyncOrderPlacementService.requeueAwaitingValidation(LocalDateTime.now()));
+        
+        Order recovered = awaitSettled(orphanId);
+        assertEquals(OrderStatus.CONFIRMED, recovered.getStatus());
+        assertEquals(new BigDecimal("25.00"), recovered.getTotalAmount());
+        assertEquals(before.getRecovered() + 1, asyncOrderPlacementService.getStats().getRecovered());
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(synchronousId).orElseThrow().getStatus());
+        assertEquals(0, asyncOrderPlacementService.requeueAwaitingValidation(LocalDateTime.now()));
+    }
+    
+    @Test
+    void testOrderCancelledDuringValidationStaysCancelled() throws Exception {
+        CountDownLatch validating = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        blockValidationOf(2105L, validating, proceed);
+        Long orderId = asyncOrderPlacementService.placeOrder(newOrder(2105L)).getOrderId();
+        assertTrue(validating.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        
+        orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED);
+        proceed.countDown();
+        
+        // The batch reserved stock for an order it could no longer confirm, and gives it back
+        verify(inventoryServiceClient, timeout(TIMEOUT_MILLIS)).releaseStock(anyList());
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+    
+    @Test
+    void testOrderDeletedDuringValidationIsNotStoredAgain() throws Exception {
+        CountDownLatch validating = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        blockValidationOf(2106L, validating, proceed);
+        Long orderId = asyncOrderPlacementService.placeOrder(newOrder(2106L)).getOrderId();
+        assertTrue(validating.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        
+        orderService.deleteOrder(orderId);
+        proceed.countDown();
+        
+        verify(inventoryServiceClient, timeout(TIMEOUT_MILLIS)).releaseStock(anyList());
+        assertFalse(orderRepository.existsById(orderId));
+    }
+    
+    /**
+     * Holds the pipeline in the user lookup for the given user, after counting down {@code validating},
+     * until {@code proceed} is counted down.
+     */
+    private void blockValidationOf(Long userId, CountDownLatch validating, CountDownLatch proceed) {
+        when(userServiceClient.userExists(userId)).thenAnswer(invocation -> {
+            validating.countDown();
+            proceed.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return true;
+        });
+    }
+    
+    private Order awaitSettled(Long orderId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Order order = orderRepository.findById(orderId).orElseThrow();
+            if (order.getStatus() != OrderStatus.PENDING) {
+                return order;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Order " + orderId + " is still pending");
+    }
+    
+    private static Order newOrder(Long userId) {
+        Order order = new Order(userId);
+        order.addOrderItem(new OrderItem(1L, 2, null));
+        return order;
+    }
+}
\ No newline at end of file
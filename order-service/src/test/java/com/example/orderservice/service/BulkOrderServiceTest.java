@@ -0,0 +1,154 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.BulkOrderResponse;
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.dto.ReservationLine;
+import com.example.orderservice.event.OrderWriteListener;
+import com.example.orderservice.exception.ValidationException;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Bulk ingestion end to end, with chunks of three orders. Orders of {@link #FAILING_USER_ID} make the
+ * chunk they are persisted in fail.
+ */
+@TestPropertySource(properties = {
+    "orders.bulk.chunk-size=3",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BulkOrderServiceTest extends OrderServiceIntegrationTest {
+    
+    private static final long FAILING_USER_ID = 3799L;
+    
+    @Autowired
+    private BulkOrderService bulkOrderService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @TestConfiguration
+    static class FailingListenerConfig {
+        
+        @Bean
+        OrderWriteListener failingListener() {
+            return event -> {
+                if (event.getUserId() == FAILING_USER_ID) {
+                    throw new IllegalStateException("Failed to store order of user " + FAILING_USER_ID);
+                }
+            };
+        }
+    }
+    
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("12.50"));
+        when(userServiceClient.userExists(anyLong())).thenReturn(true);
+        when(productServiceClient.getProductById(anyLong())).thenReturn(Optional.of(product));
+    }
+    
+    @Test
+    void testOrdersAreInsertedInJdbcBatchesPerChunk() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            orders.add(newOrder(3701L, i + 1));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        BulkOrderResponse response = bulkOrderService.createOrders(orders);
+        
+        assertEquals(7, response.getTotal());
+        assertEquals(7, response.getSucceeded());
+        assertEquals(0, response.getFailed());
+        List<Long> ids = response.getResults().stream().map(BulkOrderResult::getOrderId).toList();
+        assertEquals(7, orderRepository.findIdsByIdIn(ids).size());
+        // Seven orders with two items each, and an outbox event per order
+        assertEquals(7 + 14 + 7, statistics.getEntityInsertCount());
+        // Each chunk is flushed once, and its inserts go out as one JDBC batch per table rather than
+        // one statement per row
+        assertEquals(3, statistics.getFlushCount());
+        assertTrue(statistics.getPrepareStatementCount() < 7 + 14 + 7,
+            "Prepared " + statistics.getPrepareStatementCount() + " statements");
+        verify(inventoryServiceClient, times(7)).reserveStock(anyList());
+        verify(inventoryServiceClient, never()).releaseStock(anyList());
+    }
+    
+    @Test
+    void testFailedChunkReleasesTheStockOfItsOrders() {
+        when(userServiceClient.userExists(3798L)).thenReturn(false);
+        doThrow(new ValidationException("Insufficient stock for product 1"))
+            .when(inventoryServiceClient).reserveStock(argThat(lines -> lines.get(0).getQuantity() == 3));
+        List<Order> orders = List.of(
+            newOrder(3702L, 1),
+            newOrder(3798L, 2),
+            newOrder(3702L, 3),
+            newOrder(3702L, 4),
+            newOrder(FAILING_USER_ID, 5),
+            newOrder(3702L, 6),
+            newOrder(3702L, 7));
+        
+        BulkOrderResponse response = bulkOrderService.createOrders(orders);
+        
+        // Orders 0, 3 and 4 make up the first chunk, which fails as a whole; 5 and 6 make up the second
+        assertEquals(7, response.getTotal());
+        assertEquals(2, response.getSucceeded());
+        assertEquals(5, response.getFailed());
+        List<BulkOrderResult> results = response.getResults();
+        assertEquals("User not found with id: 3798", results.get(1).getError());
+        assertEquals("Insufficient stock for product 1", results.get(2).getError());
+        for (int index : new int[] {0, 3, 4}) {
+            assertEquals("Failed to persist order", results.get(index).getError());
+        }
+        assertTrue(results.get(5).isSuccess());
+        assertTrue(results.get(6).isSuccess());
+        assertEquals(2, orderRepository.findIdsByIdIn(List.of(results.get(5).getOrderId(),
+            results.get(6).getOrderId())).size());
+        
+        // Only the orders whose stock was reserved and that were then not stored give it back
+        ArgumentCaptor<List<ReservationLine>> released = lineCaptor();
+        verify(inventoryServiceClient, times(3)).releaseStock(released.capture());
+        assertEquals(List.of(1, 4, 5), released.getAllValues().stream()
+            .map(lines -> lines.get(0).getQuantity()).toList());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<ReservationLine>> lineCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+    
+    private static Order newOrder(Long userId, int quantity) {
+        Order order = new Order(userId);
+        order.addOrderItem(new OrderItem(1L, quantity, null));
+        order.addOrderItem(new OrderItem(2L, 1, null));
+        return order;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.IdempotentResponse;
+import com.example.orderservice.exception.IdempotencyConflictException;
+import com.example.orderservice.exception.ValidationException;
+import com.example.orderservice.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Idempotency keys against a database of their own, with room for only two completed keys in memory.
+ */
+@TestPropertySource(properties = {
+    "orders.idempotency.max-entries=2",
+    "orders.idempotency.wait-timeout=10s"
+})
+class IdempotencyServiceTest extends OrderServiceIntegrationTest {
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private final AtomicInteger runs = new AtomicInteger();
+    
+    @Test
+    void testDuplicateWaitsForTheRequestInFlight() throws Exception {
+        String key = newKey();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentResponse> original = CompletableFuture.supplyAsync(() ->
+            idempotencyService.execute(key, "order", HttpStatus.CREATED, recorder -> {
+                started.countDown();
+                try {
+                    assertTrue(release.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                record(recorder, 1);
+            }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        
+        CompletableFuture<IdempotentResponse> duplicate = CompletableFuture.supplyAsync(() ->
+            idempotencyService.execute(key, "order", HttpStatus.CREATED, recorder -> record(recorder, 2)));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+        // A different request under the key is refused at once rather than waiting
+        assertThrows(IdempotencyConflictException.class, () ->
+            idempotencyService.execute(key, "other order", HttpStatus.CREATED, recorder -> record(recorder, 3)));
+        
+        release.countDown();
+        IdempotentResponse first = original.get(10, TimeUnit.SECONDS);
+        IdempotentResponse second = duplicate.get(10, TimeUnit.SECONDS);
+        
+        assertFalse(first.isReplayed());
+        assertTrue(second.isReplayed());
+        assertEquals(HttpStatus.CREATED.value(), second.getStatus());
+        assertEquals("{\"id\":1}", second.getBody());
+        assertEquals(1, runs.get());
+    }
+    
+    @Test
+    void testStoredResponseIsReplayed() {
+        String key = newKey();
+        IdempotentResponse first = execute(key, "order", 1);
+        // Pushes the key out of memory, so the replay comes from the table
+        execute(newKey(), "order", 2);
+        execute(newKey(), "order", 3);
+        
+        IdempotentResponse replay = execute(key, "order", 4);
+        
+        assertFalse(first.isReplayed());
+        assertTrue(replay.isReplayed());
+        assertEquals(first.getStatus(), replay.getStatus());
+        assertEquals("{\"id\":1}", replay.getBody());
+        assertEquals(3, runs.get());
+        assertTrue(idempotencyRecordRepository.existsById(key));
+    }
+    
+    @Test
+    void testKeyReusedForDifferentRequestConflicts() {
+        String key = newKey();
+        execute(key, "order", 1);
+        
+        assertThrows(IdempotencyConflictException.class, () -> execute(key, "other order", 2));
+        
+        // Still refused once the key is only in the table
+        execute(newKey(), "order", 3);
+        execute(newKey(), "order", 4);
+        assertThrows(IdempotencyConflictException.class, () -> execute(key, "other order", 5));
+        assertEquals(3, runs.get());
+    }
+    
+    @Test
+    void testLeastRecentlyUsedKeyIsEvicted() {
+        String first = newKey();
+        String second = newKey();
+        execute(first, "order", 1);
+        execute(second, "order", 2);
+        // Touching the first key makes the second the least recently used
+        execute(first, "order", 3);
+        execute(newKey(), "order", 4);
+        
+        // With the stored responses gone, only keys still held in memory are replayed
+        idempotencyRecordRepository.deleteById(first);
+        idempotencyRecordRepository.deleteById(second);
+        IdempotentResponse kept = execute(first, "order", 5);
+        IdempotentResponse evicted = execute(second, "order", 6);
+        
+        assertTrue(kept.isReplayed());
+        assertEquals("{\"id\":1}", kept.getBody());
+        assertFalse(evicted.isReplayed());
+        assertEquals("{\"id\":6}", evicted.getBody());
+    }
+    
+    @Test
+    void testFailedRequestIsNotStored() throws Exception {
+        String key = newKey();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentResponse> original = CompletableFuture.supplyAsync(() ->
+            idempotencyService.execute(key, "order", HttpStatus.CREATED, recorder -> {
+                runs.incrementAndGet();
+                started.countDown();
+                try {
+                    assertTrue(release.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                throw new ValidationException("User not found with id: 1");
+            }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<IdempotentResponse> duplicate = CompletableFuture.supplyAsync(() -> execute(key, "order", 2));
+        Thread.sleep(100);
+        
+        release.countDown();
+        
+        // The waiting duplicate gets the same failure rather than running the request itself
+        Exception failure = assertThrows(Exception.class, () -> duplicate.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(ValidationException.class, failure.getCause());
+        assertThrows(Exception.class, () -> original.get(10, TimeUnit.SECONDS));
+        assertFalse(idempotencyRecordRepository.existsById(key));
+        assertEquals(1, runs.get());
+        
+        // The key was released, so a retry runs the request
+        IdempotentResponse retry = execute(key, "order", 3);
+        assertFalse(retry.isReplayed());
+        assertEquals("{\"id\":3}", retry.getBody());
+    }
+    
+    private IdempotentResponse execute(String key, String fingerprint, long id) {
+        return idempotencyService.execute(key, fingerprint, HttpStatus.CREATED, recorder -> record(recorder, id));
+    }
+    
+    private void record(Consumer<Object> recorder, long id) {
+        runs.incrementAndGet();
+        transactionTemplate.executeWithoutResult(status -> recorder.accept(Map.of("id", id)));
+    }
+    
+    private static String newKey() {
+        return UUID.randomUUID().toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.ProductServiceClient;
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.exception.ServiceCommunicationException;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderBatchValidatorTest {
+    
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private final ProductServiceClient productServiceClient = mock(ProductServiceClient.class);
+    private final OrderBatchValidator validator = new OrderBatchValidator(userServiceClient, productServiceClient,
+        Validation.buildDefaultValidatorFactory().getValidator());
+    
+    @BeforeEach
+    void setUp() {
+        when(userServiceClient.userExists(1L)).thenReturn(true);
+        when(userServiceClient.userExists(2L)).thenReturn(true);
+        when(productServiceClient.getProductById(10L)).thenReturn(Optional.of(product(10L, "4.50")));
+        when(productServiceClient.getProductById(20L)).thenReturn(Optional.of(product(20L, "1.25")));
+    }
+    
+    @Test
+    void testEachDistinctUserAndProductIsLookedUpOnce() {
+        List<Order> orders = List.of(
+            newOrder(1L, 10L, 20L),
+            newOrder(2L, 10L),
+            newOrder(1L, 20L, 10L),
+            newOrder(2L, 20L));
+        
+        List<String> errors = validator.validateAndEnrich(orders);
+        
+        assertEquals(Arrays.asList(null, null, null, null), errors);
+        verify(userServiceClient, times(1)).userExists(1L);
+        verify(userServiceClient, times(1)).userExists(2L);
+        verify(productServiceClient, times(1)).getProductById(10L);
+        verify(productServiceClient, times(1)).getProductById(20L);
+        verifyNoMoreInteractions(userServiceClient, productServiceClient);
+        
+        // Every item is priced from the single lookup of its product
+        assertEquals(new BigDecimal("5.75"), orders.get(0).getTotalAmount());
+        assertEquals(new BigDecimal("4.50"), orders.get(1).getTotalAmount());
+        assertEquals(new BigDecimal("1.25"), orders.get(3).getTotalAmount());
+    }
+    
+    @Test
+    void testRejectionsAreReportedPerOrder() {
+        when(userServiceClient.userExists(3L)).thenReturn(false);
+        when(productServiceClient.getProductById(30L)).thenReturn(Optional.empty());
+        when(productServiceClient.getProductById(40L)).thenThrow(new ServiceCommunicationException("Product Service unavailable"));
+        Order badQuantity = newOrder(1L, 10L);
+        badQuantity.getOrderItems().get(0).setQuantity(0);
+        
+        List<String> errors = validator.validateAndEnrich(List.of(
+            newOrder(3L, 10L),
+            newOrder(1L, 30L),
+            newOrder(2L, 10L),
+            newOrder(1L, 40L),
+            newOrder(null, 10L),
+            badQuantity,
+            newOrder(3L, 30L)));
+        
+        assertEquals(Arrays.asList(
+            "User not found with id: 3",
+            "Product not found with id: 30",
+            null,
+            "Failed to validate product with id: 40",
+            "User ID is required",
+            "Quantity must be at least 1",
+            "User not found with id: 3"), errors);
+        verify(userServiceClient, times(1)).userExists(3L);
+        verify(productServiceClient, times(1)).getProductById(30L);
+        verify(productServiceClient, times(1)).getProductById(40L);
+    }
+    
+    private static Order newOrder(Long userId, Long... productIds) {
+        Order order = new Order(userId);
+        for (Long productId : productIds) {
+            order.addOrderItem(new OrderItem(productId, 1, null));
+        }
+        return order;
+    }
+    
+    private static Product product(Long id, String price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class OrderExportServiceTest extends OrderServiceIntegrationTest {
+    
+    @Autowired
+    private OrderExportService orderExportService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("12.50"));
+        when(userServiceClient.userExists(anyLong())).thenReturn(true);
+        when(productServiceClient.getProductById(anyLong())).thenReturn(Optional.of(product));
+    }
+    
+    @Test
+    void testOrdersAreExportedOncePerLineInIdOrder() throws IOException {
+        Order first = createOrder(2601L, 2);
+        Order second = createOrder(2602L, 1);
+        Order third = createOrder(2601L, 3);
+        
+        List<JsonNode> lines = export(first.getId() - 1, null);
+        
+        // Each order appears once, however many item rows the fetch join returned for it
+        assertEquals(List.of(first.getId(), second.getId(), third.getId()), ids(lines));
+        assertEquals(2, lines.get(0).get("orderItems").size());
+        assertEquals(1, lines.get(1).get("orderItems").size());
+        assertEquals(3, lines.get(2).get("orderItems").size());
+        assertEquals(2602L, lines.get(1).get("userId").asLong());
+        assertEquals(0, new BigDecimal("37.50").compareTo(lines.get(2).get("totalAmount").decimalValue()));
+    }
+    
+    @Test
+    void testExportResumesAfterTheLastIdWritten() throws IOException {
+        Order first = createOrder(2603L, 1);
+        Order second = createOrder(2603L, 2);
+        Order third = createOrder(2603L, 1);
+        
+        List<JsonNode> page = export(first.getId() - 1, 2);
+        assertEquals(List.of(first.getId(), second.getId()), ids(page));
+        
+        long resumeAfter = page.get(page.size() - 1).get("id").asLong();
+        List<JsonNode> rest = export(resumeAfter, 2);
+        assertEquals(List.of(third.getId()), ids(rest));
+        assertTrue(export(third.getId(), null).isEmpty());
+    }
+    
+    private List<JsonNode> export(long afterId, Integer limit) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long written = orderExportService.exportOrders(afterId, limit, output);
+        
+        String body = output.toString(StandardCharsets.UTF_8);
+        List<JsonNode> lines = new ArrayList<>();
+        if (!body.isEmpty()) {
+            assertTrue(body.endsWith("\n"));
+            for (String line : body.split("\n")) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        assertEquals(written, lines.size());
+        return lines;
+    }
+    
+    private Order createOrder(Long userId, int items) {
+        Order order = new Order(userId);
+        for (int i = 0; i < items; i++) {
+            order.addOrderItem(new OrderItem(1L, 1, null));
+        }
+        return orderService.createOrder(order);
+    }
+    
+    private static List<Long> ids(List<JsonNode> lines) {
+        return lines.stream().map(line -> line.get("id").asLong()).toList();
+    }
+}
\ No newline at end of file
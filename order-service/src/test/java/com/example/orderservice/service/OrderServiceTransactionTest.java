@@ -0,0 +1,220 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Order creation against a deliberately small connection pool, with remote calls that take a while to
+ * answer. Remote latency must not be spent holding a database connection.
+ */
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=4")
+class OrderServiceTransactionTest extends OrderServiceIntegrationTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderServiceTransactionTest.class);
+    
+    private static final long REMOTE_LATENCY_MILLIS = 100;
+    // One user lookup, two product lookups and one stock reservation per order
+    private static final int REMOTE_CALLS_PER_ORDER = 4;
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 5;
+    
+    private static final PoolWaitTracker poolWait = new PoolWaitTracker();
+    
+    @TestConfiguration
+    static class PoolMetricsConfig {
+        
+        @Bean
+        static BeanPostProcessor poolWaitTrackerInstaller() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    if (bean instanceof HikariDataSource dataSource) {
+                        dataSource.setMetricsTrackerFactory(poolWait);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+    
+    @Autowired
+    private OrderService orderService;
+    
+    private final AtomicInteger remoteCallsInTransaction = new AtomicInteger();
+    
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("12.50"));
+        
+        when(userServiceClient.userExists(anyLong())).thenAnswer(invocation -> remoteCall(true));
+        when(productServiceClient.getProductById(anyLong())).thenAnswer(invocation -> remoteCall(Optional.of(product)));
+        doAnswer(invocation -> remoteCall(null)).when(inventoryServiceClient).reserveStock(anyList());
+        remoteCallsInTransaction.set(0);
+    }
+    
+    @Test
+    void testRemoteCallsRunOutsideTransaction() {
+        Order createdOrder = orderService.createOrder(newOrder());
+        
+        assertNotNull(createdOrder.getId());
+        assertEquals(new BigDecimal("37.50"), createdOrder.getTotalAmount());
+        verify(userServiceClient).userExists(1L);
+        verify(productServiceClient, times(2)).getProductById(anyLong());
+        verify(inventoryServiceClient).reserveStock(anyList());
+        assertEquals(0, remoteCallsInTransaction.get());
+    }
+    
+    @Test
+    void testStockReleasedWhenPersistFails() {
+        // A product without a price leaves the item invalid, so the insert fails after stock is reserved
+        when(productServiceClient.getProductById(2L)).thenReturn(Optional.of(new Product()));
+        Order order = newOrder();
+        
+        assertThrows(RuntimeException.class, () -> orderService.createOrder(order));
+        verify(inventoryServiceClient).releaseStock(anyList());
+    }
+    
+    @Test
+    void testPoolWaitUnderConcurrentCreates() throws Exception {
+        // Creates the per-user summary and revenue bucket rows up front, so only the orders compete
+        for (int i = 0; i < THREADS; i++) {
+            Order order = newOrder();
+            order.setUserId(100L + i);
+            orderService.createOrder(order);
+        }
+        poolWait.reset();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                long userId = 100L + i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < ORDERS_PER_THREAD; j++) {
+                        Order order = newOrder();
+                        order.setUserId(userId);
+                        orderService.createOrder(order);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        log.info("Created {} orders in {} ms: {} connection acquisitions, pool wait mean {} ms / max {} ms, "
+                + "connection held mean {} ms", THREADS * ORDERS_PER_THREAD, elapsedMillis, poolWait.count(),
+            poolWait.meanWaitMillis(), poolWait.maxWaitMillis(), poolWait.meanUsageMillis());
+        
+        assertEquals(0, remoteCallsInTransaction.get());
+        // A connection held across the remote calls would be held for at least their combined latency
+        assertTrue(poolWait.meanUsageMillis() < REMOTE_LATENCY_MILLIS * REMOTE_CALLS_PER_ORDER,
+            "Connections were held for " + poolWait.meanUsageMillis() + " ms on average");
+    }
+    
+    private <T> T remoteCall(T result) throws InterruptedException {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            remoteCallsInTransaction.incrementAndGet();
+        }
+        Thread.sleep(REMOTE_LATENCY_MILLIS);
+        return result;
+    }
+    
+    private Order newOrder() {
+        Order order = new Order(1L);
+        order.addOrderItem(new OrderItem(1L, 1, null));
+        order.addOrderItem(new OrderItem(2L, 2, null));
+        return order;
+    }
+    
+    private static final class PoolWaitTracker implements MetricsTrackerFactory, IMetricsTracker {
+        
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+        private final LongAdder usages = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            return this;
+        }
+        
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquisitions.increment();
+            waitNanos.add(elapsedAcquiredNanos);
+            maxWaitNanos.accumulate(elapsedAcquiredNanos);
+        }
+        
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usages.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+        }
+        
+        void reset() {
+            acquisitions.reset();
+            waitNanos.reset();
+            maxWaitNanos.reset();
+            usages.reset();
+            usageMillis.reset();
+        }
+        
+        long count() {
+            return acquisitions.sum();
+        }
+        
+        double meanWaitMillis() {
+            long count = acquisitions.sum();
+            return count == 0 ? 0.0 : waitNanos.sum() / (double) count / 1_000_000.0;
+        }
+        
+        double maxWaitMillis() {
+            return maxWaitNanos.get() / 1_000_000.0;
+        }
+        
+        double meanUsageMillis() {
+            long count = usages.sum();
+            return count == 0 ? 0.0 : usageMillis.sum() / (double) count;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class OrderStatusUpdateTest extends OrderServiceIntegrationTest {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("12.50"));
+        when(userServiceClient.userExists(anyLong())).thenReturn(true);
+        when(productServiceClient.getProductById(anyLong())).thenReturn(Optional.of(product));
+    }
+    
+    @Test
+    void testOrderFollowsTheLifecycle() {
+        Order order = createOrder();
+        
+        for (OrderStatus status : new OrderStatus[] {OrderStatus.CONFIRMED, OrderStatus.PROCESSING,
+                OrderStatus.SHIPPED, OrderStatus.DELIVERED}) {
+            assertEquals(status, orderService.updateOrderStatus(order.getId(), status).getStatus());
+        }
+        assertEquals(OrderStatus.DELIVERED, statusOf(order));
+    }
+    
+    @Test
+    void testMovesOutsideTheLifecycleAreAccepted() {
+        Order order = createOrder();
+        
+        // Only bulk updates are held to the lifecycle
+        assertEquals(OrderStatus.SHIPPED, orderService.updateOrderStatus(order.getId(), OrderStatus.SHIPPED).getStatus());
+        assertEquals(OrderStatus.PENDING, orderService.updateOrderStatus(order.getId(), OrderStatus.PENDING).getStatus());
+        assertEquals(OrderStatus.PENDING, statusOf(order));
+    }
+    
+    private Order createOrder() {
+        Order order = new Order(3401L);
+        order.addOrderItem(new OrderItem(1L, 2, null));
+        return orderService.createOrder(order);
+    }
+    
+    private OrderStatus statusOf(Order order) {
+        return orderRepository.findById(order.getId()).orElseThrow().getStatus();
+    }
+}
\ No newline at end of file
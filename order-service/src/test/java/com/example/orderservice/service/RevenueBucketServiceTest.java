@@ -0,0 +1,156 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.event.OrderEvent;
+import com.example.orderservice.model.BucketGranularity;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.RevenueBucket;
+import com.example.orderservice.model.RevenueBucketId;
+import com.example.orderservice.repository.RevenueBucketRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.Invocation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RevenueBucketServiceTest extends OrderServiceIntegrationTest {
+    
+    @Autowired
+    private RevenueBucketService revenueBucketService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void testOppositeMovesUpdateBucketsInTheSameOrder() {
+        LocalDateTime createdAt = LocalDateTime.of(2001, 1, 1, 10, 30);
+        
+        List<RevenueBucketId> forward = updatedBuckets(
+            OrderEvent.statusChanged(1L, 1L, OrderStatus.PENDING, OrderStatus.CANCELLED, 1000L, 1, createdAt));
+        List<RevenueBucketId> backward = updatedBuckets(
+            OrderEvent.statusChanged(2L, 1L, OrderStatus.CANCELLED, OrderStatus.PENDING, 1000L, 1, createdAt));
+        
+        // Both transactions update the same four rows in key order, so neither can wait on the other
+        LocalDateTime hour = createdAt.withMinute(0);
+        LocalDateTime day = hour.withHour(0);
+        List<RevenueBucketId> expected = List.of(
+            new RevenueBucketId(BucketGranularity.HOUR, hour, OrderStatus.PENDING),
+            new RevenueBucketId(BucketGranularity.HOUR, hour, OrderStatus.CANCELLED),
+            new RevenueBucketId(BucketGranularity.DAY, day, OrderStatus.PENDING),
+            new RevenueBucketId(BucketGranularity.DAY, day, OrderStatus.CANCELLED));
+        assertEquals(expected, forward);
+        assertEquals(expected, backward);
+    }
+    
+    @Test
+    void testEventsOfOneTransactionAreSummedPerBucket() {
+        LocalDateTime createdAt = LocalDateTime.of(2001, 4, 5, 6, 7);
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long orderId = 1; orderId <= 3; orderId++) {
+                revenueBucketService.onOrderEvent(OrderEvent.created(newOrder(orderId, createdAt)));
+            }
+            revenueBucketService.onOrderEvent(
+                OrderEvent.statusChanged(1L, 3501L, OrderStatus.PENDING, OrderStatus.CANCELLED, 2500L, 2, createdAt));
+        });
+        
+        RevenueBucket pending = revenueBucketService.getBuckets(BucketGranularity.DAY, createdAt,
+            createdAt.plusMinutes(1), OrderStatus.PENDING).get(0);
+        assertEquals(2, pending.getOrderCount());
+        assertEquals(new BigDecimal("50.00"), pending.getRevenue());
+        RevenueBucket cancelled = revenueBucketService.getBuckets(BucketGranularity.DAY, createdAt,
+            createdAt.plusMinutes(1), OrderStatus.CANCELLED).get(0);
+        assertEquals(1, cancelled.getOrderCount());
+        assertEquals(2, cancelled.getItemCount());
+    }
+    
+    @Test
+    void testConcurrentFirstOrdersOfAPeriodShareOneBucket() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.of(2001, 2, 3, 4, 5);
+        int orders = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(orders);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> applied = new ArrayList<>();
+            for (int i = 0; i < orders; i++) {
+                long orderId = i + 1;
+                applied.add(executor.submit(() -> {
+                    start.await();
+                    transactionTemplate.executeWithoutResult(status ->
+                        revenueBucketService.onOrderEvent(OrderEvent.created(newOrder(orderId, createdAt))));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : applied) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        for (BucketGranularity granularity : BucketGranularity.values()) {
+            List<RevenueBucket> buckets = revenueBucketService.getBuckets(granularity, createdAt, createdAt.plusMinutes(1), null);
+            assertEquals(1, buckets.size());
+            assertEquals(orders, buckets.get(0).getOrderCount());
+            assertEquals(2L * orders, buckets.get(0).getItemCount());
+            assertEquals(new BigDecimal("200.00"), buckets.get(0).getRevenue());
+        }
+    }
+    
+    @Test
+    void testRolledBackOrderLeavesNoBucket() {
+        LocalDateTime createdAt = LocalDateTime.of(2001, 3, 4, 5, 6);
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            revenueBucketService.onOrderEvent(OrderEvent.created(newOrder(1L, createdAt)));
+            status.setRollbackOnly();
+        });
+        
+        assertTrue(revenueBucketService.getBuckets(BucketGranularity.HOUR, createdAt, createdAt.plusMinutes(1), null)
+            .isEmpty());
+    }
+    
+    /**
+     * Applies the event in a transaction of its own, with a service that records the order of its
+     * bucket updates instead of running them.
+     */
+    private List<RevenueBucketId> updatedBuckets(OrderEvent event) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        RevenueBucketService service = new RevenueBucketService(mock(RevenueBucketRepository.class), jdbcTemplate);
+        
+        transactionTemplate.executeWithoutResult(status -> service.onOrderEvent(event));
+        
+        List<RevenueBucketId> ids = new ArrayList<>();
+        for (Invocation update : mockingDetails(jdbcTemplate).getInvocations()) {
+            Object[] args = (Object[]) update.getRawArguments()[1];
+            ids.add(new RevenueBucketId(BucketGranularity.valueOf((String) args[0]),
+                ((Timestamp) args[1]).toLocalDateTime(), OrderStatus.valueOf((String) args[2])));
+        }
+        return ids;
+    }
+    
+    private static Order newOrder(Long id, LocalDateTime createdAt) {
+        Order order = new Order(3501L);
+        order.setId(id);
+        order.addOrderItem(new OrderItem(1L, 2, new BigDecimal("12.50")));
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,223 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.BulkOrderResponse;
+import com.example.orderservice.dto.BulkStatusUpdateRequest;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.dto.ReservationLine;
+import com.example.orderservice.exception.ServiceCommunicationException;
+import com.example.orderservice.exception.ValidationException;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Stock for an order is reserved in one inventory call and released in one call if the order is not
+ * stored, or once it is cancelled or deleted before shipping.
+ */
+class StockReservationTest extends OrderServiceIntegrationTest {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private BulkOrderService bulkOrderService;
+    
+    @Autowired
+    private BulkOrderStatusService bulkOrderStatusService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("12.50"));
+        when(userServiceClient.userExists(anyLong())).thenReturn(true);
+        when(productServiceClient.getProductById(anyLong())).thenReturn(Optional.of(product));
+    }
+    
+    @Test
+    void testAllLinesAreReservedInOneCall() {
+        Order order = orderService.createOrder(newOrder(3001L));
+        
+        List<ReservationLine> lines = captureReserved();
+        assertEquals(List.of("1x2", "2x1"), describe(lines));
+        verify(inventoryServiceClient, never()).releaseStock(anyList());
+        assertTrue(orderRepository.findById(order.getId()).isPresent());
+    }
+    
+    @Test
+    void testInsufficientStockStoresNothing() {
+        doThrow(new ValidationException("Insufficient stock for product 2"))
+            .when(inventoryServiceClient).reserveStock(anyList());
+        long orders = orderRepository.count();
+        
+        ValidationException ex = assertThrows(ValidationException.class,
+            () -> orderService.createOrder(newOrder(3002L)));
+        
+        assertEquals("Insufficient stock for product 2", ex.getMessage());
+        assertEquals(orders, orderRepository.count());
+        // Nothing was reserved, so there is nothing to release
+        verify(inventoryServiceClient, never()).releaseStock(anyList());
+    }
+    
+    @Test
+    void testReservationIsReleasedWhenOrderIsRolledBack() {
+        long orders = orderRepository.count();
+        
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+            () -> orderService.createOrder(newOrder(3003L), savedOrder -> {
+                throw new IllegalStateException("Failed after insert");
+            }));
+        
+        assertEquals("Failed after insert", ex.getMessage());
+        assertEquals(orders, orderRepository.count());
+        ArgumentCaptor<List<ReservationLine>> released = lineCaptor();
+        verify(inventoryServiceClient, times(1)).releaseStock(released.capture());
+        assertEquals(describe(captureReserved()), describe(released.getValue()));
+    }
+    
+    @Test
+    void testFailedReleaseDoesNotHideTheOriginalFailure() {
+        doThrow(new ServiceCommunicationException("Inventory Service unavailable"))
+            .when(inventoryServiceClient).releaseStock(anyList());
+        
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+            () -> orderService.createOrder(newOrder(3004L), savedOrder -> {
+                throw new IllegalStateException("Failed after insert");
+            }));
+        
+        assertEquals("Failed after insert", ex.getMessage());
+        verify(inventoryServiceClient, times(1)).releaseStock(anyList());
+    }
+    
+    @Test
+    void testBulkOrderWithoutStockIsRejectedAlone() {
+        doNothing().doThrow(new ValidationException("Insufficient stock for product 1")).doNothing()
+            .when(inventoryServiceClient).reserveStock(anyList());
+        
+        BulkOrderResponse response = bulkOrderService.createOrders(
+            List.of(newOrder(3005L), newOrder(3005L), newOrder(3005L)));
+        
+        assertEquals(2, response.getSucceeded());
+        assertFalse(response.getResults().get(1).isSuccess());
+        assertEquals("Insufficient stock for product 1", response.getResults().get(1).getError());
+        verify(inventoryServiceClient, times(3)).reserveStock(anyList());
+        verify(inventoryServiceClient, never()).releaseStock(anyList());
+    }
+    
+    @Test
+    void testCancelledOrderReleasesItsStock() {
+        Order order = orderService.createOrder(newOrder(3006L));
+        orderService.updateOrderStatus(order.getId(), OrderStatus.CONFIRMED);
+        
+        orderService.updateOrderStatus(order.getId(), OrderStatus.CANCELLED);
+        
+        assertEquals(describe(captureReserved()), describe(captureReleased()));
+    }
+    
+    @Test
+    void testDeletedOrderReleasesItsStockUnlessShipped() {
+        Order pending = orderService.createOrder(newOrder(3007L));
+        Order shipped = orderService.createOrder(newOrder(3007L));
+        for (OrderStatus status : List.of(OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.SHIPPED)) {
+            orderService.updateOrderStatus(shipped.getId(), status);
+        }
+        
+        orderService.deleteOrder(shipped.getId());
+        verify(inventoryServiceClient, never()).releaseStock(anyList());
+        
+        orderService.deleteOrder(pending.getId());
+        assertEquals(List.of("1x2", "2x1"), describe(captureReleased()));
+    }
+    
+    @Test
+    void testBulkCancelReleasesStockOncePerChunk() {
+        Order first = orderService.createOrder(newOrder(3008L));
+        Order second = orderService.createOrder(newOrder(3008L));
+        Order cancelled = orderService.createOrder(newOrder(3008L));
+        orderService.updateOrderStatus(cancelled.getId(), OrderStatus.CANCELLED);
+        clearInvocations(inventoryServiceClient);
+        
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setTargetStatus(OrderStatus.CANCELLED);
+        request.setOrderIds(List.of(first.getId(), second.getId(), cancelled.getId()));
+        assertEquals(2, bulkOrderStatusService.updateStatus(request).getUpdated());
+        
+        // The already cancelled order gave its stock back before
+        assertEquals(List.of("1x4", "2x2"), describe(captureReleased()));
+    }
+    
+    @Test
+    void testOrderAwaitingValidationHasNoStockToRelease() {
+        Order order = new Order(3009L);
+        order.addOrderItem(new OrderItem(1L, 2, new BigDecimal("12.50")));
+        order.setAwaitingValidation(true);
+        Order saved = orderRepository.save(order);
+        
+        orderService.updateOrderStatus(saved.getId(), OrderStatus.CANCELLED);
+        
+        verify(inventoryServiceClient, never()).releaseStock(anyList());
+    }
+    
+    @Test
+    void testRolledBackCancellationKeepsStock() {
+        Order order = orderService.createOrder(newOrder(3010L));
+        
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            orderService.updateOrderStatus(order.getId(), OrderStatus.CANCELLED);
+            throw new IllegalStateException("Rolled back");
+        }));
+        
+        verify(inventoryServiceClient, never()).releaseStock(anyList());
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+    }
+    
+    private List<ReservationLine> captureReleased() {
+        ArgumentCaptor<List<ReservationLine>> released = lineCaptor();
+        verify(inventoryServiceClient, times(1)).releaseStock(released.capture());
+        return released.getValue();
+    }
+    
+    private List<ReservationLine> captureReserved() {
+        ArgumentCaptor<List<ReservationLine>> reserved = lineCaptor();
+        verify(inventoryServiceClient, times(1)).reserveStock(reserved.capture());
+        return reserved.getValue();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<ReservationLine>> lineCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+    
+    private static List<String> describe(List<ReservationLine> lines) {
+        return lines.stream().map(line -> line.getProductId() + "x" + line.getQuantity()).toList();
+    }
+    
+    private static Order newOrder(Long userId) {
+        Order order = new Order(userId);
+        order.addOrderItem(new OrderItem(1L, 2, null));
+        order.addOrderItem(new OrderItem(2L, 1, null));
+        return order;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.OrderServiceIntegrationTest;
+import com.example.orderservice.dto.Product;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.UserOrderSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class UserOrderSummaryServiceTest extends OrderServiceIntegrationTest {
+    
+    @Autowired
+    private UserOrderSummaryService userOrderSummaryService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("12.50"));
+        when(userServiceClient.userExists(anyLong())).thenReturn(true);
+        when(productServiceClient.getProductById(anyLong())).thenReturn(Optional.of(product));
+    }
+    
+    @Test
+    void testSummaryFollowsOrderWrites() {
+        Order first = createOrder(3201L, 2);
+        Order second = createOrder(3201L, 1);
+        Order third = createOrder(3201L, 4);
+        createOrder(3299L, 1);
+        
+        orderService.updateOrderStatus(first.getId(), OrderStatus.CONFIRMED);
+        orderService.updateOrderStatus(second.getId(), OrderStatus.CANCELLED);
+        orderService.deleteOrder(third.getId());
+        
+        UserOrderSummary summary = userOrderSummaryService.getSummary(3201L);
+        assertEquals(2L, summary.getOrderCount());
+        // Cancelled orders do not count towards spend
+        assertEquals(new BigDecimal("25.00"), summary.getTotalSpent());
+        assertEquals(0L, summary.getOrdersByStatus().get(OrderStatus.PENDING));
+        assertEquals(1L, summary.getOrdersByStatus().get(OrderStatus.CONFIRMED));
+        assertEquals(1L, summary.getOrdersByStatus().get(OrderStatus.CANCELLED));
+        assertEquals(third.getCreatedAt().truncatedTo(ChronoUnit.MILLIS),
+            summary.getLastOrderAt().truncatedTo(ChronoUnit.MILLIS));
+    }
+    
+    @Test
+    void testUserWithoutOrdersHasEmptySummary() {
+        UserOrderSummary summary = userOrderSummaryService.getSummary(3298L);
+        
+        assertEquals(0L, summary.getOrderCount());
+        assertEquals(new BigDecimal("0.00"), summary.getTotalSpent());
+        assertNull(summary.getLastOrderAt());
+    }
+    
+    @Test
+    void testConcurrentFirstOrdersAreAllCounted() throws Exception {
+        int orders = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(orders);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Order>> created = new ArrayList<>();
+            for (int i = 0; i < orders; i++) {
+                created.add(executor.submit(() -> {
+                    start.await();
+                    return createOrder(3202L, 1);
+                }));
+            }
+            start.countDown();
+            for (Future<Order> order : created) {
+                order.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        UserOrderSummary summary = userOrderSummaryService.getSummary(3202L);
+        assertEquals(orders, summary.getOrderCount());
+        assertEquals(new BigDecimal("100.00"), summary.getTotalSpent());
+        assertEquals((long) orders, summary.getOrdersByStatus().get(OrderStatus.PENDING));
+    }
+    
+    @Test
+    void testRolledBackOrderIsNotCounted() {
+        Order order = new Order(3204L);
+        order.addOrderItem(new OrderItem(1L, 1, null));
+        
+        assertThrows(IllegalStateException.class, () -> orderService.createOrder(order, savedOrder -> {
+            throw new IllegalStateException("Rolled back");
+        }));
+        
+        UserOrderSummary summary = userOrderSummaryService.getSummary(3204L);
+        assertEquals(0L, summary.getOrderCount());
+        assertNull(summary.getUpdatedAt());
+    }
+    
+    @Test
+    void testRebuildMatchesIncrementalSummary() {
+        Order first = createOrder(3203L, 3);
+        Order second = createOrder(3203L, 1);
+        createOrder(3203L, 2);
+        orderService.updateOrderStatus(first.getId(), OrderStatus.CONFIRMED);
+        orderService.updateOrderStatus(first.getId(), OrderStatus.PROCESSING);
+        orderService.updateOrderStatus(second.getId(), OrderStatus.CANCELLED);
+        UserOrderSummary incremental = userOrderSummaryService.getSummary(3203L);
+        
+        assertTrue(userOrderSummaryService.rebuild().getUsers() >= 1);
+        
+        UserOrderSummary rebuilt = userOrderSummaryService.getSummary(3203L);
+        assertEquals(3L, rebuilt.getOrderCount());
+        assertEquals(new BigDecimal("62.50"), rebuilt.getTotalSpent());
+        assertEquals(incremental.getOrderCount(), rebuilt.getOrderCount());
+        assertEquals(incremental.getTotalSpent(), rebuilt.getTotalSpent());
+        assertEquals(incremental.getOrdersByStatus(), rebuilt.getOrdersByStatus());
+        assertEquals(incremental.getLastOrderAt().truncatedTo(ChronoUnit.MILLIS),
+            rebuilt.getLastOrderAt().truncatedTo(ChronoUnit.MILLIS));
+    }
+    
+    private Order createOrder(Long userId, int quantity) {
+        Order order = new Order(userId);
+        order.addOrderItem(new OrderItem(1L, quantity, null));
+        return orderService.createOrder(order);
+    }
+}
\ No newline at end of file